@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.querycache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code QueryResultCache} caches the broker responses for the repeated identical queries (e.g. dashboard queries)
+ * so that they can be served without querying the servers.
+ * <p>The cache key is the normalized query, and each cached result is associated with the routing versions (see
+ * {@link org.apache.pinot.broker.routing.RoutingManager#getRoutingVersion(String)}) of the queried OFFLINE and REALTIME
+ * tables. The cached result is invalidated when the routing version changes, i.e. when the external view or the
+ * segment metadata of the table changes. Because the consuming segments keep changing without changing the routing,
+ * the results for queries on the real-time tables also expire after the configured TTL.
+ * <p>The cached responses are stored as serialized JSON strings, so that each hit returns a fresh response object that
+ * can be modified by the caller, and the cache size can be bounded by the bytes held.
+ */
+@ThreadSafe
+public class QueryResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryResultCache.class);
+  private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+  private final Cache<String, CachedResult> _cache;
+  private final long _consumingTtlMs;
+
+  public QueryResultCache(long maxSizeBytes, long consumingTtlMs) {
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes)
+        .weigher((String key, CachedResult value) -> key.length() + value._responseJson.length()).build();
+    _consumingTtlMs = consumingTtlMs;
+  }
+
+  /**
+   * Returns {@code true} if the results for queries on the real-time tables can be cached.
+   */
+  public boolean isRealtimeCacheable() {
+    return _consumingTtlMs > 0;
+  }
+
+  /**
+   * Returns the cache key for the given query, which is the query with the options not affecting the query result
+   * removed.
+   */
+  public static String getCacheKey(PinotQuery pinotQuery) {
+    PinotQuery normalizedQuery = pinotQuery.deepCopy();
+    Map<String, String> queryOptions = normalizedQuery.getQueryOptions();
+    if (queryOptions != null) {
+      queryOptions.remove(QueryOptionKey.TIMEOUT_MS);
+      queryOptions.remove(QueryOptionKey.SKIP_RESULT_CACHE);
+    }
+    return normalizedQuery.toString();
+  }
+
+  /**
+   * Returns the cached broker response for the given cache key and routing versions, or {@code null} if the result is
+   * not cached, or the cached result is stale.
+   */
+  @Nullable
+  public BrokerResponseNative get(String cacheKey, long offlineRoutingVersion, long realtimeRoutingVersion) {
+    CachedResult cachedResult = _cache.getIfPresent(cacheKey);
+    if (cachedResult == null) {
+      return null;
+    }
+    if (cachedResult._offlineRoutingVersion != offlineRoutingVersion
+        || cachedResult._realtimeRoutingVersion != realtimeRoutingVersion
+        || cachedResult._expirationTimeMs <= System.currentTimeMillis()) {
+      // NOTE: Only remove the stale result if it is not replaced by another thread
+      _cache.asMap().remove(cacheKey, cachedResult);
+      return null;
+    }
+    try {
+      return BrokerResponseNative.fromJsonString(cachedResult._responseJson);
+    } catch (IOException e) {
+      LOGGER.warn("Caught exception while deserializing the cached broker response, invalidating it", e);
+      _cache.asMap().remove(cacheKey, cachedResult);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the broker response for the given cache key and routing versions. The routing version should be {@code -1}
+   * if the corresponding table is not queried.
+   */
+  public void put(String cacheKey, long offlineRoutingVersion, long realtimeRoutingVersion,
+      BrokerResponseNative brokerResponse) {
+    long expirationTimeMs = realtimeRoutingVersion != -1 ? System.currentTimeMillis() + _consumingTtlMs : NO_EXPIRATION;
+    String responseJson;
+    try {
+      responseJson = brokerResponse.toJsonString();
+    } catch (IOException e) {
+      LOGGER.warn("Caught exception while serializing the broker response, skipping caching it", e);
+      return;
+    }
+    _cache.put(cacheKey,
+        new CachedResult(offlineRoutingVersion, realtimeRoutingVersion, expirationTimeMs, responseJson));
+  }
+
+  /**
+   * Returns the number of the cached results.
+   */
+  public long size() {
+    return _cache.size();
+  }
+
+  private static class CachedResult {
+    final long _offlineRoutingVersion;
+    final long _realtimeRoutingVersion;
+    final long _expirationTimeMs;
+    final String _responseJson;
+
+    CachedResult(long offlineRoutingVersion, long realtimeRoutingVersion, long expirationTimeMs, String responseJson) {
+      _offlineRoutingVersion = offlineRoutingVersion;
+      _realtimeRoutingVersion = realtimeRoutingVersion;
+      _expirationTimeMs = expirationTimeMs;
+      _responseJson = responseJson;
+    }
+  }
+}
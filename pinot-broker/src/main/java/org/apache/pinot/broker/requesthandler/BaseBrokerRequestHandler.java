@@ -45,6 +45,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.pinot.broker.api.RequestStatistics;
 import org.apache.pinot.broker.api.RequesterIdentity;
 import org.apache.pinot.broker.broker.AccessControlFactory;
+import org.apache.pinot.broker.querycache.QueryResultCache;
 import org.apache.pinot.broker.queryquota.QueryQuotaManager;
 import org.apache.pinot.broker.routing.RoutingManager;
 import org.apache.pinot.broker.routing.RoutingTable;
@@ -128,6 +129,9 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
   private final boolean _enableQueryLimitOverride;
   private final boolean _enableDistinctCountBitmapOverride;
 
+  // Null if the query result cache is disabled
+  private final QueryResultCache _queryResultCache;
+
   public BaseBrokerRequestHandler(PinotConfiguration config, RoutingManager routingManager,
       AccessControlFactory accessControlFactory, QueryQuotaManager queryQuotaManager, TableCache tableCache,
       BrokerMetrics brokerMetrics) {
@@ -156,6 +160,16 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     _numDroppedLogRateLimiter = RateLimiter.create(1.0);
 
     _brokerReduceService = new BrokerReduceService(_config);
+
+    long queryResultCacheMaxSizeBytes = config.getProperty(Broker.CONFIG_OF_QUERY_RESULT_CACHE_MAX_SIZE_BYTES,
+        Broker.DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE_BYTES);
+    if (queryResultCacheMaxSizeBytes > 0) {
+      _queryResultCache = new QueryResultCache(queryResultCacheMaxSizeBytes,
+          config.getProperty(Broker.CONFIG_OF_QUERY_RESULT_CACHE_CONSUMING_TTL_MS,
+              Broker.DEFAULT_QUERY_RESULT_CACHE_CONSUMING_TTL_MS));
+    } else {
+      _queryResultCache = null;
+    }
     LOGGER
         .info("Broker Id: {}, timeout: {}ms, query response limit: {}, query log length: {}, query log max rate: {}qps",
             _brokerId, _brokerTimeoutMs, _queryResponseLimit, _queryLogLength, _queryLogRateLimiter.getRate());
@@ -360,6 +374,34 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       requestStatistics.setRealtimeServerTenant(getServerTenant(realtimeTableName));
     }
 
+    // Serve the query from the result cache if possible
+    String resultCacheKey = null;
+    long offlineRoutingVersion = -1;
+    long realtimeRoutingVersion = -1;
+    if (isResultCacheable(pinotQuery, offlineTableName, realtimeTableName)) {
+      // NOTE: Read the routing versions before calculating the routing table so that the cached result is never
+      //       associated with a newer routing than the one used to compute it
+      if (offlineTableName != null) {
+        offlineRoutingVersion = _routingManager.getRoutingVersion(offlineTableName);
+      }
+      if (realtimeTableName != null) {
+        realtimeRoutingVersion = _routingManager.getRoutingVersion(realtimeTableName);
+      }
+      resultCacheKey = QueryResultCache.getCacheKey(pinotQuery);
+      BrokerResponseNative cachedBrokerResponse =
+          _queryResultCache.get(resultCacheKey, offlineRoutingVersion, realtimeRoutingVersion);
+      if (cachedBrokerResponse != null) {
+        _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.QUERY_RESULT_CACHE_HITS, 1);
+        long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - compilationStartTimeNs);
+        cachedBrokerResponse.setTimeUsedMs(totalTimeMs);
+        requestStatistics.setQueryProcessingTime(totalTimeMs);
+        requestStatistics.setStatistics(cachedBrokerResponse);
+        LOGGER.debug("Served request {} from the query result cache: {}", requestId, query);
+        return cachedBrokerResponse;
+      }
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.QUERY_RESULT_CACHE_MISSES, 1);
+    }
+
     // Calculate routing table for the query
     long routingStartTimeNs = System.nanoTime();
     Map<ServerInstance, List<String>> offlineRoutingTable = null;
@@ -444,6 +486,12 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.BROKER_RESPONSES_WITH_NUM_GROUPS_LIMIT_REACHED, 1);
     }
 
+    // Only cache the complete results
+    if (resultCacheKey != null && numUnavailableSegments == 0 && brokerResponse.getExceptionsSize() == 0
+        && brokerResponse.getNumServersResponded() == brokerResponse.getNumServersQueried()) {
+      _queryResultCache.put(resultCacheKey, offlineRoutingVersion, realtimeRoutingVersion, brokerResponse);
+    }
+
     // Set total query processing time
     long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(executionEndTimeNs - compilationStartTimeNs);
     brokerResponse.setTimeUsedMs(totalTimeMs);
@@ -489,6 +537,28 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     return brokerResponse;
   }
 
+  /**
+   * Returns {@code true} if the result of the query can be served from or put into the query result cache, where the
+   * result cache needs to be enabled for all the queried tables, and the query should not have the option to skip the
+   * result cache.
+   */
+  private boolean isResultCacheable(PinotQuery pinotQuery, @Nullable String offlineTableName,
+      @Nullable String realtimeTableName) {
+    if (_queryResultCache == null) {
+      return false;
+    }
+    Map<String, String> queryOptions = pinotQuery.getQueryOptions();
+    if (queryOptions != null && Boolean
+        .parseBoolean(queryOptions.get(Broker.Request.QueryOptionKey.SKIP_RESULT_CACHE))) {
+      return false;
+    }
+    if (offlineTableName != null && !_routingManager.isResultCacheEnabled(offlineTableName)) {
+      return false;
+    }
+    return realtimeTableName == null || (_queryResultCache.isRealtimeCacheable() && _routingManager
+        .isResultCacheEnabled(realtimeTableName));
+  }
+
   private String getServerTenant(String tableNameWithType) {
     TableConfig tableConfig = _tableCache.getTableConfig(tableNameWithType);
     if (tableConfig == null) {
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import org.apache.helix.AccessOption;
 import org.apache.helix.BaseDataAccessor;
@@ -77,6 +78,8 @@ import org.slf4j.LoggerFactory;
  *   <li>{@link #getRoutingTable(BrokerRequest)}: Returns the routing table for a query</li>
  *   <li>{@link #getTimeBoundaryInfo(String)}: Returns the time boundary info for a table</li>
  *   <li>{@link #getQueryTimeoutMs(String)}: Returns the table-level query timeout in milliseconds for a table</li>
+ *   <li>{@link #isResultCacheEnabled(String)}: Returns whether the query result cache is enabled for a table</li>
+ *   <li>{@link #getRoutingVersion(String)}: Returns the version of the routing for a table</li>
  * </ul>
  *
  * TODO: Expose RoutingEntry class to get a consistent view in the broker request handler and save the redundant map
@@ -88,6 +91,8 @@ public class RoutingManager implements ClusterChangeHandler {
   private final BrokerMetrics _brokerMetrics;
   private final Map<String, RoutingEntry> _routingEntryMap = new ConcurrentHashMap<>();
   private final Map<String, ServerInstance> _enabledServerInstanceMap = new ConcurrentHashMap<>();
+  // Generates the routing versions, which are unique across tables and routing rebuilds
+  private final AtomicLong _routingVersionGenerator = new AtomicLong();
 
   private BaseDataAccessor<ZNRecord> _zkDataAccessor;
   private String _externalViewPathPrefix;
@@ -162,6 +167,7 @@ public class RoutingManager implements ClusterChangeHandler {
               continue;
             }
             routingEntry.onExternalViewChange(externalView, idealState);
+            routingEntry.setRoutingVersion(_routingVersionGenerator.incrementAndGet());
           } catch (Exception e) {
             LOGGER
                 .error("Caught unexpected exception while updating routing entry on external view change for table: {}",
@@ -363,15 +369,18 @@ public class RoutingManager implements ClusterChangeHandler {
         offlineTableTimeBoundaryManager
             .init(offlineTableExternalView, offlineTableIdealState, offlineTablePreSelectedOnlineSegments);
         offlineTableRoutingEntry.setTimeBoundaryManager(offlineTableTimeBoundaryManager);
+        offlineTableRoutingEntry.setRoutingVersion(_routingVersionGenerator.incrementAndGet());
       }
     }
 
     QueryConfig queryConfig = tableConfig.getQueryConfig();
     Long queryTimeoutMs = queryConfig != null ? queryConfig.getTimeoutMs() : null;
+    boolean resultCacheEnabled = queryConfig != null && Boolean.TRUE.equals(queryConfig.getResultCacheEnabled());
 
     RoutingEntry routingEntry =
         new RoutingEntry(tableNameWithType, segmentPreSelector, segmentSelector, segmentPruners, instanceSelector,
-            externalViewVersion, timeBoundaryManager, queryTimeoutMs);
+            externalViewVersion, timeBoundaryManager, queryTimeoutMs, resultCacheEnabled,
+            _routingVersionGenerator.incrementAndGet());
     if (_routingEntryMap.put(tableNameWithType, routingEntry) == null) {
       LOGGER.info("Built routing for table: {}", tableNameWithType);
     } else {
@@ -411,6 +420,7 @@ public class RoutingManager implements ClusterChangeHandler {
         RoutingEntry routingEntry = _routingEntryMap.get(offlineTableName);
         if (routingEntry != null) {
           routingEntry.setTimeBoundaryManager(null);
+          routingEntry.setRoutingVersion(_routingVersionGenerator.incrementAndGet());
           LOGGER.info("Removed time boundary manager for table: {}", offlineTableName);
         }
       }
@@ -427,6 +437,7 @@ public class RoutingManager implements ClusterChangeHandler {
     RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
     if (routingEntry != null) {
       routingEntry.refreshSegment(segment);
+      routingEntry.setRoutingVersion(_routingVersionGenerator.incrementAndGet());
       LOGGER.info("Refreshed segment: {} for table: {}", segment, tableNameWithType);
     } else {
       LOGGER.warn("Routing does not exist for table: {}, skipping refreshing segment", tableNameWithType);
@@ -492,6 +503,26 @@ public class RoutingManager implements ClusterChangeHandler {
     return routingEntry != null ? routingEntry.getQueryTimeoutMs() : null;
   }
 
+  /**
+   * Returns {@code true} if the query result cache is enabled in the table config for the given table.
+   */
+  public boolean isResultCacheEnabled(String tableNameWithType) {
+    RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
+    return routingEntry != null && routingEntry.isResultCacheEnabled();
+  }
+
+  /**
+   * Returns the version of the routing for the given table, or {@code -1} if the routing does not exist. The version
+   * changes whenever the routing is rebuilt, or the external view or the segment metadata of the table changes, and can
+   * be used to invalidate the cached query results for the table.
+   * <p>NOTE: The version should be read before calculating the routing table to ensure the cached query results are
+   * never associated with a newer version than the routing used to compute them.
+   */
+  public long getRoutingVersion(String tableNameWithType) {
+    RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
+    return routingEntry != null ? routingEntry.getRoutingVersion() : -1;
+  }
+
   private static class RoutingEntry {
     final String _tableNameWithType;
     final SegmentPreSelector _segmentPreSelector;
@@ -499,15 +530,19 @@ public class RoutingManager implements ClusterChangeHandler {
     final List<SegmentPruner> _segmentPruners;
     final InstanceSelector _instanceSelector;
     final Long _queryTimeoutMs;
+    final boolean _resultCacheEnabled;
 
     // Cache the ExternalView version for the last update
     transient int _lastUpdateExternalViewVersion;
     // Time boundary manager is only available for the offline part of the hybrid table
     transient TimeBoundaryManager _timeBoundaryManager;
+    // Changes whenever the routing or the segment metadata changes
+    transient volatile long _routingVersion;
 
     RoutingEntry(String tableNameWithType, SegmentPreSelector segmentPreSelector, SegmentSelector segmentSelector,
         List<SegmentPruner> segmentPruners, InstanceSelector instanceSelector, int lastUpdateExternalViewVersion,
-        @Nullable TimeBoundaryManager timeBoundaryManager, @Nullable Long queryTimeoutMs) {
+        @Nullable TimeBoundaryManager timeBoundaryManager, @Nullable Long queryTimeoutMs, boolean resultCacheEnabled,
+        long routingVersion) {
       _tableNameWithType = tableNameWithType;
       _segmentPreSelector = segmentPreSelector;
       _segmentSelector = segmentSelector;
@@ -516,6 +551,8 @@ public class RoutingManager implements ClusterChangeHandler {
       _lastUpdateExternalViewVersion = lastUpdateExternalViewVersion;
       _timeBoundaryManager = timeBoundaryManager;
       _queryTimeoutMs = queryTimeoutMs;
+      _resultCacheEnabled = resultCacheEnabled;
+      _routingVersion = routingVersion;
     }
 
     String getTableNameWithType() {
@@ -539,6 +576,18 @@ public class RoutingManager implements ClusterChangeHandler {
       return _queryTimeoutMs;
     }
 
+    boolean isResultCacheEnabled() {
+      return _resultCacheEnabled;
+    }
+
+    long getRoutingVersion() {
+      return _routingVersion;
+    }
+
+    void setRoutingVersion(long routingVersion) {
+      _routingVersion = routingVersion;
+    }
+
     // NOTE: The change gets applied in sequence, and before change applied to all components, there could be some
     // inconsistency between components, which is fine because the inconsistency only exists for the newly changed
     // segments and only lasts for a very short time.
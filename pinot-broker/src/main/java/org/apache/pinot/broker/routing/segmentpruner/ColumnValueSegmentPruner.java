@@ -0,0 +1,413 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentpruner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.helix.AccessOption;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.common.metadata.ZKMetadataProvider;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.Expression;
+import org.apache.pinot.common.request.Function;
+import org.apache.pinot.common.request.Identifier;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.common.utils.request.RequestUtils;
+import org.apache.pinot.pql.parsers.pql2.ast.FilterKind;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapSplitBlockBloomFilter;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.CommonConstants.Query.Range;
+import org.apache.pinot.spi.utils.CommonConstants.Segment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code ColumnValueSegmentPruner} prunes segments based on the column value metadata (min/max value and compact
+ * value bloom filter) stored in the segment ZK metadata, so that the query is only routed to the servers hosting the
+ * candidate segments. The pruner supports queries with filter (or nested filter) of EQUALITY, IN and RANGE predicates:
+ * <ul>
+ *   <li>
+ *     EQUALITY/IN: prune the segment if none of the values is within the min/max range and passes the bloom filter
+ *   </li>
+ *   <li>RANGE: prune the segment if the range does not overlap with the min/max range</li>
+ * </ul>
+ * Segments without column value metadata are never pruned.
+ */
+public class ColumnValueSegmentPruner implements SegmentPruner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnValueSegmentPruner.class);
+  private static final Map<String, ValueInfo> INVALID_VALUE_INFO_MAP = Collections.emptyMap();
+
+  private final String _tableNameWithType;
+  private final Map<String, DataType> _columnDataTypeMap;
+  private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private final String _segmentZKMetadataPathPrefix;
+  private final Map<String, Map<String, ValueInfo>> _valueInfoMap = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for the pruner.
+   *
+   * @param tableNameWithType Table name with type suffix
+   * @param columnDataTypeMap Map from the columns to prune on to their data types
+   * @param propertyStore Helix property store
+   */
+  public ColumnValueSegmentPruner(String tableNameWithType, Map<String, DataType> columnDataTypeMap,
+      ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    _tableNameWithType = tableNameWithType;
+    _columnDataTypeMap = columnDataTypeMap;
+    _propertyStore = propertyStore;
+    _segmentZKMetadataPathPrefix = ZKMetadataProvider.constructPropertyStorePathForResource(tableNameWithType) + "/";
+  }
+
+  @Override
+  public void init(ExternalView externalView, IdealState idealState, Set<String> onlineSegments) {
+    // Bulk load value info for all online segments
+    int numSegments = onlineSegments.size();
+    List<String> segments = new ArrayList<>(numSegments);
+    List<String> segmentZKMetadataPaths = new ArrayList<>(numSegments);
+    for (String segment : onlineSegments) {
+      segments.add(segment);
+      segmentZKMetadataPaths.add(_segmentZKMetadataPathPrefix + segment);
+    }
+    List<ZNRecord> znRecords = _propertyStore.get(segmentZKMetadataPaths, null, AccessOption.PERSISTENT);
+    for (int i = 0; i < numSegments; i++) {
+      String segment = segments.get(i);
+      Map<String, ValueInfo> valueInfoMap = extractValueInfoFromSegmentZKMetadataZNRecord(segment, znRecords.get(i));
+      if (valueInfoMap != null) {
+        _valueInfoMap.put(segment, valueInfoMap);
+      }
+    }
+  }
+
+  /**
+   * NOTE: Returns {@code null} when the ZNRecord is missing (could be transient Helix issue). Returns
+   *       {@link #INVALID_VALUE_INFO_MAP} when the segment does not have valid column value metadata in its ZK
+   *       metadata, in which case we won't retry later.
+   */
+  @Nullable
+  private Map<String, ValueInfo> extractValueInfoFromSegmentZKMetadataZNRecord(String segment,
+      @Nullable ZNRecord znRecord) {
+    if (znRecord == null) {
+      LOGGER.warn("Failed to find segment ZK metadata for segment: {}, table: {}", segment, _tableNameWithType);
+      return null;
+    }
+
+    String columnValueMetadataJson = znRecord.getSimpleField(Segment.COLUMN_VALUE_METADATA);
+    if (columnValueMetadataJson == null) {
+      LOGGER.debug("Failed to find segment column value metadata for segment: {}, table: {}", segment,
+          _tableNameWithType);
+      return INVALID_VALUE_INFO_MAP;
+    }
+
+    try {
+      SegmentColumnValueMetadata segmentColumnValueMetadata =
+          SegmentColumnValueMetadata.fromJsonString(columnValueMetadataJson);
+      Map<String, ValueInfo> valueInfoMap = new HashMap<>();
+      for (Map.Entry<String, DataType> entry : _columnDataTypeMap.entrySet()) {
+        String column = entry.getKey();
+        ColumnValueMetadata columnValueMetadata = segmentColumnValueMetadata.getColumnValueMetadata(column);
+        if (columnValueMetadata != null) {
+          DataType storedType = entry.getValue().getStoredType();
+          String minValue = columnValueMetadata.getMinValue();
+          String maxValue = columnValueMetadata.getMaxValue();
+          String bloomFilter = columnValueMetadata.getBloomFilter();
+          valueInfoMap.put(column, new ValueInfo(minValue != null ? storedType.convertInternal(minValue) : null,
+              maxValue != null ? storedType.convertInternal(maxValue) : null,
+              bloomFilter != null ? OnHeapSplitBlockBloomFilter.fromBase64String(bloomFilter) : null));
+        }
+      }
+      return valueInfoMap;
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while extracting segment column value metadata for segment: {}, table: {}",
+          segment, _tableNameWithType, e);
+      return INVALID_VALUE_INFO_MAP;
+    }
+  }
+
+  @Override
+  public synchronized void onExternalViewChange(ExternalView externalView, IdealState idealState,
+      Set<String> onlineSegments) {
+    // NOTE: We don't update all the segment ZK metadata for every external view change, but only the new added/removed
+    //       ones. The refreshed segment ZK metadata change won't be picked up.
+    for (String segment : onlineSegments) {
+      _valueInfoMap.computeIfAbsent(segment, k -> extractValueInfoFromSegmentZKMetadataZNRecord(k,
+          _propertyStore.get(_segmentZKMetadataPathPrefix + k, null, AccessOption.PERSISTENT)));
+    }
+    _valueInfoMap.keySet().retainAll(onlineSegments);
+  }
+
+  @Override
+  public synchronized void refreshSegment(String segment) {
+    Map<String, ValueInfo> valueInfoMap = extractValueInfoFromSegmentZKMetadataZNRecord(segment,
+        _propertyStore.get(_segmentZKMetadataPathPrefix + segment, null, AccessOption.PERSISTENT));
+    if (valueInfoMap != null) {
+      _valueInfoMap.put(segment, valueInfoMap);
+    } else {
+      _valueInfoMap.remove(segment);
+    }
+  }
+
+  @Override
+  public Set<String> prune(BrokerRequest brokerRequest, Set<String> segments) {
+    PinotQuery pinotQuery = brokerRequest.getPinotQuery();
+    if (pinotQuery != null) {
+      // SQL
+
+      Expression filterExpression = pinotQuery.getFilterExpression();
+      if (filterExpression == null) {
+        return segments;
+      }
+      Set<String> selectedSegments = new HashSet<>();
+      for (String segment : segments) {
+        Map<String, ValueInfo> valueInfoMap = _valueInfoMap.get(segment);
+        if (valueInfoMap == null || valueInfoMap.isEmpty() || isValueMatch(filterExpression, valueInfoMap)) {
+          selectedSegments.add(segment);
+        }
+      }
+      return selectedSegments;
+    } else {
+      // PQL
+      FilterQueryTree filterQueryTree = RequestUtils.generateFilterQueryTree(brokerRequest);
+      if (filterQueryTree == null) {
+        return segments;
+      }
+      Set<String> selectedSegments = new HashSet<>();
+      for (String segment : segments) {
+        Map<String, ValueInfo> valueInfoMap = _valueInfoMap.get(segment);
+        if (valueInfoMap == null || valueInfoMap.isEmpty() || isValueMatch(filterQueryTree, valueInfoMap)) {
+          selectedSegments.add(segment);
+        }
+      }
+      return selectedSegments;
+    }
+  }
+
+  private boolean isValueMatch(Expression filterExpression, Map<String, ValueInfo> valueInfoMap) {
+    Function function = filterExpression.getFunctionCall();
+    FilterKind filterKind = FilterKind.valueOf(function.getOperator());
+    List<Expression> operands = function.getOperands();
+    switch (filterKind) {
+      case AND:
+        for (Expression child : operands) {
+          if (!isValueMatch(child, valueInfoMap)) {
+            return false;
+          }
+        }
+        return true;
+      case OR:
+        for (Expression child : operands) {
+          if (isValueMatch(child, valueInfoMap)) {
+            return true;
+          }
+        }
+        return false;
+      case EQUALS:
+      case IN: {
+        Identifier identifier = operands.get(0).getIdentifier();
+        if (identifier == null) {
+          return true;
+        }
+        ValueInfo valueInfo = valueInfoMap.get(identifier.getName());
+        if (valueInfo == null) {
+          return true;
+        }
+        DataType dataType = _columnDataTypeMap.get(identifier.getName());
+        int numOperands = operands.size();
+        for (int i = 1; i < numOperands; i++) {
+          if (valueInfo.mightContain(dataType, getLiteralValue(operands.get(i)))) {
+            return true;
+          }
+        }
+        return false;
+      }
+      case GREATER_THAN:
+        return isRangeMatch(operands, valueInfoMap, getLiteralValue(operands.get(1)), false, null, false);
+      case GREATER_THAN_OR_EQUAL:
+        return isRangeMatch(operands, valueInfoMap, getLiteralValue(operands.get(1)), true, null, false);
+      case LESS_THAN:
+        return isRangeMatch(operands, valueInfoMap, null, false, getLiteralValue(operands.get(1)), false);
+      case LESS_THAN_OR_EQUAL:
+        return isRangeMatch(operands, valueInfoMap, null, false, getLiteralValue(operands.get(1)), true);
+      case BETWEEN:
+        return isRangeMatch(operands, valueInfoMap, getLiteralValue(operands.get(1)), true,
+            getLiteralValue(operands.get(2)), true);
+      case RANGE: {
+        Identifier identifier = operands.get(0).getIdentifier();
+        if (identifier == null) {
+          return true;
+        }
+        return isRangeMatch(identifier.getName(), valueInfoMap, getLiteralValue(operands.get(1)));
+      }
+      default:
+        return true;
+    }
+  }
+
+  @Deprecated
+  private boolean isValueMatch(FilterQueryTree filterQueryTree, Map<String, ValueInfo> valueInfoMap) {
+    switch (filterQueryTree.getOperator()) {
+      case AND:
+        for (FilterQueryTree child : filterQueryTree.getChildren()) {
+          if (!isValueMatch(child, valueInfoMap)) {
+            return false;
+          }
+        }
+        return true;
+      case OR:
+        for (FilterQueryTree child : filterQueryTree.getChildren()) {
+          if (isValueMatch(child, valueInfoMap)) {
+            return true;
+          }
+        }
+        return false;
+      case EQUALITY:
+      case IN: {
+        String column = filterQueryTree.getColumn();
+        ValueInfo valueInfo = valueInfoMap.get(column);
+        if (valueInfo == null) {
+          return true;
+        }
+        DataType dataType = _columnDataTypeMap.get(column);
+        for (String value : filterQueryTree.getValue()) {
+          if (valueInfo.mightContain(dataType, value)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      case RANGE:
+        return isRangeMatch(filterQueryTree.getColumn(), valueInfoMap, filterQueryTree.getValue().get(0));
+      default:
+        return true;
+    }
+  }
+
+  private static String getLiteralValue(Expression expression) {
+    return expression.getLiteral().getFieldValue().toString();
+  }
+
+  private boolean isRangeMatch(List<Expression> operands, Map<String, ValueInfo> valueInfoMap,
+      @Nullable String lowerBound, boolean lowerInclusive, @Nullable String upperBound, boolean upperInclusive) {
+    Identifier identifier = operands.get(0).getIdentifier();
+    if (identifier == null) {
+      return true;
+    }
+    ValueInfo valueInfo = valueInfoMap.get(identifier.getName());
+    if (valueInfo == null) {
+      return true;
+    }
+    return valueInfo
+        .mightOverlap(_columnDataTypeMap.get(identifier.getName()), lowerBound, lowerInclusive, upperBound,
+            upperInclusive);
+  }
+
+  /**
+   * Parses the range string (see {@link Range} for the format) and checks whether the range might match the segment.
+   */
+  private boolean isRangeMatch(String column, Map<String, ValueInfo> valueInfoMap, String rangeString) {
+    ValueInfo valueInfo = valueInfoMap.get(column);
+    if (valueInfo == null) {
+      return true;
+    }
+    int length = rangeString.length();
+    boolean lowerInclusive = rangeString.charAt(0) == Range.LOWER_INCLUSIVE;
+    boolean upperInclusive = rangeString.charAt(length - 1) == Range.UPPER_INCLUSIVE;
+    String[] split = StringUtils.split(rangeString.substring(1, length - 1), Range.DELIMITER);
+    String lowerBound = !split[0].equals(Range.UNBOUNDED) ? split[0] : null;
+    String upperBound = !split[1].equals(Range.UNBOUNDED) ? split[1] : null;
+    return valueInfo.mightOverlap(_columnDataTypeMap.get(column), lowerBound, lowerInclusive, upperBound,
+        upperInclusive);
+  }
+
+  private static class ValueInfo {
+    final Comparable _minValue;
+    final Comparable _maxValue;
+    final OnHeapSplitBlockBloomFilter _bloomFilter;
+
+    ValueInfo(@Nullable Comparable minValue, @Nullable Comparable maxValue,
+        @Nullable OnHeapSplitBlockBloomFilter bloomFilter) {
+      _minValue = minValue;
+      _maxValue = maxValue;
+      _bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Returns {@code false} if the segment does not contain the given value, {@code true} otherwise.
+     * <p>NOTE: Returns {@code true} if the value cannot be converted to the column data type.
+     */
+    @SuppressWarnings("unchecked")
+    boolean mightContain(DataType dataType, String value) {
+      Comparable convertedValue;
+      try {
+        convertedValue = dataType.convertInternal(value);
+      } catch (Exception e) {
+        return true;
+      }
+      if (_minValue != null && convertedValue.compareTo(_minValue) < 0) {
+        return false;
+      }
+      if (_maxValue != null && convertedValue.compareTo(_maxValue) > 0) {
+        return false;
+      }
+      // NOTE: The value bloom filter is created with the string format of the stored values
+      return _bloomFilter == null || _bloomFilter.mightContain(convertedValue.toString());
+    }
+
+    /**
+     * Returns {@code false} if the given range does not overlap with the min/max range of the segment, {@code true}
+     * otherwise. Unbounded side is represented by {@code null}.
+     * <p>NOTE: Returns {@code true} if the bound cannot be converted to the column data type.
+     */
+    @SuppressWarnings("unchecked")
+    boolean mightOverlap(DataType dataType, @Nullable String lowerBound, boolean lowerInclusive,
+        @Nullable String upperBound, boolean upperInclusive) {
+      try {
+        if (lowerBound != null && _maxValue != null) {
+          int result = dataType.convertInternal(lowerBound).compareTo(_maxValue);
+          if (result > 0 || (result == 0 && !lowerInclusive)) {
+            return false;
+          }
+        }
+        if (upperBound != null && _minValue != null) {
+          int result = dataType.convertInternal(upperBound).compareTo(_minValue);
+          if (result < 0 || (result == 0 && !upperInclusive)) {
+            return false;
+          }
+        }
+        return true;
+      } catch (Exception e) {
+        return true;
+      }
+    }
+  }
+}
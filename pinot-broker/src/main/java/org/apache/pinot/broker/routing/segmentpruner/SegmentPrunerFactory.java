@@ -19,17 +19,25 @@
 package org.apache.pinot.broker.routing.segmentpruner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
+import org.apache.pinot.spi.config.table.IndexingConfig;
 import org.apache.pinot.spi.config.table.RoutingConfig;
 import org.apache.pinot.spi.config.table.SegmentPartitionConfig;
 import org.apache.pinot.spi.config.table.SegmentsValidationAndRetentionConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +76,14 @@ public class SegmentPrunerFactory {
               configuredSegmentPruners.add(timeSegmentPruner);
             }
           }
+
+          if (RoutingConfig.COLUMN_VALUE_SEGMENT_PRUNER_TYPE.equalsIgnoreCase(segmentPrunerType)) {
+            ColumnValueSegmentPruner columnValueSegmentPruner =
+                getColumnValueSegmentPruner(tableConfig, propertyStore);
+            if (columnValueSegmentPruner != null) {
+              configuredSegmentPruners.add(columnValueSegmentPruner);
+            }
+          }
         }
         segmentPruners.addAll(sortSegmentPruners(configuredSegmentPruners));
       } else {
@@ -131,6 +147,47 @@ public class SegmentPrunerFactory {
     return new TimeSegmentPruner(tableConfig, propertyStore);
   }
 
+  @Nullable
+  private static ColumnValueSegmentPruner getColumnValueSegmentPruner(TableConfig tableConfig,
+      ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    String tableNameWithType = tableConfig.getTableName();
+    // NOTE: The column value metadata is published for the bloom filter columns
+    IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+    Set<String> bloomFilterColumns = new HashSet<>();
+    if (indexingConfig.getBloomFilterColumns() != null) {
+      bloomFilterColumns.addAll(indexingConfig.getBloomFilterColumns());
+    }
+    if (indexingConfig.getBloomFilterConfigs() != null) {
+      bloomFilterColumns.addAll(indexingConfig.getBloomFilterConfigs().keySet());
+    }
+    if (bloomFilterColumns.isEmpty()) {
+      LOGGER.warn("Cannot enable column value pruning without bloom filter columns for table: {}", tableNameWithType);
+      return null;
+    }
+    Schema schema = ZKMetadataProvider.getTableSchema(propertyStore, tableNameWithType);
+    if (schema == null) {
+      LOGGER.warn("Cannot enable column value pruning without schema for table: {}", tableNameWithType);
+      return null;
+    }
+
+    Map<String, DataType> columnDataTypeMap = new HashMap<>();
+    for (String column : bloomFilterColumns) {
+      FieldSpec fieldSpec = schema.getFieldSpecFor(column);
+      if (fieldSpec != null) {
+        columnDataTypeMap.put(column, fieldSpec.getDataType());
+      } else {
+        LOGGER.warn("Skipping column value pruning on column: {} not in the schema for table: {}", column,
+            tableNameWithType);
+      }
+    }
+    if (columnDataTypeMap.isEmpty()) {
+      return null;
+    }
+    LOGGER.info("Using ColumnValueSegmentPruner on columns: {} for table: {}", columnDataTypeMap.keySet(),
+        tableNameWithType);
+    return new ColumnValueSegmentPruner(tableNameWithType, columnDataTypeMap, propertyStore);
+  }
+
   private static List<SegmentPruner> sortSegmentPruners(List<SegmentPruner> pruners) {
     // If there's multiple pruners, move time range pruners to the front。
     // Partition pruner run time is proportional to input # of segments while time range pruner is not,
@@ -142,7 +199,13 @@ public class SegmentPrunerFactory {
       }
     }
     for (SegmentPruner pruner: pruners) {
-      if (!(pruner instanceof TimeSegmentPruner)) {
+      if (!(pruner instanceof TimeSegmentPruner) && !(pruner instanceof ColumnValueSegmentPruner)) {
+        sortedPruners.add(pruner);
+      }
+    }
+    // Column value pruner probes the bloom filters per segment, so run it last on the smallest input
+    for (SegmentPruner pruner : pruners) {
+      if (pruner instanceof ColumnValueSegmentPruner) {
         sortedPruners.add(pruner);
       }
     }
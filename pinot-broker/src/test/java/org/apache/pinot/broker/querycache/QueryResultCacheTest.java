@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.querycache;
+
+import java.util.Collections;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.ResultTable;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.sql.parsers.CalciteSqlParser;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+
+public class QueryResultCacheTest {
+  private static final long MAX_SIZE_BYTES = 1024 * 1024;
+
+  @Test
+  public void testCacheKey() {
+    PinotQuery pinotQuery = compile("SELECT COUNT(*) FROM testTable WHERE col = 'foo'");
+    String cacheKey = QueryResultCache.getCacheKey(pinotQuery);
+
+    // Options not affecting the query result should be ignored
+    PinotQuery pinotQueryWithOptions = compile("SELECT COUNT(*) FROM testTable WHERE col = 'foo'");
+    pinotQueryWithOptions.putToQueryOptions(QueryOptionKey.TIMEOUT_MS, "1000");
+    pinotQueryWithOptions.putToQueryOptions(QueryOptionKey.SKIP_RESULT_CACHE, "false");
+    assertEquals(QueryResultCache.getCacheKey(pinotQueryWithOptions), cacheKey);
+    // Should not modify the original query
+    assertEquals(pinotQueryWithOptions.getQueryOptionsSize(), 2);
+
+    assertNotEquals(QueryResultCache.getCacheKey(compile("SELECT COUNT(*) FROM testTable WHERE col = 'bar'")),
+        cacheKey);
+  }
+
+  @Test
+  public void testRoutingVersion() {
+    QueryResultCache queryResultCache = new QueryResultCache(MAX_SIZE_BYTES, 10_000L);
+    String cacheKey = QueryResultCache.getCacheKey(compile("SELECT COUNT(*) FROM testTable"));
+    assertNull(queryResultCache.get(cacheKey, 1, -1));
+
+    queryResultCache.put(cacheKey, 1, -1, getBrokerResponse(100L));
+    BrokerResponseNative cachedBrokerResponse = queryResultCache.get(cacheKey, 1, -1);
+    assertNotNull(cachedBrokerResponse);
+    assertEquals(((Number) cachedBrokerResponse.getResultTable().getRows().get(0)[0]).longValue(), 100L);
+    assertEquals(cachedBrokerResponse.getNumDocsScanned(), 100L);
+    // Each hit should return a new response object
+    assertNotSame(queryResultCache.get(cacheKey, 1, -1), cachedBrokerResponse);
+
+    // Routing version changed
+    assertNull(queryResultCache.get(cacheKey, 2, -1));
+    // Stale result should be removed
+    assertNull(queryResultCache.get(cacheKey, 1, -1));
+    assertEquals(queryResultCache.size(), 0);
+  }
+
+  @Test
+  public void testConsumingTtl()
+      throws InterruptedException {
+    QueryResultCache queryResultCache = new QueryResultCache(MAX_SIZE_BYTES, 100L);
+    String cacheKey = QueryResultCache.getCacheKey(compile("SELECT COUNT(*) FROM testTable"));
+    queryResultCache.put(cacheKey, 1, 2, getBrokerResponse(100L));
+    assertNotNull(queryResultCache.get(cacheKey, 1, 2));
+    assertNull(queryResultCache.get(cacheKey, 1, 3));
+
+    queryResultCache.put(cacheKey, 1, 2, getBrokerResponse(100L));
+    Thread.sleep(200L);
+    assertNull(queryResultCache.get(cacheKey, 1, 2));
+  }
+
+  @Test
+  public void testSizeBoundedEviction() {
+    QueryResultCache queryResultCache = new QueryResultCache(64 * 1024, 10_000L);
+    for (int i = 0; i < 1000; i++) {
+      String cacheKey = QueryResultCache.getCacheKey(compile("SELECT COUNT(*) FROM testTable WHERE col = " + i));
+      queryResultCache.put(cacheKey, 1, -1, getBrokerResponse(i));
+    }
+    assertNotEquals(queryResultCache.size(), 1000L);
+    String lastCacheKey = QueryResultCache.getCacheKey(compile("SELECT COUNT(*) FROM testTable WHERE col = 999"));
+    assertNotNull(queryResultCache.get(lastCacheKey, 1, -1));
+  }
+
+  private static PinotQuery compile(String query) {
+    return CalciteSqlParser.compileToPinotQuery(query);
+  }
+
+  private static BrokerResponseNative getBrokerResponse(long count) {
+    BrokerResponseNative brokerResponse = new BrokerResponseNative();
+    DataSchema dataSchema = new DataSchema(new String[]{"count(*)"}, new ColumnDataType[]{ColumnDataType.LONG});
+    brokerResponse.setResultTable(new ResultTable(dataSchema, Collections.singletonList(new Object[]{count})));
+    brokerResponse.setNumDocsScanned(count);
+    return brokerResponse;
+  }
+}
@@ -35,13 +35,16 @@ import org.apache.helix.model.IdealState;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.common.metadata.segment.ColumnPartitionMetadata;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
 import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.ZkStarter;
 import org.apache.pinot.parsers.QueryCompiler;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapSplitBlockBloomFilter;
 import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
 import org.apache.pinot.spi.config.table.IndexingConfig;
 import org.apache.pinot.spi.config.table.RoutingConfig;
@@ -74,6 +77,8 @@ public class SegmentPrunerTest {
   private static final String PARTITION_COLUMN = "memberId";
   private static final String TIME_COLUMN = "timeColumn";
   private static final String SDF_PATTERN = "yyyyMMdd";
+  private static final String VALUE_RAW_TABLE_NAME = "valueTable";
+  private static final String VALUE_COLUMN = "userId";
 
   private static final String QUERY_1 = "SELECT * FROM testTable";
   private static final String QUERY_2 = "SELECT * FROM testTable where memberId = 0";
@@ -96,6 +101,11 @@ public class SegmentPrunerTest {
   private static final String SDF_QUERY_5 =
       "SELECT * FROM testTable where timeColumn in (20200101, 20200102) AND timeColumn >= 20200530";
 
+  private static final String VALUE_QUERY_1 = "SELECT * FROM testTable where userId = 5";
+  private static final String VALUE_QUERY_2 = "SELECT * FROM testTable where userId IN (25, 35)";
+  private static final String VALUE_QUERY_3 = "SELECT * FROM testTable where userId >= 29";
+  private static final String VALUE_QUERY_4 = "SELECT * FROM testTable where userId = 5 OR memberId = 0";
+
   private ZkStarter.ZookeeperInstance _zkInstance;
   private ZkClient _zkClient;
   private ZkHelixPropertyStore<ZNRecord> _propertyStore;
@@ -223,6 +233,52 @@ public class SegmentPrunerTest {
     assertTrue(segmentPruners.get(1) instanceof TimeSegmentPruner);
   }
 
+  @Test
+  public void testSegmentPrunerFactoryForColumnValuePruner() {
+    TableConfig tableConfig = mock(TableConfig.class);
+    when(tableConfig.getTableName()).thenReturn(VALUE_RAW_TABLE_NAME);
+    RoutingConfig routingConfig = mock(RoutingConfig.class);
+    when(tableConfig.getRoutingConfig()).thenReturn(routingConfig);
+    when(routingConfig.getSegmentPrunerTypes())
+        .thenReturn(Collections.singletonList(RoutingConfig.COLUMN_VALUE_SEGMENT_PRUNER_TYPE));
+    IndexingConfig indexingConfig = mock(IndexingConfig.class);
+    when(tableConfig.getIndexingConfig()).thenReturn(indexingConfig);
+
+    // Bloom filter columns are missing
+    List<SegmentPruner> segmentPruners = SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore);
+    assertEquals(segmentPruners.size(), 1);
+    assertTrue(segmentPruners.get(0) instanceof EmptySegmentPruner);
+
+    // Schema is missing
+    when(indexingConfig.getBloomFilterColumns()).thenReturn(Collections.singletonList(VALUE_COLUMN));
+    segmentPruners = SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore);
+    assertEquals(segmentPruners.size(), 1);
+    assertTrue(segmentPruners.get(0) instanceof EmptySegmentPruner);
+
+    // Column value pruner should be returned
+    ZKMetadataProvider.setSchema(_propertyStore, new Schema.SchemaBuilder().setSchemaName(VALUE_RAW_TABLE_NAME)
+        .addSingleValueDimension(VALUE_COLUMN, FieldSpec.DataType.INT).build());
+    segmentPruners = SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore);
+    assertEquals(segmentPruners.size(), 2);
+    assertTrue(segmentPruners.get(0) instanceof EmptySegmentPruner);
+    assertTrue(segmentPruners.get(1) instanceof ColumnValueSegmentPruner);
+
+    // Column value pruner should be sorted after the time range pruner
+    SegmentsValidationAndRetentionConfig validationConfig = mock(SegmentsValidationAndRetentionConfig.class);
+    when(tableConfig.getValidationConfig()).thenReturn(validationConfig);
+    when(validationConfig.getTimeColumnName()).thenReturn(TIME_COLUMN);
+    ZKMetadataProvider.setSchema(_propertyStore, new Schema.SchemaBuilder().setSchemaName(VALUE_RAW_TABLE_NAME)
+        .addSingleValueDimension(VALUE_COLUMN, FieldSpec.DataType.INT)
+        .addDateTime(TIME_COLUMN, FieldSpec.DataType.LONG, "1:HOURS:EPOCH", "1:HOURS").build());
+    when(routingConfig.getSegmentPrunerTypes()).thenReturn(
+        Arrays.asList(RoutingConfig.COLUMN_VALUE_SEGMENT_PRUNER_TYPE, RoutingConfig.TIME_SEGMENT_PRUNER_TYPE));
+    segmentPruners = SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore);
+    assertEquals(segmentPruners.size(), 3);
+    assertTrue(segmentPruners.get(0) instanceof EmptySegmentPruner);
+    assertTrue(segmentPruners.get(1) instanceof TimeSegmentPruner);
+    assertTrue(segmentPruners.get(2) instanceof ColumnValueSegmentPruner);
+  }
+
   @DataProvider
   public static Object[][] compilerProvider() {
     return new Object[][]{new Object[]{new CalciteSqlCompiler()}, new Object[]{new Pql2Compiler()}};
@@ -611,6 +667,59 @@ public class SegmentPrunerTest {
         new HashSet<>(Collections.singletonList(segment0)));
   }
 
+  @Test(dataProvider = "compilerProvider")
+  public void testColumnValueSegmentPruner(QueryCompiler compiler) {
+    BrokerRequest brokerRequest1 = compiler.compileToBrokerRequest(VALUE_QUERY_1);
+    BrokerRequest brokerRequest2 = compiler.compileToBrokerRequest(VALUE_QUERY_2);
+    BrokerRequest brokerRequest3 = compiler.compileToBrokerRequest(VALUE_QUERY_3);
+    BrokerRequest brokerRequest4 = compiler.compileToBrokerRequest(VALUE_QUERY_4);
+    // NOTE: External view and ideal state are not used in the current implementation.
+    ExternalView externalView = Mockito.mock(ExternalView.class);
+    IdealState idealState = Mockito.mock(IdealState.class);
+
+    ColumnValueSegmentPruner segmentPruner = new ColumnValueSegmentPruner(OFFLINE_TABLE_NAME,
+        Collections.singletonMap(VALUE_COLUMN, FieldSpec.DataType.INT), _propertyStore);
+    Set<String> onlineSegments = new HashSet<>();
+    segmentPruner.init(externalView, idealState, onlineSegments);
+    assertEquals(segmentPruner.prune(brokerRequest1, Collections.emptySet()), Collections.emptySet());
+
+    // Segments without metadata (not updated yet) should not be pruned
+    String newSegment = "newValueSegment";
+    assertEquals(segmentPruner.prune(brokerRequest1, Collections.singleton(newSegment)),
+        Collections.singletonList(newSegment));
+
+    // Segments without column value metadata should not be pruned
+    String segmentWithoutValueMetadata = "segmentWithoutValueMetadata";
+    onlineSegments.add(segmentWithoutValueMetadata);
+    OfflineSegmentZKMetadata segmentZKMetadataWithoutValueMetadata = new OfflineSegmentZKMetadata();
+    segmentZKMetadataWithoutValueMetadata.setSegmentName(segmentWithoutValueMetadata);
+    ZKMetadataProvider
+        .setOfflineSegmentZKMetadata(_propertyStore, OFFLINE_TABLE_NAME, segmentZKMetadataWithoutValueMetadata);
+    segmentPruner.onExternalViewChange(externalView, idealState, onlineSegments);
+    assertEquals(segmentPruner.prune(brokerRequest1, Collections.singleton(segmentWithoutValueMetadata)),
+        Collections.singletonList(segmentWithoutValueMetadata));
+
+    // Segment 0 contains values [0, 9], segment 1 contains values [20, 29] except 25
+    String segment0 = "valueSegment0";
+    onlineSegments.add(segment0);
+    setSegmentZKColumnValueMetadata(segment0, 0, 9, -1);
+    String segment1 = "valueSegment1";
+    onlineSegments.add(segment1);
+    setSegmentZKColumnValueMetadata(segment1, 20, 29, 25);
+    segmentPruner.onExternalViewChange(externalView, idealState, onlineSegments);
+    Set<String> segments = new HashSet<>(Arrays.asList(segment0, segment1));
+    assertEquals(segmentPruner.prune(brokerRequest1, segments), Collections.singleton(segment0));
+    // 25 is within the min/max range of segment 1, but is filtered out by the bloom filter
+    assertEquals(segmentPruner.prune(brokerRequest2, segments), Collections.emptySet());
+    assertEquals(segmentPruner.prune(brokerRequest3, segments), Collections.singleton(segment1));
+    assertEquals(segmentPruner.prune(brokerRequest4, segments), segments);
+
+    // Refresh the changed segment should update the segment pruner
+    setSegmentZKColumnValueMetadata(segment1, 20, 29, -1);
+    segmentPruner.refreshSegment(segment1);
+    assertEquals(segmentPruner.prune(brokerRequest2, segments), Collections.singleton(segment1));
+  }
+
   private TableConfig getTableConfig(String rawTableName, TableType type) {
     return new TableConfigBuilder(type).setTableName(rawTableName).setTimeColumnName(TIME_COLUMN).build();
   }
@@ -635,6 +744,21 @@ public class SegmentPrunerTest {
     ZKMetadataProvider.setOfflineSegmentZKMetadata(_propertyStore, OFFLINE_TABLE_NAME, offlineSegmentZKMetadata);
   }
 
+  private void setSegmentZKColumnValueMetadata(String segment, int minValue, int maxValue, int excludedValue) {
+    OnHeapSplitBlockBloomFilter bloomFilter = OnHeapSplitBlockBloomFilter.create(maxValue - minValue + 1, 0.01, 1024);
+    for (int value = minValue; value <= maxValue; value++) {
+      if (value != excludedValue) {
+        bloomFilter.add(Integer.toString(value));
+      }
+    }
+    OfflineSegmentZKMetadata offlineSegmentZKMetadata = new OfflineSegmentZKMetadata();
+    offlineSegmentZKMetadata.setSegmentName(segment);
+    offlineSegmentZKMetadata.setColumnValueMetadata(new SegmentColumnValueMetadata(Collections
+        .singletonMap(VALUE_COLUMN, new ColumnValueMetadata(Integer.toString(minValue), Integer.toString(maxValue),
+            bloomFilter.toBase64String()))));
+    ZKMetadataProvider.setOfflineSegmentZKMetadata(_propertyStore, OFFLINE_TABLE_NAME, offlineSegmentZKMetadata);
+  }
+
   private void setSegmentZKTimeRangeMetadata(String segment, long startTime, long endTime, TimeUnit unit) {
     RealtimeSegmentZKMetadata realtimeSegmentZKMetadata = new RealtimeSegmentZKMetadata();
     realtimeSegmentZKMetadata.setSegmentName(segment);
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.metadata.segment;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+
+/**
+ * Class for value related column metadata used by the broker to prune segments:
+ * <ul>
+ *   <li>The min value of the column (string format), or {@code null} if not available</li>
+ *   <li>The max value of the column (string format), or {@code null} if not available</li>
+ *   <li>The base64 encoded compact bloom filter of the column values, or {@code null} if not available</li>
+ * </ul>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ColumnValueMetadata {
+  private final String _minValue;
+  private final String _maxValue;
+  private final String _bloomFilter;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param minValue Min value of the column
+   * @param maxValue Max value of the column
+   * @param bloomFilter Base64 encoded compact bloom filter of the column values
+   */
+  @JsonCreator
+  public ColumnValueMetadata(@JsonProperty("minValue") @Nullable String minValue,
+      @JsonProperty("maxValue") @Nullable String maxValue, @JsonProperty("bloomFilter") @Nullable String bloomFilter) {
+    _minValue = minValue;
+    _maxValue = maxValue;
+    _bloomFilter = bloomFilter;
+  }
+
+  @Nullable
+  public String getMinValue() {
+    return _minValue;
+  }
+
+  @Nullable
+  public String getMaxValue() {
+    return _maxValue;
+  }
+
+  @Nullable
+  public String getBloomFilter() {
+    return _bloomFilter;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof ColumnValueMetadata) {
+      ColumnValueMetadata that = (ColumnValueMetadata) obj;
+      return Objects.equals(_minValue, that._minValue) && Objects.equals(_maxValue, that._maxValue) && Objects
+          .equals(_bloomFilter, that._bloomFilter);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(_minValue, _maxValue, _bloomFilter);
+  }
+}
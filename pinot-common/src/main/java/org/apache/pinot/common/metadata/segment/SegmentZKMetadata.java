@@ -51,6 +51,7 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
   private long _crc = -1;
   private long _creationTime = -1;
   private SegmentPartitionMetadata _partitionMetadata;
+  private SegmentColumnValueMetadata _columnValueMetadata;
   private long _segmentUploadStartTime = -1;
   private String _crypterName;
   private Map<String, String> _customMap;
@@ -84,6 +85,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
           "Exception caught while reading partition info from zk metadata for segment '{}', partition info dropped.",
           _segmentName, e);
     }
+    try {
+      String columnValueMetadataJson = znRecord.getSimpleField(Segment.COLUMN_VALUE_METADATA);
+      if (columnValueMetadataJson != null) {
+        _columnValueMetadata = SegmentColumnValueMetadata.fromJsonString(columnValueMetadataJson);
+      }
+    } catch (IOException e) {
+      LOGGER.error(
+          "Exception caught while reading column value info from zk metadata for segment '{}', column value info "
+              + "dropped.", _segmentName, e);
+    }
     _segmentUploadStartTime = znRecord.getLongField(Segment.SEGMENT_UPLOAD_START_TIME, -1);
     _crypterName = znRecord.getSimpleField(Segment.CRYPTER_NAME);
     _customMap = znRecord.getMapField(Segment.CUSTOM_MAP);
@@ -176,6 +187,14 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
     return _partitionMetadata;
   }
 
+  public void setColumnValueMetadata(SegmentColumnValueMetadata columnValueMetadata) {
+    _columnValueMetadata = columnValueMetadata;
+  }
+
+  public SegmentColumnValueMetadata getColumnValueMetadata() {
+    return _columnValueMetadata;
+  }
+
   public long getSegmentUploadStartTime() {
     return _segmentUploadStartTime;
   }
@@ -253,14 +272,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
         && _segmentUploadStartTime == that._segmentUploadStartTime && Objects.equals(_segmentName, that._segmentName)
         && _segmentType == that._segmentType && _timeUnit == that._timeUnit && Objects
         .equals(_indexVersion, that._indexVersion) && Objects.equals(_partitionMetadata, that._partitionMetadata)
-        && Objects.equals(_crypterName, that._crypterName) && Objects.equals(_customMap, that._customMap) && Objects
+        && Objects.equals(_columnValueMetadata, that._columnValueMetadata) && Objects
+        .equals(_crypterName, that._crypterName) && Objects.equals(_customMap, that._customMap) && Objects
         .equals(_rawTableName, that._rawTableName);
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(_segmentName, _segmentType, _startTime, _endTime, _timeUnit, _indexVersion, _totalDocs, _crc,
-        _creationTime, _partitionMetadata, _segmentUploadStartTime, _crypterName, _customMap, _rawTableName);
+        _creationTime, _partitionMetadata, _columnValueMetadata, _segmentUploadStartTime, _crypterName, _customMap,
+        _rawTableName);
   }
 
   @Override
@@ -287,6 +308,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
                 _segmentName, e);
       }
     }
+    if (_columnValueMetadata != null) {
+      try {
+        String columnValueMetadataJson = _columnValueMetadata.toJsonString();
+        znRecord.setSimpleField(Segment.COLUMN_VALUE_METADATA, columnValueMetadataJson);
+      } catch (IOException e) {
+        LOGGER.error(
+            "Exception caught while writing column value metadata into ZNRecord for segment '{}', will be dropped",
+            _segmentName, e);
+      }
+    }
     if (_segmentUploadStartTime > 0) {
       znRecord.setLongField(Segment.SEGMENT_UPLOAD_START_TIME, _segmentUploadStartTime);
     }
@@ -328,6 +359,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
             _segmentName, e);
       }
     }
+    if (_columnValueMetadata != null) {
+      try {
+        String columnValueMetadataJson = _columnValueMetadata.toJsonString();
+        configMap.put(Segment.COLUMN_VALUE_METADATA, columnValueMetadataJson);
+      } catch (IOException e) {
+        LOGGER.error(
+            "Exception caught while converting column value metadata into JSON string for segment '{}', will be "
+                + "dropped", _segmentName, e);
+      }
+    }
     if (_segmentUploadStartTime > 0) {
       configMap.put(Segment.SEGMENT_UPLOAD_START_TIME, Long.toString(_segmentUploadStartTime));
     }
@@ -89,6 +89,10 @@ public enum BrokerMeter implements AbstractMetrics.Meter {
 
   QUERY_QUOTA_EXCEEDED("exceptions", false),
 
+  // Track the hits and misses of the broker-side query result cache
+  QUERY_RESULT_CACHE_HITS("queries", false),
+  QUERY_RESULT_CACHE_MISSES("queries", false),
+
   // tracks a case a segment is not hosted by any server
   // this is different from NO_SERVER_FOUND_EXCEPTIONS which tracks unavailability across all segments
   NO_SERVING_HOST_FOR_SEGMENT("badResponses", false),
@@ -64,6 +64,8 @@ public enum ServerMeter implements AbstractMetrics.Meter {
   UNTAR_FAILURES("segments", false),
   SEGMENT_DOWNLOAD_FAILURES("segments", false),
   NUM_RESIZES("numResizes", false),
+  SEGMENT_RESULT_CACHE_HITS("segments", true),
+  SEGMENT_RESULT_CACHE_MISSES("segments", true),
 
   // Netty connection metrics
   NETTY_CONNECTION_BYTES_RECEIVED("nettyConnection", true),
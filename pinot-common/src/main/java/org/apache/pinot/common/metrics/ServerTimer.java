@@ -29,6 +29,18 @@ public enum ServerTimer implements AbstractMetrics.Timer {
   // metric tracking the freshness lag for consuming segments
   FRESHNESS_LAG_MS("freshnessLagMs", false),
 
+  // Per-batch latency of the stages of the pipelined consumption for consuming segments
+  STREAM_FETCH_LATENCY_MS("milliseconds", false),
+  STREAM_DECODE_LATENCY_MS("milliseconds", false),
+  REALTIME_INDEXING_LATENCY_MS("milliseconds", false),
+
+  // Time of the phases of building the immutable segment from the consuming segment
+  REALTIME_SEGMENT_BUILD_STATS_COLLECTION_TIME_MS("milliseconds", false),
+  REALTIME_SEGMENT_BUILD_INDEX_CREATOR_INIT_TIME_MS("milliseconds", false),
+  REALTIME_SEGMENT_BUILD_INDEXING_TIME_MS("milliseconds", false),
+  REALTIME_SEGMENT_BUILD_SEAL_TIME_MS("milliseconds", false),
+  REALTIME_SEGMENT_BUILD_STAR_TREE_CREATION_TIME_MS("milliseconds", false),
+
   NETTY_CONNECTION_SEND_RESPONSE_LATENCY("nettyConnection", true),
   // Query cost (thread cpu time) for query processing on server
   EXECUTION_THREAD_CPU_TIME_NS("nanoseconds", false);
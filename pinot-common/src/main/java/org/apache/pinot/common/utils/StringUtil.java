@@ -46,16 +46,16 @@ public class StringUtil {
    * @return Modified value, or value itself if not modified
    */
   public static String sanitizeStringValue(String value, int maxLength) {
-    char[] chars = value.toCharArray();
-    int length = chars.length;
+    // NOTE: Scan the string in place instead of copying the characters because this is called for every string value
+    //       during ingestion
+    int length = value.length();
     int limit = Math.min(length, maxLength);
-    for (int i = 0; i < limit; i++) {
-      if (chars[i] == NULL_CHARACTER) {
-        return new String(chars, 0, i);
-      }
+    int nullCharacterIndex = value.indexOf(NULL_CHARACTER);
+    if (nullCharacterIndex >= 0 && nullCharacterIndex < limit) {
+      return value.substring(0, nullCharacterIndex);
     }
     if (limit < length) {
-      return new String(chars, 0, limit);
+      return value.substring(0, limit);
     } else {
       return value;
     }
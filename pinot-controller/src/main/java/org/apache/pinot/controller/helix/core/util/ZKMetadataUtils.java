@@ -20,7 +20,10 @@ package org.apache.pinot.controller.helix.core.util;
 
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.metadata.segment.ColumnPartitionMetadata;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadataCustomMapModifier;
@@ -75,5 +78,34 @@ public class ZKMetadataUtils {
     if (!columnPartitionMap.isEmpty()) {
       segmentZKMetadata.setPartitionMetadata(new SegmentPartitionMetadata(columnPartitionMap));
     }
+
+    // Extract column value metadata (if any), and set it into segment ZK metadata.
+    if (segmentMetadata instanceof SegmentMetadataImpl) {
+      segmentZKMetadata
+          .setColumnValueMetadata(getColumnValueMetadataFromSegmentMetadata((SegmentMetadataImpl) segmentMetadata));
+    }
+  }
+
+  /**
+   * Returns the column value metadata (min/max value and value bloom filter) for the columns with value bloom filter,
+   * or {@code null} if no column has value bloom filter. The column value metadata is used by the broker to prune
+   * segments.
+   */
+  @Nullable
+  public static SegmentColumnValueMetadata getColumnValueMetadataFromSegmentMetadata(
+      SegmentMetadataImpl segmentMetadata) {
+    Map<String, ColumnValueMetadata> columnValueMap = new HashMap<>();
+    for (Map.Entry<String, ColumnMetadata> entry : segmentMetadata.getColumnMetadataMap().entrySet()) {
+      ColumnMetadata columnMetadata = entry.getValue();
+      String valueBloomFilter = columnMetadata.getValueBloomFilter();
+      if (valueBloomFilter != null) {
+        Comparable minValue = columnMetadata.getMinValue();
+        Comparable maxValue = columnMetadata.getMaxValue();
+        columnValueMap.put(entry.getKey(),
+            new ColumnValueMetadata(minValue != null ? minValue.toString() : null,
+                maxValue != null ? maxValue.toString() : null, valueBloomFilter));
+      }
+    }
+    return !columnValueMap.isEmpty() ? new SegmentColumnValueMetadata(columnValueMap) : null;
   }
 }
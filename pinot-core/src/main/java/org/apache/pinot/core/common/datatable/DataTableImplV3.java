@@ -90,7 +90,7 @@ public class DataTableImplV3 extends BaseDataTable {
   }
 
   /**
-   * Construct data table from byte array. (broker side)
+   * Construct data table from byte buffer. (broker side)
    */
   public DataTableImplV3(ByteBuffer byteBuffer)
       throws IOException {
@@ -142,29 +142,17 @@ public class DataTableImplV3 extends BaseDataTable {
       _rowSizeInBytes = 0;
     }
 
-    // Read fixed size data.
-    if (fixedSizeDataLength != 0) {
-      _fixedSizeDataBytes = new byte[fixedSizeDataLength];
-      byteBuffer.position(fixedSizeDataStart);
-      byteBuffer.get(_fixedSizeDataBytes);
-      _fixedSizeData = ByteBuffer.wrap(_fixedSizeDataBytes);
-    } else {
-      _fixedSizeDataBytes = null;
-      _fixedSizeData = null;
-    }
-
-    // Read variable size data.
-    if (variableSizeDataLength != 0) {
-      _variableSizeDataBytes = new byte[variableSizeDataLength];
-      byteBuffer.position(variableSizeDataStart);
-      byteBuffer.get(_variableSizeDataBytes);
-      _variableSizeData = ByteBuffer.wrap(_variableSizeDataBytes);
-    } else {
-      _variableSizeDataBytes = null;
-      _variableSizeData = null;
-    }
+    // Fixed size data and variable size data are read lazily from the given byte buffer without copying.
+    // NOTE: The given byte buffer must not be modified or released while the data table is in use.
+    _fixedSizeDataBytes = null;
+    _fixedSizeData =
+        fixedSizeDataLength != 0 ? sliceSection(byteBuffer, fixedSizeDataStart, fixedSizeDataLength) : null;
+    _variableSizeDataBytes = null;
+    _variableSizeData =
+        variableSizeDataLength != 0 ? sliceSection(byteBuffer, variableSizeDataStart, variableSizeDataLength) : null;
 
     // Read metadata.
+    byteBuffer.position(variableSizeDataStart + variableSizeDataLength);
     int metadataLength = byteBuffer.getInt();
     if (metadataLength != 0) {
       byte[] metadataBytes = new byte[metadataLength];
@@ -173,6 +161,13 @@ public class DataTableImplV3 extends BaseDataTable {
     }
   }
 
+  private static ByteBuffer sliceSection(ByteBuffer byteBuffer, int start, int length) {
+    ByteBuffer duplicate = byteBuffer.duplicate();
+    duplicate.position(start);
+    duplicate.limit(start + length);
+    return duplicate.slice();
+  }
+
   @Override
   public void addException(ProcessingException processingException) {
     _errCodeToExceptionMap.put(processingException.getErrorCode(), processingException.getMessage());
@@ -183,83 +178,71 @@ public class DataTableImplV3 extends BaseDataTable {
     return _errCodeToExceptionMap;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The serialized size is computed upfront so that all the sections are written into a single exact-sized byte
+   * array without the intermediate buffer growth and the final copy of {@link ByteArrayOutputStream}. The returned
+   * byte array can be wrapped without copying (e.g. with {@code Unpooled.wrappedBuffer()}).
+   */
   @Override
   public byte[] toBytes()
       throws IOException {
     ThreadTimer threadTimer = new ThreadTimer();
     threadTimer.start();
 
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
-    dataOutputStream.writeInt(DataTableBuilder.VERSION_3);
-    dataOutputStream.writeInt(_numRows);
-    dataOutputStream.writeInt(_numColumns);
-    int dataOffset = HEADER_SIZE;
-
-    // Write exceptions section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] exceptionsBytes;
-    exceptionsBytes = serializeExceptions();
-    dataOutputStream.writeInt(exceptionsBytes.length);
-    dataOffset += exceptionsBytes.length;
-
-    // Write dictionary map section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] dictionaryMapBytes = null;
-    if (_dictionaryMap != null) {
-      dictionaryMapBytes = serializeDictionaryMap();
-      dataOutputStream.writeInt(dictionaryMapBytes.length);
-      dataOffset += dictionaryMapBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
-
-    // Write data schema section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] dataSchemaBytes = null;
-    if (_dataSchema != null) {
-      dataSchemaBytes = _dataSchema.toBytes();
-      dataOutputStream.writeInt(dataSchemaBytes.length);
-      dataOffset += dataSchemaBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
-
-    // Write fixed size data section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    if (_fixedSizeDataBytes != null) {
-      dataOutputStream.writeInt(_fixedSizeDataBytes.length);
-      dataOffset += _fixedSizeDataBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
+    byte[] exceptionsBytes = serializeExceptions();
+    byte[] dictionaryMapBytes = _dictionaryMap != null ? serializeDictionaryMap() : null;
+    byte[] dataSchemaBytes = _dataSchema != null ? _dataSchema.toBytes() : null;
+    int dictionaryMapLength = dictionaryMapBytes != null ? dictionaryMapBytes.length : 0;
+    int dataSchemaLength = dataSchemaBytes != null ? dataSchemaBytes.length : 0;
+    int fixedSizeDataLength = _fixedSizeData != null ? _fixedSizeData.limit() : 0;
+    int variableSizeDataLength = _variableSizeData != null ? _variableSizeData.limit() : 0;
+
+    // Make sure "threadCpuTimeNs" exists before serializing the metadata. It is stored as a fixed-size long value, so
+    // the metadata size does not change when it gets updated after the data is written.
+    String threadCpuTimeNsKey = MetadataKey.THREAD_CPU_TIME_NS.getName();
+    long threadCpuTimeNs = Long.parseLong(getMetadata().getOrDefault(threadCpuTimeNsKey, "0"));
+    getMetadata().put(threadCpuTimeNsKey, Long.toString(threadCpuTimeNs));
+    byte[] metadataBytes = serializeMetadata();
 
-    // Write variable size data section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    if (_variableSizeDataBytes != null) {
-      dataOutputStream.writeInt(_variableSizeDataBytes.length);
-    } else {
-      dataOutputStream.writeInt(0);
-    }
+    int exceptionsStart = HEADER_SIZE;
+    int dictionaryMapStart = exceptionsStart + exceptionsBytes.length;
+    int dataSchemaStart = dictionaryMapStart + dictionaryMapLength;
+    int fixedSizeDataStart = dataSchemaStart + dataSchemaLength;
+    int variableSizeDataStart = fixedSizeDataStart + fixedSizeDataLength;
+    int metadataStart = variableSizeDataStart + variableSizeDataLength;
+    byte[] bytes = new byte[metadataStart + Integer.BYTES + metadataBytes.length];
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+
+    // Write header.
+    byteBuffer.putInt(DataTableBuilder.VERSION_3);
+    byteBuffer.putInt(_numRows);
+    byteBuffer.putInt(_numColumns);
+    byteBuffer.putInt(exceptionsStart);
+    byteBuffer.putInt(exceptionsBytes.length);
+    byteBuffer.putInt(dictionaryMapStart);
+    byteBuffer.putInt(dictionaryMapLength);
+    byteBuffer.putInt(dataSchemaStart);
+    byteBuffer.putInt(dataSchemaLength);
+    byteBuffer.putInt(fixedSizeDataStart);
+    byteBuffer.putInt(fixedSizeDataLength);
+    byteBuffer.putInt(variableSizeDataStart);
+    byteBuffer.putInt(variableSizeDataLength);
 
     // Write actual data.
-    // Write exceptions bytes.
-    dataOutputStream.write(exceptionsBytes);
-    // Write dictionary map bytes.
+    byteBuffer.put(exceptionsBytes);
     if (dictionaryMapBytes != null) {
-      dataOutputStream.write(dictionaryMapBytes);
+      byteBuffer.put(dictionaryMapBytes);
     }
-    // Write data schema bytes.
     if (dataSchemaBytes != null) {
-      dataOutputStream.write(dataSchemaBytes);
+      byteBuffer.put(dataSchemaBytes);
     }
-    // Write fixed size data bytes.
-    if (_fixedSizeDataBytes != null) {
-      dataOutputStream.write(_fixedSizeDataBytes);
+    if (_fixedSizeData != null) {
+      putSection(byteBuffer, _fixedSizeData);
     }
-    // Write variable size data bytes.
-    if (_variableSizeDataBytes != null) {
-      dataOutputStream.write(_variableSizeDataBytes);
+    if (_variableSizeData != null) {
+      putSection(byteBuffer, _variableSizeData);
     }
 
     // Update the value of "threadCpuTimeNs" to account data table serialization time.
@@ -267,16 +250,25 @@ public class DataTableImplV3 extends BaseDataTable {
     // TODO: currently log/emit a total thread cpu time for query execution time and data table serialization time.
     //  Figure out a way to log/emit separately. Probably via providing an API on the DataTable to get/set query
     //  context, which is supposed to be used at server side only.
-    long threadCpuTimeNs = Long.parseLong(getMetadata().getOrDefault(MetadataKey.THREAD_CPU_TIME_NS.getName(), "0"))
-        + responseSerializationCpuTimeNs;
-    getMetadata().put(MetadataKey.THREAD_CPU_TIME_NS.getName(), String.valueOf(threadCpuTimeNs));
+    getMetadata().put(threadCpuTimeNsKey, Long.toString(threadCpuTimeNs + responseSerializationCpuTimeNs));
+    metadataBytes = serializeMetadata();
 
     // Write metadata: length followed by actual metadata bytes.
-    byte[] metadataBytes = serializeMetadata();
-    dataOutputStream.writeInt(metadataBytes.length);
-    dataOutputStream.write(metadataBytes);
+    byteBuffer.putInt(metadataBytes.length);
+    byteBuffer.put(metadataBytes);
+    assert !byteBuffer.hasRemaining();
 
-    return byteArrayOutputStream.toByteArray();
+    return bytes;
+  }
+
+  /**
+   * Writes the whole section (from 0 to limit) into the given byte buffer without changing the position of the
+   * section buffer.
+   */
+  private static void putSection(ByteBuffer byteBuffer, ByteBuffer section) {
+    ByteBuffer duplicate = section.duplicate();
+    duplicate.position(0);
+    byteBuffer.put(duplicate);
   }
 
   /**
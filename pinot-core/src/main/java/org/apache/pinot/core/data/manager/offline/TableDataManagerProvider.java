@@ -18,6 +18,9 @@
  */
 package org.apache.pinot.core.data.manager.offline;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import javax.annotation.Nonnull;
 import org.apache.helix.HelixManager;
@@ -36,6 +39,7 @@ import org.apache.pinot.spi.config.table.TableType;
  */
 public class TableDataManagerProvider {
   private static Semaphore _segmentBuildSemaphore;
+  private static ExecutorService _segmentBuildExecutor;
 
   private TableDataManagerProvider() {
   }
@@ -45,6 +49,22 @@ public class TableDataManagerProvider {
     if (maxParallelBuilds > 0) {
       _segmentBuildSemaphore = new Semaphore(maxParallelBuilds, true);
     }
+    int segmentBuildNumThreads = instanceDataManagerConfig.getRealtimeSegmentBuildNumThreads();
+    if (segmentBuildNumThreads > 0) {
+      _segmentBuildExecutor = Executors.newFixedThreadPool(segmentBuildNumThreads,
+          new ThreadFactoryBuilder().setNameFormat("realtime-segment-build-%d").setDaemon(true).build());
+    }
+  }
+
+  /**
+   * Shuts down the executor for the realtime segment builds, which should be called after all the table data managers
+   * are shut down.
+   */
+  public static void shutDown() {
+    if (_segmentBuildExecutor != null) {
+      _segmentBuildExecutor.shutdownNow();
+      _segmentBuildExecutor = null;
+    }
   }
 
   public static TableDataManager getTableDataManager(@Nonnull TableDataManagerConfig tableDataManagerConfig,
@@ -61,7 +81,7 @@ public class TableDataManagerProvider {
         }
         break;
       case REALTIME:
-        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore);
+        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore, _segmentBuildExecutor);
         break;
       default:
         throw new IllegalStateException();
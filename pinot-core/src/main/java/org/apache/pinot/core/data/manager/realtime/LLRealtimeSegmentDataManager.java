@@ -20,17 +20,23 @@ package org.apache.pinot.core.data.manager.realtime;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -44,6 +50,7 @@ import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
 import org.apache.pinot.common.metrics.ServerGauge;
 import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.metrics.ServerTimer;
 import org.apache.pinot.common.protocols.SegmentCompletionProtocol;
 import org.apache.pinot.common.utils.LLCSegmentName;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
@@ -204,6 +211,8 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   private static final int MSG_COUNT_THRESHOLD_FOR_LOG = 100000;
   private static final int BUILD_TIME_LEASE_SECONDS = 30;
   private static final int MAX_CONSECUTIVE_ERROR_COUNT = 5;
+  // Minimum number of messages decoded by each thread when a message batch is decoded with multiple threads
+  private static final int MIN_NUM_MESSAGES_PER_DECODE_SHARD = 64;
 
   private final LLCRealtimeSegmentZKMetadata _segmentZKMetadata;
   private final TableConfig _tableConfig;
@@ -255,6 +264,19 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   final String _clientId;
   private final LLCSegmentName _llcSegmentName;
   private final RecordTransformer _recordTransformer;
+  // Executors for the fetch and decode stages of the pipelined consumption, null if it is not enabled
+  private final ExecutorService _fetchExecutor;
+  private final ExecutorService _decodeExecutor;
+  // Workers decoding shards of a message batch along with the decode stage thread, null if each batch is decoded by
+  // the decode stage thread only. Message decoders and record transformers are not thread-safe, so each shard has its
+  // own ones, where the first shard uses _messageDecoder and _recordTransformer.
+  private final ExecutorService _decodeWorkerExecutor;
+  private final StreamMessageDecoder[] _shardMessageDecoders;
+  private final RecordTransformer[] _shardRecordTransformers;
+  private final RealtimeConsumptionRateManager.ConsumptionRateLimiter _consumptionRateLimiter;
+  // Last checkpoint of the write-ahead log, only used when the write-ahead log is enabled
+  private long _lastWriteAheadLogCheckpointTimeMs = 0;
+  private StreamPartitionMsgOffset _lastWriteAheadLogCheckpointOffset = null;
   private PartitionGroupConsumer _partitionGroupConsumer = null;
   private StreamMetadataProvider _streamMetadataProvider = null;
   private final File _resourceTmpDir;
@@ -279,6 +301,7 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   private int _lastConsumedCount = 0;
   private String _stopReason = null;
   private final Semaphore _segBuildSemaphore;
+  private final ExecutorService _segBuildExecutor;
   private final boolean _isOffHeap;
   private final boolean _nullHandlingEnabled;
   private final SegmentCommitterFactory _segmentCommitterFactory;
@@ -385,51 +408,92 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     removeSegmentFile();
 
     segmentLogger.info("Starting consumption loop start offset {}, finalOffset {}", _currentOffset, _finalOffset);
-    while (!_shouldStop && !endCriteriaReached()) {
-      // Consume for the next readTime ms, or we get to final offset, whichever happens earlier,
-      // Update _currentOffset upon return from this method
-      MessageBatch messageBatch;
-      try {
-        messageBatch = _partitionGroupConsumer
-            .fetchMessages(_currentOffset, null, _partitionLevelStreamConfig.getFetchTimeoutMillis());
-        _endOfPartitionGroup = messageBatch.isEndOfPartitionGroup();
-        consecutiveErrorCount = 0;
-      } catch (TimeoutException e) {
-        handleTransientStreamErrors(e);
-        continue;
-      } catch (TransientConsumerException e) {
-        handleTransientStreamErrors(e);
-        continue;
-      } catch (PermanentConsumerException e) {
-        segmentLogger.warn("Permanent exception from stream when fetching messages, stopping consumption", e);
-        throw e;
-      } catch (Exception e) {
-        // Unknown exception from stream. Treat as a transient exception.
-        // One such exception seen so far is java.net.SocketTimeoutException
-        handleTransientStreamErrors(e);
-        continue;
-      }
+    // With pipelined consumption, the batch starting at the current offset which is being fetched and decoded while
+    // the previous batch gets indexed
+    PipelinedBatch nextPipelinedBatch = null;
+    try {
+      while (!_shouldStop && !endCriteriaReached()) {
+        // Consume for the next readTime ms, or we get to final offset, whichever happens earlier,
+        // Update _currentOffset upon return from this method
+        MessageBatch messageBatch;
+        PipelinedBatch pipelinedBatch = null;
+        try {
+          if (_fetchExecutor == null) {
+            messageBatch = _partitionGroupConsumer
+                .fetchMessages(_currentOffset, null, _partitionLevelStreamConfig.getFetchTimeoutMillis());
+          } else {
+            pipelinedBatch = nextPipelinedBatch != null ? nextPipelinedBatch : submitPipelinedBatch(_currentOffset);
+            nextPipelinedBatch = null;
+            messageBatch = pipelinedBatch.getMessageBatch();
+          }
+          _endOfPartitionGroup = messageBatch.isEndOfPartitionGroup();
+          consecutiveErrorCount = 0;
+        } catch (TimeoutException e) {
+          handleTransientStreamErrors(e);
+          continue;
+        } catch (TransientConsumerException e) {
+          handleTransientStreamErrors(e);
+          continue;
+        } catch (PermanentConsumerException e) {
+          segmentLogger.warn("Permanent exception from stream when fetching messages, stopping consumption", e);
+          throw e;
+        } catch (Exception e) {
+          // Unknown exception from stream. Treat as a transient exception.
+          // One such exception seen so far is java.net.SocketTimeoutException
+          handleTransientStreamErrors(e);
+          continue;
+        }
 
-      processStreamEvents(messageBatch, idlePipeSleepTimeMillis);
+        // Throttle before indexing the batch (and fetching the next one with the pipelined consumption)
+        _consumptionRateLimiter.throttle(messageBatch.getMessageCount(), () -> _shouldStop);
 
-      if (_currentOffset.compareTo(lastUpdatedOffset) != 0) {
-        consecutiveIdleCount = 0;
-        // We consumed something. Update the highest stream offset as well as partition-consuming metric.
-        // TODO Issue 5359 Need to find a way to bump metrics without getting actual offset value.
+        if (pipelinedBatch == null) {
+          processStreamEvents(messageBatch, idlePipeSleepTimeMillis);
+        } else {
+          // Fetch and decode the next batch while indexing the current one
+          int messageCount = messageBatch.getMessageCount();
+          if (messageCount > 0 && !_endOfPartitionGroup) {
+            nextPipelinedBatch =
+                submitPipelinedBatch(messageBatch.getNextStreamParitionMsgOffsetAtIndex(messageCount - 1));
+          }
+          processDecodedMessages(messageBatch, pipelinedBatch.getDecodedMessages(), idlePipeSleepTimeMillis);
+          if (nextPipelinedBatch != null && _currentOffset.compareTo(nextPipelinedBatch._startOffset) != 0) {
+            // Stopped in the middle of the batch, discard the next batch and fetch again from the current offset
+            nextPipelinedBatch.discard();
+            nextPipelinedBatch = null;
+          }
+        }
+
+        if (_currentOffset.compareTo(lastUpdatedOffset) != 0) {
+          consecutiveIdleCount = 0;
+          // We consumed something. Update the highest stream offset as well as partition-consuming metric.
+          // TODO Issue 5359 Need to find a way to bump metrics without getting actual offset value.
 //        _serverMetrics.setValueOfTableGauge(_metricKeyName, ServerGauge.HIGHEST_KAFKA_OFFSET_CONSUMED, _currentOffset.getOffset());
 //        _serverMetrics.setValueOfTableGauge(_metricKeyName, ServerGauge.HIGHEST_STREAM_OFFSET_CONSUMED, _currentOffset.getOffset());
-        _serverMetrics.setValueOfTableGauge(_metricKeyName, ServerGauge.LLC_PARTITION_CONSUMING, 1);
-        lastUpdatedOffset = _streamPartitionMsgOffsetFactory.create(_currentOffset);
-      } else {
-        // We did not consume any rows. Update the partition-consuming metric only if we have been idling for a long time.
-        // Create a new stream consumer wrapper, in case we are stuck on something.
-        if (++consecutiveIdleCount > maxIdleCountBeforeStatUpdate) {
           _serverMetrics.setValueOfTableGauge(_metricKeyName, ServerGauge.LLC_PARTITION_CONSUMING, 1);
-          consecutiveIdleCount = 0;
-          makeStreamConsumer("Idle for too long");
+          lastUpdatedOffset = _streamPartitionMsgOffsetFactory.create(_currentOffset);
+          checkpointWriteAheadLog(false);
+        } else {
+          // We did not consume any rows. Update the partition-consuming metric only if we have been idling for a long
+          // time. Create a new stream consumer wrapper, in case we are stuck on something.
+          if (++consecutiveIdleCount > maxIdleCountBeforeStatUpdate) {
+            _serverMetrics.setValueOfTableGauge(_metricKeyName, ServerGauge.LLC_PARTITION_CONSUMING, 1);
+            consecutiveIdleCount = 0;
+            if (nextPipelinedBatch != null) {
+              nextPipelinedBatch.discard();
+              nextPipelinedBatch = null;
+            }
+            makeStreamConsumer("Idle for too long");
+          }
         }
       }
+    } finally {
+      // Make sure no fetch is in progress when returning, as the stream consumer might get closed afterwards
+      if (nextPipelinedBatch != null) {
+        nextPipelinedBatch.discard();
+      }
     }
+    checkpointWriteAheadLog(true);
 
     if (_numRowsErrored > 0) {
       _serverMetrics.addMeteredTableValue(_metricKeyName, ServerMeter.ROWS_WITH_ERRORS, _numRowsErrored);
@@ -537,6 +601,316 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     }
   }
 
+  /**
+   * Indexes the rows decoded by the decode stage of the pipelined consumption, and advances the current offset the same
+   * way as {@link #processStreamEvents(MessageBatch, long)}. The rows are indexed into the segment as a batch, which is
+   * flushed before the segment reaches the row limit and at the end of the message batch.
+   */
+  private void processDecodedMessages(MessageBatch messageBatch, List<DecodedMessage> decodedMessages,
+      long idlePipeSleepTimeMillis) {
+    PinotMeter realtimeRowsConsumedMeter = null;
+    PinotMeter realtimeRowsDroppedMeter = null;
+
+    int indexedMessageCount = 0;
+    int streamMessageCount = 0;
+    boolean canTakeMore = true;
+
+    long startTimeMs = System.currentTimeMillis();
+    List<GenericRow> rowsToIndex = new ArrayList<>();
+    RowMetadata latestMsgMetadata = null;
+    int numMessages = decodedMessages.size();
+    for (int index = 0; index < numMessages; index++) {
+      if (_shouldStop || endCriteriaReached()) {
+        break;
+      }
+      if (!canTakeMore) {
+        // See processStreamEvents() for the conditions under which the segment cannot take more rows
+        segmentLogger
+            .error("Buffer full with {} rows consumed (row limit {}, indexed {})", _numRowsConsumed, _numRowsIndexed,
+                _segmentMaxRowCount);
+        throw new RuntimeException("Realtime segment full");
+      }
+
+      DecodedMessage decodedMessage = decodedMessages.get(index);
+      RowMetadata msgMetadata = messageBatch.getMetadataAtIndex(index);
+      if (msgMetadata != null && (latestMsgMetadata == null
+          || msgMetadata.getIngestionTimeMs() > latestMsgMetadata.getIngestionTimeMs())) {
+        latestMsgMetadata = msgMetadata;
+      }
+      for (GenericRow transformedRow : decodedMessage._transformedRows) {
+        realtimeRowsConsumedMeter = _serverMetrics
+            .addMeteredTableValue(_metricKeyName, ServerMeter.REALTIME_ROWS_CONSUMED, 1, realtimeRowsConsumedMeter);
+        indexedMessageCount++;
+        rowsToIndex.add(transformedRow);
+      }
+      if (decodedMessage._exception != null) {
+        segmentLogger.error("Caught exception while transforming the record: {}", decodedMessage._decodedRow,
+            decodedMessage._exception);
+        _numRowsErrored++;
+      }
+      if (decodedMessage._numRowsDropped > 0) {
+        realtimeRowsDroppedMeter = _serverMetrics
+            .addMeteredTableValue(_metricKeyName, ServerMeter.INVALID_REALTIME_ROWS_DROPPED,
+                decodedMessage._numRowsDropped, realtimeRowsDroppedMeter);
+      }
+
+      // Flush the rows before reaching the row limit so that the end criteria and the full segment check are the same
+      // as indexing the rows one by one
+      if (_numRowsIndexed + rowsToIndex.size() >= _segmentMaxRowCount) {
+        canTakeMore = indexRows(rowsToIndex, latestMsgMetadata);
+        rowsToIndex.clear();
+      }
+
+      _currentOffset = messageBatch.getNextStreamParitionMsgOffsetAtIndex(index);
+      _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
+      _numRowsConsumed++;
+      streamMessageCount++;
+    }
+    if (!rowsToIndex.isEmpty()) {
+      canTakeMore = indexRows(rowsToIndex, latestMsgMetadata);
+      _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
+      if (!canTakeMore && !endCriteriaReached()) {
+        // The rows of the next message batch cannot be indexed into the segment
+        segmentLogger
+            .error("Buffer full with {} rows consumed (row limit {}, indexed {})", _numRowsConsumed, _numRowsIndexed,
+                _segmentMaxRowCount);
+        throw new RuntimeException("Realtime segment full");
+      }
+    }
+    updateCurrentDocumentCountMetrics();
+    if (streamMessageCount != 0) {
+      _serverMetrics.addTimedTableValue(_metricKeyName, ServerTimer.REALTIME_INDEXING_LATENCY_MS,
+          System.currentTimeMillis() - startTimeMs, TimeUnit.MILLISECONDS);
+      segmentLogger.debug("Indexed {} messages ({} messages read from stream) current offset {}", indexedMessageCount,
+          streamMessageCount, _currentOffset);
+    } else {
+      // If there were no messages to be fetched from stream, wait for a little bit as to avoid hammering the stream
+      Uninterruptibles.sleepUninterruptibly(idlePipeSleepTimeMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Checkpoints the write-ahead log of the consuming segment at the current offset, at most once per configured
+   * interval unless forced. Failing to checkpoint only makes the consumption after the previous checkpoint be repeated
+   * after a server restart, so the consumption continues.
+   */
+  private void checkpointWriteAheadLog(boolean force) {
+    if (!_partitionLevelStreamConfig.isWriteAheadLogEnabled() || (_lastWriteAheadLogCheckpointOffset != null
+        && _currentOffset.compareTo(_lastWriteAheadLogCheckpointOffset) == 0)) {
+      return;
+    }
+    long now = now();
+    if (!force && now - _lastWriteAheadLogCheckpointTimeMs < _partitionLevelStreamConfig
+        .getWriteAheadLogCheckpointIntervalMillis()) {
+      return;
+    }
+    try {
+      _realtimeSegment.checkpoint(_currentOffset.toString());
+      _lastWriteAheadLogCheckpointTimeMs = now;
+      _lastWriteAheadLogCheckpointOffset = _streamPartitionMsgOffsetFactory.create(_currentOffset);
+    } catch (Exception e) {
+      segmentLogger.warn("Caught exception while checkpointing the write-ahead log at offset: {}", _currentOffset, e);
+    }
+  }
+
+  /**
+   * Indexes the rows as a batch. The rows that cannot be indexed are skipped by the segment without changing any index,
+   * and counted as errored rows the same way as indexing the rows one by one. Any other failure leaves the segment in
+   * an unknown state, so it is not retried and fails the consumption.
+   */
+  private boolean indexRows(List<GenericRow> rows, @Nullable RowMetadata rowMetadata) {
+    try {
+      return _realtimeSegment.index(rows, rowMetadata, (row, e) -> {
+        segmentLogger.error("Caught exception while indexing the record: {}", row, e);
+        _numRowsErrored++;
+      });
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while indexing " + rows.size() + " rows as a batch", e);
+    }
+  }
+
+  /**
+   * Submits the fetch of the message batch starting at the given offset, and the decode of the fetched messages.
+   */
+  private PipelinedBatch submitPipelinedBatch(StreamPartitionMsgOffset startOffset) {
+    Future<MessageBatch> fetchFuture = _fetchExecutor.submit(() -> {
+      long startTimeMs = System.currentTimeMillis();
+      MessageBatch messageBatch =
+          _partitionGroupConsumer.fetchMessages(startOffset, null, _partitionLevelStreamConfig.getFetchTimeoutMillis());
+      _serverMetrics.addTimedTableValue(_metricKeyName, ServerTimer.STREAM_FETCH_LATENCY_MS,
+          System.currentTimeMillis() - startTimeMs, TimeUnit.MILLISECONDS);
+      return messageBatch;
+    });
+    Future<List<DecodedMessage>> decodeFuture = _decodeExecutor.submit(() -> {
+      MessageBatch messageBatch = fetchFuture.get();
+      long startTimeMs = System.currentTimeMillis();
+      int numMessages = messageBatch.getMessageCount();
+      List<DecodedMessage> decodedMessages = decodeMessages(messageBatch);
+      if (numMessages != 0) {
+        _serverMetrics.addTimedTableValue(_metricKeyName, ServerTimer.STREAM_DECODE_LATENCY_MS,
+            System.currentTimeMillis() - startTimeMs, TimeUnit.MILLISECONDS);
+      }
+      return decodedMessages;
+    });
+    return new PipelinedBatch(startOffset, fetchFuture, decodeFuture);
+  }
+
+  /**
+   * Decodes and transforms the messages in the given batch, which is invoked only by the decode stage thread. When
+   * decode workers are configured, large batches are split into contiguous shards of messages decoded in parallel. Each
+   * decoded message is kept at the index of the message, so that the rows are still indexed in the stream order.
+   */
+  private List<DecodedMessage> decodeMessages(MessageBatch messageBatch)
+      throws Exception {
+    int numMessages = messageBatch.getMessageCount();
+    DecodedMessage[] decodedMessages = new DecodedMessage[numMessages];
+    int numShards = _decodeWorkerExecutor != null ? Math
+        .min(_shardMessageDecoders.length, numMessages / MIN_NUM_MESSAGES_PER_DECODE_SHARD) : 1;
+    if (numShards <= 1) {
+      decodeShard(messageBatch, 0, numMessages, decodedMessages, _messageDecoder, _recordTransformer);
+      return Arrays.asList(decodedMessages);
+    }
+    List<Future<?>> futures = new ArrayList<>(numShards - 1);
+    for (int shard = 1; shard < numShards; shard++) {
+      int startIndex = (int) ((long) numMessages * shard / numShards);
+      int endIndex = (int) ((long) numMessages * (shard + 1) / numShards);
+      StreamMessageDecoder messageDecoder = _shardMessageDecoders[shard];
+      RecordTransformer recordTransformer = _shardRecordTransformers[shard];
+      futures.add(_decodeWorkerExecutor.submit(
+          () -> decodeShard(messageBatch, startIndex, endIndex, decodedMessages, messageDecoder, recordTransformer)));
+    }
+    Exception exception = null;
+    try {
+      decodeShard(messageBatch, 0, numMessages / numShards, decodedMessages, _messageDecoder, _recordTransformer);
+    } catch (Exception e) {
+      exception = e;
+    }
+    // Wait for all the shards even if one of them failed, so that the shard decoders are not used by the next batch
+    // while still decoding this one
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    return Arrays.asList(decodedMessages);
+  }
+
+  private void decodeShard(MessageBatch messageBatch, int startIndex, int endIndex, DecodedMessage[] decodedMessages,
+      StreamMessageDecoder messageDecoder, RecordTransformer recordTransformer) {
+    for (int index = startIndex; index < endIndex; index++) {
+      decodedMessages[index] = decodeMessage(messageBatch, index, messageDecoder, recordTransformer);
+    }
+  }
+
+  /**
+   * Decodes and transforms the message at the given index with the given message decoder and record transformer, which
+   * must not be used by other threads concurrently.
+   */
+  private DecodedMessage decodeMessage(MessageBatch messageBatch, int index, StreamMessageDecoder messageDecoder,
+      RecordTransformer recordTransformer) {
+    DecodedMessage decodedMessage = new DecodedMessage();
+    // A new row is needed for each message because the rows are indexed after the whole batch is decoded
+    GenericRow decodedRow = messageDecoder
+        .decode(messageBatch.getMessageAtIndex(index), messageBatch.getMessageOffsetAtIndex(index),
+            messageBatch.getMessageLengthAtIndex(index), new GenericRow());
+    if (decodedRow == null) {
+      decodedMessage._numRowsDropped = 1;
+      return decodedMessage;
+    }
+    decodedMessage._decodedRow = decodedRow;
+    try {
+      if (decodedRow.getValue(GenericRow.MULTIPLE_RECORDS_KEY) != null) {
+        for (Object singleRow : (Collection) decodedRow.getValue(GenericRow.MULTIPLE_RECORDS_KEY)) {
+          addTransformedRow(decodedMessage, recordTransformer.transform((GenericRow) singleRow));
+        }
+      } else {
+        addTransformedRow(decodedMessage, recordTransformer.transform(decodedRow));
+      }
+    } catch (Exception e) {
+      // Rows transformed before the exception are still indexed, and the exception is reported when indexing
+      decodedMessage._exception = e;
+    }
+    return decodedMessage;
+  }
+
+  private static void addTransformedRow(DecodedMessage decodedMessage, @Nullable GenericRow transformedRow) {
+    if (transformedRow != null && IngestionUtils.shouldIngestRow(transformedRow)) {
+      decodedMessage._transformedRows.add(transformedRow);
+    } else {
+      decodedMessage._numRowsDropped++;
+    }
+  }
+
+  /**
+   * Rows decoded and transformed from a stream message by the decode stage of the pipelined consumption.
+   */
+  private static class DecodedMessage {
+    final List<GenericRow> _transformedRows = new ArrayList<>();
+    int _numRowsDropped;
+    GenericRow _decodedRow;
+    Exception _exception;
+  }
+
+  /**
+   * A message batch being fetched and decoded by the pipelined consumption. The consuming thread is the only one that
+   * indexes rows and advances the current offset, so offsets stay exact: batches fetched ahead of a stop in the middle
+   * of a batch are discarded and fetched again from the current offset.
+   */
+  private static class PipelinedBatch {
+    final StreamPartitionMsgOffset _startOffset;
+    final Future<MessageBatch> _fetchFuture;
+    final Future<List<DecodedMessage>> _decodeFuture;
+
+    PipelinedBatch(StreamPartitionMsgOffset startOffset, Future<MessageBatch> fetchFuture,
+        Future<List<DecodedMessage>> decodeFuture) {
+      _startOffset = startOffset;
+      _fetchFuture = fetchFuture;
+      _decodeFuture = decodeFuture;
+    }
+
+    MessageBatch getMessageBatch()
+        throws Exception {
+      return getResult(_fetchFuture);
+    }
+
+    List<DecodedMessage> getDecodedMessages()
+        throws Exception {
+      return getResult(_decodeFuture);
+    }
+
+    /**
+     * Waits for the fetch to finish so that the stream consumer is no longer in use, and drops the decode.
+     */
+    void discard() {
+      _decodeFuture.cancel(false);
+      try {
+        _fetchFuture.get();
+      } catch (Exception e) {
+        // Ignore, the batch is discarded
+      }
+    }
+
+    private static <T> T getResult(Future<T> future)
+        throws Exception {
+      try {
+        return future.get();
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw e;
+      }
+    }
+  }
+
   public class PartitionConsumer implements Runnable {
     public void run() {
       long initialConsumptionEnd = 0L;
@@ -773,7 +1147,7 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
               _varLengthDictionaryColumns, _nullHandlingEnabled);
       segmentLogger.info("Trying to build segment");
       try {
-        converter.build(_segmentVersion, _serverMetrics);
+        converter.build(_segmentVersion, _serverMetrics, _segBuildExecutor);
       } catch (Exception e) {
         segmentLogger.error("Could not build segment", e);
         FileUtils.deleteQuietly(tempSegmentFolder);
@@ -1082,7 +1456,34 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
       segmentLogger.error("Could not stop consumer thread");
     }
     _realtimeSegment.destroy();
+    if (!shouldKeepWriteAheadLog()) {
+      _realtimeSegment.deleteWriteAheadLog();
+    }
     closeStreamConsumers();
+    if (_fetchExecutor != null) {
+      _fetchExecutor.shutdownNow();
+      _decodeExecutor.shutdownNow();
+    }
+    if (_decodeWorkerExecutor != null) {
+      _decodeWorkerExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns whether to keep the write-ahead log when the segment is destroyed, which is the case only when the segment
+   * is still consuming (i.e. the server is shutting down), so that it can be recovered after the restart. Once the
+   * segment is completed, replaced or failed, it won't be recovered from the write-ahead log.
+   */
+  private boolean shouldKeepWriteAheadLog() {
+    switch (_state) {
+      case INITIAL_CONSUMING:
+      case CATCHING_UP:
+      case HOLDING:
+      case CONSUMING_TO_ONLINE:
+        return true;
+      default:
+        return false;
+    }
   }
 
   protected void start() {
@@ -1116,6 +1517,7 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
       Schema schema, LLCSegmentName llcSegmentName, Semaphore partitionGroupConsumerSemaphore, ServerMetrics serverMetrics,
       @Nullable PartitionUpsertMetadataManager partitionUpsertMetadataManager) {
     _segBuildSemaphore = realtimeTableDataManager.getSegmentBuildSemaphore();
+    _segBuildExecutor = realtimeTableDataManager.getSegmentBuildExecutor();
     _segmentZKMetadata = (LLCRealtimeSegmentZKMetadata) segmentZKMetadata;
     _tableConfig = tableConfig;
     _tableNameWithType = _tableConfig.getTableName();
@@ -1138,6 +1540,8 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     _streamPartitionMsgOffsetFactory =
         StreamConsumerFactoryProvider.create(_partitionLevelStreamConfig).createStreamMsgOffsetFactory();
     _streamTopic = _partitionLevelStreamConfig.getTopicName();
+    _consumptionRateLimiter = RealtimeConsumptionRateManager.getInstance()
+        .createRateLimiter(_tableNameWithType, _partitionLevelStreamConfig.getConsumptionRateLimit());
     _segmentNameStr = _segmentZKMetadata.getSegmentName();
     _llcSegmentName = llcSegmentName;
     _partitionGroupId = _llcSegmentName.getPartitionGroupId();
@@ -1216,12 +1620,15 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
             .setVarLengthDictionaryColumns(indexLoadingConfig.getVarLengthDictionaryColumns())
             .setInvertedIndexColumns(invertedIndexColumns).setTextIndexColumns(textIndexColumns)
             .setFSTIndexColumns(fstIndexColumns).setJsonIndexColumns(indexLoadingConfig.getJsonIndexColumns())
-            .setH3IndexConfigs(indexLoadingConfig.getH3IndexConfigs()).setRealtimeSegmentZKMetadata(segmentZKMetadata)
+            .setH3IndexConfigs(indexLoadingConfig.getH3IndexConfigs())
+            .setStarTreeIndexConfigs(indexLoadingConfig.getStarTreeIndexConfigs())
+            .setRealtimeSegmentZKMetadata(segmentZKMetadata)
             .setOffHeap(_isOffHeap).setMemoryManager(_memoryManager)
             .setStatsHistory(realtimeTableDataManager.getStatsHistory())
             .setAggregateMetrics(indexingConfig.isAggregateMetrics()).setNullHandlingEnabled(_nullHandlingEnabled)
             .setConsumerDir(consumerDir).setUpsertMode(tableConfig.getUpsertMode())
-            .setPartitionUpsertMetadataManager(partitionUpsertMetadataManager);
+            .setPartitionUpsertMetadataManager(partitionUpsertMetadataManager)
+            .setWriteAheadLogEnabled(_partitionLevelStreamConfig.isWriteAheadLogEnabled());
 
     // Create message decoder
     Set<String> fieldsToRead = IngestionUtils.getFieldsForRecordExtractor(_tableConfig.getIngestionConfig(), _schema);
@@ -1231,6 +1638,39 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     // Create record transformer
     _recordTransformer = CompositeTransformer.getDefaultTransformer(tableConfig, schema);
 
+    // Create executors for the pipelined consumption
+    if (_partitionLevelStreamConfig.isPipelinedConsumption()) {
+      segmentLogger.info("Enabling pipelined consumption");
+      _fetchExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat(_segmentNameStr + "-fetch").build());
+      _decodeExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat(_segmentNameStr + "-decode").build());
+      int numDecodeThreads = _partitionLevelStreamConfig.getNumDecodeThreads();
+      if (numDecodeThreads > 1) {
+        segmentLogger.info("Decoding message batches with {} threads", numDecodeThreads);
+        _decodeWorkerExecutor = Executors.newFixedThreadPool(numDecodeThreads - 1,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat(_segmentNameStr + "-decode-%d").build());
+        _shardMessageDecoders = new StreamMessageDecoder[numDecodeThreads];
+        _shardRecordTransformers = new RecordTransformer[numDecodeThreads];
+        _shardMessageDecoders[0] = _messageDecoder;
+        _shardRecordTransformers[0] = _recordTransformer;
+        for (int i = 1; i < numDecodeThreads; i++) {
+          _shardMessageDecoders[i] = StreamDecoderProvider.create(_partitionLevelStreamConfig, fieldsToRead);
+          _shardRecordTransformers[i] = CompositeTransformer.getDefaultTransformer(tableConfig, schema);
+        }
+      } else {
+        _decodeWorkerExecutor = null;
+        _shardMessageDecoders = null;
+        _shardRecordTransformers = null;
+      }
+    } else {
+      _fetchExecutor = null;
+      _decodeExecutor = null;
+      _decodeWorkerExecutor = null;
+      _shardMessageDecoders = null;
+      _shardRecordTransformers = null;
+    }
+
     // Acquire semaphore to create stream consumers
     try {
       _partitionGroupConsumerSemaphore.acquire();
@@ -1293,6 +1733,9 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     _realtimeSegment = new MutableSegmentImpl(realtimeSegmentConfigBuilder.build(), serverMetrics);
     _startOffset = _streamPartitionMsgOffsetFactory.create(_segmentZKMetadata.getStartOffset());
     _currentOffset = _streamPartitionMsgOffsetFactory.create(_startOffset);
+    if (_partitionLevelStreamConfig.isWriteAheadLogEnabled()) {
+      recoverFromWriteAheadLog();
+    }
     _resourceTmpDir = new File(resourceDataDir, "_tmp");
     if (!_resourceTmpDir.exists()) {
       _resourceTmpDir.mkdirs();
@@ -1327,6 +1770,40 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     start();
   }
 
+  /**
+   * Recovers the records consumed before the server restart from the write-ahead log of the consuming segment, and
+   * resumes the consumption from the offset of its last checkpoint instead of the start offset of the segment.
+   */
+  private void recoverFromWriteAheadLog() {
+    String recoveredOffset;
+    try {
+      recoveredOffset = _realtimeSegment.recoverFromWriteAheadLog();
+    } catch (Exception e) {
+      // The segment might be partially recovered, delete the write-ahead log so that the segment is re-consumed from
+      // the start offset on the next attempt
+      _realtimeSegment.destroy();
+      _realtimeSegment.deleteWriteAheadLog();
+      closeStreamConsumers();
+      if (_fetchExecutor != null) {
+        _fetchExecutor.shutdownNow();
+        _decodeExecutor.shutdownNow();
+      }
+      if (_decodeWorkerExecutor != null) {
+        _decodeWorkerExecutor.shutdownNow();
+      }
+      throw new RuntimeException("Failed to recover segment: " + _segmentNameStr + " from the write-ahead log", e);
+    }
+    if (recoveredOffset != null) {
+      _currentOffset = _streamPartitionMsgOffsetFactory.create(recoveredOffset);
+      _lastWriteAheadLogCheckpointOffset = _streamPartitionMsgOffsetFactory.create(_currentOffset);
+      _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
+      // NOTE: The number of rows consumed is not logged, use the number of rows indexed instead
+      _numRowsConsumed = _numRowsIndexed;
+      segmentLogger.info("Recovered {} rows from the write-ahead log, resuming consumption from offset: {}",
+          _numRowsIndexed, _currentOffset);
+    }
+  }
+
   /**
    * Creates a new stream consumer
    */
@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import javax.annotation.Nullable;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>RealtimeConsumptionRateManager</code> class manages the token-bucket rate limiters throttling the realtime
+ * consumption on the server:
+ * <ul>
+ *   <li>Per table limiter shared by all the consuming segments of the table on the server</li>
+ *   <li>Server-wide limiter shared by all the consuming segments on the server</li>
+ * </ul>
+ * The configured rates are scaled by a throttle factor, which backs off (multiplicative decrease) when the average
+ * query scheduler wait time goes above the threshold, and recovers (additive increase) when it goes back below the
+ * threshold, so that catching up consumption does not starve the queries on the same server.
+ */
+public class RealtimeConsumptionRateManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RealtimeConsumptionRateManager.class);
+  private static final RealtimeConsumptionRateManager INSTANCE = new RealtimeConsumptionRateManager();
+
+  private static final long ADJUST_INTERVAL_MS = 1000L;
+  private static final double MIN_THROTTLE_FACTOR = 0.05;
+  private static final double THROTTLE_FACTOR_INCREMENT = 0.1;
+  private static final long THROTTLE_SLEEP_MS = 10L;
+
+  private final Map<String, TableRateLimiter> _tableRateLimiterMap = new ConcurrentHashMap<>();
+  private final LongAdder _schedulerWaitMsSum = new LongAdder();
+  private final LongAdder _numQueries = new LongAdder();
+  private final AtomicLong _lastAdjustTimeMs = new AtomicLong(System.currentTimeMillis());
+
+  private volatile double _serverRateLimit = Server.DEFAULT_CONSUMPTION_RATE_LIMIT;
+  private volatile RateLimiter _serverRateLimiter;
+  private volatile long _schedulerWaitThresholdMs = Server.DEFAULT_CONSUMPTION_BACKOFF_SCHEDULER_WAIT_THRESHOLD_MS;
+  private volatile double _throttleFactor = 1;
+
+  @VisibleForTesting
+  RealtimeConsumptionRateManager() {
+  }
+
+  public static RealtimeConsumptionRateManager getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Initializes the server-wide rate limit and the back-off threshold from the server config.
+   */
+  public void init(PinotConfiguration serverConfig) {
+    _schedulerWaitThresholdMs = serverConfig
+        .getProperty(Server.CONFIG_OF_CONSUMPTION_BACKOFF_SCHEDULER_WAIT_THRESHOLD_MS,
+            Server.DEFAULT_CONSUMPTION_BACKOFF_SCHEDULER_WAIT_THRESHOLD_MS);
+    double serverRateLimit =
+        serverConfig.getProperty(Server.CONFIG_OF_CONSUMPTION_RATE_LIMIT, Server.DEFAULT_CONSUMPTION_RATE_LIMIT);
+    if (serverRateLimit > 0) {
+      _serverRateLimit = serverRateLimit;
+      _serverRateLimiter = RateLimiter.create(serverRateLimit * _throttleFactor);
+    } else {
+      _serverRateLimit = Server.DEFAULT_CONSUMPTION_RATE_LIMIT;
+      _serverRateLimiter = null;
+    }
+    LOGGER.info("Initialized consumption rate limit: {}, back-off scheduler wait threshold: {}ms", _serverRateLimit,
+        _schedulerWaitThresholdMs);
+  }
+
+  /**
+   * Returns the rate limiter for a consuming segment of the given table.
+   *
+   * @param tableNameWithType Table name with type
+   * @param tableRateLimit Rate limit of the table, not limited if not positive
+   */
+  public ConsumptionRateLimiter createRateLimiter(String tableNameWithType, double tableRateLimit) {
+    if (tableRateLimit <= 0) {
+      return new ConsumptionRateLimiter(null);
+    }
+    TableRateLimiter tableRateLimiter = _tableRateLimiterMap.compute(tableNameWithType, (k, v) -> {
+      if (v == null) {
+        return new TableRateLimiter(tableRateLimit, RateLimiter.create(tableRateLimit * _throttleFactor));
+      }
+      if (v._rateLimit != tableRateLimit) {
+        // Table config changed, apply the new rate limit to all the consuming segments of the table
+        v._rateLimit = tableRateLimit;
+        v._rateLimiter.setRate(tableRateLimit * _throttleFactor);
+      }
+      return v;
+    });
+    return new ConsumptionRateLimiter(tableRateLimiter._rateLimiter);
+  }
+
+  /**
+   * Removes the rate limiter of the given table, which should be called when the table is removed from the server (i.e.
+   * all its consuming segments are stopped).
+   */
+  public void removeTable(String tableNameWithType) {
+    _tableRateLimiterMap.remove(tableNameWithType);
+  }
+
+  /**
+   * Records the time a query waited in the query scheduler, which reflects the query pressure on the server.
+   */
+  public void recordSchedulerWaitMs(long schedulerWaitMs) {
+    if (schedulerWaitMs >= 0) {
+      _schedulerWaitMsSum.add(schedulerWaitMs);
+      _numQueries.increment();
+    }
+  }
+
+  /**
+   * Adjusts the throttle factor based on the average query scheduler wait time since the last adjustment. Only one
+   * thread performs the adjustment within each interval.
+   */
+  @VisibleForTesting
+  void maybeAdjustThrottleFactor(long currentTimeMs) {
+    long lastAdjustTimeMs = _lastAdjustTimeMs.get();
+    if (currentTimeMs - lastAdjustTimeMs < ADJUST_INTERVAL_MS || !_lastAdjustTimeMs
+        .compareAndSet(lastAdjustTimeMs, currentTimeMs)) {
+      return;
+    }
+    long schedulerWaitMsSum = _schedulerWaitMsSum.sumThenReset();
+    long numQueries = _numQueries.sumThenReset();
+    if (_schedulerWaitThresholdMs <= 0) {
+      return;
+    }
+    double throttleFactor = _throttleFactor;
+    if (numQueries > 0 && schedulerWaitMsSum > _schedulerWaitThresholdMs * numQueries) {
+      throttleFactor = Math.max(throttleFactor / 2, MIN_THROTTLE_FACTOR);
+    } else {
+      throttleFactor = Math.min(throttleFactor + THROTTLE_FACTOR_INCREMENT, 1);
+    }
+    if (throttleFactor != _throttleFactor) {
+      if (throttleFactor < _throttleFactor && _throttleFactor == 1) {
+        LOGGER.info("Backing off consumption because of the query pressure, average scheduler wait time: {}ms",
+            schedulerWaitMsSum / numQueries);
+      } else if (throttleFactor == 1) {
+        LOGGER.info("Recovered consumption from back-off");
+      }
+      _throttleFactor = throttleFactor;
+      RateLimiter serverRateLimiter = _serverRateLimiter;
+      if (serverRateLimiter != null) {
+        serverRateLimiter.setRate(_serverRateLimit * throttleFactor);
+      }
+      for (TableRateLimiter tableRateLimiter : _tableRateLimiterMap.values()) {
+        tableRateLimiter._rateLimiter.setRate(tableRateLimiter._rateLimit * throttleFactor);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  double getThrottleFactor() {
+    return _throttleFactor;
+  }
+
+  @VisibleForTesting
+  @Nullable
+  RateLimiter getServerRateLimiter() {
+    return _serverRateLimiter;
+  }
+
+  @VisibleForTesting
+  @Nullable
+  RateLimiter getTableRateLimiter(String tableNameWithType) {
+    TableRateLimiter tableRateLimiter = _tableRateLimiterMap.get(tableNameWithType);
+    return tableRateLimiter != null ? tableRateLimiter._rateLimiter : null;
+  }
+
+  private static class TableRateLimiter {
+    volatile double _rateLimit;
+    final RateLimiter _rateLimiter;
+
+    TableRateLimiter(double rateLimit, RateLimiter rateLimiter) {
+      _rateLimit = rateLimit;
+      _rateLimiter = rateLimiter;
+    }
+  }
+
+  /**
+   * Rate limiter for a consuming segment, which throttles the consumption with both the table and the server-wide
+   * rate limiters.
+   */
+  public class ConsumptionRateLimiter {
+    private final RateLimiter _tableRateLimiter;
+
+    private ConsumptionRateLimiter(@Nullable RateLimiter tableRateLimiter) {
+      _tableRateLimiter = tableRateLimiter;
+    }
+
+    /**
+     * Blocks until the given number of messages can be consumed, or the consumption should stop.
+     */
+    public void throttle(int numMessages, BooleanSupplier shouldStop) {
+      RateLimiter serverRateLimiter = _serverRateLimiter;
+      if (numMessages <= 0 || (_tableRateLimiter == null && serverRateLimiter == null)) {
+        return;
+      }
+      maybeAdjustThrottleFactor(System.currentTimeMillis());
+      try {
+        if (_tableRateLimiter != null && !acquire(_tableRateLimiter, numMessages, shouldStop)) {
+          return;
+        }
+        if (serverRateLimiter != null) {
+          acquire(serverRateLimiter, numMessages, shouldStop);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Acquires the permits without blocking for longer than {@link #THROTTLE_SLEEP_MS} at a time, so that the stop of
+     * the consumption is not delayed by a large batch.
+     */
+    private boolean acquire(RateLimiter rateLimiter, int numMessages, BooleanSupplier shouldStop)
+        throws InterruptedException {
+      while (!rateLimiter.tryAcquire(numMessages)) {
+        if (shouldStop.getAsBoolean()) {
+          return false;
+        }
+        Thread.sleep(THROTTLE_SLEEP_MS);
+      }
+      return true;
+    }
+  }
+}
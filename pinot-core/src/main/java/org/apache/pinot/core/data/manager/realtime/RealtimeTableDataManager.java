@@ -33,6 +33,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
@@ -56,6 +57,7 @@ import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentImp
 import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
 import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.local.realtime.impl.wal.MutableSegmentWriteAheadLog;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
 import org.apache.pinot.segment.local.segment.index.loader.V3RemoveIndexException;
@@ -65,6 +67,7 @@ import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
 import org.apache.pinot.segment.local.utils.IngestionUtils;
 import org.apache.pinot.segment.local.utils.SchemaUtils;
 import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.spi.config.table.IndexingConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.UpsertConfig;
@@ -74,6 +77,8 @@ import org.apache.pinot.spi.data.readers.PrimaryKey;
 import org.apache.pinot.spi.utils.ByteArray;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.CommonConstants.Segment.Realtime.Status;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 import static org.apache.pinot.spi.utils.CommonConstants.Segment.METADATA_URI_FOR_PEER_DOWNLOAD;
 
@@ -85,6 +90,8 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   private SegmentBuildTimeLeaseExtender _leaseExtender;
   private RealtimeSegmentStatsHistory _statsHistory;
   private final Semaphore _segmentBuildSemaphore;
+  // Executor shared by all the segment builds on the server to index the columns in parallel, null if not configured
+  private final ExecutorService _segmentBuildExecutor;
   // Maintains a map of partitionGroup
   // Ids to semaphores.
   // The semaphore ensures that exactly one PartitionConsumer instance consumes from any stream partition.
@@ -113,11 +120,17 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
 
   private UpsertConfig.Mode _upsertMode;
   private TableUpsertMetadataManager _tableUpsertMetadataManager;
+  private boolean _enableUpsertSnapshot;
   private List<String> _primaryKeyColumns;
   private String _timeColumnName;
 
   public RealtimeTableDataManager(Semaphore segmentBuildSemaphore) {
+    this(segmentBuildSemaphore, null);
+  }
+
+  public RealtimeTableDataManager(Semaphore segmentBuildSemaphore, @Nullable ExecutorService segmentBuildExecutor) {
     _segmentBuildSemaphore = segmentBuildSemaphore;
+    _segmentBuildExecutor = segmentBuildExecutor;
   }
 
   @Override
@@ -160,7 +173,10 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     if (isUpsertEnabled()) {
       Schema schema = ZKMetadataProvider.getTableSchema(_propertyStore, _tableNameWithType);
       Preconditions.checkState(schema != null, "Failed to find schema for table: %s", _tableNameWithType);
-      _tableUpsertMetadataManager = new TableUpsertMetadataManager(_tableNameWithType, _serverMetrics);
+      UpsertConfig upsertConfig = tableConfig.getUpsertConfig();
+      _tableUpsertMetadataManager = new TableUpsertMetadataManager(_tableNameWithType, _serverMetrics,
+          upsertConfig.getPrimaryKeyStoreType());
+      _enableUpsertSnapshot = upsertConfig.isEnableSnapshot();
       _primaryKeyColumns = schema.getPrimaryKeyColumns();
       Preconditions.checkState(!CollectionUtils.isEmpty(_primaryKeyColumns),
           "Primary key columns must be configured for upsert");
@@ -171,7 +187,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
       File[] segmentFiles = consumerDir.listFiles(new FilenameFilter() {
         @Override
         public boolean accept(File dir, String name) {
-          return !name.equals(STATS_FILE_NAME);
+          return !name.equals(STATS_FILE_NAME) && !name.equals(MutableSegmentWriteAheadLog.WRITE_AHEAD_LOG_DIR_NAME);
         }
       });
       for (File file : segmentFiles) {
@@ -181,6 +197,30 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
           _logger.error("Cannot delete file {}", file.getAbsolutePath());
         }
       }
+      cleanUpWriteAheadLogs(new File(consumerDir, MutableSegmentWriteAheadLog.WRITE_AHEAD_LOG_DIR_NAME));
+    }
+  }
+
+  /**
+   * Deletes the write-ahead logs of the segments that are no longer consuming, and keeps the ones for the consuming
+   * segments so that they can be recovered without re-consuming the stream.
+   */
+  private void cleanUpWriteAheadLogs(File writeAheadLogDir) {
+    File[] files = writeAheadLogDir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      String segmentName = MutableSegmentWriteAheadLog.getSegmentName(file.getName());
+      RealtimeSegmentZKMetadata segmentZKMetadata = segmentName != null ? ZKMetadataProvider
+          .getRealtimeSegmentZKMetadata(_propertyStore, _tableNameWithType, segmentName) : null;
+      if (segmentZKMetadata == null || segmentZKMetadata.getStatus() != Status.IN_PROGRESS) {
+        if (FileUtils.deleteQuietly(file)) {
+          _logger.info("Deleted old write-ahead log file {}", file.getAbsolutePath());
+        } else {
+          _logger.error("Cannot delete write-ahead log file {}", file.getAbsolutePath());
+        }
+      }
     }
   }
 
@@ -191,8 +231,35 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   @Override
   protected void doShutdown() {
     _segmentAsyncExecutorService.shutdown();
-    for (SegmentDataManager segmentDataManager : _segmentDataManagerMap.values()) {
-      segmentDataManager.destroy();
+    if (_enableUpsertSnapshot) {
+      // Stop the consuming segments first so that the valid doc ids of the immutable segments are no longer modified,
+      // then persist the valid doc ids snapshots before destroying the immutable segments
+      for (SegmentDataManager segmentDataManager : _segmentDataManagerMap.values()) {
+        if (segmentDataManager instanceof RealtimeSegmentDataManager) {
+          segmentDataManager.destroy();
+        }
+      }
+      for (SegmentDataManager segmentDataManager : _segmentDataManagerMap.values()) {
+        if (!(segmentDataManager instanceof RealtimeSegmentDataManager)) {
+          IndexSegment segment = segmentDataManager.getSegment();
+          if (segment instanceof ImmutableSegmentImpl) {
+            ((ImmutableSegmentImpl) segment).persistValidDocIdsSnapshot();
+          }
+          segmentDataManager.destroy();
+        }
+      }
+    } else {
+      for (SegmentDataManager segmentDataManager : _segmentDataManagerMap.values()) {
+        segmentDataManager.destroy();
+      }
+    }
+    RealtimeConsumptionRateManager.getInstance().removeTable(_tableNameWithType);
+    if (_tableUpsertMetadataManager != null) {
+      try {
+        _tableUpsertMetadataManager.close();
+      } catch (IOException e) {
+        _logger.error("Caught exception while closing upsert metadata manager for table: {}", _tableNameWithType, e);
+      }
     }
     if (_leaseExtender != null) {
       _leaseExtender.shutDown();
@@ -207,6 +274,11 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     return _segmentBuildSemaphore;
   }
 
+  @Nullable
+  public ExecutorService getSegmentBuildExecutor() {
+    return _segmentBuildExecutor;
+  }
+
   public String getConsumerDir() {
     String consumerDirPath = _tableDataManagerConfig.getConsumerDir();
     File consumerDir;
@@ -366,30 +438,41 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     PartitionUpsertMetadataManager partitionUpsertMetadataManager =
         _tableUpsertMetadataManager.getOrCreatePartitionManager(partitionGroupId);
     int numPrimaryKeyColumns = _primaryKeyColumns.size();
+    // When the valid doc ids snapshot is available, only read the valid records to rebuild the upsert metadata. When
+    // the snapshot is disabled, remove the snapshot left behind (if any) because the valid doc ids are going to change
+    // without being persisted, and it must not be loaded after the snapshot is enabled again.
+    MutableRoaringBitmap validDocIdsSnapshot = null;
+    if (_enableUpsertSnapshot) {
+      validDocIdsSnapshot = immutableSegment.loadValidDocIdsSnapshot();
+    } else {
+      immutableSegment.deleteValidDocIdsSnapshot();
+    }
+    IntIterator validDocIdIterator = validDocIdsSnapshot != null ? validDocIdsSnapshot.getIntIterator() : null;
     Iterator<PartitionUpsertMetadataManager.RecordInfo> recordInfoIterator =
         new Iterator<PartitionUpsertMetadataManager.RecordInfo>() {
           private int _docId = 0;
 
           @Override
           public boolean hasNext() {
-            return _docId < numTotalDocs;
+            return validDocIdIterator != null ? validDocIdIterator.hasNext() : _docId < numTotalDocs;
           }
 
           @Override
           public PartitionUpsertMetadataManager.RecordInfo next() {
+            int docId = validDocIdIterator != null ? validDocIdIterator.next() : _docId++;
             Object[] values = new Object[numPrimaryKeyColumns];
             for (int i = 0; i < numPrimaryKeyColumns; i++) {
-              Object value = columnToReaderMap.get(_primaryKeyColumns.get(i)).getValue(_docId);
+              Object value = columnToReaderMap.get(_primaryKeyColumns.get(i)).getValue(docId);
               if (value instanceof byte[]) {
                 value = new ByteArray((byte[]) value);
               }
               values[i] = value;
             }
             PrimaryKey primaryKey = new PrimaryKey(values);
-            Object timeValue = columnToReaderMap.get(_timeColumnName).getValue(_docId);
+            Object timeValue = columnToReaderMap.get(_timeColumnName).getValue(docId);
             Preconditions.checkArgument(timeValue instanceof Comparable, "time column shall be comparable");
             long timestamp = IngestionUtils.extractTimeValue((Comparable) timeValue);
-            return new PartitionUpsertMetadataManager.RecordInfo(primaryKey, _docId++, timestamp);
+            return new PartitionUpsertMetadataManager.RecordInfo(primaryKey, docId, timestamp);
           }
         };
     ThreadSafeMutableRoaringBitmap validDocIds =
@@ -19,6 +19,7 @@
 package org.apache.pinot.core.data.table;
 
 import com.google.common.base.Preconditions;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -111,6 +112,18 @@ public class ConcurrentIndexedTable extends IndexedTable {
     return true;
   }
 
+  /**
+   * Removes all the records from the table and returns them, after which the table accepts new records again. This is
+   * used to flush the table in bounded partitions, where the caller should make sure no record is upserted
+   * concurrently.
+   */
+  public Collection<Record> removeAllRecords() {
+    Collection<Record> records = _lookupMap.values();
+    _lookupMap = new ConcurrentHashMap<>();
+    _noMoreNewRecords.set(false);
+    return records;
+  }
+
   @Override
   public int size() {
     return _sortedRecords == null ? _lookupMap.size() : _sortedRecords.size();
@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.table;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.HashUtil;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.util.trace.TraceRunnable;
+
+
+/**
+ * Lock-free alternative to the {@link ConcurrentIndexedTable} for combining the group-by results from multiple threads.
+ * <p>Instead of upserting into a shared map, each worker thread gets its own {@link Shard} (via {@link #createShard()})
+ * which hash-partitions the group keys into a fixed number of {@link SimpleIndexedTable}s. After all the worker threads
+ * are done, {@link #mergeShards(ExecutorService, long)} merges the same partition from all the shards in parallel.
+ * Because each group key belongs to exactly one partition, the merged partitions are disjoint and can be concatenated
+ * without further aggregation in {@link #finish(boolean)}.
+ * <p>Each partition of a shard is only trimmed when it alone reaches the trim threshold, i.e. never earlier than the
+ * whole table would be trimmed, so the trimming does not lose more precision than the {@link ConcurrentIndexedTable}.
+ * The merged partitions are trimmed to the trim size, which keeps the top records of the whole table because they are
+ * always among the top records of their partitions.
+ */
+public class PartitionedIndexedTable extends IndexedTable {
+  private final QueryContext _queryContext;
+  private final int _numPartitions;
+  private final ConcurrentLinkedQueue<Shard> _shards = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _numResizes = new AtomicInteger();
+  private final AtomicLong _resizeTimeMs = new AtomicLong();
+
+  private SimpleIndexedTable[] _mergedPartitions;
+  private Collection<Record> _records;
+
+  public PartitionedIndexedTable(DataSchema dataSchema, QueryContext queryContext, int trimSize, int trimThreshold,
+      int numPartitions) {
+    super(dataSchema, queryContext, trimSize, trimThreshold);
+    Preconditions.checkArgument(numPartitions > 0, "Number of partitions must be positive, got: %s", numPartitions);
+    _queryContext = queryContext;
+    _numPartitions = numPartitions;
+  }
+
+  /**
+   * Returns the partition id for the given key.
+   * <p>NOTE: The hash code is re-mixed so that the keys within a partition still spread evenly in the partition map.
+   */
+  public static int getPartitionId(Key key, int numPartitions) {
+    int hash = key.hashCode() * 0x9E3779B9;
+    return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % numPartitions;
+  }
+
+  /**
+   * Creates a new shard for a worker thread to upsert records into. This method is thread safe, but each shard must
+   * only be accessed by a single thread.
+   */
+  public Shard createShard() {
+    Preconditions.checkState(_mergedPartitions == null, "Cannot create shard after the shards are merged");
+    Shard shard = new Shard();
+    _shards.add(shard);
+    return shard;
+  }
+
+  /**
+   * Not supported, use {@link Shard#upsert(Key, Record)} instead.
+   */
+  @Override
+  public boolean upsert(Key key, Record record) {
+    throw new UnsupportedOperationException("Records should be upserted into the shards");
+  }
+
+  /**
+   * Merges all the shards by partition in parallel. Must be called after all the worker threads finish upserting and
+   * before {@link #finish(boolean)}.
+   */
+  public void mergeShards(ExecutorService executorService, long endTimeMs)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    Preconditions.checkState(_mergedPartitions == null, "Shards are already merged");
+    SimpleIndexedTable[] mergedPartitions = new SimpleIndexedTable[_numPartitions];
+    List<Future<?>> futures = new ArrayList<>(_numPartitions - 1);
+    try {
+      for (int i = 1; i < _numPartitions; i++) {
+        int partitionId = i;
+        futures.add(executorService.submit(new TraceRunnable() {
+          @Override
+          public void runJob() {
+            mergedPartitions[partitionId] = mergePartition(partitionId);
+          }
+        }));
+      }
+      // Merge the first partition in the current thread
+      mergedPartitions[0] = mergePartition(0);
+      for (Future<?> future : futures) {
+        future.get(endTimeMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+      }
+    } finally {
+      for (Future<?> future : futures) {
+        if (!future.isDone()) {
+          future.cancel(true);
+        }
+      }
+    }
+    _mergedPartitions = mergedPartitions;
+  }
+
+  private SimpleIndexedTable mergePartition(int partitionId) {
+    // NOTE: Use a new table as the target because a finished table cannot be finished again
+    SimpleIndexedTable mergedPartition = createTable();
+    for (Shard shard : _shards) {
+      SimpleIndexedTable partition = shard._partitions[partitionId];
+      if (partition != null) {
+        partition.finish(false);
+        mergedPartition.merge(partition);
+        addResizeStats(partition);
+      }
+    }
+    mergedPartition.finish(false);
+    addResizeStats(mergedPartition);
+    return mergedPartition;
+  }
+
+  private SimpleIndexedTable createTable() {
+    return new SimpleIndexedTable(_dataSchema, _queryContext, _trimSize, _trimThreshold);
+  }
+
+  private void addResizeStats(IndexedTable table) {
+    _numResizes.addAndGet(table.getNumResizes());
+    _resizeTimeMs.addAndGet(table.getResizeTimeMs());
+  }
+
+  @Override
+  public int size() {
+    return _records != null ? _records.size() : 0;
+  }
+
+  @Override
+  public Iterator<Record> iterator() {
+    return _records.iterator();
+  }
+
+  @Override
+  public void finish(boolean sort) {
+    Preconditions.checkState(_mergedPartitions != null, "Shards must be merged before finishing the table");
+    // The partitions are disjoint, so they are concatenated without upserting the records again
+    int numRecords = 0;
+    for (SimpleIndexedTable mergedPartition : _mergedPartitions) {
+      numRecords += mergedPartition.size();
+    }
+    if (_hasOrderBy) {
+      Map<Key, Record> recordsMap = new HashMap<>(HashUtil.getHashMapCapacity(numRecords));
+      for (SimpleIndexedTable mergedPartition : _mergedPartitions) {
+        recordsMap.putAll(mergedPartition.getLookupMap());
+      }
+      long startTimeMs = System.currentTimeMillis();
+      if (sort) {
+        _sortedRecords = _tableResizer.sortRecordsMap(recordsMap, _trimSize);
+        _records = _sortedRecords;
+      } else {
+        _records = _tableResizer.resizeRecordsMap(recordsMap, _trimSize).values();
+      }
+      _numResizes.incrementAndGet();
+      _resizeTimeMs.addAndGet(System.currentTimeMillis() - startTimeMs);
+    } else {
+      // Without order by, any records up to the trim size can be returned
+      List<Record> records = new ArrayList<>(Math.min(numRecords, _trimSize));
+      for (SimpleIndexedTable mergedPartition : _mergedPartitions) {
+        Iterator<Record> iterator = mergedPartition.getLookupMap().values().iterator();
+        while (iterator.hasNext() && records.size() < _trimSize) {
+          records.add(iterator.next());
+        }
+      }
+      _records = records;
+    }
+  }
+
+  @Override
+  public int getNumResizes() {
+    return _numResizes.get();
+  }
+
+  @Override
+  public long getResizeTimeMs() {
+    return _resizeTimeMs.get();
+  }
+
+  /**
+   * Thread-local part of the {@link PartitionedIndexedTable} which hash-partitions the records by key.
+   */
+  @NotThreadSafe
+  public class Shard {
+    private final SimpleIndexedTable[] _partitions = new SimpleIndexedTable[_numPartitions];
+
+    private Shard() {
+    }
+
+    public void upsert(Key key, Record record) {
+      int partitionId = getPartitionId(key, _numPartitions);
+      SimpleIndexedTable partition = _partitions[partitionId];
+      if (partition == null) {
+        partition = createTable();
+        _partitions[partitionId] = partition;
+      }
+      partition.upsert(key, record);
+    }
+
+    public void upsert(Record record) {
+      upsert(new Key(Arrays.copyOf(record.getValues(), _numKeyColumns)), record);
+    }
+  }
+}
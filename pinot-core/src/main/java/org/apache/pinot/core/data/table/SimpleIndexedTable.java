@@ -140,6 +140,14 @@ public class SimpleIndexedTable extends IndexedTable {
     }
   }
 
+  /**
+   * Returns the map from the key to the record, which allows {@link PartitionedIndexedTable} to concatenate the
+   * disjoint partitions without upserting the records again.
+   */
+  Map<Key, Record> getLookupMap() {
+    return _lookupMap;
+  }
+
   @Override
   public int getNumResizes() {
     return _numResizes;
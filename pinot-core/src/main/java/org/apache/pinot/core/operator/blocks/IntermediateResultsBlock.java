@@ -145,6 +145,11 @@ public class IntermediateResultsBlock implements Block {
     _dataSchema = dataSchema;
   }
 
+  @Nullable
+  public Table getTable() {
+    return _table;
+  }
+
   @Nullable
   public Collection<Object[]> getSelectionResult() {
     return _selectionResult;
@@ -297,10 +302,20 @@ public class IntermediateResultsBlock implements Block {
 
   private DataTable getResultDataTable()
       throws IOException {
-    DataTableBuilder dataTableBuilder = new DataTableBuilder(_dataSchema);
-    ColumnDataType[] storedColumnDataTypes = _dataSchema.getStoredColumnDataTypes();
-    Iterator<Record> iterator = _table.iterator();
-    while (iterator.hasNext()) {
+    DataTable dataTable = getDataTableFromRecords(_dataSchema, _table.iterator(), Integer.MAX_VALUE);
+    return attachMetadataToDataTable(dataTable);
+  }
+
+  /**
+   * Builds a {@link DataTable} (without metadata) from at most {@code maxNumRows} records taken from the given
+   * iterator. The remaining records are left in the iterator so that the caller can build the next chunk from it.
+   */
+  public static DataTable getDataTableFromRecords(DataSchema dataSchema, Iterator<Record> iterator, int maxNumRows)
+      throws IOException {
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(dataSchema);
+    ColumnDataType[] storedColumnDataTypes = dataSchema.getStoredColumnDataTypes();
+    int numRows = 0;
+    while (numRows < maxNumRows && iterator.hasNext()) {
       Record record = iterator.next();
       dataTableBuilder.startRow();
       int columnIndex = 0;
@@ -309,13 +324,13 @@ public class IntermediateResultsBlock implements Block {
         columnIndex++;
       }
       dataTableBuilder.finishRow();
+      numRows++;
     }
-    DataTable dataTable = dataTableBuilder.build();
-    return attachMetadataToDataTable(dataTable);
+    return dataTableBuilder.build();
   }
 
-  private void setDataTableColumn(ColumnDataType columnDataType, DataTableBuilder dataTableBuilder, int columnIndex,
-      Object value)
+  private static void setDataTableColumn(ColumnDataType columnDataType, DataTableBuilder dataTableBuilder,
+      int columnIndex, Object value)
       throws IOException {
     switch (columnDataType) {
       case INT:
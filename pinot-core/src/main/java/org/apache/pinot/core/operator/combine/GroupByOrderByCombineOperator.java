@@ -140,7 +140,7 @@ public class GroupByOrderByCombineOperator extends BaseCombineOperator {
           for (int i = 0; i < _numAggregationFunctions; i++) {
             values[_numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
           }
-          _indexedTable.upsert(new Key(keys), new Record(values));
+          mergeRecord(_indexedTable, new Key(keys), new Record(values));
         }
       }
     } catch (EarlyTerminationException e) {
@@ -155,6 +155,24 @@ public class GroupByOrderByCombineOperator extends BaseCombineOperator {
     }
   }
 
+  /**
+   * Merges a record from the segment results into the indexed table, which is invoked concurrently by the worker
+   * threads.
+   */
+  protected void mergeRecord(ConcurrentIndexedTable indexedTable, Key key, Record record)
+      throws Exception {
+    indexedTable.upsert(key, record);
+  }
+
+  /**
+   * Finishes the indexed table after all the segment results are merged, and returns the results block for it.
+   */
+  protected IntermediateResultsBlock getMergedBlock(ConcurrentIndexedTable indexedTable)
+      throws Exception {
+    indexedTable.finish(false);
+    return new IntermediateResultsBlock(indexedTable);
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -182,8 +200,7 @@ public class GroupByOrderByCombineOperator extends BaseCombineOperator {
       return new IntermediateResultsBlock(new TimeoutException(errorMessage));
     }
 
-    _indexedTable.finish(false);
-    IntermediateResultsBlock mergedBlock = new IntermediateResultsBlock(_indexedTable);
+    IntermediateResultsBlock mergedBlock = getMergedBlock(_indexedTable);
 
     // Set the processing exceptions.
     if (!_mergedProcessingExceptions.isEmpty()) {
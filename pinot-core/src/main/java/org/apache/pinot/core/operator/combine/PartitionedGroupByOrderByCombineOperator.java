@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.combine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.common.response.ProcessingException;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.util.GroupByUtils;
+import org.apache.pinot.spi.exception.EarlyTerminationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Combine operator for aggregation group-by queries with SQL semantic, which merges the results into a
+ * {@link PartitionedIndexedTable}.
+ * <p>Different from the {@link GroupByOrderByCombineOperator} where all the segments are merged into a shared
+ * concurrent table, each worker thread merges its segments into its own shard without any lock, and the shards are
+ * merged by partition in parallel after all the segments are processed.
+ */
+@SuppressWarnings("rawtypes")
+public class PartitionedGroupByOrderByCombineOperator extends BaseCombineOperator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedGroupByOrderByCombineOperator.class);
+  private static final String OPERATOR_NAME = "PartitionedGroupByOrderByCombineOperator";
+  private final int _trimSize;
+  private final int _trimThreshold;
+  private final Lock _initLock;
+  private final int _numAggregationFunctions;
+  private final int _numGroupByExpressions;
+  private final int _numColumns;
+  private final ConcurrentLinkedQueue<ProcessingException> _mergedProcessingExceptions = new ConcurrentLinkedQueue<>();
+  // We use a CountDownLatch to track if all worker threads are finished by the query timeout
+  private final CountDownLatch _threadLatch;
+  private volatile PartitionedIndexedTable _indexedTable;
+
+  public PartitionedGroupByOrderByCombineOperator(List<Operator> operators, QueryContext queryContext,
+      ExecutorService executorService, long endTimeMs, int trimThreshold) {
+    super(operators, queryContext, executorService, endTimeMs);
+    _initLock = new ReentrantLock();
+    _trimSize = GroupByUtils.getTableCapacity(_queryContext);
+    _trimThreshold = trimThreshold;
+
+    AggregationFunction[] aggregationFunctions = _queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null;
+    _numAggregationFunctions = aggregationFunctions.length;
+    assert _queryContext.getGroupByExpressions() != null;
+    _numGroupByExpressions = _queryContext.getGroupByExpressions().size();
+    _numColumns = _numGroupByExpressions + _numAggregationFunctions;
+    _threadLatch = new CountDownLatch(_numThreads);
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  /**
+   * Executes query on the segments assigned to the worker thread and merges the results into the shard of the thread.
+   */
+  @Override
+  protected void processSegments(int threadIndex) {
+    try {
+      PartitionedIndexedTable.Shard shard = null;
+      for (int operatorIndex = threadIndex; operatorIndex < _numOperators; operatorIndex += _numThreads) {
+        IntermediateResultsBlock intermediateResultsBlock;
+        try {
+          intermediateResultsBlock = (IntermediateResultsBlock) _operators.get(operatorIndex).nextBlock();
+        } catch (EarlyTerminationException e) {
+          // Early-terminated because query times out or is already satisfied
+          return;
+        } catch (Exception e) {
+          LOGGER.error(
+              "Caught exception while processing and combining group-by order-by for index: {}, operator: {}, "
+                  + "queryContext: {}", operatorIndex, _operators.get(operatorIndex).getClass().getName(),
+              _queryContext, e);
+          _mergedProcessingExceptions.add(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e));
+          continue;
+        }
+
+        if (shard == null) {
+          shard = getIndexedTable(intermediateResultsBlock).createShard();
+        }
+
+        // Merge processing exceptions.
+        List<ProcessingException> processingExceptionsToMerge = intermediateResultsBlock.getProcessingExceptions();
+        if (processingExceptionsToMerge != null) {
+          _mergedProcessingExceptions.addAll(processingExceptionsToMerge);
+        }
+
+        // Merge aggregation group-by result.
+        AggregationGroupByResult aggregationGroupByResult = intermediateResultsBlock.getAggregationGroupByResult();
+        if (aggregationGroupByResult != null) {
+          // Iterate over the group-by keys, for each key, update the group-by result in the shard
+          Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+          while (groupKeyIterator.hasNext()) {
+            GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+            Object[] keys = groupKey._keys;
+            Object[] values = Arrays.copyOf(keys, _numColumns);
+            int groupId = groupKey._groupId;
+            for (int i = 0; i < _numAggregationFunctions; i++) {
+              values[_numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+            }
+            shard.upsert(new Key(keys), new Record(values));
+          }
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while combining group-by order-by for thread: {}, queryContext: {}", threadIndex,
+          _queryContext, e);
+      _mergedProcessingExceptions.add(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e));
+    } finally {
+      _threadLatch.countDown();
+    }
+  }
+
+  /**
+   * Returns the indexed table, and creates it with the data schema of the given results block if it does not exist.
+   * The lock is only acquired once per worker thread.
+   */
+  private PartitionedIndexedTable getIndexedTable(IntermediateResultsBlock intermediateResultsBlock) {
+    _initLock.lock();
+    try {
+      if (_indexedTable == null) {
+        _indexedTable =
+            new PartitionedIndexedTable(intermediateResultsBlock.getDataSchema(), _queryContext, _trimSize,
+                _trimThreshold, _numThreads);
+      }
+      return _indexedTable;
+    } finally {
+      _initLock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Merges the shards from all the worker threads by partition in parallel, and sets all exceptions encountered
+   * during execution into the merged result block.
+   */
+  @Override
+  protected IntermediateResultsBlock mergeResults()
+      throws Exception {
+    long timeoutMs = _endTimeMs - System.currentTimeMillis();
+    boolean opCompleted = _threadLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+    if (!opCompleted) {
+      // If this happens, the broker side should already timed out, just log the error and return
+      String errorMessage = String
+          .format("Timed out while combining group-by order-by results after %dms, queryContext = %s", timeoutMs,
+              _queryContext);
+      LOGGER.error(errorMessage);
+      return new IntermediateResultsBlock(new TimeoutException(errorMessage));
+    }
+
+    PartitionedIndexedTable indexedTable = _indexedTable;
+    if (indexedTable == null) {
+      // All the segments failed
+      IntermediateResultsBlock errorBlock = new IntermediateResultsBlock();
+      errorBlock.setProcessingExceptions(new ArrayList<>(_mergedProcessingExceptions));
+      return errorBlock;
+    }
+    indexedTable.mergeShards(_executorService, _endTimeMs);
+    indexedTable.finish(false);
+    IntermediateResultsBlock mergedBlock = new IntermediateResultsBlock(indexedTable);
+
+    // Set the processing exceptions.
+    if (!_mergedProcessingExceptions.isEmpty()) {
+      mergedBlock.setProcessingExceptions(new ArrayList<>(_mergedProcessingExceptions));
+    }
+
+    mergedBlock.setNumResizes(indexedTable.getNumResizes());
+    mergedBlock.setResizeTimeMs(indexedTable.getResizeTimeMs());
+    return mergedBlock;
+  }
+
+  @Override
+  protected void mergeResultsBlocks(IntermediateResultsBlock mergedBlock, IntermediateResultsBlock blockToMerge) {
+  }
+}
@@ -30,9 +30,15 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 /**
  * The {@code SVScanDocIdIterator} is the scan-based iterator for SVScanDocIdSet to scan a single-value column for the
  * matching document ids.
+ * <p>The values are read and evaluated in batches of {@link #BATCH_SIZE} documents with the bulk read APIs of the
+ * {@link ForwardIndexReader} and the batched {@link PredicateEvaluator} APIs, and the matching document ids are
+ * buffered for the iteration. The number of entries scanned is accounted as if the documents were scanned one by one,
+ * i.e. documents read ahead but not yet iterated over are not counted.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
+  public static final int BATCH_SIZE = 256;
+
   private final PredicateEvaluator _predicateEvaluator;
   private final ForwardIndexReader _reader;
   // TODO: Figure out a way to close the reader context
@@ -41,6 +47,13 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
   private final int _numDocs;
   private final ValueMatcher _valueMatcher;
 
+  // Buffer of the document ids of the current batch, where the matching ones are compacted to the front
+  private final int[] _docIdBuffer = new int[BATCH_SIZE];
+  private int _numMatchingDocIds = 0;
+  private int _matchingDocIdIndex = 0;
+  // End (exclusive) of the current batch
+  private int _batchEndDocId = 0;
+
   private int _nextDocId = 0;
   private long _numEntriesScanned = 0L;
 
@@ -54,18 +67,40 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
 
   @Override
   public int next() {
-    while (_nextDocId < _numDocs) {
-      int nextDocId = _nextDocId++;
-      _numEntriesScanned++;
-      if (_valueMatcher.doesValueMatch(nextDocId)) {
-        return nextDocId;
+    while (true) {
+      while (_matchingDocIdIndex < _numMatchingDocIds) {
+        int docId = _docIdBuffer[_matchingDocIdIndex++];
+        if (docId >= _nextDocId) {
+          _numEntriesScanned += docId + 1 - _nextDocId;
+          _nextDocId = docId + 1;
+          return docId;
+        }
+      }
+      if (_nextDocId < _batchEndDocId) {
+        _numEntriesScanned += _batchEndDocId - _nextDocId;
+        _nextDocId = _batchEndDocId;
+      }
+      if (_nextDocId >= _numDocs) {
+        return Constants.EOF;
+      }
+      int batchSize = Math.min(BATCH_SIZE, _numDocs - _nextDocId);
+      for (int i = 0; i < batchSize; i++) {
+        _docIdBuffer[i] = _nextDocId + i;
       }
+      _numMatchingDocIds = _valueMatcher.matchValues(batchSize, _docIdBuffer);
+      _matchingDocIdIndex = 0;
+      _batchEndDocId = _nextDocId + batchSize;
     }
-    return Constants.EOF;
   }
 
   @Override
   public int advance(int targetDocId) {
+    if (targetDocId < _nextDocId || targetDocId >= _batchEndDocId) {
+      // Discard the current batch
+      _numMatchingDocIds = 0;
+      _matchingDocIdIndex = 0;
+      _batchEndDocId = targetDocId;
+    }
     _nextDocId = targetDocId;
     return next();
   }
@@ -74,13 +109,21 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
   public MutableRoaringBitmap applyAnd(ImmutableRoaringBitmap docIds) {
     MutableRoaringBitmap result = new MutableRoaringBitmap();
     IntIterator docIdIterator = docIds.getIntIterator();
+    int[] docIdBuffer = new int[BATCH_SIZE];
     int nextDocId;
+    int batchSize = 0;
     while (docIdIterator.hasNext() && (nextDocId = docIdIterator.next()) < _numDocs) {
-      _numEntriesScanned++;
-      if (_valueMatcher.doesValueMatch(nextDocId)) {
-        result.add(nextDocId);
+      docIdBuffer[batchSize++] = nextDocId;
+      if (batchSize == BATCH_SIZE) {
+        result.addN(docIdBuffer, 0, _valueMatcher.matchValues(batchSize, docIdBuffer));
+        _numEntriesScanned += batchSize;
+        batchSize = 0;
       }
     }
+    if (batchSize > 0) {
+      result.addN(docIdBuffer, 0, _valueMatcher.matchValues(batchSize, docIdBuffer));
+      _numEntriesScanned += batchSize;
+    }
     return result;
   }
 
@@ -115,64 +158,91 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
   private interface ValueMatcher {
 
     /**
-     * Returns {@code true} if the value for the given document id matches the predicate, {@code false} Otherwise.
+     * Reads the values for the given document ids, and compacts the matching document ids to the front of the array.
+     * Returns the number of matching document ids.
      */
-    boolean doesValueMatch(int docId);
+    int matchValues(int limit, int[] docIds);
   }
 
   private class DictIdMatcher implements ValueMatcher {
+    private final int[] _buffer = new int[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getDictId(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readDictIds(docIds, limit, _buffer, _readerContext);
+      return _predicateEvaluator.applySV(limit, docIds, _buffer);
     }
   }
 
   private class IntMatcher implements ValueMatcher {
+    private final int[] _buffer = new int[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getInt(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      return _predicateEvaluator.applySV(limit, docIds, _buffer);
     }
   }
 
   private class LongMatcher implements ValueMatcher {
+    private final long[] _buffer = new long[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getLong(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      return _predicateEvaluator.applySV(limit, docIds, _buffer);
     }
   }
 
   private class FloatMatcher implements ValueMatcher {
+    private final float[] _buffer = new float[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getFloat(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      return _predicateEvaluator.applySV(limit, docIds, _buffer);
     }
   }
 
   private class DoubleMatcher implements ValueMatcher {
+    private final double[] _buffer = new double[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getDouble(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      return _predicateEvaluator.applySV(limit, docIds, _buffer);
     }
   }
 
   private class StringMatcher implements ValueMatcher {
+    private final String[] _buffer = new String[BATCH_SIZE];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getString(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      int matches = 0;
+      for (int i = 0; i < limit; i++) {
+        if (_predicateEvaluator.applySV(_buffer[i])) {
+          docIds[matches++] = docIds[i];
+        }
+      }
+      return matches;
     }
   }
 
   private class BytesMatcher implements ValueMatcher {
+    private final byte[][] _buffer = new byte[BATCH_SIZE][];
 
     @Override
-    public boolean doesValueMatch(int docId) {
-      return _predicateEvaluator.applySV(_reader.getBytes(docId, _readerContext));
+    public int matchValues(int limit, int[] docIds) {
+      _reader.readValuesSV(docIds, limit, _buffer, _readerContext);
+      int matches = 0;
+      for (int i = 0; i < limit; i++) {
+        if (_predicateEvaluator.applySV(_buffer[i])) {
+          docIds[matches++] = docIds[i];
+        }
+      }
+      return matches;
     }
   }
 }
@@ -23,6 +23,7 @@ import java.util.List;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.AndDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.BitmapBasedDocIdIterator;
+import org.apache.pinot.core.operator.dociditerators.EmptyDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.RangelessBitmapDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.ScanBasedDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.SortedDocIdIterator;
@@ -42,7 +43,8 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
  *     at least one ScanBasedDocIdIterator, or more than one index-based BlockDocIdIterator, merge them and construct a
  *     RangelessBitmapDocIdIterator from the merged document ids. If there is no remaining BlockDocIdIterator, directly
  *     return the merged RangelessBitmapDocIdIterator; otherwise, construct and return an AndDocIdIterator with the
- *     merged RangelessBitmapDocIdIterator and the remaining BlockDocIdIterators.
+ *     merged RangelessBitmapDocIdIterator and the remaining BlockDocIdIterators. Once the merged document ids become
+ *     empty, skip the remaining BlockDocIdIterators and return an EmptyDocIdIterator.
  *   </li>
  *   <li>
  *     Otherwise, construct and return an AndDocIdIterator with all BlockDocIdIterators.
@@ -59,8 +61,8 @@ public final class AndDocIdSet implements FilterBlockDocIdSet {
   @Override
   public BlockDocIdIterator iterator() {
     int numDocIdSets = _docIdSets.size();
-    // NOTE: Keep the order of FilterBlockDocIdSets to preserve the order decided within FilterOperatorUtils.
-    // TODO: Consider deciding the order based on the stats of BlockDocIdIterators
+    // NOTE: Keep the order of FilterBlockDocIdSets to preserve the order decided within FilterOperatorUtils (based on
+    //       the cost and the selectivity estimate of the filter operators).
     BlockDocIdIterator[] allDocIdIterators = new BlockDocIdIterator[numDocIdSets];
     List<SortedDocIdIterator> sortedDocIdIterators = new ArrayList<>();
     List<BitmapBasedDocIdIterator> bitmapBasedDocIdIterators = new ArrayList<>();
@@ -125,8 +127,15 @@ public final class AndDocIdSet implements FilterBlockDocIdSet {
         }
       }
       for (ScanBasedDocIdIterator scanBasedDocIdIterator : scanBasedDocIdIterators) {
+        if (docIds.isEmpty()) {
+          break;
+        }
         docIds = scanBasedDocIdIterator.applyAnd(docIds);
       }
+      if (docIds.isEmpty()) {
+        // No need to evaluate the remaining BlockDocIdIterators when the merged document ids are already empty
+        return EmptyDocIdIterator.getInstance();
+      }
       RangelessBitmapDocIdIterator rangelessBitmapDocIdIterator = new RangelessBitmapDocIdIterator(docIds);
       if (numRemainingDocIdIterators == 0) {
         return rangelessBitmapDocIdIterator;
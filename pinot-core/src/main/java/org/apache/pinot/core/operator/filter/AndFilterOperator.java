@@ -18,11 +18,15 @@
  */
 package org.apache.pinot.core.operator.filter;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.pinot.core.operator.blocks.EmptyFilterBlock;
 import org.apache.pinot.core.operator.blocks.FilterBlock;
 import org.apache.pinot.core.operator.docidsets.AndDocIdSet;
+import org.apache.pinot.core.operator.docidsets.EmptyDocIdSet;
 import org.apache.pinot.core.operator.docidsets.FilterBlockDocIdSet;
+import org.apache.pinot.core.util.trace.TraceContext;
 
 
 public class AndFilterOperator extends BaseFilterOperator {
@@ -36,13 +40,42 @@ public class AndFilterOperator extends BaseFilterOperator {
 
   @Override
   protected FilterBlock getNextBlock() {
+    if (TraceContext.traceEnabled()) {
+      // Record the order of the child filter operators chosen within FilterOperatorUtils
+      List<String> childFilterOperators = new ArrayList<>(_filterOperators.size());
+      for (BaseFilterOperator filterOperator : _filterOperators) {
+        childFilterOperators
+            .add(filterOperator.getOperatorName() + "(selectivity=" + filterOperator.getSelectivityEstimate() + ")");
+      }
+      TraceContext.logInfo(OPERATOR_NAME + " Child Order", childFilterOperators);
+    }
     List<FilterBlockDocIdSet> filterBlockDocIdSets = new ArrayList<>(_filterOperators.size());
     for (BaseFilterOperator filterOperator : _filterOperators) {
-      filterBlockDocIdSets.add(filterOperator.nextBlock().getBlockDocIdSet());
+      FilterBlockDocIdSet filterBlockDocIdSet = filterOperator.nextBlock().getBlockDocIdSet();
+      // Skip the remaining child filter operators if the result is already empty
+      if (filterBlockDocIdSet instanceof EmptyDocIdSet) {
+        return EmptyFilterBlock.getInstance();
+      }
+      filterBlockDocIdSets.add(filterBlockDocIdSet);
     }
     return new FilterBlock(new AndDocIdSet(filterBlockDocIdSets));
   }
 
+  @Override
+  public double getSelectivityEstimate() {
+    // Assume the child filter operators are independent
+    double selectivityEstimate = 1.0;
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      selectivityEstimate *= filterOperator.getSelectivityEstimate();
+    }
+    return selectivityEstimate;
+  }
+
+  @VisibleForTesting
+  List<BaseFilterOperator> getFilterOperators() {
+    return _filterOperators;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
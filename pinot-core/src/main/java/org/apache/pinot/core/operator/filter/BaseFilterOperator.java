@@ -40,4 +40,15 @@ public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
   public boolean isResultMatchingAll() {
     return false;
   }
+
+  /**
+   * Returns the estimated fraction (between 0 and 1) of the records matched by the filter operator, which is used to
+   * decide the evaluation order of the child filter operators of the {@link AndFilterOperator}.
+   * <p>The estimate should be computed from the cheap per-segment stats only (dictionary, index bitmap cardinalities,
+   * column min/max value), and should never scan the records. Returns 1 (matching all the records) if no estimate is
+   * available.
+   */
+  public double getSelectivityEstimate() {
+    return 1.0;
+  }
 }
@@ -31,6 +31,9 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 @SuppressWarnings("rawtypes")
 public class BitmapBasedFilterOperator extends BaseFilterOperator {
   private static final String OPERATOR_NAME = "BitmapBasedFilterOperator";
+  // Maximum number of bitmaps to read when estimating the selectivity, extrapolate from the first bitmaps if there are
+  // more matching dictionary ids
+  private static final int MAX_NUM_BITMAPS_FOR_SELECTIVITY_ESTIMATE = 128;
 
   private final PredicateEvaluator _predicateEvaluator;
   private final InvertedIndexReader _invertedIndexReader;
@@ -95,6 +98,32 @@ public class BitmapBasedFilterOperator extends BaseFilterOperator {
     }
   }
 
+  @Override
+  public double getSelectivityEstimate() {
+    if (_numDocs == 0) {
+      return 0.0;
+    }
+    double numDocs;
+    if (_docIds != null) {
+      numDocs = _docIds.getCardinality();
+    } else if (FilterOperatorUtils.hasPrecomputedDictIds(_predicateEvaluator)) {
+      int[] dictIds =
+          _exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
+      int numDictIds = dictIds.length;
+      int numBitmapsToRead = Math.min(numDictIds, MAX_NUM_BITMAPS_FOR_SELECTIVITY_ESTIMATE);
+      long totalCardinality = 0;
+      for (int i = 0; i < numBitmapsToRead; i++) {
+        totalCardinality += ((ImmutableRoaringBitmap) _invertedIndexReader.getDocIds(dictIds[i])).getCardinality();
+      }
+      // NOTE: For multi-value column, the bitmaps can overlap, so the sum of the cardinalities is an upper bound
+      numDocs = numBitmapsToRead == 0 ? 0 : (double) totalCardinality * numDictIds / numBitmapsToRead;
+    } else {
+      return super.getSelectivityEstimate();
+    }
+    double fraction = Math.min(numDocs / _numDocs, 1.0);
+    return _exclusive ? 1.0 - fraction : fraction;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -20,13 +20,22 @@ package org.apache.pinot.core.operator.filter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.DoubleRawValueBasedRangePredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.FloatRawValueBasedRangePredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.IntRawValueBasedRangePredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.LongRawValueBasedRangePredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.SortedDictionaryBasedRangePredicateEvaluator;
+import org.apache.pinot.segment.local.segment.index.readers.BitSlicedRangeIndexReader;
 import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
 
 
 public class FilterOperatorUtils {
@@ -36,6 +45,9 @@ public class FilterOperatorUtils {
   // Debug option to enable or disable multi-value optimization
   public static final String USE_SCAN_REORDER_OPTIMIZATION = "useScanReorderOpt";
 
+  // Debug option to enable or disable selectivity based reordering of the AND filter child operators
+  public static final String USE_SELECTIVITY_REORDER_OPTIMIZATION = "useSelectivityReorderOpt";
+
   /**
    * Returns the leaf filter operator (i.e. not {@link AndFilterOperator} or {@link OrFilterOperator}).
    */
@@ -77,6 +89,10 @@ public class FilterOperatorUtils {
       if (dataSource.getInvertedIndex() != null) {
         return new BitmapBasedFilterOperator(predicateEvaluator, dataSource, numDocs);
       }
+      // Bit-sliced range index can also answer EQ predicates exactly
+      if (predicateType == Predicate.Type.EQ && dataSource.getRangeIndex() instanceof BitSlicedRangeIndexReader) {
+        return new RangeIndexBasedFilterOperator(predicateEvaluator, dataSource, numDocs);
+      }
       return new ScanBasedFilterOperator(predicateEvaluator, dataSource, numDocs);
     }
   }
@@ -136,16 +152,30 @@ public class FilterOperatorUtils {
 
   /**
    * For AND filter operator, reorders its child filter operators based on the their cost and puts the ones with
-   * inverted index first in order to reduce the number of documents to be processed.
+   * inverted index first in order to reduce the number of documents to be processed. Child filter operators with the
+   * same cost are ordered by their selectivity estimate so that the most selective ones are evaluated first.
    * <p>Special filter operators such as {@link MatchAllFilterOperator} and {@link EmptyFilterOperator} should be
    * removed from the list before calling this method.
    */
   private static void reorderAndFilterChildOperators(List<BaseFilterOperator> filterOperators,
       @Nullable Map<String, String> debugOptions) {
+    boolean useSelectivity = debugOptions == null
+        || StringUtils.compareIgnoreCase(debugOptions.get(USE_SELECTIVITY_REORDER_OPTIMIZATION), "false") != 0;
+    // NOTE: Compute the selectivity estimates up-front because they might involve reading the index
+    Map<BaseFilterOperator, Double> selectivityEstimates = new IdentityHashMap<>();
+    if (useSelectivity) {
+      for (BaseFilterOperator filterOperator : filterOperators) {
+        selectivityEstimates.put(filterOperator, filterOperator.getSelectivityEstimate());
+      }
+    }
     filterOperators.sort(new Comparator<BaseFilterOperator>() {
       @Override
       public int compare(BaseFilterOperator o1, BaseFilterOperator o2) {
-        return getPriority(o1) - getPriority(o2);
+        int result = getPriority(o1) - getPriority(o2);
+        if (result != 0 || !useSelectivity) {
+          return result;
+        }
+        return Double.compare(selectivityEstimates.get(o1), selectivityEstimates.get(o2));
       }
 
       int getPriority(BaseFilterOperator filterOperator) {
@@ -181,8 +211,6 @@ public class FilterOperatorUtils {
    * Returns the priority for scan based filtering. Multivalue column evaluation is costly, so
    * reorder such that multivalue columns are evaluated after single value columns.
    *
-   * TODO: additional cost based prioritization to be added
-   *
    * @param scanBasedFilterOperator the filter operator to prioritize
    * @param debugOptions  debug-options to enable/disable the optimization
    * @return the priority to be associated with the filter
@@ -201,4 +229,106 @@ public class FilterOperatorUtils {
       return basePriority + 1;
     }
   }
+
+  /**
+   * Returns {@code true} if the matching dictionary ids (or non-matching dictionary ids for exclusive predicate) are
+   * pre-computed within the predicate evaluator and can be cheaply fetched, {@code false} otherwise (e.g. REGEXP_LIKE
+   * predicate evaluator needs to go over the dictionary to get the matching dictionary ids).
+   */
+  static boolean hasPrecomputedDictIds(PredicateEvaluator predicateEvaluator) {
+    switch (predicateEvaluator.getPredicateType()) {
+      case EQ:
+      case NOT_EQ:
+      case IN:
+      case NOT_IN:
+        return predicateEvaluator.isDictionaryBased();
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Returns the estimated fraction of the records matched by the predicate evaluator, computed from the fraction of
+   * the matching dictionary ids for dictionary-encoded column, or from the fraction of the column value range (min/max
+   * value) covered by the RANGE predicate for raw index column. Returns 1 if no estimate can be cheaply computed.
+   */
+  static double estimateSelectivity(PredicateEvaluator predicateEvaluator, DataSource dataSource) {
+    if (predicateEvaluator.isDictionaryBased()) {
+      Dictionary dictionary = dataSource.getDictionary();
+      if (dictionary == null || dictionary.length() == 0) {
+        return 1.0;
+      }
+      int cardinality = dictionary.length();
+      switch (predicateEvaluator.getPredicateType()) {
+        case EQ:
+        case IN:
+          return (double) predicateEvaluator.getNumMatchingDictIds() / cardinality;
+        case NOT_EQ:
+        case NOT_IN:
+          return 1.0 - (double) predicateEvaluator.getNumNonMatchingDictIds() / cardinality;
+        case RANGE:
+          // NOTE: Only the sorted dictionary can cheaply compute the number of matching dictionary ids
+          if (predicateEvaluator instanceof SortedDictionaryBasedRangePredicateEvaluator) {
+            return (double) predicateEvaluator.getNumMatchingDictIds() / cardinality;
+          }
+          return 1.0;
+        default:
+          return 1.0;
+      }
+    }
+
+    if (predicateEvaluator.getPredicateType() != Predicate.Type.RANGE) {
+      return 1.0;
+    }
+    DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+    Comparable minValue = dataSourceMetadata.getMinValue();
+    Comparable maxValue = dataSourceMetadata.getMaxValue();
+    if (!(minValue instanceof Number) || !(maxValue instanceof Number)) {
+      return 1.0;
+    }
+    double lowerBound;
+    double upperBound;
+    if (predicateEvaluator instanceof IntRawValueBasedRangePredicateEvaluator) {
+      IntRawValueBasedRangePredicateEvaluator evaluator =
+          (IntRawValueBasedRangePredicateEvaluator) predicateEvaluator;
+      lowerBound = evaluator.geLowerBound();
+      upperBound = evaluator.getUpperBound();
+    } else if (predicateEvaluator instanceof LongRawValueBasedRangePredicateEvaluator) {
+      LongRawValueBasedRangePredicateEvaluator evaluator =
+          (LongRawValueBasedRangePredicateEvaluator) predicateEvaluator;
+      lowerBound = evaluator.geLowerBound();
+      upperBound = evaluator.getUpperBound();
+    } else if (predicateEvaluator instanceof FloatRawValueBasedRangePredicateEvaluator) {
+      FloatRawValueBasedRangePredicateEvaluator evaluator =
+          (FloatRawValueBasedRangePredicateEvaluator) predicateEvaluator;
+      lowerBound = evaluator.geLowerBound();
+      upperBound = evaluator.getUpperBound();
+    } else if (predicateEvaluator instanceof DoubleRawValueBasedRangePredicateEvaluator) {
+      DoubleRawValueBasedRangePredicateEvaluator evaluator =
+          (DoubleRawValueBasedRangePredicateEvaluator) predicateEvaluator;
+      lowerBound = evaluator.geLowerBound();
+      upperBound = evaluator.getUpperBound();
+    } else {
+      return 1.0;
+    }
+    return estimateRangeSelectivity(lowerBound, upperBound, ((Number) minValue).doubleValue(),
+        ((Number) maxValue).doubleValue());
+  }
+
+  /**
+   * Returns the fraction of the column value range [minValue, maxValue] covered by the range [lowerBound, upperBound],
+   * assuming the values are uniformly distributed.
+   */
+  static double estimateRangeSelectivity(double lowerBound, double upperBound, double minValue, double maxValue) {
+    double start = Math.max(lowerBound, minValue);
+    double end = Math.min(upperBound, maxValue);
+    if (end < start) {
+      return 0.0;
+    }
+    if (maxValue <= minValue) {
+      return 1.0;
+    }
+    double selectivity = (end - start) / (maxValue - minValue);
+    return Double.isNaN(selectivity) ? 1.0 : Math.min(selectivity, 1.0);
+  }
 }
@@ -45,6 +45,16 @@ public class OrFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new OrDocIdSet(filterBlockDocIdSets, _numDocs));
   }
 
+  @Override
+  public double getSelectivityEstimate() {
+    // Upper bound of the selectivity, assuming the child filter operators match disjoint records
+    double selectivityEstimate = 0.0;
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      selectivityEstimate += filterOperator.getSelectivityEstimate();
+    }
+    return Math.min(selectivityEstimate, 1.0);
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -18,18 +18,26 @@
  */
 package org.apache.pinot.core.operator.filter;
 
+import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.core.operator.blocks.FilterBlock;
 import org.apache.pinot.core.operator.dociditerators.ScanBasedDocIdIterator;
 import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
 import org.apache.pinot.core.operator.docidsets.FilterBlockDocIdSet;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory.DoubleRawValueBasedEqPredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory.FloatRawValueBasedEqPredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory.IntRawValueBasedEqPredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory.LongRawValueBasedEqPredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.DoubleRawValueBasedRangePredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.FloatRawValueBasedRangePredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.IntRawValueBasedRangePredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.LongRawValueBasedRangePredicateEvaluator;
 import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.SortedDictionaryBasedRangePredicateEvaluator;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.BitSlicedRangeIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.RangeIndexReader;
 import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
@@ -37,8 +45,9 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 public class RangeIndexBasedFilterOperator extends BaseFilterOperator {
   private static final String OPERATOR_NAME = "RangeFilterOperator";
 
-  // NOTE: Range index can only apply to dictionary-encoded columns for now
-  // TODO: Support raw index columns
+  // NOTE: The bucketed range index can only apply to dictionary-encoded columns for now, while the bit-sliced range
+  //       index applies to both dictionary-encoded and raw index columns, and also supports EQ predicates
+  // TODO: Support raw index columns for the bucketed range index
   private final PredicateEvaluator _rangePredicateEvaluator;
   private final DataSource _dataSource;
   private final int _numDocs;
@@ -51,8 +60,13 @@ public class RangeIndexBasedFilterOperator extends BaseFilterOperator {
 
   @Override
   protected FilterBlock getNextBlock() {
-    RangeIndexReader rangeIndexReader = (RangeIndexReader) _dataSource.getRangeIndex();
-    assert rangeIndexReader != null;
+    InvertedIndexReader<?> rangeIndex = _dataSource.getRangeIndex();
+    assert rangeIndex != null;
+    if (rangeIndex instanceof BitSlicedRangeIndexReader) {
+      // Bit-sliced range index returns the exact matching docs, no need to scan
+      return new FilterBlock(new BitmapDocIdSet(getMatchingDocIds((BitSlicedRangeIndexReader) rangeIndex), _numDocs));
+    }
+    RangeIndexReader rangeIndexReader = (RangeIndexReader) rangeIndex;
 
     int firstRangeId;
     int lastRangeId;
@@ -121,6 +135,110 @@ public class RangeIndexBasedFilterOperator extends BaseFilterOperator {
     });
   }
 
+  private ImmutableRoaringBitmap getMatchingDocIds(BitSlicedRangeIndexReader rangeIndexReader) {
+    if (_rangePredicateEvaluator.getPredicateType() == Predicate.Type.EQ) {
+      if (_rangePredicateEvaluator.isDictionaryBased()) {
+        return rangeIndexReader.getDocIds(_rangePredicateEvaluator.getMatchingDictIds()[0]);
+      }
+      switch (_rangePredicateEvaluator.getDataType()) {
+        case INT: {
+          int value = ((IntRawValueBasedEqPredicateEvaluator) _rangePredicateEvaluator).getMatchingValue();
+          return rangeIndexReader.getMatchingDocIds(value, value);
+        }
+        case LONG: {
+          long value = ((LongRawValueBasedEqPredicateEvaluator) _rangePredicateEvaluator).getMatchingValue();
+          return rangeIndexReader.getMatchingDocIds(value, value);
+        }
+        case FLOAT: {
+          long ordinal = BitSlicedRangeIndexCreator
+              .toOrdinal(((FloatRawValueBasedEqPredicateEvaluator) _rangePredicateEvaluator).getMatchingValue());
+          return rangeIndexReader.getMatchingDocIds(ordinal, ordinal);
+        }
+        case DOUBLE: {
+          long ordinal = BitSlicedRangeIndexCreator
+              .toOrdinal(((DoubleRawValueBasedEqPredicateEvaluator) _rangePredicateEvaluator).getMatchingValue());
+          return rangeIndexReader.getMatchingDocIds(ordinal, ordinal);
+        }
+        default:
+          throw new IllegalStateException("String and Bytes data type not supported for Range Indexing");
+      }
+    }
+
+    // NOTE: Convert the bounds into inclusive ordinals. Exclusive bounds on the max/min ordinal cannot match any value.
+    long lowerOrdinal;
+    long upperOrdinal;
+    boolean lowerInclusive;
+    boolean upperInclusive;
+    if (_rangePredicateEvaluator instanceof SortedDictionaryBasedRangePredicateEvaluator) {
+      SortedDictionaryBasedRangePredicateEvaluator evaluator =
+          (SortedDictionaryBasedRangePredicateEvaluator) _rangePredicateEvaluator;
+      // NOTE: End dictionary id is exclusive in SortedDictionaryBasedRangePredicateEvaluator.
+      lowerOrdinal = evaluator.getStartDictId();
+      upperOrdinal = evaluator.getEndDictId();
+      lowerInclusive = true;
+      upperInclusive = false;
+    } else {
+      switch (_rangePredicateEvaluator.getDataType()) {
+        case INT: {
+          IntRawValueBasedRangePredicateEvaluator evaluator =
+              (IntRawValueBasedRangePredicateEvaluator) _rangePredicateEvaluator;
+          lowerOrdinal = evaluator.geLowerBound();
+          upperOrdinal = evaluator.getUpperBound();
+          lowerInclusive = evaluator.isLowerInclusive();
+          upperInclusive = evaluator.isUpperInclusive();
+          break;
+        }
+        case LONG: {
+          LongRawValueBasedRangePredicateEvaluator evaluator =
+              (LongRawValueBasedRangePredicateEvaluator) _rangePredicateEvaluator;
+          lowerOrdinal = evaluator.geLowerBound();
+          upperOrdinal = evaluator.getUpperBound();
+          lowerInclusive = evaluator.isLowerInclusive();
+          upperInclusive = evaluator.isUpperInclusive();
+          break;
+        }
+        case FLOAT: {
+          FloatRawValueBasedRangePredicateEvaluator evaluator =
+              (FloatRawValueBasedRangePredicateEvaluator) _rangePredicateEvaluator;
+          lowerOrdinal = BitSlicedRangeIndexCreator.toOrdinal(evaluator.geLowerBound());
+          upperOrdinal = BitSlicedRangeIndexCreator.toOrdinal(evaluator.getUpperBound());
+          lowerInclusive = evaluator.isLowerInclusive();
+          upperInclusive = evaluator.isUpperInclusive();
+          break;
+        }
+        case DOUBLE: {
+          DoubleRawValueBasedRangePredicateEvaluator evaluator =
+              (DoubleRawValueBasedRangePredicateEvaluator) _rangePredicateEvaluator;
+          lowerOrdinal = BitSlicedRangeIndexCreator.toOrdinal(evaluator.geLowerBound());
+          upperOrdinal = BitSlicedRangeIndexCreator.toOrdinal(evaluator.getUpperBound());
+          lowerInclusive = evaluator.isLowerInclusive();
+          upperInclusive = evaluator.isUpperInclusive();
+          break;
+        }
+        default:
+          throw new IllegalStateException("String and Bytes data type not supported for Range Indexing");
+      }
+    }
+    if (!lowerInclusive) {
+      if (lowerOrdinal == Long.MAX_VALUE) {
+        return new MutableRoaringBitmap();
+      }
+      lowerOrdinal++;
+    }
+    if (!upperInclusive) {
+      if (upperOrdinal == Long.MIN_VALUE) {
+        return new MutableRoaringBitmap();
+      }
+      upperOrdinal--;
+    }
+    return rangeIndexReader.getMatchingDocIds(lowerOrdinal, upperOrdinal);
+  }
+
+  @Override
+  public double getSelectivityEstimate() {
+    return FilterOperatorUtils.estimateSelectivity(_rangePredicateEvaluator, _dataSource);
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
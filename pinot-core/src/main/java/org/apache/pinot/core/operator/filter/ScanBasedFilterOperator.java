@@ -50,6 +50,11 @@ public class ScanBasedFilterOperator extends BaseFilterOperator {
     }
   }
 
+  @Override
+  public double getSelectivityEstimate() {
+    return FilterOperatorUtils.estimateSelectivity(_predicateEvaluator, _dataSource);
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
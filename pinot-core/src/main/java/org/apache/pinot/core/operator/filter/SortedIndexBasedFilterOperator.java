@@ -130,6 +130,37 @@ public class SortedIndexBasedFilterOperator extends BaseFilterOperator {
     }
   }
 
+  @Override
+  public double getSelectivityEstimate() {
+    if (_numDocs == 0) {
+      return 0.0;
+    }
+    // Sorted index gives the exact number of matching documents
+    long numMatchingDocs;
+    if (_predicateEvaluator instanceof SortedDictionaryBasedRangePredicateEvaluator) {
+      SortedDictionaryBasedRangePredicateEvaluator rangePredicateEvaluator =
+          (SortedDictionaryBasedRangePredicateEvaluator) _predicateEvaluator;
+      int startDocId = _sortedIndexReader.getDocIds(rangePredicateEvaluator.getStartDictId()).getLeft();
+      // NOTE: End dictionary id is exclusive in OfflineDictionaryBasedRangePredicateEvaluator.
+      int endDocId = _sortedIndexReader.getDocIds(rangePredicateEvaluator.getEndDictId() - 1).getRight();
+      numMatchingDocs = endDocId - startDocId + 1;
+    } else if (FilterOperatorUtils.hasPrecomputedDictIds(_predicateEvaluator)) {
+      boolean exclusive = _predicateEvaluator.isExclusive();
+      int[] dictIds =
+          exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
+      long numDocs = 0;
+      for (int dictId : dictIds) {
+        // NOTE: docIdRange has inclusive start and end.
+        IntPair docIdRange = _sortedIndexReader.getDocIds(dictId);
+        numDocs += docIdRange.getRight() - docIdRange.getLeft() + 1;
+      }
+      numMatchingDocs = exclusive ? _numDocs - numDocs : numDocs;
+    } else {
+      return super.getSelectivityEstimate();
+    }
+    return (double) numMatchingDocs / _numDocs;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -108,19 +108,35 @@ public class EqualsPredicateEvaluatorFactory {
       return _matchingDictId == dictId;
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int matchingDictId = _matchingDictId;
+      int matches = 0;
+      for (int i = 0; i < limit; i++) {
+        if (values[i] == matchingDictId) {
+          docIds[matches++] = docIds[i];
+        }
+      }
+      return matches;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       return _matchingDictIds;
     }
   }
 
-  private static final class IntRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
+  public static final class IntRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
     final int _matchingValue;
 
     IntRawValueBasedEqPredicateEvaluator(int matchingValue) {
       _matchingValue = matchingValue;
     }
 
+    public int getMatchingValue() {
+      return _matchingValue;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.EQ;
@@ -137,13 +153,17 @@ public class EqualsPredicateEvaluatorFactory {
     }
   }
 
-  private static final class LongRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
+  public static final class LongRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
     final long _matchingValue;
 
     LongRawValueBasedEqPredicateEvaluator(long matchingValue) {
       _matchingValue = matchingValue;
     }
 
+    public long getMatchingValue() {
+      return _matchingValue;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.EQ;
@@ -160,13 +180,17 @@ public class EqualsPredicateEvaluatorFactory {
     }
   }
 
-  private static final class FloatRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
+  public static final class FloatRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
     final float _matchingValue;
 
     FloatRawValueBasedEqPredicateEvaluator(float matchingValue) {
       _matchingValue = matchingValue;
     }
 
+    public float getMatchingValue() {
+      return _matchingValue;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.EQ;
@@ -183,13 +207,17 @@ public class EqualsPredicateEvaluatorFactory {
     }
   }
 
-  private static final class DoubleRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
+  public static final class DoubleRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
     final double _matchingValue;
 
     DoubleRawValueBasedEqPredicateEvaluator(double matchingValue) {
       _matchingValue = matchingValue;
     }
 
+    public double getMatchingValue() {
+      return _matchingValue;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.EQ;
@@ -22,6 +22,7 @@ import it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet;
 import it.unimi.dsi.fastutil.doubles.DoubleSet;
 import it.unimi.dsi.fastutil.floats.FloatOpenHashSet;
 import it.unimi.dsi.fastutil.floats.FloatSet;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
@@ -132,9 +133,15 @@ public class InPredicateEvaluatorFactory {
   }
 
   private static final class DictionaryBasedInPredicateEvaluator extends BaseDictionaryBasedPredicateEvaluator {
+    // Up to 128KB per bitset
+    static final int MAX_DICT_ID_FOR_BIT_SET = 1 << 20;
+
     final IntSet _matchingDictIdSet;
     final int _numMatchingDictIds;
     int[] _matchingDictIds;
+    // Bitset of the matching dictionary ids for the batched evaluation, null if the max matching dictionary id is too
+    // large to be stored in a bitset
+    long[] _matchingDictIdBitSet;
 
     DictionaryBasedInPredicateEvaluator(InPredicate inPredicate, Dictionary dictionary, DataType dataType) {
       List<String> values = inPredicate.getValues();
@@ -151,6 +158,20 @@ public class InPredicateEvaluatorFactory {
       } else if (dictionary.length() == _numMatchingDictIds) {
         _alwaysTrue = true;
       }
+      int maxMatchingDictId = -1;
+      IntIterator iterator = _matchingDictIdSet.iterator();
+      while (iterator.hasNext()) {
+        maxMatchingDictId = Math.max(maxMatchingDictId, iterator.nextInt());
+      }
+      // No bitset is needed when none of the values is in the dictionary, and the matching falls back to the empty set
+      if (maxMatchingDictId >= 0 && maxMatchingDictId < MAX_DICT_ID_FOR_BIT_SET) {
+        _matchingDictIdBitSet = new long[(maxMatchingDictId >>> 6) + 1];
+        iterator = _matchingDictIdSet.iterator();
+        while (iterator.hasNext()) {
+          int dictId = iterator.nextInt();
+          _matchingDictIdBitSet[dictId >>> 6] |= 1L << dictId;
+        }
+      }
     }
 
     @Override
@@ -163,6 +184,24 @@ public class InPredicateEvaluatorFactory {
       return _matchingDictIdSet.contains(dictId);
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      long[] bitSet = _matchingDictIdBitSet;
+      if (bitSet == null) {
+        return super.applySV(limit, docIds, values);
+      }
+      int numWords = bitSet.length;
+      int matches = 0;
+      for (int i = 0; i < limit; i++) {
+        int dictId = values[i];
+        int wordIndex = dictId >>> 6;
+        if (wordIndex < numWords && (bitSet[wordIndex] & (1L << dictId)) != 0) {
+          docIds[matches++] = docIds[i];
+        }
+      }
+      return matches;
+    }
+
     @Override
     public int getNumMatchingDictIds() {
       return _numMatchingDictIds;
@@ -75,6 +75,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(int[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the document ids of the matching entries to
+   * the front of the document ids array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Document ids of the entries, overwritten with the matching document ids
+   * @param values Dictionary ids or raw values of the entries
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, int[] values) {
+    int matches = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[matches++] = docIds[i];
+      }
+    }
+    return matches;
+  }
+
   /**
    * APIs for dictionary based predicate evaluator
    */
@@ -120,6 +139,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(long[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the document ids of the matching entries to
+   * the front of the document ids array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Document ids of the entries, overwritten with the matching document ids
+   * @param values Raw values of the entries
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, long[] values) {
+    int matches = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[matches++] = docIds[i];
+      }
+    }
+    return matches;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -137,6 +175,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(float[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the document ids of the matching entries to
+   * the front of the document ids array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Document ids of the entries, overwritten with the matching document ids
+   * @param values Raw values of the entries
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, float[] values) {
+    int matches = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[matches++] = docIds[i];
+      }
+    }
+    return matches;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -154,6 +211,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(double[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the document ids of the matching entries to
+   * the front of the document ids array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Document ids of the entries, overwritten with the matching document ids
+   * @param values Raw values of the entries
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, double[] values) {
+    int matches = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[matches++] = docIds[i];
+      }
+    }
+    return matches;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -175,6 +175,21 @@ public class RangePredicateEvaluatorFactory {
       return _startDictId <= dictId && _endDictId > dictId;
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      // NOTE: Keep the loop simple with local bounds so that it can be unrolled by the JIT
+      int startDictId = _startDictId;
+      int endDictId = _endDictId;
+      int matches = 0;
+      for (int i = 0; i < limit; i++) {
+        int dictId = values[i];
+        if (dictId >= startDictId && dictId < endDictId) {
+          docIds[matches++] = docIds[i];
+        }
+      }
+      return matches;
+    }
+
     @Override
     public int getNumMatchingDictIds() {
       return _numMatchingDictIds;
@@ -294,6 +309,14 @@ public class RangePredicateEvaluatorFactory {
       return _upperBound;
     }
 
+    public boolean isLowerInclusive() {
+      return _lowerInclusive;
+    }
+
+    public boolean isUpperInclusive() {
+      return _upperInclusive;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.RANGE;
@@ -343,6 +366,14 @@ public class RangePredicateEvaluatorFactory {
       return _upperBound;
     }
 
+    public boolean isLowerInclusive() {
+      return _lowerInclusive;
+    }
+
+    public boolean isUpperInclusive() {
+      return _upperInclusive;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.RANGE;
@@ -392,6 +423,14 @@ public class RangePredicateEvaluatorFactory {
       return _upperBound;
     }
 
+    public boolean isLowerInclusive() {
+      return _lowerInclusive;
+    }
+
+    public boolean isUpperInclusive() {
+      return _upperInclusive;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.RANGE;
@@ -441,6 +480,14 @@ public class RangePredicateEvaluatorFactory {
       return _upperBound;
     }
 
+    public boolean isLowerInclusive() {
+      return _lowerInclusive;
+    }
+
+    public boolean isUpperInclusive() {
+      return _upperInclusive;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.RANGE;
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.query;
+
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.BaseOperator;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
+
+
+/**
+ * The <code>SegmentResultCacheOperator</code> class provides the operator that serves the results for a single
+ * segment from the {@link SegmentResultCache}, and only executes the underlying plan on cache miss.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SegmentResultCacheOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "SegmentResultCacheOperator";
+
+  private final SegmentResultCache _segmentResultCache;
+  private final String _cacheKey;
+  private final AggregationFunction[] _aggregationFunctions;
+  private final PlanNode _planNode;
+
+  private ExecutionStatistics _executionStatistics;
+
+  public SegmentResultCacheOperator(SegmentResultCache segmentResultCache, String cacheKey,
+      AggregationFunction[] aggregationFunctions, PlanNode planNode) {
+    _segmentResultCache = segmentResultCache;
+    _cacheKey = cacheKey;
+    _aggregationFunctions = aggregationFunctions;
+    _planNode = planNode;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    SegmentResultCache.CachedResult cachedResult = _segmentResultCache.get(_cacheKey);
+    if (cachedResult != null) {
+      _executionStatistics = cachedResult.getExecutionStatistics();
+      return cachedResult.getResultsBlock(_aggregationFunctions);
+    }
+
+    Operator<IntermediateResultsBlock> operator = (Operator<IntermediateResultsBlock>) _planNode.run();
+    IntermediateResultsBlock resultsBlock = operator.nextBlock();
+    _executionStatistics = operator.getExecutionStatistics();
+    // NOTE: Put the results before returning the block because the combine operator might merge other results into it
+    _segmentResultCache.put(_cacheKey, resultsBlock, _executionStatistics);
+    return resultsBlock;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics != null ? _executionStatistics : new ExecutionStatistics(0, 0, 0, 0);
+  }
+}
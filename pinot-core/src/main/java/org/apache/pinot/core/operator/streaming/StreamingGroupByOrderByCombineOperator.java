@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.streaming;
+
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.pinot.common.proto.Server;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.combine.GroupByOrderByCombineOperator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.util.QueryOptions;
+
+
+/**
+ * Combine operator for aggregation group-by streaming queries.
+ * <p>The group-by results from all the segments are merged into an indexed table the same way as the non-streaming
+ * {@link GroupByOrderByCombineOperator}, but whenever the indexed table reaches {@code streamingChunkSize} records,
+ * the partially merged records are streamed back and removed from the table. The memory of the table and the size of
+ * each response are bounded by the chunk size instead of the number of groups. Because the same group can be streamed
+ * in multiple chunks, the records are not trimmed on the server, and the client of the stream needs to merge the
+ * chunks. The returned results block only contains the metadata (and exceptions if any).
+ */
+@SuppressWarnings("rawtypes")
+public class StreamingGroupByOrderByCombineOperator extends GroupByOrderByCombineOperator {
+  public static final int DEFAULT_STREAMING_CHUNK_SIZE = 10_000;
+  private static final String OPERATOR_NAME = "StreamingGroupByOrderByCombineOperator";
+
+  private final StreamObserver<Server.ServerResponse> _streamObserver;
+  private final int _chunkSize;
+  // Records are merged into the indexed table under the read lock, and flushed from the table under the write lock
+  private final ReadWriteLock _flushLock = new ReentrantReadWriteLock();
+  // Guarded by the write lock of the flush lock. Once set, no more records can be streamed back.
+  private boolean _finished;
+
+  public StreamingGroupByOrderByCombineOperator(List<Operator> operators, QueryContext queryContext,
+      ExecutorService executorService, long endTimeMs, StreamObserver<Server.ServerResponse> streamObserver) {
+    // NOTE: Use the max trim threshold so that the partially merged records are never trimmed
+    super(operators, queryContext, executorService, endTimeMs, MAX_TRIM_THRESHOLD);
+    _streamObserver = streamObserver;
+    Integer chunkSize = new QueryOptions(queryContext.getQueryOptions()).getStreamingChunkSize();
+    _chunkSize = chunkSize != null ? chunkSize : DEFAULT_STREAMING_CHUNK_SIZE;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  protected void mergeRecord(ConcurrentIndexedTable indexedTable, Key key, Record record)
+      throws IOException {
+    _flushLock.readLock().lock();
+    try {
+      indexedTable.upsert(key, record);
+    } finally {
+      _flushLock.readLock().unlock();
+    }
+    if (indexedTable.size() >= _chunkSize) {
+      flush(indexedTable, false);
+    }
+  }
+
+  @Override
+  protected IntermediateResultsBlock mergeResults()
+      throws Exception {
+    IntermediateResultsBlock mergedBlock = super.mergeResults();
+    // Stop streaming back records after the metadata is returned (e.g. the query times out while the worker threads
+    // are still merging records)
+    _flushLock.writeLock().lock();
+    try {
+      _finished = true;
+    } finally {
+      _flushLock.writeLock().unlock();
+    }
+    return mergedBlock;
+  }
+
+  /**
+   * Streams back the remaining records in the indexed table, and returns a results block without the records for the
+   * metadata.
+   */
+  @Override
+  protected IntermediateResultsBlock getMergedBlock(ConcurrentIndexedTable indexedTable)
+      throws IOException {
+    flush(indexedTable, true);
+    return new IntermediateResultsBlock();
+  }
+
+  /**
+   * Streams back the records in the indexed table in chunks of at most {@code streamingChunkSize} records, and removes
+   * them from the table. When not forced, only flushes the table if it still reaches the chunk size.
+   */
+  private void flush(ConcurrentIndexedTable indexedTable, boolean force)
+      throws IOException {
+    _flushLock.writeLock().lock();
+    try {
+      if (_finished || (!force && indexedTable.size() < _chunkSize)) {
+        return;
+      }
+      DataSchema dataSchema = indexedTable.getDataSchema();
+      Collection<Record> records = indexedTable.removeAllRecords();
+      Iterator<Record> iterator = records.iterator();
+      while (iterator.hasNext()) {
+        DataTable dataTable = IntermediateResultsBlock.getDataTableFromRecords(dataSchema, iterator, _chunkSize);
+        _streamObserver.onNext(StreamingResponseUtils.getDataResponse(dataTable));
+      }
+    } finally {
+      _flushLock.writeLock().unlock();
+    }
+  }
+}
@@ -50,6 +50,11 @@ public class AggregationGroupByOrderByPlanNode implements PlanNode {
 
   public AggregationGroupByOrderByPlanNode(IndexSegment indexSegment, QueryContext queryContext,
       int maxInitialResultHolderCapacity, int numGroupsLimit) {
+    this(indexSegment, queryContext, maxInitialResultHolderCapacity, numGroupsLimit, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  public AggregationGroupByOrderByPlanNode(IndexSegment indexSegment, QueryContext queryContext,
+      int maxInitialResultHolderCapacity, int numGroupsLimit, int maxDocsPerCall) {
     _indexSegment = indexSegment;
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
     _numGroupsLimit = numGroupsLimit;
@@ -84,8 +89,7 @@ public class AggregationGroupByOrderByPlanNode implements PlanNode {
 
     Set<ExpressionContext> expressionsToTransform =
         AggregationFunctionUtils.collectExpressionsToTransform(_aggregationFunctions, _groupByExpressions);
-    _transformPlanNode =
-        new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    _transformPlanNode = new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform, maxDocsPerCall);
     _starTreeTransformPlanNode = null;
   }
 
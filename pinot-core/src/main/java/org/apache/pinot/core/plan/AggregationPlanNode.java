@@ -46,6 +46,10 @@ public class AggregationPlanNode implements PlanNode {
   private final StarTreeTransformPlanNode _starTreeTransformPlanNode;
 
   public AggregationPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
+    this(indexSegment, queryContext, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  public AggregationPlanNode(IndexSegment indexSegment, QueryContext queryContext, int maxDocsPerCall) {
     _indexSegment = indexSegment;
     _aggregationFunctions = queryContext.getAggregationFunctions();
     assert _aggregationFunctions != null;
@@ -74,8 +78,7 @@ public class AggregationPlanNode implements PlanNode {
 
     Set<ExpressionContext> expressionsToTransform =
         AggregationFunctionUtils.collectExpressionsToTransform(_aggregationFunctions, null);
-    _transformPlanNode =
-        new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    _transformPlanNode = new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform, maxDocsPerCall);
     _starTreeTransformPlanNode = null;
   }
 
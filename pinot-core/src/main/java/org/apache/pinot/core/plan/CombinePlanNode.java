@@ -34,8 +34,10 @@ import org.apache.pinot.core.operator.combine.AggregationOnlyCombineOperator;
 import org.apache.pinot.core.operator.combine.DistinctCombineOperator;
 import org.apache.pinot.core.operator.combine.GroupByCombineOperator;
 import org.apache.pinot.core.operator.combine.GroupByOrderByCombineOperator;
+import org.apache.pinot.core.operator.combine.PartitionedGroupByOrderByCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOnlyCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOrderByCombineOperator;
+import org.apache.pinot.core.operator.streaming.StreamingGroupByOrderByCombineOperator;
 import org.apache.pinot.core.operator.streaming.StreamingSelectionOnlyCombineOperator;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
@@ -169,7 +171,12 @@ public class CombinePlanNode implements PlanNode {
     }
 
     if (_streamObserver != null) {
-      // Streaming query (only support selection only)
+      // Streaming query (support selection only and aggregation group-by)
+      if (QueryContextUtils.isAggregationQuery(_queryContext)) {
+        assert _queryContext.getGroupByExpressions() != null;
+        return new StreamingGroupByOrderByCombineOperator(operators, _queryContext, _executorService, _endTimeMs,
+            _streamObserver);
+      }
       return new StreamingSelectionOnlyCombineOperator(operators, _queryContext, _executorService, _endTimeMs,
           _streamObserver);
     }
@@ -181,6 +188,10 @@ public class CombinePlanNode implements PlanNode {
         // Aggregation group-by
         QueryOptions queryOptions = new QueryOptions(_queryContext.getQueryOptions());
         if (queryOptions.isGroupByModeSQL()) {
+          if (queryOptions.isPartitionedGroupByCombine()) {
+            return new PartitionedGroupByOrderByCombineOperator(operators, _queryContext, _executorService, _endTimeMs,
+                _groupByTrimThreshold);
+          }
           return new GroupByOrderByCombineOperator(operators, _queryContext, _executorService, _endTimeMs,
               _groupByTrimThreshold);
         }
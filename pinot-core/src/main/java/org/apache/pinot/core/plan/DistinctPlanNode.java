@@ -35,6 +35,10 @@ public class DistinctPlanNode implements PlanNode {
   private final TransformPlanNode _transformPlanNode;
 
   public DistinctPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
+    this(indexSegment, queryContext, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  public DistinctPlanNode(IndexSegment indexSegment, QueryContext queryContext, int maxDocsPerCall) {
     _indexSegment = indexSegment;
     AggregationFunction[] aggregationFunctions = queryContext.getAggregationFunctions();
     assert aggregationFunctions != null && aggregationFunctions.length == 1
@@ -42,7 +46,7 @@ public class DistinctPlanNode implements PlanNode {
     _distinctAggregationFunction = (DistinctAggregationFunction) aggregationFunctions[0];
     _transformPlanNode =
         new TransformPlanNode(_indexSegment, queryContext, _distinctAggregationFunction.getInputExpressions(),
-            DocIdSetPlanNode.MAX_DOC_PER_CALL);
+            maxDocsPerCall);
   }
 
   @Override
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan;
+
+import org.apache.pinot.core.operator.query.SegmentResultCacheOperator;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.spi.IndexSegment;
+
+
+/**
+ * The <code>SegmentResultCachePlanNode</code> class provides the execution plan that looks up the results for a
+ * single segment from the {@link SegmentResultCache} before falling back to the underlying plan.
+ */
+public class SegmentResultCachePlanNode implements PlanNode {
+  private final SegmentResultCache _segmentResultCache;
+  private final String _cacheKey;
+  private final QueryContext _queryContext;
+  private final PlanNode _planNode;
+
+  public SegmentResultCachePlanNode(SegmentResultCache segmentResultCache, IndexSegment indexSegment,
+      QueryContext queryContext, PlanNode planNode) {
+    _segmentResultCache = segmentResultCache;
+    _cacheKey = SegmentResultCache.getCacheKey(indexSegment, queryContext);
+    _queryContext = queryContext;
+    _planNode = planNode;
+  }
+
+  @Override
+  public SegmentResultCacheOperator run() {
+    return new SegmentResultCacheOperator(_segmentResultCache, _cacheKey, _queryContext.getAggregationFunctions(),
+        _planNode);
+  }
+}
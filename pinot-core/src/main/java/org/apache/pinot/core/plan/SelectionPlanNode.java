@@ -44,6 +44,10 @@ public class SelectionPlanNode implements PlanNode {
   private final TransformPlanNode _transformPlanNode;
 
   public SelectionPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
+    this(indexSegment, queryContext, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  public SelectionPlanNode(IndexSegment indexSegment, QueryContext queryContext, int maxDocsPerCall) {
     _indexSegment = indexSegment;
     _queryContext = queryContext;
     _expressions = SelectionOperatorUtils.extractExpressions(queryContext, indexSegment);
@@ -52,14 +56,14 @@ public class SelectionPlanNode implements PlanNode {
       List<OrderByExpressionContext> orderByExpressions = _queryContext.getOrderByExpressions();
       if (orderByExpressions == null) {
         // Selection only
-        _transformPlanNode = new TransformPlanNode(_indexSegment, queryContext, _expressions,
-            Math.min(limit, DocIdSetPlanNode.MAX_DOC_PER_CALL));
+        _transformPlanNode =
+            new TransformPlanNode(_indexSegment, queryContext, _expressions, Math.min(limit, maxDocsPerCall));
       } else {
         // Selection order-by
         if (orderByExpressions.size() == _expressions.size()) {
           // All output expressions are ordered
           _transformPlanNode =
-              new TransformPlanNode(_indexSegment, queryContext, _expressions, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+              new TransformPlanNode(_indexSegment, queryContext, _expressions, maxDocsPerCall);
         } else {
           // Not all output expressions are ordered, only fetch the order-by expressions and docId to avoid the
           // unnecessary data fetch
@@ -68,8 +72,8 @@ public class SelectionPlanNode implements PlanNode {
             expressionsToTransform.add(orderByExpression.getExpression());
           }
           expressionsToTransform.add(ExpressionContext.forIdentifier(BuiltInVirtualColumn.DOCID));
-          _transformPlanNode = new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform,
-              DocIdSetPlanNode.MAX_DOC_PER_CALL);
+          _transformPlanNode =
+              new TransformPlanNode(_indexSegment, queryContext, expressionsToTransform, maxDocsPerCall);
         }
       }
     } else {
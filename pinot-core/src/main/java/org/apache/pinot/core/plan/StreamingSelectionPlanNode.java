@@ -39,13 +39,17 @@ public class StreamingSelectionPlanNode implements PlanNode {
   private final TransformPlanNode _transformPlanNode;
 
   public StreamingSelectionPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
+    this(indexSegment, queryContext, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  public StreamingSelectionPlanNode(IndexSegment indexSegment, QueryContext queryContext, int maxDocsPerCall) {
     Preconditions
         .checkState(queryContext.getOrderByExpressions() == null, "Selection order-by is not supported for streaming");
     _indexSegment = indexSegment;
     _queryContext = queryContext;
     _expressions = SelectionOperatorUtils.extractExpressions(queryContext, indexSegment);
     _transformPlanNode = new TransformPlanNode(_indexSegment, queryContext, _expressions,
-        Math.min(queryContext.getLimit(), DocIdSetPlanNode.MAX_DOC_PER_CALL));
+        Math.min(queryContext.getLimit(), maxDocsPerCall));
   }
 
   @Override
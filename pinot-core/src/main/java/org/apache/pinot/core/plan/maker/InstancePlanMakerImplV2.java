@@ -22,31 +22,43 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.proto.Server;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FunctionContext;
+import org.apache.pinot.common.request.context.OrderByExpressionContext;
 import org.apache.pinot.core.plan.AggregationGroupByOrderByPlanNode;
 import org.apache.pinot.core.plan.AggregationGroupByPlanNode;
 import org.apache.pinot.core.plan.AggregationPlanNode;
 import org.apache.pinot.core.plan.CombinePlanNode;
 import org.apache.pinot.core.plan.DictionaryBasedAggregationPlanNode;
 import org.apache.pinot.core.plan.DistinctPlanNode;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
 import org.apache.pinot.core.plan.GlobalPlanImplV0;
 import org.apache.pinot.core.plan.InstanceResponsePlanNode;
 import org.apache.pinot.core.plan.MetadataBasedAggregationPlanNode;
 import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.plan.SegmentResultCachePlanNode;
 import org.apache.pinot.core.plan.SelectionPlanNode;
 import org.apache.pinot.core.plan.StreamingSelectionPlanNode;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
 import org.apache.pinot.core.query.config.QueryExecutorConfig;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
 import org.apache.pinot.core.util.QueryOptions;
+import org.apache.pinot.segment.local.segment.index.metadata.ColumnMetadata;
+import org.apache.pinot.segment.local.segment.index.metadata.SegmentMetadataImpl;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,17 +79,27 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   public static final String GROUPBY_TRIM_THRESHOLD = "groupby.trim.threshold";
   public static final int DEFAULT_GROUPBY_TRIM_THRESHOLD = 1_000_000;
 
+  // Target size of the projected values for each block, beyond which the block size is reduced so that the values of
+  // a block can fit into the CPU cache and the transient buffers stay small for the wide selection queries
+  public static final int TARGET_BLOCK_SIZE_BYTES = 1024 * 1024;
+  public static final int MIN_DOCS_PER_CALL = 1000;
+  // Estimated size for the STRING/BYTES values when the max length is not available in the segment metadata
+  private static final int DEFAULT_VARIABLE_LENGTH_VALUE_SIZE = 64;
+
   private final int _maxInitialResultHolderCapacity;
   // Limit on number of groups stored for each segment, beyond which no new group will be created
   private final int _numGroupsLimit;
   // Used for SQL GROUP BY (server combine)
   private final int _groupByTrimThreshold;
+  // Cache for the per-segment results of the aggregation-only queries, null if disabled
+  private final SegmentResultCache _segmentResultCache;
 
   @VisibleForTesting
   public InstancePlanMakerImplV2() {
     _maxInitialResultHolderCapacity = DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY;
     _numGroupsLimit = DEFAULT_NUM_GROUPS_LIMIT;
     _groupByTrimThreshold = DEFAULT_GROUPBY_TRIM_THRESHOLD;
+    _segmentResultCache = null;
   }
 
   @VisibleForTesting
@@ -85,6 +107,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
     _numGroupsLimit = numGroupsLimit;
     _groupByTrimThreshold = DEFAULT_GROUPBY_TRIM_THRESHOLD;
+    _segmentResultCache = null;
   }
 
   /**
@@ -97,6 +120,18 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
    * @param queryExecutorConfig Query executor configuration
    */
   public InstancePlanMakerImplV2(QueryExecutorConfig queryExecutorConfig) {
+    this(queryExecutorConfig, null);
+  }
+
+  /**
+   * Constructor for usage when client requires to pass {@link QueryExecutorConfig} and {@link SegmentResultCache} to
+   * this class.
+   *
+   * @param queryExecutorConfig Query executor configuration
+   * @param segmentResultCache Cache for the per-segment results, or {@code null} if disabled
+   */
+  public InstancePlanMakerImplV2(QueryExecutorConfig queryExecutorConfig,
+      @Nullable SegmentResultCache segmentResultCache) {
     _maxInitialResultHolderCapacity = queryExecutorConfig.getConfig()
         .getProperty(MAX_INITIAL_RESULT_HOLDER_CAPACITY_KEY, DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY);
     _numGroupsLimit = queryExecutorConfig.getConfig().getProperty(NUM_GROUPS_LIMIT, DEFAULT_NUM_GROUPS_LIMIT);
@@ -107,6 +142,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
         _maxInitialResultHolderCapacity, _numGroupsLimit);
     LOGGER.info("Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}",
         _maxInitialResultHolderCapacity, _numGroupsLimit);
+    _segmentResultCache = segmentResultCache;
   }
 
   @Override
@@ -124,6 +160,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
 
   @Override
   public PlanNode makeSegmentPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
+    int maxDocsPerCall = getMaxDocsPerCall(indexSegment, queryContext);
     if (QueryContextUtils.isAggregationQuery(queryContext)) {
       List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
       if (groupByExpressions != null) {
@@ -132,10 +169,10 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
         // new Combine operator only when GROUP_BY_MODE explicitly set to SQL
         if (queryOptions.isGroupByModeSQL()) {
           return new AggregationGroupByOrderByPlanNode(indexSegment, queryContext, _maxInitialResultHolderCapacity,
-              _numGroupsLimit);
+              _numGroupsLimit, maxDocsPerCall);
         }
         return new AggregationGroupByPlanNode(indexSegment, queryContext, _maxInitialResultHolderCapacity,
-            _numGroupsLimit);
+            _numGroupsLimit, maxDocsPerCall);
       } else {
         // Aggregation only query
 
@@ -148,13 +185,17 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
             return new DictionaryBasedAggregationPlanNode(indexSegment, queryContext);
           }
         }
-        return new AggregationPlanNode(indexSegment, queryContext);
+        AggregationPlanNode aggregationPlanNode = new AggregationPlanNode(indexSegment, queryContext, maxDocsPerCall);
+        if (_segmentResultCache != null && SegmentResultCache.isCacheable(indexSegment, queryContext)) {
+          return new SegmentResultCachePlanNode(_segmentResultCache, indexSegment, queryContext, aggregationPlanNode);
+        }
+        return aggregationPlanNode;
       }
     } else if (QueryContextUtils.isSelectionQuery(queryContext)) {
-      return new SelectionPlanNode(indexSegment, queryContext);
+      return new SelectionPlanNode(indexSegment, queryContext, maxDocsPerCall);
     } else {
       assert QueryContextUtils.isDistinctQuery(queryContext);
-      return new DistinctPlanNode(indexSegment, queryContext);
+      return new DistinctPlanNode(indexSegment, queryContext, maxDocsPerCall);
     }
   }
 
@@ -173,12 +214,104 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
 
   @Override
   public PlanNode makeStreamingSegmentPlanNode(IndexSegment indexSegment, QueryContext queryContext) {
-    if (!QueryContextUtils.isSelectionQuery(queryContext)) {
-      throw new UnsupportedOperationException("Only selection queries are supported");
-    } else {
+    if (QueryContextUtils.isSelectionQuery(queryContext)) {
       // Selection query
-      return new StreamingSelectionPlanNode(indexSegment, queryContext);
+      return new StreamingSelectionPlanNode(indexSegment, queryContext, getMaxDocsPerCall(indexSegment, queryContext));
+    } else if (QueryContextUtils.isAggregationQuery(queryContext) && queryContext.getGroupByExpressions() != null) {
+      // Aggregation group-by query, always use SQL semantic so that the combined results can be streamed as records
+      return new AggregationGroupByOrderByPlanNode(indexSegment, queryContext, _maxInitialResultHolderCapacity,
+          _numGroupsLimit, getMaxDocsPerCall(indexSegment, queryContext));
+    } else {
+      throw new UnsupportedOperationException("Only selection and aggregation group-by queries are supported");
+    }
+  }
+
+  /**
+   * Returns the max number of documents to process in each block for the given segment and query.
+   * <p>The value can be overridden with the query option {@code maxDocsPerCall}. Otherwise it is chosen from the
+   * estimated size of the projected values of each document so that each block holds about
+   * {@link #TARGET_BLOCK_SIZE_BYTES} of values, bounded by {@link #MIN_DOCS_PER_CALL} and
+   * {@link DocIdSetPlanNode#MAX_DOC_PER_CALL} (the size of the buffers shared by the operators).
+   * <p>The filter selectivity does not change the size of a block because the blocks are filled with the matching
+   * documents, so narrow queries always use the max block size.
+   */
+  @VisibleForTesting
+  static int getMaxDocsPerCall(IndexSegment indexSegment, QueryContext queryContext) {
+    Integer maxDocsPerCall = new QueryOptions(queryContext.getQueryOptions()).getMaxDocsPerCall();
+    if (maxDocsPerCall != null) {
+      return Math.min(maxDocsPerCall, DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+
+    Set<String> projectedColumns = new HashSet<>();
+    for (ExpressionContext expression : queryContext.getSelectExpressions()) {
+      expression.getColumns(projectedColumns);
+    }
+    List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
+    if (groupByExpressions != null) {
+      for (ExpressionContext expression : groupByExpressions) {
+        expression.getColumns(projectedColumns);
+      }
+    }
+    List<OrderByExpressionContext> orderByExpressions = queryContext.getOrderByExpressions();
+    if (orderByExpressions != null) {
+      for (OrderByExpressionContext orderByExpression : orderByExpressions) {
+        orderByExpression.getExpression().getColumns(projectedColumns);
+      }
+    }
+    // NOTE: "*" is used for both "SELECT *" and "COUNT(*)"
+    if (projectedColumns.remove("*") && QueryContextUtils.isSelectionQuery(queryContext)) {
+      projectedColumns.addAll(indexSegment.getPhysicalColumnNames());
+    }
+
+    long docSizeInBytes = 0;
+    for (String column : projectedColumns) {
+      docSizeInBytes += getValueSizeInBytes(indexSegment, column);
+    }
+    if (docSizeInBytes == 0) {
+      return DocIdSetPlanNode.MAX_DOC_PER_CALL;
+    }
+    long numDocs = TARGET_BLOCK_SIZE_BYTES / docSizeInBytes;
+    return (int) Math.max(MIN_DOCS_PER_CALL, Math.min(numDocs, DocIdSetPlanNode.MAX_DOC_PER_CALL));
+  }
+
+  /**
+   * Returns the estimated size of the values (including the dictionary ids) of a document for the given column.
+   */
+  private static int getValueSizeInBytes(IndexSegment indexSegment, String column) {
+    if (!indexSegment.getColumnNames().contains(column)) {
+      // Invalid column, which will be rejected when building the operators
+      return 0;
+    }
+    DataSource dataSource = indexSegment.getDataSource(column);
+    DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+    int valueSize;
+    switch (dataSourceMetadata.getDataType().getStoredType()) {
+      case INT:
+      case FLOAT:
+        valueSize = Integer.BYTES;
+        break;
+      case LONG:
+      case DOUBLE:
+        valueSize = Long.BYTES;
+        break;
+      default:
+        valueSize = DEFAULT_VARIABLE_LENGTH_VALUE_SIZE;
+        SegmentMetadata segmentMetadata = indexSegment.getSegmentMetadata();
+        if (segmentMetadata instanceof SegmentMetadataImpl) {
+          ColumnMetadata columnMetadata = ((SegmentMetadataImpl) segmentMetadata).getColumnMetadataFor(column);
+          if (columnMetadata != null && columnMetadata.getColumnMaxLength() > 0) {
+            valueSize = columnMetadata.getColumnMaxLength();
+          }
+        }
+        break;
+    }
+    if (dataSource.getDictionary() != null) {
+      valueSize += Integer.BYTES;
+    }
+    if (!dataSourceMetadata.isSingleValue()) {
+      valueSize *= Math.max(dataSourceMetadata.getMaxNumValuesPerMVEntry(), 1);
     }
+    return valueSize;
   }
 
   /**
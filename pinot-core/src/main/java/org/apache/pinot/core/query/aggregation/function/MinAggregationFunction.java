@@ -24,8 +24,8 @@ import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
 import org.apache.pinot.core.common.BlockValSet;
 import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.DoubleAggregationResultHolder;
-import org.apache.pinot.core.query.aggregation.groupby.DoubleGroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolderFactory;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 
 
@@ -48,7 +48,7 @@ public class MinAggregationFunction extends BaseSingleInputAggregationFunction<D
 
   @Override
   public GroupByResultHolder createGroupByResultHolder(int initialCapacity, int maxCapacity) {
-    return new DoubleGroupByResultHolder(initialCapacity, maxCapacity, DEFAULT_VALUE);
+    return GroupByResultHolderFactory.getDoubleGroupByResultHolder(initialCapacity, maxCapacity, DEFAULT_VALUE);
   }
 
   @Override
@@ -20,8 +20,6 @@ package org.apache.pinot.core.query.aggregation.groupby;
 
 import com.google.common.annotations.VisibleForTesting;
 import it.unimi.dsi.fastutil.HashCommon;
-import it.unimi.dsi.fastutil.longs.Long2IntMap;
-import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
@@ -52,8 +50,13 @@ import org.apache.pinot.segment.spi.index.reader.Dictionary;
  *     raw keys and map them onto contiguous group ids. (LONG_MAP_BASED)
  *   </li>
  *   <li>
- *     If the maximum number of possible group keys cannot fit into long, use int arrays as the raw keys to store the
- *     dictionary ids of all the group-by columns and map them onto contiguous group ids. (ARRAY_MAP_BASED)
+ *     If the maximum number of possible group keys cannot fit into long, but the group-by columns can be split into two
+ *     parts with cardinality product fitting into long, generate pairs of long raw keys (128-bit) and map them onto
+ *     contiguous group ids. (LONG_PAIR_MAP_BASED)
+ *   </li>
+ *   <li>
+ *     Otherwise, use int arrays as the raw keys to store the dictionary ids of all the group-by columns and map them
+ *     onto contiguous group ids. (ARRAY_MAP_BASED)
  *   </li>
  * </ul>
  * <p>All the logic is maintained internally, and to the outside world, the group ids are always int type, and are
@@ -67,11 +70,10 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
   @VisibleForTesting
   static final ThreadLocal<IntGroupIdMap> THREAD_LOCAL_INT_MAP = ThreadLocal.withInitial(IntGroupIdMap::new);
   @VisibleForTesting
-  static final ThreadLocal<Long2IntOpenHashMap> THREAD_LOCAL_LONG_MAP = ThreadLocal.withInitial(() -> {
-    Long2IntOpenHashMap map = new Long2IntOpenHashMap(INITIAL_MAP_SIZE);
-    map.defaultReturnValue(INVALID_ID);
-    return map;
-  });
+  static final ThreadLocal<LongGroupIdMap> THREAD_LOCAL_LONG_MAP = ThreadLocal.withInitial(LongGroupIdMap::new);
+  @VisibleForTesting
+  static final ThreadLocal<LongPairGroupIdMap> THREAD_LOCAL_LONG_PAIR_MAP =
+      ThreadLocal.withInitial(LongPairGroupIdMap::new);
   @VisibleForTesting
   static final ThreadLocal<Object2IntOpenHashMap<IntArray>> THREAD_LOCAL_INT_ARRAY_MAP = ThreadLocal.withInitial(() -> {
     Object2IntOpenHashMap<IntArray> map = new Object2IntOpenHashMap<>(INITIAL_MAP_SIZE);
@@ -109,6 +111,11 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
 
     long cardinalityProduct = 1L;
     boolean longOverflow = false;
+    // Number of leading group-by columns with cardinality product fitting into long, and the cardinality product of
+    // the remaining columns
+    int numFirstKeyColumns = _numGroupByExpressions;
+    long secondKeyCardinalityProduct = 1L;
+    boolean secondKeyLongOverflow = false;
     for (int i = 0; i < _numGroupByExpressions; i++) {
       ExpressionContext groupByExpression = groupByExpressions[i];
       _dictionaries[i] = transformOperator.getDictionary(groupByExpression);
@@ -117,34 +124,45 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
       if (!longOverflow) {
         if (cardinalityProduct > Long.MAX_VALUE / cardinality) {
           longOverflow = true;
+          numFirstKeyColumns = i;
         } else {
           cardinalityProduct *= cardinality;
         }
       }
+      if (longOverflow && !secondKeyLongOverflow) {
+        if (secondKeyCardinalityProduct > Long.MAX_VALUE / cardinality) {
+          secondKeyLongOverflow = true;
+        } else {
+          secondKeyCardinalityProduct *= cardinality;
+        }
+      }
 
       _isSingleValueColumn[i] = transformOperator.getResultMetadata(groupByExpression).isSingleValue();
     }
     // TODO: Clear the holder after processing the query instead of before
     if (longOverflow) {
-      // ArrayMapBasedHolder
       _globalGroupIdUpperBound = numGroupsLimit;
-      Object2IntOpenHashMap<IntArray> groupIdMap = THREAD_LOCAL_INT_ARRAY_MAP.get();
-      int size = groupIdMap.size();
-      groupIdMap.clear();
-      if (size > MAX_CACHING_MAP_SIZE) {
-        groupIdMap.trim();
-      }
-      _rawKeyHolder = new ArrayMapBasedHolder(groupIdMap);
-    } else {
-      if (cardinalityProduct > Integer.MAX_VALUE) {
-        // LongMapBasedHolder
-        _globalGroupIdUpperBound = numGroupsLimit;
-        Long2IntOpenHashMap groupIdMap = THREAD_LOCAL_LONG_MAP.get();
+      if (!secondKeyLongOverflow) {
+        // LongPairMapBasedHolder
+        LongPairGroupIdMap groupIdMap = THREAD_LOCAL_LONG_PAIR_MAP.get();
+        groupIdMap.clearAndTrim();
+        _rawKeyHolder = new LongPairMapBasedHolder(groupIdMap, numFirstKeyColumns);
+      } else {
+        // ArrayMapBasedHolder
+        Object2IntOpenHashMap<IntArray> groupIdMap = THREAD_LOCAL_INT_ARRAY_MAP.get();
         int size = groupIdMap.size();
         groupIdMap.clear();
         if (size > MAX_CACHING_MAP_SIZE) {
           groupIdMap.trim();
         }
+        _rawKeyHolder = new ArrayMapBasedHolder(groupIdMap);
+      }
+    } else {
+      if (cardinalityProduct > Integer.MAX_VALUE) {
+        // LongMapBasedHolder
+        _globalGroupIdUpperBound = numGroupsLimit;
+        LongGroupIdMap groupIdMap = THREAD_LOCAL_LONG_MAP.get();
+        groupIdMap.clearAndTrim();
         _rawKeyHolder = new LongMapBasedHolder(groupIdMap);
       } else {
         _globalGroupIdUpperBound = Math.min((int) cardinalityProduct, numGroupsLimit);
@@ -539,9 +557,9 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
   }
 
   private class LongMapBasedHolder implements RawKeyHolder {
-    private final Long2IntOpenHashMap _groupIdMap;
+    private final LongGroupIdMap _groupIdMap;
 
-    public LongMapBasedHolder(Long2IntOpenHashMap groupIdMap) {
+    public LongMapBasedHolder(LongGroupIdMap groupIdMap) {
       _groupIdMap = groupIdMap;
     }
 
@@ -552,7 +570,7 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         for (int j = _numGroupByExpressions - 1; j >= 0; j--) {
           rawKey = rawKey * _cardinalities[j] + _singleValueDictIds[j][i];
         }
-        outGroupIds[i] = getGroupId(rawKey);
+        outGroupIds[i] = _groupIdMap.getGroupId(rawKey, _globalGroupIdUpperBound);
       }
     }
 
@@ -563,21 +581,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         int length = rawKeys.length;
         int[] groupIds = new int[length];
         for (int j = 0; j < length; j++) {
-          groupIds[j] = getGroupId(rawKeys[j]);
+          groupIds[j] = _groupIdMap.getGroupId(rawKeys[j], _globalGroupIdUpperBound);
         }
         outGroupIds[i] = groupIds;
       }
     }
 
-    private int getGroupId(long rawKey) {
-      int numGroups = _groupIdMap.size();
-      if (numGroups < _globalGroupIdUpperBound) {
-        return _groupIdMap.computeIfAbsent(rawKey, k -> numGroups);
-      } else {
-        return _groupIdMap.get(rawKey);
-      }
-    }
-
     @Override
     public int getGroupIdUpperBound() {
       return _groupIdMap.size();
@@ -586,7 +595,7 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     @Override
     public Iterator<GroupKey> getGroupKeys() {
       return new Iterator<GroupKey>() {
-        private final ObjectIterator<Long2IntMap.Entry> _iterator = _groupIdMap.long2IntEntrySet().fastIterator();
+        private final Iterator<LongGroupIdMap.Entry> _iterator = _groupIdMap.iterator();
         private final GroupKey _groupKey = new GroupKey();
 
         @Override
@@ -596,9 +605,9 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
 
         @Override
         public GroupKey next() {
-          Long2IntMap.Entry entry = _iterator.next();
-          _groupKey._groupId = entry.getIntValue();
-          _groupKey._keys = getKeys(entry.getLongKey());
+          LongGroupIdMap.Entry entry = _iterator.next();
+          _groupKey._groupId = entry._groupId;
+          _groupKey._keys = getKeys(entry._rawKey);
           return _groupKey;
         }
 
@@ -612,7 +621,7 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     @Override
     public Iterator<StringGroupKey> getStringGroupKeys() {
       return new Iterator<StringGroupKey>() {
-        private final ObjectIterator<Long2IntMap.Entry> _iterator = _groupIdMap.long2IntEntrySet().fastIterator();
+        private final Iterator<LongGroupIdMap.Entry> _iterator = _groupIdMap.iterator();
         private final StringGroupKey _groupKey = new StringGroupKey();
 
         @Override
@@ -622,9 +631,9 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
 
         @Override
         public StringGroupKey next() {
-          Long2IntMap.Entry entry = _iterator.next();
-          _groupKey._groupId = entry.getIntValue();
-          _groupKey._stringKey = getStringKey(entry.getLongKey());
+          LongGroupIdMap.Entry entry = _iterator.next();
+          _groupKey._groupId = entry._groupId;
+          _groupKey._stringKey = getStringKey(entry._rawKey);
           return _groupKey;
         }
 
@@ -738,6 +747,149 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     return groupKeyBuilder.toString();
   }
 
+  private class LongPairMapBasedHolder implements RawKeyHolder {
+    private final LongPairGroupIdMap _groupIdMap;
+    // The first raw key is generated from the group-by columns [0, _numFirstKeyColumns), and the second raw key is
+    // generated from the group-by columns [_numFirstKeyColumns, _numGroupByExpressions)
+    private final int _numFirstKeyColumns;
+
+    public LongPairMapBasedHolder(LongPairGroupIdMap groupIdMap, int numFirstKeyColumns) {
+      _groupIdMap = groupIdMap;
+      _numFirstKeyColumns = numFirstKeyColumns;
+    }
+
+    @Override
+    public void processSingleValue(int numDocs, int[] outGroupIds) {
+      for (int i = 0; i < numDocs; i++) {
+        long rawKey1 = 0L;
+        for (int j = _numFirstKeyColumns - 1; j >= 0; j--) {
+          rawKey1 = rawKey1 * _cardinalities[j] + _singleValueDictIds[j][i];
+        }
+        long rawKey2 = 0L;
+        for (int j = _numGroupByExpressions - 1; j >= _numFirstKeyColumns; j--) {
+          rawKey2 = rawKey2 * _cardinalities[j] + _singleValueDictIds[j][i];
+        }
+        outGroupIds[i] = _groupIdMap.getGroupId(rawKey1, rawKey2, _globalGroupIdUpperBound);
+      }
+    }
+
+    @Override
+    public void processMultiValue(int numDocs, int[][] outGroupIds) {
+      for (int i = 0; i < numDocs; i++) {
+        IntArray[] rawKeys = getIntArrayRawKeys(i);
+        int length = rawKeys.length;
+        int[] groupIds = new int[length];
+        for (int j = 0; j < length; j++) {
+          int[] dictIds = rawKeys[j]._elements;
+          long rawKey1 = 0L;
+          for (int k = _numFirstKeyColumns - 1; k >= 0; k--) {
+            rawKey1 = rawKey1 * _cardinalities[k] + dictIds[k];
+          }
+          long rawKey2 = 0L;
+          for (int k = _numGroupByExpressions - 1; k >= _numFirstKeyColumns; k--) {
+            rawKey2 = rawKey2 * _cardinalities[k] + dictIds[k];
+          }
+          groupIds[j] = _groupIdMap.getGroupId(rawKey1, rawKey2, _globalGroupIdUpperBound);
+        }
+        outGroupIds[i] = groupIds;
+      }
+    }
+
+    @Override
+    public int getGroupIdUpperBound() {
+      return _groupIdMap.size();
+    }
+
+    @Override
+    public Iterator<GroupKey> getGroupKeys() {
+      return new Iterator<GroupKey>() {
+        private final Iterator<LongPairGroupIdMap.Entry> _iterator = _groupIdMap.iterator();
+        private final GroupKey _groupKey = new GroupKey();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public GroupKey next() {
+          LongPairGroupIdMap.Entry entry = _iterator.next();
+          _groupKey._groupId = entry._groupId;
+          _groupKey._keys = getKeys(entry._rawKey1, entry._rawKey2);
+          return _groupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public Iterator<StringGroupKey> getStringGroupKeys() {
+      return new Iterator<StringGroupKey>() {
+        private final Iterator<LongPairGroupIdMap.Entry> _iterator = _groupIdMap.iterator();
+        private final StringGroupKey _groupKey = new StringGroupKey();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public StringGroupKey next() {
+          LongPairGroupIdMap.Entry entry = _iterator.next();
+          _groupKey._groupId = entry._groupId;
+          _groupKey._stringKey = getStringKey(entry._rawKey1, entry._rawKey2);
+          return _groupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    /**
+     * Helper method to get the keys from the raw key pair.
+     */
+    private Object[] getKeys(long rawKey1, long rawKey2) {
+      Object[] groupKeys = new Object[_numGroupByExpressions];
+      long rawKey = rawKey1;
+      for (int i = 0; i < _numGroupByExpressions; i++) {
+        if (i == _numFirstKeyColumns) {
+          rawKey = rawKey2;
+        }
+        int cardinality = _cardinalities[i];
+        groupKeys[i] = _dictionaries[i].getInternal((int) (rawKey % cardinality));
+        rawKey /= cardinality;
+      }
+      return groupKeys;
+    }
+
+    /**
+     * Helper method to get the string key from the raw key pair.
+     */
+    private String getStringKey(long rawKey1, long rawKey2) {
+      StringBuilder groupKeyBuilder = new StringBuilder();
+      long rawKey = rawKey1;
+      for (int i = 0; i < _numGroupByExpressions; i++) {
+        if (i == _numFirstKeyColumns) {
+          rawKey = rawKey2;
+        }
+        if (i > 0) {
+          groupKeyBuilder.append(GroupKeyGenerator.DELIMITER);
+        }
+        int cardinality = _cardinalities[i];
+        groupKeyBuilder.append(_dictionaries[i].getStringValue((int) (rawKey % cardinality)));
+        rawKey /= cardinality;
+      }
+      return groupKeyBuilder.toString();
+    }
+  }
+
   private class ArrayMapBasedHolder implements RawKeyHolder {
     private final Object2IntOpenHashMap<IntArray> _groupIdMap;
 
@@ -1091,6 +1243,294 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     }
   }
 
+  /**
+   * Fast long-to-int hashmap with {@link #INVALID_ID} as the default return value.
+   * <p>Different from {@link it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap}, this map does not allocate any object
+   * (e.g. the lambda for computeIfAbsent) when looking up or adding the group ids.
+   */
+  @VisibleForTesting
+  public static class LongGroupIdMap {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] _keys;
+    private int[] _values;
+    private int _mask;
+    private int _maxNumEntries;
+    private int _size;
+
+    public LongGroupIdMap() {
+      init();
+    }
+
+    private void init() {
+      int capacity = 1 << 9;
+      _keys = new long[capacity];
+      _values = new int[capacity];
+      _mask = capacity - 1;
+      _maxNumEntries = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+      return _size;
+    }
+
+    /**
+     * Returns the group id for the given raw key. Create a new group id if the raw key does not exist and the group id
+     * upper bound is not reached.
+     */
+    public int getGroupId(long rawKey, int groupIdUpperBound) {
+      // NOTE: Key 0 is reserved as the null key. Use (rawKey + 1) as the internal key because rawKey can never be -1.
+      long internalKey = rawKey + 1;
+      int index = (int) HashCommon.mix(internalKey) & _mask;
+      while (true) {
+        long key = _keys[index];
+        if (key == internalKey) {
+          return _values[index];
+        }
+        if (key == 0) {
+          return _size < groupIdUpperBound ? addNewGroup(internalKey, index) : INVALID_ID;
+        }
+        index = (index + 1) & _mask;
+      }
+    }
+
+    private int addNewGroup(long internalKey, int index) {
+      int groupId = _size++;
+      _keys[index] = internalKey;
+      _values[index] = groupId;
+      if (_size > _maxNumEntries) {
+        expand();
+      }
+      return groupId;
+    }
+
+    private void expand() {
+      long[] oldKeys = _keys;
+      int[] oldValues = _values;
+      int capacity = oldKeys.length << 1;
+      _keys = new long[capacity];
+      _values = new int[capacity];
+      _mask = capacity - 1;
+      _maxNumEntries <<= 1;
+      int oldIndex = 0;
+      for (int i = 0; i < _size; i++) {
+        while (oldKeys[oldIndex] == 0) {
+          oldIndex++;
+        }
+        long key = oldKeys[oldIndex];
+        int newIndex = (int) HashCommon.mix(key) & _mask;
+        while (_keys[newIndex] != 0) {
+          newIndex = (newIndex + 1) & _mask;
+        }
+        _keys[newIndex] = key;
+        _values[newIndex] = oldValues[oldIndex];
+        oldIndex++;
+      }
+    }
+
+    public Iterator<Entry> iterator() {
+      return new Iterator<Entry>() {
+        private final Entry _entry = new Entry();
+        private int _index;
+        private int _numRemainingEntries = _size;
+
+        @Override
+        public boolean hasNext() {
+          return _numRemainingEntries > 0;
+        }
+
+        @Override
+        public Entry next() {
+          long key;
+          while ((key = _keys[_index]) == 0) {
+            _index++;
+          }
+          _entry._rawKey = key - 1;
+          _entry._groupId = _values[_index];
+          _index++;
+          _numRemainingEntries--;
+          return _entry;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    /**
+     * Clears the map and trims the map if the size is larger than the {@link #MAX_CACHING_MAP_SIZE}.
+     */
+    public void clearAndTrim() {
+      if (_size == 0) {
+        return;
+      }
+      if (_size <= MAX_CACHING_MAP_SIZE) {
+        // Clear the map
+        Arrays.fill(_keys, 0L);
+      } else {
+        // Init the map (clear and trim)
+        init();
+      }
+      _size = 0;
+    }
+
+    public static class Entry {
+      public long _rawKey;
+      public int _groupId;
+    }
+  }
+
+  /**
+   * Fast 128-bit (pair of longs) to int hashmap with {@link #INVALID_ID} as the default return value.
+   * <p>The key pairs are stored next to each other in one single array to reduce the cache miss, and no object is
+   * allocated per entry (different from using {@link IntArray} as the key).
+   */
+  @VisibleForTesting
+  public static class LongPairGroupIdMap {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] _keys;
+    private int[] _values;
+    private int _mask;
+    private int _maxNumEntries;
+    private int _size;
+
+    public LongPairGroupIdMap() {
+      init();
+    }
+
+    private void init() {
+      int capacity = 1 << 9;
+      _keys = new long[capacity << 1];
+      _values = new int[capacity];
+      _mask = capacity - 1;
+      _maxNumEntries = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+      return _size;
+    }
+
+    private static int hash(long key1, long key2) {
+      return (int) HashCommon.mix(key1 * 0x9E3779B97F4A7C15L + key2);
+    }
+
+    /**
+     * Returns the group id for the given raw key pair. Create a new group id if the raw key pair does not exist and the
+     * group id upper bound is not reached.
+     */
+    public int getGroupId(long rawKey1, long rawKey2, int groupIdUpperBound) {
+      // NOTE: Key 0 is reserved as the null key for the first key. Use (rawKey1 + 1) as the internal key because
+      //       rawKey1 can never be -1.
+      long internalKey1 = rawKey1 + 1;
+      int index = hash(internalKey1, rawKey2) & _mask;
+      while (true) {
+        long key1 = _keys[index << 1];
+        if (key1 == internalKey1 && _keys[(index << 1) + 1] == rawKey2) {
+          return _values[index];
+        }
+        if (key1 == 0) {
+          return _size < groupIdUpperBound ? addNewGroup(internalKey1, rawKey2, index) : INVALID_ID;
+        }
+        index = (index + 1) & _mask;
+      }
+    }
+
+    private int addNewGroup(long internalKey1, long rawKey2, int index) {
+      int groupId = _size++;
+      _keys[index << 1] = internalKey1;
+      _keys[(index << 1) + 1] = rawKey2;
+      _values[index] = groupId;
+      if (_size > _maxNumEntries) {
+        expand();
+      }
+      return groupId;
+    }
+
+    private void expand() {
+      long[] oldKeys = _keys;
+      int[] oldValues = _values;
+      int capacity = oldValues.length << 1;
+      _keys = new long[capacity << 1];
+      _values = new int[capacity];
+      _mask = capacity - 1;
+      _maxNumEntries <<= 1;
+      int oldIndex = 0;
+      for (int i = 0; i < _size; i++) {
+        while (oldKeys[oldIndex << 1] == 0) {
+          oldIndex++;
+        }
+        long key1 = oldKeys[oldIndex << 1];
+        long key2 = oldKeys[(oldIndex << 1) + 1];
+        int newIndex = hash(key1, key2) & _mask;
+        while (_keys[newIndex << 1] != 0) {
+          newIndex = (newIndex + 1) & _mask;
+        }
+        _keys[newIndex << 1] = key1;
+        _keys[(newIndex << 1) + 1] = key2;
+        _values[newIndex] = oldValues[oldIndex];
+        oldIndex++;
+      }
+    }
+
+    public Iterator<Entry> iterator() {
+      return new Iterator<Entry>() {
+        private final Entry _entry = new Entry();
+        private int _index;
+        private int _numRemainingEntries = _size;
+
+        @Override
+        public boolean hasNext() {
+          return _numRemainingEntries > 0;
+        }
+
+        @Override
+        public Entry next() {
+          long key1;
+          while ((key1 = _keys[_index << 1]) == 0) {
+            _index++;
+          }
+          _entry._rawKey1 = key1 - 1;
+          _entry._rawKey2 = _keys[(_index << 1) + 1];
+          _entry._groupId = _values[_index];
+          _index++;
+          _numRemainingEntries--;
+          return _entry;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    /**
+     * Clears the map and trims the map if the size is larger than the {@link #MAX_CACHING_MAP_SIZE}.
+     */
+    public void clearAndTrim() {
+      if (_size == 0) {
+        return;
+      }
+      if (_size <= MAX_CACHING_MAP_SIZE) {
+        // Clear the map
+        Arrays.fill(_keys, 0L);
+      } else {
+        // Init the map (clear and trim)
+        init();
+      }
+      _size = 0;
+    }
+
+    public static class Entry {
+      public long _rawKey1;
+      public long _rawKey2;
+      public int _groupId;
+    }
+  }
+
   /**
    * Drop un-necessary checks for highest performance.
    */
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+/**
+ * Factory for the {@link GroupByResultHolder}s of the aggregation functions with primitive intermediate results.
+ */
+public class GroupByResultHolderFactory {
+  // Use the paged result holder when a single array for all the groups would be larger than 1MB
+  public static final int MAX_CAPACITY_FOR_SINGLE_ARRAY = 1 << 17;
+
+  private GroupByResultHolderFactory() {
+  }
+
+  /**
+   * Returns a result holder for double values. The paged result holder is used when the maximum capacity is large to
+   * avoid copying the values and allocating huge arrays when expanding.
+   */
+  public static GroupByResultHolder getDoubleGroupByResultHolder(int initialCapacity, int maxCapacity,
+      double defaultValue) {
+    if (maxCapacity > MAX_CAPACITY_FOR_SINGLE_ARRAY) {
+      return new PagedDoubleGroupByResultHolder(initialCapacity, maxCapacity, defaultValue);
+    } else {
+      return new DoubleGroupByResultHolder(initialCapacity, maxCapacity, defaultValue);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+
+/**
+ * Result Holder implemented using fixed size pages of double arrays.
+ * <p>Different from the {@link DoubleGroupByResultHolder}, expanding the capacity only allocates new pages without
+ * copying the existing values, and never allocates a huge contiguous array (which is allocated as humongous object in
+ * G1 GC). This is preferred when the number of groups can go beyond millions.
+ */
+public class PagedDoubleGroupByResultHolder implements GroupByResultHolder {
+  // 16K values (128KB) per page
+  static final int PAGE_SHIFT = 14;
+  static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final int _maxCapacity;
+  private final double _defaultValue;
+
+  private int _resultHolderCapacity;
+  private double[][] _pages;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param initialCapacity Initial capacity of the result holder
+   * @param maxCapacity Maximum capacity of the result holder
+   * @param defaultValue Default value of un-initialized results
+   */
+  public PagedDoubleGroupByResultHolder(int initialCapacity, int maxCapacity, double defaultValue) {
+    _maxCapacity = maxCapacity;
+    _defaultValue = defaultValue;
+    _pages = new double[0][];
+    ensureCapacity(initialCapacity);
+  }
+
+  @Override
+  public void ensureCapacity(int capacity) {
+    Preconditions.checkArgument(capacity <= _maxCapacity);
+
+    if (capacity > _resultHolderCapacity) {
+      int numPages = (capacity + PAGE_MASK) >>> PAGE_SHIFT;
+      int currentNumPages = _pages.length;
+      if (numPages > currentNumPages) {
+        _pages = Arrays.copyOf(_pages, numPages);
+        for (int i = currentNumPages; i < numPages; i++) {
+          double[] page = new double[PAGE_SIZE];
+          if (_defaultValue != 0.0) {
+            Arrays.fill(page, _defaultValue);
+          }
+          _pages[i] = page;
+        }
+      }
+      _resultHolderCapacity = numPages << PAGE_SHIFT;
+    }
+  }
+
+  @Override
+  public double getDoubleResult(int groupKey) {
+    if (groupKey == GroupKeyGenerator.INVALID_ID) {
+      return _defaultValue;
+    } else {
+      return _pages[groupKey >>> PAGE_SHIFT][groupKey & PAGE_MASK];
+    }
+  }
+
+  @Override
+  public <T> T getResult(int groupKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setValueForKey(int groupKey, double newValue) {
+    if (groupKey != GroupKeyGenerator.INVALID_ID) {
+      _pages[groupKey >>> PAGE_SHIFT][groupKey & PAGE_MASK] = newValue;
+    }
+  }
+
+  @Override
+  public void setValueForKey(int groupKey, Object newValue) {
+    throw new UnsupportedOperationException();
+  }
+}
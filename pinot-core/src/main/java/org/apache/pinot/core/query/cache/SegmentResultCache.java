@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.metrics.ServerGauge;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+
+
+/**
+ * The {@code SegmentResultCache} caches the per-segment intermediate results of the queries on the immutable segments,
+ * so that the repeated queries only need to be executed on the consuming segments and the newly added segments.
+ * <p>The cache key is composed of the table name, the segment name, the segment CRC and the parts of the query that
+ * affect the per-segment results (select expressions, filter and order-by expressions). Because the CRC changes when
+ * the segment is refreshed, the stale entries are never hit and are evicted eventually.
+ * <p>Currently only the aggregation-only queries are cached. The intermediate aggregation results are stored in their
+ * serialized form (same as in the DataTable), and each hit deserializes a new copy because the combine operator
+ * merges the results in place. The cache is bounded by the serialized bytes held.
+ */
+@ThreadSafe
+@SuppressWarnings("rawtypes")
+public class SegmentResultCache {
+  private final Cache<String, CachedResult> _cache;
+  private final ServerMetrics _serverMetrics;
+  private final AtomicLong _sizeBytes = new AtomicLong();
+
+  public SegmentResultCache(long maxSizeBytes, ServerMetrics serverMetrics) {
+    _serverMetrics = serverMetrics;
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes)
+        .weigher((String key, CachedResult value) -> value._sizeBytes)
+        .removalListener((RemovalListener<String, CachedResult>) notification -> updateSizeBytes(
+            -notification.getValue()._sizeBytes)).build();
+  }
+
+  /**
+   * Returns {@code true} if the results of the given query on the given segment can be cached.
+   * <p>NOTE: Segments with valid doc index (upsert) are not cacheable because the valid doc ids keep changing.
+   */
+  public static boolean isCacheable(IndexSegment indexSegment, QueryContext queryContext) {
+    return indexSegment instanceof ImmutableSegment && indexSegment.getValidDocIndex() == null
+        && QueryContextUtils.isAggregationQuery(queryContext) && queryContext.getGroupByExpressions() == null;
+  }
+
+  /**
+   * Returns the cache key for the given segment and query.
+   */
+  public static String getCacheKey(IndexSegment indexSegment, QueryContext queryContext) {
+    StringBuilder stringBuilder = new StringBuilder(queryContext.getTableName()).append('|')
+        .append(indexSegment.getSegmentName()).append('|').append(indexSegment.getSegmentMetadata().getCrc())
+        .append('|').append(queryContext.getSelectExpressions()).append('|').append(queryContext.getFilter());
+    if (queryContext.getOrderByExpressions() != null) {
+      // NOTE: Order-by expressions might introduce extra aggregations
+      stringBuilder.append('|').append(queryContext.getOrderByExpressions());
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Returns the cached result for the given key, or {@code null} if the result is not cached.
+   */
+  @Nullable
+  public CachedResult get(String key) {
+    CachedResult cachedResult = _cache.getIfPresent(key);
+    _serverMetrics.addMeteredGlobalValue(
+        cachedResult != null ? ServerMeter.SEGMENT_RESULT_CACHE_HITS : ServerMeter.SEGMENT_RESULT_CACHE_MISSES, 1);
+    return cachedResult;
+  }
+
+  /**
+   * Caches the aggregation-only results block and the execution statistics for the given key. The results block is
+   * not cached if it contains processing exceptions or results that cannot be serialized.
+   */
+  public void put(String key, IntermediateResultsBlock resultsBlock, ExecutionStatistics executionStatistics) {
+    List<Object> aggregationResult = resultsBlock.getAggregationResult();
+    if (resultsBlock.getProcessingExceptions() != null || aggregationResult == null) {
+      return;
+    }
+    int numResults = aggregationResult.size();
+    int[] objectTypes = new int[numResults];
+    byte[][] serializedResults = new byte[numResults][];
+    int sizeBytes = key.length();
+    for (int i = 0; i < numResults; i++) {
+      Object result = aggregationResult.get(i);
+      ObjectSerDeUtils.ObjectType objectType;
+      try {
+        objectType = ObjectSerDeUtils.ObjectType.getObjectType(result);
+      } catch (IllegalArgumentException e) {
+        // Unsupported intermediate result type, skip caching
+        return;
+      }
+      objectTypes[i] = objectType.getValue();
+      serializedResults[i] = ObjectSerDeUtils.serialize(result, objectType);
+      sizeBytes += serializedResults[i].length;
+    }
+    CachedResult cachedResult = new CachedResult(objectTypes, serializedResults, executionStatistics, sizeBytes);
+    updateSizeBytes(sizeBytes);
+    _cache.put(key, cachedResult);
+  }
+
+  private void updateSizeBytes(long delta) {
+    _serverMetrics.setValueOfGlobalGauge(ServerGauge.SEGMENT_RESULT_CACHE_SIZE_BYTES, _sizeBytes.addAndGet(delta));
+  }
+
+  /**
+   * Returns the number of the cached results.
+   */
+  public long size() {
+    return _cache.size();
+  }
+
+  /**
+   * Returns the total size in bytes of the cached results.
+   */
+  public long getSizeBytes() {
+    return _sizeBytes.get();
+  }
+
+  public static class CachedResult {
+    private final int[] _objectTypes;
+    private final byte[][] _serializedResults;
+    private final ExecutionStatistics _executionStatistics;
+    private final int _sizeBytes;
+
+    private CachedResult(int[] objectTypes, byte[][] serializedResults, ExecutionStatistics executionStatistics,
+        int sizeBytes) {
+      _objectTypes = objectTypes;
+      _serializedResults = serializedResults;
+      _executionStatistics = executionStatistics;
+      _sizeBytes = sizeBytes;
+    }
+
+    /**
+     * Returns a new aggregation-only results block with the deserialized copy of the cached results.
+     */
+    public IntermediateResultsBlock getResultsBlock(AggregationFunction[] aggregationFunctions) {
+      int numResults = _serializedResults.length;
+      List<Object> aggregationResult = new ArrayList<>(numResults);
+      for (int i = 0; i < numResults; i++) {
+        aggregationResult.add(ObjectSerDeUtils.deserialize(_serializedResults[i], _objectTypes[i]));
+      }
+      return new IntermediateResultsBlock(aggregationFunctions, aggregationResult, false);
+    }
+
+    /**
+     * Returns the execution statistics of the original execution, so that the query response is identical with or
+     * without the cache.
+     */
+    public ExecutionStatistics getExecutionStatistics() {
+      return _executionStatistics;
+    }
+  }
+}
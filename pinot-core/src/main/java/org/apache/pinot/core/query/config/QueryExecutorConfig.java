@@ -35,6 +35,9 @@ public class QueryExecutorConfig {
   public static final String QUERY_PLANNER = "queryPlanner";
   // Prefix key of TimeOut
   public static final String TIME_OUT = "timeout";
+  // Max size in bytes of the per-segment result cache for the immutable segments, non-positive value disables the cache
+  public static final String SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES = "segment.result.cache.max.size.bytes";
+  public static final long DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES = 0L;
 
   private static final String[] REQUIRED_KEYS = {};
 
@@ -42,6 +45,7 @@ public class QueryExecutorConfig {
   private SegmentPrunerConfig _segmentPrunerConfig;
   private QueryPlannerConfig _queryPlannerConfig;
   private final long _timeOutMs;
+  private final long _segmentResultCacheMaxSizeBytes;
 
   public QueryExecutorConfig(PinotConfiguration config) throws ConfigurationException {
     _queryExecutorConfig = config;
@@ -49,6 +53,8 @@ public class QueryExecutorConfig {
     _segmentPrunerConfig = new SegmentPrunerConfig(_queryExecutorConfig.subset(QUERY_PRUNER));
     _queryPlannerConfig = new QueryPlannerConfig(_queryExecutorConfig.subset(QUERY_PLANNER));
     _timeOutMs = _queryExecutorConfig.getProperty(TIME_OUT, -1);
+    _segmentResultCacheMaxSizeBytes = _queryExecutorConfig
+        .getProperty(SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES, DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES);
   }
 
   private void checkRequiredKeys()
@@ -75,4 +81,8 @@ public class QueryExecutorConfig {
   public long getTimeOut() {
     return _timeOutMs;
   }
+
+  public long getSegmentResultCacheMaxSizeBytes() {
+    return _segmentResultCacheMaxSizeBytes;
+  }
 }
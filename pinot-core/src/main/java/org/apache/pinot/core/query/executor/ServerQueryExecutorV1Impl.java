@@ -48,6 +48,7 @@ import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
 import org.apache.pinot.core.plan.maker.PlanMaker;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
 import org.apache.pinot.core.query.config.QueryExecutorConfig;
 import org.apache.pinot.core.query.pruner.SegmentPrunerService;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
@@ -93,7 +94,13 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
     LOGGER.info("Trying to build SegmentPrunerService");
     _segmentPrunerService = new SegmentPrunerService(queryExecutorConfig.getPrunerConfig());
     LOGGER.info("Trying to build QueryPlanMaker");
-    _planMaker = new InstancePlanMakerImplV2(queryExecutorConfig);
+    SegmentResultCache segmentResultCache = null;
+    long segmentResultCacheMaxSizeBytes = queryExecutorConfig.getSegmentResultCacheMaxSizeBytes();
+    if (segmentResultCacheMaxSizeBytes > 0) {
+      LOGGER.info("Enabling segment result cache with max size: {} bytes", segmentResultCacheMaxSizeBytes);
+      segmentResultCache = new SegmentResultCache(segmentResultCacheMaxSizeBytes, serverMetrics);
+    }
+    _planMaker = new InstancePlanMakerImplV2(queryExecutorConfig, segmentResultCache);
     LOGGER.info("Trying to build QueryExecutorTimer");
   }
 
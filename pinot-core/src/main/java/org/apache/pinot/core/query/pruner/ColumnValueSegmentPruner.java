@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.query.pruner;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,13 @@ import org.apache.pinot.spi.utils.CommonConstants.Server;
  *     </ul>
  *   </li>
  *   <li>
+ *     For IN filter (with number of values within threshold), prune the segment based on:
+ *     <ul>
+ *       <li>Column min/max value</li>
+ *       <li>Column bloom filter</li>
+ *     </ul>
+ *   </li>
+ *   <li>
  *     For RANGE filter, prune the segment based on:
  *     <ul>
  *       <li>Column min/max value<</li>
@@ -240,9 +248,10 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
 
   /**
    * For IN predicate, segment will not be pruned if the size of values is greater than threshold
-   * Prune the segment based on: Column min/max value
+   * Prune the segment based on: Column min/max value, Column bloom filter
    * @return true if the segment can be pruned
-   * otherwise false if size of values > threshold or any of the value is greater than min value or smaller than max value of segment
+   * otherwise false if size of values > threshold or any of the value within min/max value of the segment might be
+   * contained in the bloom filter
    */
   private boolean pruneInPredicate(IndexSegment segment, InPredicate inPredicate, Map<String, DataSource> dataSourceCache) {
     String column = inPredicate.getLhs().getIdentifier();
@@ -256,13 +265,21 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
       return false;
     }
 
+    // Check min/max value
+    List<String> valuesInRange = new ArrayList<>(values.size());
     for (String value : values) {
       Comparable inValue = convertValue(value, dataSourceMetadata.getDataType());
       if (checkMinMaxRange(dataSourceMetadata, inValue)) {
-        return false;
+        valuesInRange.add(inValue.toString());
       }
     }
-    return true;
+    if (valuesInRange.isEmpty()) {
+      return true;
+    }
+
+    // Check bloom filter (probe all the values in bulk)
+    BloomFilterReader bloomFilter = dataSource.getBloomFilter();
+    return bloomFilter != null && !bloomFilter.mightContainAny(valuesInRange);
   }
 
   /**
@@ -18,9 +18,12 @@
  */
 package org.apache.pinot.core.query.pruner;
 
+import java.util.Map;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.util.QueryOptions;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.apache.pinot.segment.spi.index.reader.ValidDocIndexReader;
 import org.apache.pinot.spi.env.PinotConfiguration;
 
 
@@ -38,6 +41,7 @@ public class ValidSegmentPruner implements SegmentPruner {
    * Returns true if a segment should be pruned-out due to bad/invalid data.
    * Current check(s) below:
    * - Empty segment.
+   * - Upsert segment with all the docs invalidated (unless upsert is skipped for the query).
    */
   @Override
   public boolean prune(IndexSegment segment, QueryContext query) {
@@ -48,11 +52,23 @@ public class ValidSegmentPruner implements SegmentPruner {
       return true;
     }
 
+    // Check for upsert segment without valid doc. This can happen when all the records in a completed segment have
+    // been updated by newer records, and the segment has not been compacted yet.
+    ValidDocIndexReader validDocIndex = segment.getValidDocIndex();
+    if (validDocIndex != null && validDocIndex.getNumValidDocs() == 0 && !isUpsertSkipped(query)) {
+      return true;
+    }
+
     // Add more validation here.
 
     return false;
   }
 
+  private static boolean isUpsertSkipped(QueryContext query) {
+    Map<String, String> queryOptions = query.getQueryOptions();
+    return queryOptions != null && new QueryOptions(queryOptions).isSkipUpsert();
+  }
+
   @Override
   public String toString() {
     return "ValidSegmentPruner";
@@ -64,7 +64,11 @@ public class DataTableHandler extends SimpleChannelInboundHandler<ByteBuf> {
     _brokerMetrics.addMeteredGlobalValue(BrokerMeter.NETTY_CONNECTION_BYTES_RECEIVED, responseSize);
     try {
       long deserializationStartTimeMs = System.currentTimeMillis();
-      DataTable dataTable = DataTableFactory.getDataTable(msg.nioBuffer());
+      // NOTE: The data table reads the rows lazily from the buffer, so copy the response bytes once out of the pooled
+      //       Netty buffer, which is released after this method returns
+      byte[] responseBytes = new byte[responseSize];
+      msg.readBytes(responseBytes);
+      DataTable dataTable = DataTableFactory.getDataTable(responseBytes);
       _queryRouter.receiveDataTable(_serverRoutingInstance, dataTable, responseSize,
           (int) (System.currentTimeMillis() - deserializationStartTimeMs));
     } catch (Exception e) {
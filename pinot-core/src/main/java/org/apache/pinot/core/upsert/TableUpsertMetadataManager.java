@@ -18,11 +18,16 @@
  */
 package org.apache.pinot.core.upsert;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.segment.local.upsert.ConcurrentMapPrimaryKeyStore;
+import org.apache.pinot.segment.local.upsert.OffHeapPrimaryKeyStore;
 import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.PrimaryKeyStore;
+import org.apache.pinot.spi.config.table.UpsertConfig;
 
 
 /**
@@ -33,14 +38,44 @@ public class TableUpsertMetadataManager {
   private final Map<Integer, PartitionUpsertMetadataManager> _partitionMetadataManagerMap = new ConcurrentHashMap<>();
   private final String _tableNameWithType;
   private final ServerMetrics _serverMetrics;
+  private final UpsertConfig.PrimaryKeyStoreType _primaryKeyStoreType;
 
   public TableUpsertMetadataManager(String tableNameWithType, ServerMetrics serverMetrics) {
+    this(tableNameWithType, serverMetrics, UpsertConfig.PrimaryKeyStoreType.ON_HEAP);
+  }
+
+  public TableUpsertMetadataManager(String tableNameWithType, ServerMetrics serverMetrics,
+      UpsertConfig.PrimaryKeyStoreType primaryKeyStoreType) {
     _tableNameWithType = tableNameWithType;
     _serverMetrics = serverMetrics;
+    _primaryKeyStoreType = primaryKeyStoreType;
   }
 
   public PartitionUpsertMetadataManager getOrCreatePartitionManager(int partitionId) {
     return _partitionMetadataManagerMap.computeIfAbsent(partitionId,
-        k -> new PartitionUpsertMetadataManager(_tableNameWithType, k, _serverMetrics));
+        k -> new PartitionUpsertMetadataManager(_tableNameWithType, k, _serverMetrics, createPrimaryKeyStore(k)));
+  }
+
+  private PrimaryKeyStore createPrimaryKeyStore(int partitionId) {
+    switch (_primaryKeyStoreType) {
+      case ON_HEAP:
+        return new ConcurrentMapPrimaryKeyStore();
+      case OFF_HEAP:
+        return new OffHeapPrimaryKeyStore(
+            "OffHeapPrimaryKeyStore for table: " + _tableNameWithType + ", partition: " + partitionId);
+      default:
+        throw new IllegalStateException("Unsupported primary key store type: " + _primaryKeyStoreType);
+    }
+  }
+
+  /**
+   * Closes all the partition managers and releases the resources held by the primary key stores.
+   */
+  public void close()
+      throws IOException {
+    for (PartitionUpsertMetadataManager partitionUpsertMetadataManager : _partitionMetadataManagerMap.values()) {
+      partitionUpsertMetadataManager.close();
+    }
+    _partitionMetadataManagerMap.clear();
   }
 }
@@ -33,6 +33,9 @@ public class QueryOptions {
   private final boolean _responseFormatSQL;
   private final boolean _preserveType;
   private final boolean _skipUpsert;
+  private final boolean _partitionedGroupByCombine;
+  private final Integer _streamingChunkSize;
+  private final Integer _maxDocsPerCall;
 
   public QueryOptions(@Nullable Map<String, String> queryOptions) {
     if (queryOptions != null) {
@@ -41,12 +44,19 @@ public class QueryOptions {
       _responseFormatSQL = Request.SQL.equalsIgnoreCase(queryOptions.get(Request.QueryOptionKey.RESPONSE_FORMAT));
       _preserveType = Boolean.parseBoolean(queryOptions.get(Request.QueryOptionKey.PRESERVE_TYPE));
       _skipUpsert = Boolean.parseBoolean(queryOptions.get(Request.QueryOptionKey.SKIP_UPSERT));
+      _partitionedGroupByCombine =
+          Boolean.parseBoolean(queryOptions.get(Request.QueryOptionKey.PARTITIONED_GROUP_BY_COMBINE));
+      _streamingChunkSize = getStreamingChunkSize(queryOptions);
+      _maxDocsPerCall = getMaxDocsPerCall(queryOptions);
     } else {
       _timeoutMs = null;
       _groupByModeSQL = false;
       _responseFormatSQL = false;
       _preserveType = false;
       _skipUpsert = false;
+      _partitionedGroupByCombine = false;
+      _streamingChunkSize = null;
+      _maxDocsPerCall = null;
     }
   }
 
@@ -71,6 +81,20 @@ public class QueryOptions {
     return _skipUpsert;
   }
 
+  public boolean isPartitionedGroupByCombine() {
+    return _partitionedGroupByCombine;
+  }
+
+  @Nullable
+  public Integer getStreamingChunkSize() {
+    return _streamingChunkSize;
+  }
+
+  @Nullable
+  public Integer getMaxDocsPerCall() {
+    return _maxDocsPerCall;
+  }
+
   @Nullable
   public static Long getTimeoutMs(Map<String, String> queryOptions) {
     String timeoutMsString = queryOptions.get(Request.QueryOptionKey.TIMEOUT_MS);
@@ -82,4 +106,29 @@ public class QueryOptions {
       return null;
     }
   }
+
+  @Nullable
+  public static Integer getStreamingChunkSize(Map<String, String> queryOptions) {
+    String streamingChunkSizeString = queryOptions.get(Request.QueryOptionKey.STREAMING_CHUNK_SIZE);
+    if (streamingChunkSizeString != null) {
+      int streamingChunkSize = Integer.parseInt(streamingChunkSizeString);
+      Preconditions.checkState(streamingChunkSize > 0, "Streaming chunk size must be positive, got: %s",
+          streamingChunkSize);
+      return streamingChunkSize;
+    } else {
+      return null;
+    }
+  }
+
+  @Nullable
+  public static Integer getMaxDocsPerCall(Map<String, String> queryOptions) {
+    String maxDocsPerCallString = queryOptions.get(Request.QueryOptionKey.MAX_DOCS_PER_CALL);
+    if (maxDocsPerCallString != null) {
+      int maxDocsPerCall = Integer.parseInt(maxDocsPerCallString);
+      Preconditions.checkState(maxDocsPerCall > 0, "Max docs per call must be positive, got: %s", maxDocsPerCall);
+      return maxDocsPerCall;
+    } else {
+      return null;
+    }
+  }
 }
@@ -155,6 +155,45 @@ public class DataTableSerDeTest {
     verifyDataIsSame(newDataTable, columnDataTypes, numColumns);
   }
 
+  @Test
+  public void testReSerializeDeserializedDataTable()
+      throws IOException {
+    DataSchema.ColumnDataType[] columnDataTypes = DataSchema.ColumnDataType.values();
+    int numColumns = columnDataTypes.length;
+    String[] columnNames = new String[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      columnNames[i] = columnDataTypes[i].name();
+    }
+
+    DataSchema dataSchema = new DataSchema(columnNames, columnDataTypes);
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(dataSchema);
+    fillDataTableWithRandomData(dataTableBuilder, columnDataTypes, numColumns);
+
+    DataTable dataTable = dataTableBuilder.build();
+    dataTable.getMetadata().putAll(EXPECTED_METADATA);
+    byte[] bytes = dataTable.toBytes();
+
+    // De-serialize from a direct buffer, where the rows are read lazily from the buffer
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+    directBuffer.put(bytes);
+    directBuffer.flip();
+    DataTable newDataTable = DataTableFactory.getDataTable(directBuffer);
+    Assert.assertEquals(newDataTable.getDataSchema(), dataSchema, ERROR_MESSAGE);
+    Assert.assertEquals(newDataTable.getNumberOfRows(), NUM_ROWS, ERROR_MESSAGE);
+    verifyDataIsSame(newDataTable, columnDataTypes, numColumns);
+
+    // Re-serialize the de-serialized data table
+    byte[] newBytes = newDataTable.toBytes();
+    Assert.assertEquals(newBytes.length, bytes.length, ERROR_MESSAGE);
+    newDataTable = DataTableFactory.getDataTable(newBytes);
+    Assert.assertEquals(newDataTable.getDataSchema(), dataSchema, ERROR_MESSAGE);
+    Assert.assertEquals(newDataTable.getNumberOfRows(), NUM_ROWS, ERROR_MESSAGE);
+    verifyDataIsSame(newDataTable, columnDataTypes, numColumns);
+    for (Map.Entry<String, String> entry : EXPECTED_METADATA.entrySet()) {
+      Assert.assertEquals(newDataTable.getMetadata().get(entry.getKey()), entry.getValue(), ERROR_MESSAGE);
+    }
+  }
+
   @Test
   public void testV2V3Compatibility()
       throws IOException {
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.function;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.pinot.common.function.FunctionRegistry;
+import org.apache.pinot.segment.local.function.CompiledFunctionEvaluator;
+import org.apache.pinot.segment.local.function.FunctionEvaluator;
+import org.apache.pinot.segment.local.function.FunctionEvaluatorFactory;
+import org.apache.pinot.segment.local.function.InbuiltFunctionEvaluator;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests the {@link CompiledFunctionEvaluator} against the {@link InbuiltFunctionEvaluator}
+ */
+public class CompiledFunctionEvaluatorTest {
+
+  @Test(dataProvider = "compiledFunctionsDataProvider")
+  public void testCompiledFunctions(String functionExpression, List<String> expectedArguments, GenericRow row,
+      Object expectedResult) {
+    CompiledFunctionEvaluator evaluator = CompiledFunctionEvaluator.compile(functionExpression);
+    assertNotNull(evaluator);
+    assertEquals(evaluator.getArguments(), expectedArguments);
+    // Evaluate multiple times to cover the reuse of the argument arrays
+    for (int i = 0; i < 3; i++) {
+      assertEquals(evaluator.evaluate(row), expectedResult);
+    }
+    Object[] values = new Object[expectedArguments.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = row.getValue(expectedArguments.get(i));
+    }
+    assertEquals(evaluator.evaluate(values), expectedResult);
+    assertEquals(new InbuiltFunctionEvaluator(functionExpression).evaluate(row), expectedResult);
+    assertTrue(
+        FunctionEvaluatorFactory.getExpressionEvaluator(functionExpression) instanceof CompiledFunctionEvaluator);
+  }
+
+  @DataProvider(name = "compiledFunctionsDataProvider")
+  public Object[][] compiledFunctionsDataProvider() {
+    List<Object[]> inputs = new ArrayList<>();
+
+    GenericRow row0 = new GenericRow();
+    row0.putValue("a", (byte) 1);
+    row0.putValue("b", (char) 2);
+    inputs.add(new Object[]{"a + b", Lists.newArrayList("a", "b"), row0, 3.0});
+
+    GenericRow row1 = new GenericRow();
+    row1.putValue("a", 7.0);
+    row1.putValue("b", "8");
+    inputs.add(new Object[]{"a / b", Lists.newArrayList("a", "b"), row1, 0.875});
+
+    GenericRow row2 = new GenericRow();
+    row2.putValue("testColumn", "testValue");
+    inputs.add(new Object[]{"substr(testColumn, 4)", Collections.singletonList("testColumn"), row2, "Value"});
+    inputs.add(new Object[]{"testColumn", Collections.singletonList("testColumn"), row2, "testValue"});
+    inputs.add(new Object[]{"'testValue'", Collections.emptyList(), row2, "testValue"});
+    inputs.add(new Object[]{"reverse(12345)", Collections.emptyList(), row2, "54321"});
+
+    GenericRow row3 = new GenericRow();
+    row3.putValue("a", "first");
+    row3.putValue("b", "last");
+    inputs.add(new Object[]{"upper(concat(a, b, '-'))", Lists.newArrayList("a", "b"), row3, "FIRST-LAST"});
+    // Nested function with result of type int passed as double parameter
+    inputs.add(new Object[]{"length(a) + length(reverse(b))", Lists.newArrayList("a", "b"), row3, 9.0});
+
+    return inputs.toArray(new Object[0][]);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testNullForPrimitiveParameter() {
+    CompiledFunctionEvaluator evaluator = CompiledFunctionEvaluator.compile("substr(testColumn, beginIndex)");
+    assertNotNull(evaluator);
+    GenericRow row = new GenericRow();
+    row.putValue("testColumn", "testValue");
+    evaluator.evaluate(row);
+  }
+
+  @Test
+  public void testFallbackToInbuiltFunctionEvaluator()
+      throws Exception {
+    // Non-public and non-static method cannot be compiled
+    FunctionRegistry.registerFunction(MyFunc.class.getDeclaredMethod("appendAndReturn", String.class));
+    String expression = "appendAndReturn('test ')";
+    assertNull(CompiledFunctionEvaluator.compile(expression));
+    FunctionEvaluator evaluator = FunctionEvaluatorFactory.getExpressionEvaluator(expression);
+    assertTrue(evaluator instanceof InbuiltFunctionEvaluator);
+    GenericRow row = new GenericRow();
+    assertEquals(evaluator.evaluate(row), "test ");
+    assertEquals(evaluator.evaluate(row), "test test ");
+
+    // Unsupported function should still be reported by the InbuiltFunctionEvaluator
+    assertNull(CompiledFunctionEvaluator.compile("unknownFunction(testColumn)"));
+  }
+
+  private static class MyFunc {
+    String _baseString = "";
+
+    String appendAndReturn(String addedString) {
+      _baseString += addedString;
+      return _baseString;
+    }
+  }
+}
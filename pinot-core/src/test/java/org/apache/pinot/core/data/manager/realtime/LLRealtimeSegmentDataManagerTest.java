@@ -23,8 +23,16 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
@@ -51,11 +59,15 @@ import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
 import org.apache.pinot.spi.config.instance.InstanceDataManagerConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.apache.pinot.spi.stream.LongMsgOffset;
 import org.apache.pinot.spi.stream.LongMsgOffsetFactory;
+import org.apache.pinot.spi.stream.MessageBatch;
+import org.apache.pinot.spi.stream.PartitionGroupConsumer;
 import org.apache.pinot.spi.stream.PermanentConsumerException;
 import org.apache.pinot.spi.stream.StreamConfigProperties;
+import org.apache.pinot.spi.stream.StreamMessageDecoder;
 import org.apache.pinot.spi.stream.StreamPartitionMsgOffset;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.JsonUtils;
@@ -67,6 +79,7 @@ import org.testng.annotations.Test;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -159,8 +172,14 @@ public class LLRealtimeSegmentDataManagerTest {
 
   private FakeLLRealtimeSegmentDataManager createFakeSegmentManager()
       throws Exception {
+    return createFakeSegmentManager(Collections.emptyMap());
+  }
+
+  private FakeLLRealtimeSegmentDataManager createFakeSegmentManager(Map<String, String> extraStreamConfigs)
+      throws Exception {
     LLCRealtimeSegmentZKMetadata segmentZKMetadata = createZkMetadata();
     TableConfig tableConfig = createTableConfig();
+    tableConfig.getIndexingConfig().getStreamConfigs().putAll(extraStreamConfigs);
     InstanceZKMetadata instanceZKMetadata = new InstanceZKMetadata();
     RealtimeTableDataManager tableDataManager = createTableDataManager(tableConfig);
     String resourceDir = _segmentDir;
@@ -781,6 +800,317 @@ public class LLRealtimeSegmentDataManagerTest {
     Assert.assertFalse(SegmentBuildTimeLeaseExtender.isExecutorShutdown());
   }
 
+  // Test that the pipelined consumption stops at the final offset in the middle of a batch exactly like the serial
+  // consumption, and that the batch fetched ahead is discarded and fetched again from the current offset on resume.
+  @Test
+  public void testPipelinedConsumptionReachingFinalOffset()
+      throws Exception {
+    List<Long> serialIndexedOffsets = null;
+    for (boolean pipelined : new boolean[]{false, true}) {
+      MessageBatchConsumer consumer = new MessageBatchConsumer(100);
+      List<Long> indexedOffsets = new ArrayList<>();
+      FakeLLRealtimeSegmentDataManager segmentDataManager =
+          createConsumingSegmentManager(pipelined, 1, consumer, indexedOffsets);
+      segmentDataManager._state.set(segmentDataManager, LLRealtimeSegmentDataManager.State.CATCHING_UP);
+
+      // The final offset is in the middle of the third batch
+      segmentDataManager.setFinalOffset(_startOffsetValue + 250);
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 250);
+      Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 250));
+      if (pipelined) {
+        // The fourth batch is fetched while indexing the third one, and discarded
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 400, 100));
+      } else {
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 300, 100));
+      }
+
+      // Resume consuming to a later final offset, which should neither skip nor replay any message
+      consumer.clearFetchStartOffsets();
+      segmentDataManager.setFinalOffset(_startOffsetValue + 400);
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 400);
+      Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 400));
+      Assert.assertEquals(consumer.getFetchStartOffsets().get(0).longValue(), _startOffsetValue + 250);
+      if (pipelined) {
+        Assert.assertEquals(indexedOffsets, serialIndexedOffsets);
+      } else {
+        serialIndexedOffsets = indexedOffsets;
+      }
+      segmentDataManager.destroy();
+    }
+  }
+
+  // Test that the pipelined consumption reaches the row limit in the middle of a batch exactly like the serial
+  // consumption.
+  @Test
+  public void testPipelinedConsumptionReachingRowLimit()
+      throws Exception {
+    for (boolean pipelined : new boolean[]{false, true}) {
+      MessageBatchConsumer consumer = new MessageBatchConsumer(100);
+      List<Long> indexedOffsets = new ArrayList<>();
+      FakeLLRealtimeSegmentDataManager segmentDataManager =
+          createConsumingSegmentManager(pipelined, 1, consumer, indexedOffsets);
+      segmentDataManager._state.set(segmentDataManager, LLRealtimeSegmentDataManager.State.INITIAL_CONSUMING);
+      segmentDataManager.setConsumeEndTime(Long.MAX_VALUE);
+
+      // The row limit is in the middle of the second batch
+      segmentDataManager.setSegmentMaxRowCount(150);
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(segmentDataManager.getStopReason(), SegmentCompletionProtocol.REASON_ROW_LIMIT);
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 150);
+      Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 150));
+      if (pipelined) {
+        // The third batch is fetched while indexing the second one, and discarded
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 300, 100));
+      } else {
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 200, 100));
+      }
+      segmentDataManager.destroy();
+    }
+  }
+
+  // Test that stopping the pipelined consumption discards the batch fetched ahead, and the consumption resumes from the
+  // current offset exactly like the serial consumption.
+  @Test
+  public void testPipelinedConsumptionStopped()
+      throws Exception {
+    for (boolean pipelined : new boolean[]{false, true}) {
+      MessageBatchConsumer consumer = new MessageBatchConsumer(100);
+      List<Long> indexedOffsets = new ArrayList<>();
+      FakeLLRealtimeSegmentDataManager segmentDataManager =
+          createConsumingSegmentManager(pipelined, 1, consumer, indexedOffsets);
+      segmentDataManager._state.set(segmentDataManager, LLRealtimeSegmentDataManager.State.CATCHING_UP);
+      segmentDataManager.setFinalOffset(_startOffsetValue + 300);
+
+      // Stop after indexing the first batch
+      segmentDataManager._stopAfterNumRowsIndexed = 100;
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 100);
+      Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 100));
+      if (pipelined) {
+        // The second batch is fetched while indexing the first one, and discarded
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 200, 100));
+      } else {
+        Assert.assertEquals(consumer.getFetchStartOffsets(),
+            getOffsets(_startOffsetValue, _startOffsetValue + 100, 100));
+      }
+
+      // Resume consuming, which should neither skip nor replay any message
+      consumer.clearFetchStartOffsets();
+      segmentDataManager._shouldStop.set(segmentDataManager, false);
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 300);
+      Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 300));
+      Assert.assertEquals(consumer.getFetchStartOffsets().get(0).longValue(), _startOffsetValue + 100);
+      segmentDataManager.destroy();
+    }
+  }
+
+  // Test that the messages decoded in multiple shards are indexed in the stream order with the right offsets.
+  @Test
+  public void testShardedDecoding()
+      throws Exception {
+    // Each batch of 300 messages is decoded in 4 shards of 75 messages
+    MessageBatchConsumer consumer = new MessageBatchConsumer(300);
+    List<Long> indexedOffsets = new ArrayList<>();
+    FakeLLRealtimeSegmentDataManager segmentDataManager =
+        createConsumingSegmentManager(true, 4, consumer, indexedOffsets);
+    segmentDataManager._state.set(segmentDataManager, LLRealtimeSegmentDataManager.State.CATCHING_UP);
+    segmentDataManager.setFinalOffset(_startOffsetValue + 600);
+    OffsetMessageDecoder.DECODERS_USED.clear();
+    segmentDataManager.consumeLoop();
+    Assert.assertEquals(OffsetMessageDecoder.DECODERS_USED.size(), 4);
+    Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 600);
+    Assert.assertEquals(indexedOffsets, getOffsets(_startOffsetValue, _startOffsetValue + 600));
+    Assert.assertEquals(segmentDataManager.getNumRowsErrored(), 0);
+    segmentDataManager.destroy();
+  }
+
+  // Test that a message failing to be decoded in one shard is counted and skipped without affecting the other messages
+  // of the batch, the same way as the serial consumption.
+  @Test
+  public void testShardedDecodingWithInvalidMessage()
+      throws Exception {
+    // The invalid messages are in the second shard of the first batch and the third shard of the second batch
+    Set<Long> invalidOffsets = new HashSet<>(Arrays.asList(_startOffsetValue + 100, _startOffsetValue + 500));
+    List<Long> expectedIndexedOffsets = getOffsets(_startOffsetValue, _startOffsetValue + 600);
+    expectedIndexedOffsets.removeAll(invalidOffsets);
+    for (boolean pipelined : new boolean[]{false, true}) {
+      MessageBatchConsumer consumer = new MessageBatchConsumer(300, invalidOffsets);
+      List<Long> indexedOffsets = new ArrayList<>();
+      FakeLLRealtimeSegmentDataManager segmentDataManager =
+          createConsumingSegmentManager(pipelined, 4, consumer, indexedOffsets);
+      segmentDataManager._state.set(segmentDataManager, LLRealtimeSegmentDataManager.State.CATCHING_UP);
+      segmentDataManager.setFinalOffset(_startOffsetValue + 600);
+      segmentDataManager.consumeLoop();
+      Assert.assertEquals(((LongMsgOffset) segmentDataManager.getCurrentOffset()).getOffset(), _startOffsetValue + 600);
+      Assert.assertEquals(indexedOffsets, expectedIndexedOffsets);
+      Assert.assertEquals(segmentDataManager.getNumRowsErrored(), 2);
+      segmentDataManager.destroy();
+    }
+  }
+
+  /**
+   * Creates a segment manager running the actual consume loop, which fetches the messages from the given consumer and
+   * indexes the rows into a mock segment recording the offsets decoded from the rows.
+   */
+  private FakeLLRealtimeSegmentDataManager createConsumingSegmentManager(boolean pipelined, int numDecodeThreads,
+      PartitionGroupConsumer consumer, List<Long> indexedOffsets)
+      throws Exception {
+    Map<String, String> streamConfigs = new HashMap<>();
+    streamConfigs.put(StreamConfigProperties.PIPELINED_CONSUMPTION, Boolean.toString(pipelined));
+    streamConfigs.put(StreamConfigProperties.NUM_DECODE_THREADS, Integer.toString(numDecodeThreads));
+    streamConfigs.put("stream.fakeStream.decoder.class.name", OffsetMessageDecoder.class.getName());
+    FakeLLRealtimeSegmentDataManager segmentDataManager = createFakeSegmentManager(streamConfigs);
+    segmentDataManager._invokeConsumeLoop = true;
+    segmentDataManager.setField(consumer, "_partitionGroupConsumer");
+
+    // NOTE: Record the offsets instead of the rows because the serial consumption reuses the row for each message
+    MutableSegmentImpl mutableSegment = mock(MutableSegmentImpl.class);
+    when(mutableSegment.index(any(GenericRow.class), any())).thenAnswer(invocation -> {
+      indexedOffsets.add(getOffset(invocation.getArgument(0)));
+      segmentDataManager.onRowsIndexed(indexedOffsets.size());
+      return true;
+    });
+    when(mutableSegment.index(anyList(), any(), any())).thenAnswer(invocation -> {
+      for (GenericRow row : (List<GenericRow>) invocation.getArgument(0)) {
+        indexedOffsets.add(getOffset(row));
+      }
+      segmentDataManager.onRowsIndexed(indexedOffsets.size());
+      return true;
+    });
+    when(mutableSegment.getNumDocsIndexed()).thenAnswer(invocation -> indexedOffsets.size());
+    segmentDataManager.setRealtimeSegment(mutableSegment);
+    return segmentDataManager;
+  }
+
+  private static long getOffset(GenericRow row) {
+    return (Long) row.getValue("m");
+  }
+
+  private static List<Long> getOffsets(long startOffset, long endOffset) {
+    return getOffsets(startOffset, endOffset, 1);
+  }
+
+  private static List<Long> getOffsets(long startOffset, long endOffset, int step) {
+    List<Long> offsets = new ArrayList<>();
+    for (long offset = startOffset; offset < endOffset; offset += step) {
+      offsets.add(offset);
+    }
+    return offsets;
+  }
+
+  /**
+   * Consumer serving batches of up to the given number of messages starting from any offset, where the payload of each
+   * message is its offset (or an invalid value for the given invalid offsets), and recording the start offset of each
+   * fetch.
+   */
+  private static class MessageBatchConsumer implements PartitionGroupConsumer {
+    private final int _batchSize;
+    private final Set<Long> _invalidOffsets;
+    private final List<Long> _fetchStartOffsets = Collections.synchronizedList(new ArrayList<>());
+
+    MessageBatchConsumer(int batchSize) {
+      this(batchSize, Collections.emptySet());
+    }
+
+    MessageBatchConsumer(int batchSize, Set<Long> invalidOffsets) {
+      _batchSize = batchSize;
+      _invalidOffsets = invalidOffsets;
+    }
+
+    List<Long> getFetchStartOffsets() {
+      return new ArrayList<>(_fetchStartOffsets);
+    }
+
+    void clearFetchStartOffsets() {
+      _fetchStartOffsets.clear();
+    }
+
+    @Override
+    public MessageBatch fetchMessages(StreamPartitionMsgOffset startOffset, StreamPartitionMsgOffset endOffset,
+        int timeoutMs) {
+      long startOffsetValue = ((LongMsgOffset) startOffset).getOffset();
+      _fetchStartOffsets.add(startOffsetValue);
+      List<byte[]> messages = new ArrayList<>(_batchSize);
+      for (int i = 0; i < _batchSize; i++) {
+        long offset = startOffsetValue + i;
+        String payload = _invalidOffsets.contains(offset) ? "invalid" : Long.toString(offset);
+        messages.add(payload.getBytes(StandardCharsets.UTF_8));
+      }
+      return new OffsetMessageBatch(startOffsetValue, messages);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static class OffsetMessageBatch implements MessageBatch<byte[]> {
+    private final long _startOffset;
+    private final List<byte[]> _messages;
+
+    OffsetMessageBatch(long startOffset, List<byte[]> messages) {
+      _startOffset = startOffset;
+      _messages = messages;
+    }
+
+    @Override
+    public int getMessageCount() {
+      return _messages.size();
+    }
+
+    @Override
+    public byte[] getMessageAtIndex(int index) {
+      return _messages.get(index);
+    }
+
+    @Override
+    public int getMessageOffsetAtIndex(int index) {
+      return 0;
+    }
+
+    @Override
+    public int getMessageLengthAtIndex(int index) {
+      return _messages.get(index).length;
+    }
+
+    @Override
+    public long getNextStreamMessageOffsetAtIndex(int index) {
+      return _startOffset + index + 1;
+    }
+  }
+
+  /**
+   * Decodes the payload of the message into the metric column, which is converted to the offset of the message by the
+   * record transformer, or fails the record transformation for an invalid payload.
+   */
+  public static class OffsetMessageDecoder implements StreamMessageDecoder<byte[]> {
+    static final Set<OffsetMessageDecoder> DECODERS_USED = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void init(Map<String, String> props, Set<String> fieldsToRead, String topicName) {
+    }
+
+    @Override
+    public GenericRow decode(byte[] payload, GenericRow destination) {
+      return decode(payload, 0, payload.length, destination);
+    }
+
+    @Override
+    public GenericRow decode(byte[] payload, int offset, int length, GenericRow destination) {
+      DECODERS_USED.add(this);
+      destination.putValue("m", new String(payload, offset, length, StandardCharsets.UTF_8));
+      return destination;
+    }
+  }
+
   public static class FakeLLRealtimeSegmentDataManager extends LLRealtimeSegmentDataManager {
 
     public Field _state;
@@ -798,6 +1128,8 @@ public class LLRealtimeSegmentDataManagerTest {
     public boolean _throwExceptionFromConsume = false;
     public boolean _postConsumeStoppedCalled = false;
     public Map<Integer, Semaphore> _semaphoreMap;
+    public boolean _invokeConsumeLoop = false;
+    public int _stopAfterNumRowsIndexed = Integer.MAX_VALUE;
 
     private static InstanceDataManagerConfig makeInstanceDataManagerConfig() {
       InstanceDataManagerConfig dataManagerConfig = mock(InstanceDataManagerConfig.class);
@@ -873,6 +1205,9 @@ public class LLRealtimeSegmentDataManagerTest {
     @Override
     protected boolean consumeLoop()
         throws Exception {
+      if (_invokeConsumeLoop) {
+        return super.consumeLoop();
+      }
       if (_throwExceptionFromConsume) {
         throw new PermanentConsumerException(new Throwable("Offset out of range"));
       }
@@ -990,6 +1325,53 @@ public class LLRealtimeSegmentDataManagerTest {
       setInt(numRows, "_segmentMaxRowCount");
     }
 
+    public void setRealtimeSegment(MutableSegmentImpl mutableSegment) {
+      try {
+        Field field = LLRealtimeSegmentDataManager.class.getDeclaredField("_realtimeSegment");
+        field.setAccessible(true);
+        ((MutableSegmentImpl) field.get(this)).destroy();
+        field.set(this, mutableSegment);
+      } catch (NoSuchFieldException e) {
+        Assert.fail();
+      } catch (IllegalAccessException e) {
+        Assert.fail();
+      }
+    }
+
+    public int getNumRowsErrored() {
+      try {
+        Field field = LLRealtimeSegmentDataManager.class.getDeclaredField("_numRowsErrored");
+        field.setAccessible(true);
+        return field.getInt(this);
+      } catch (Exception e) {
+        Assert.fail();
+      }
+      return 0;
+    }
+
+    public void onRowsIndexed(int numRowsIndexed) {
+      if (numRowsIndexed >= _stopAfterNumRowsIndexed) {
+        _stopAfterNumRowsIndexed = Integer.MAX_VALUE;
+        try {
+          _shouldStop.set(this, true);
+        } catch (Exception e) {
+          Assert.fail();
+        }
+      }
+    }
+
+    private void setField(Object value, String fieldName) {
+      try {
+        Field field = LLRealtimeSegmentDataManager.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(this, value);
+      } catch (NoSuchFieldException e) {
+        Assert.fail();
+      } catch (IllegalAccessException e) {
+        Assert.fail();
+      }
+    }
+
     private void setLong(long value, String fieldName) {
       try {
         Field field = LLRealtimeSegmentDataManager.class.getDeclaredField(fieldName);
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.Collections;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class RealtimeConsumptionRateManagerTest {
+
+  @Test
+  public void testServerRateLimit() {
+    RealtimeConsumptionRateManager rateManager = new RealtimeConsumptionRateManager();
+    rateManager.init(new PinotConfiguration());
+    assertNull(rateManager.getServerRateLimiter());
+
+    rateManager.init(
+        new PinotConfiguration(Collections.singletonMap(Server.CONFIG_OF_CONSUMPTION_RATE_LIMIT, "1000")));
+    assertEquals(rateManager.getServerRateLimiter().getRate(), 1000.0);
+  }
+
+  @Test
+  public void testTableRateLimit() {
+    RealtimeConsumptionRateManager rateManager = new RealtimeConsumptionRateManager();
+    rateManager.init(new PinotConfiguration());
+    rateManager.createRateLimiter("testTable_REALTIME", -1);
+    assertNull(rateManager.getTableRateLimiter("testTable_REALTIME"));
+
+    // The rate limiter should be shared by the consuming segments of the table, and updated with the table config
+    rateManager.createRateLimiter("testTable_REALTIME", 100);
+    RateLimiter tableRateLimiter = rateManager.getTableRateLimiter("testTable_REALTIME");
+    assertEquals(tableRateLimiter.getRate(), 100.0);
+    rateManager.createRateLimiter("testTable_REALTIME", 200);
+    assertSame(rateManager.getTableRateLimiter("testTable_REALTIME"), tableRateLimiter);
+    assertEquals(tableRateLimiter.getRate(), 200.0);
+
+    // The rate limiter should be removed with the table
+    rateManager.removeTable("testTable_REALTIME");
+    assertNull(rateManager.getTableRateLimiter("testTable_REALTIME"));
+  }
+
+  @Test
+  public void testBackOff() {
+    RealtimeConsumptionRateManager rateManager = new RealtimeConsumptionRateManager();
+    rateManager.init(
+        new PinotConfiguration(Collections.singletonMap(Server.CONFIG_OF_CONSUMPTION_RATE_LIMIT, "1000")));
+    long currentTimeMs = System.currentTimeMillis();
+
+    // Average scheduler wait time above the threshold, should back off
+    rateManager.recordSchedulerWaitMs(500);
+    rateManager.recordSchedulerWaitMs(100);
+    currentTimeMs += 2000;
+    rateManager.maybeAdjustThrottleFactor(currentTimeMs);
+    assertEquals(rateManager.getThrottleFactor(), 0.5);
+    assertEquals(rateManager.getServerRateLimiter().getRate(), 500.0);
+
+    // Should not adjust again within the adjust interval
+    rateManager.recordSchedulerWaitMs(500);
+    rateManager.maybeAdjustThrottleFactor(currentTimeMs + 10);
+    assertEquals(rateManager.getThrottleFactor(), 0.5);
+    currentTimeMs += 2000;
+    rateManager.maybeAdjustThrottleFactor(currentTimeMs);
+    assertEquals(rateManager.getThrottleFactor(), 0.25);
+
+    // Should recover when the average scheduler wait time goes below the threshold
+    rateManager.recordSchedulerWaitMs(10);
+    currentTimeMs += 2000;
+    rateManager.maybeAdjustThrottleFactor(currentTimeMs);
+    assertEquals(rateManager.getThrottleFactor(), 0.35, 1e-9);
+    for (int i = 0; i < 10; i++) {
+      currentTimeMs += 2000;
+      rateManager.maybeAdjustThrottleFactor(currentTimeMs);
+    }
+    assertEquals(rateManager.getThrottleFactor(), 1.0);
+    assertEquals(rateManager.getServerRateLimiter().getRate(), 1000.0);
+  }
+
+  @Test
+  public void testThrottle() {
+    RealtimeConsumptionRateManager rateManager = new RealtimeConsumptionRateManager();
+    rateManager.init(new PinotConfiguration());
+
+    // Not limited
+    RealtimeConsumptionRateManager.ConsumptionRateLimiter rateLimiter =
+        rateManager.createRateLimiter("testTable_REALTIME", -1);
+    long startTimeMs = System.currentTimeMillis();
+    for (int i = 0; i < 10; i++) {
+      rateLimiter.throttle(1000, () -> false);
+    }
+    assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
+
+    // Limited to 100 messages per second, the second batch should wait for the first one
+    rateLimiter = rateManager.createRateLimiter("testTable_REALTIME", 100);
+    rateLimiter.throttle(20, () -> false);
+    startTimeMs = System.currentTimeMillis();
+    rateLimiter.throttle(20, () -> false);
+    assertTrue(System.currentTimeMillis() - startTimeMs >= 100);
+
+    // Should stop waiting when the consumption should stop
+    rateLimiter.throttle(1000, () -> false);
+    startTimeMs = System.currentTimeMillis();
+    rateLimiter.throttle(1000, () -> true);
+    assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
+  }
+}
@@ -134,6 +134,54 @@ public class IndexedTableTest {
     checkSurvivors(indexedTable, survivors);
   }
 
+  @Test(dataProvider = "initDataProvider")
+  public void testPartitionedIndexedTable(String orderBy, List<String> survivors)
+      throws InterruptedException, TimeoutException, ExecutionException {
+    QueryContext queryContext = QueryContextConverterUtils
+        .getQueryContextFromSQL("SELECT SUM(m1), MAX(m2) FROM testTable GROUP BY d1, d2, d3, d4 ORDER BY " + orderBy);
+    DataSchema dataSchema = new DataSchema(new String[]{"d1", "d2", "d3", "d4", "sum(m1)", "max(m2)"},
+        new ColumnDataType[]{ColumnDataType.STRING, ColumnDataType.INT, ColumnDataType.DOUBLE, ColumnDataType.INT,
+            ColumnDataType.DOUBLE, ColumnDataType.DOUBLE});
+    PartitionedIndexedTable indexedTable = new PartitionedIndexedTable(dataSchema, queryContext, 5, TRIM_THRESHOLD, 4);
+
+    // Same records as testNonConcurrent(), upserted round-robin into 3 shards
+    List<Object[]> records = Arrays.asList(new Object[]{"a", 1, 10d, 1000, 10d, 100d},
+        new Object[]{"b", 2, 20d, 1000, 10d, 200d}, new Object[]{"a", 1, 10d, 1000, 10d, 100d},
+        new Object[]{"a", 1, 10d, 1000, 10d, 100d}, new Object[]{"c", 3, 30d, 1000, 10d, 300d},
+        new Object[]{"c", 3, 30d, 1000, 10d, 300d}, new Object[]{"d", 4, 40d, 1000, 10d, 400d},
+        new Object[]{"d", 4, 40d, 1000, 10d, 400d}, new Object[]{"e", 5, 50d, 1000, 10d, 500d},
+        new Object[]{"e", 5, 50d, 1000, 10d, 500d}, new Object[]{"f", 6, 60d, 1000, 10d, 600d},
+        new Object[]{"g", 7, 70d, 1000, 10d, 700d}, new Object[]{"h", 8, 80d, 1000, 10d, 800d},
+        new Object[]{"i", 9, 90d, 1000, 10d, 900d}, new Object[]{"j", 10, 100d, 1000, 10d, 1000d},
+        new Object[]{"b", 2, 20d, 1000, 10d, 200d}, new Object[]{"j", 10, 100d, 1000, 10d, 1000d},
+        new Object[]{"k", 11, 110d, 1000, 10d, 1100d}, new Object[]{"b", 2, 20d, 1000, 10d, 200d},
+        new Object[]{"l", 12, 120d, 1000, 10d, 1200d}, new Object[]{"h", 8, 80d, 1000, 100d, 800d},
+        new Object[]{"i", 9, 90d, 1000, 50d, 900d}, new Object[]{"m", 13, 130d, 1000, 600d, 1300d});
+    int numShards = 3;
+    ExecutorService executorService = Executors.newFixedThreadPool(numShards);
+    try {
+      List<Callable<Void>> callables = new ArrayList<>(numShards);
+      for (int i = 0; i < numShards; i++) {
+        int shardId = i;
+        callables.add(() -> {
+          PartitionedIndexedTable.Shard shard = indexedTable.createShard();
+          for (int j = shardId; j < records.size(); j += numShards) {
+            shard.upsert(getRecord(records.get(j).clone()));
+          }
+          return null;
+        });
+      }
+      for (Future<Void> future : executorService.invokeAll(callables)) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+      indexedTable.mergeShards(executorService, System.currentTimeMillis() + 10_000L);
+    } finally {
+      executorService.shutdown();
+    }
+    indexedTable.finish(true);
+    checkSurvivors(indexedTable, survivors);
+  }
+
   @DataProvider(name = "initDataProvider")
   public Object[][] initDataProvider() {
     List<Object[]> data = new ArrayList<>();
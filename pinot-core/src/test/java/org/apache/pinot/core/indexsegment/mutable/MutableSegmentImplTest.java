@@ -21,7 +21,11 @@ package org.apache.pinot.core.indexsegment.mutable;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
@@ -37,6 +41,7 @@ import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.readers.FileFormat;
@@ -46,6 +51,7 @@ import org.apache.pinot.spi.data.readers.RecordReaderFactory;
 import org.apache.pinot.spi.stream.StreamMessageMetadata;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.ReadMode;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -58,7 +64,9 @@ import static org.testng.Assert.assertEquals;
 public class MutableSegmentImplTest {
   private static final String AVRO_FILE = "data/test_data-mv.avro";
   private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "MutableSegmentImplTest");
+  private static final int BATCH_SIZE = 1000;
 
+  private File _avroFile;
   private Schema _schema;
   private MutableSegmentImpl _mutableSegmentImpl;
   private ImmutableSegment _immutableSegment;
@@ -74,6 +82,7 @@ public class MutableSegmentImplTest {
     URL resourceUrl = MutableSegmentImplTest.class.getClassLoader().getResource(AVRO_FILE);
     Assert.assertNotNull(resourceUrl);
     File avroFile = new File(resourceUrl.getFile());
+    _avroFile = avroFile;
 
     SegmentGeneratorConfig config =
         SegmentTestUtils.getSegmentGeneratorConfigWithoutTimeColumn(avroFile, TEMP_DIR, "testTable");
@@ -203,6 +212,133 @@ public class MutableSegmentImplTest {
     }
   }
 
+  @Test
+  public void testBatchIndexing()
+      throws Exception {
+    Set<String> invertedIndexColumns = new HashSet<>();
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      if (!fieldSpec.isVirtualColumn()) {
+        invertedIndexColumns.add(fieldSpec.getName());
+      }
+    }
+    MutableSegmentImpl batchMutableSegmentImpl = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(_schema, Collections.emptySet(), Collections.emptySet(), invertedIndexColumns, false);
+    StreamMessageMetadata metadata = new StreamMessageMetadata(_lastIngestionTimeMs);
+    try (RecordReader recordReader = RecordReaderFactory
+        .getRecordReader(FileFormat.AVRO, _avroFile, _schema.getColumnNames(), null)) {
+      List<GenericRow> rows = new ArrayList<>(BATCH_SIZE);
+      while (recordReader.hasNext()) {
+        rows.add(recordReader.next());
+        if (rows.size() == BATCH_SIZE || !recordReader.hasNext()) {
+          int numDocsIndexed = batchMutableSegmentImpl.getNumDocsIndexed();
+          Assert.assertTrue(batchMutableSegmentImpl
+              .index(rows, metadata, (row, e) -> Assert.fail("Failed to index record: " + row, e)));
+          assertEquals(batchMutableSegmentImpl.getNumDocsIndexed(), numDocsIndexed + rows.size());
+          rows.clear();
+        }
+      }
+    }
+
+    // Records and metadata should be the same as indexing the records one by one
+    int numDocs = _mutableSegmentImpl.getNumDocsIndexed();
+    assertEquals(batchMutableSegmentImpl.getNumDocsIndexed(), numDocs);
+    assertEquals(batchMutableSegmentImpl.getSegmentMetadata().getLatestIngestionTimestamp(), _lastIngestionTimeMs);
+    for (int docId = 0; docId < numDocs; docId++) {
+      assertEquals(batchMutableSegmentImpl.getRecord(docId, new GenericRow()),
+          _mutableSegmentImpl.getRecord(docId, new GenericRow()));
+    }
+    for (String column : invertedIndexColumns) {
+      DataSourceMetadata actualDataSourceMetadata =
+          batchMutableSegmentImpl.getDataSource(column).getDataSourceMetadata();
+      DataSourceMetadata expectedDataSourceMetadata = _mutableSegmentImpl.getDataSource(column).getDataSourceMetadata();
+      assertEquals(actualDataSourceMetadata.getMinValue(), expectedDataSourceMetadata.getMinValue());
+      assertEquals(actualDataSourceMetadata.getMaxValue(), expectedDataSourceMetadata.getMaxValue());
+      assertEquals(actualDataSourceMetadata.getMaxNumValuesPerMVEntry(),
+          expectedDataSourceMetadata.getMaxNumValuesPerMVEntry());
+    }
+
+    // Inverted index should match the forward index
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      String column = fieldSpec.getName();
+      if (!fieldSpec.isSingleValueField() || !invertedIndexColumns.contains(column)) {
+        continue;
+      }
+      DataSource dataSource = batchMutableSegmentImpl.getDataSource(column);
+      InvertedIndexReader<MutableRoaringBitmap> invertedIndex =
+          (InvertedIndexReader<MutableRoaringBitmap>) dataSource.getInvertedIndex();
+      ForwardIndexReader forwardIndex = dataSource.getForwardIndex();
+      int cardinality = dataSource.getDictionary().length();
+      int numDocsInInvertedIndex = 0;
+      for (int dictId = 0; dictId < cardinality; dictId++) {
+        MutableRoaringBitmap docIds = invertedIndex.getDocIds(dictId);
+        for (int docId : docIds) {
+          assertEquals(forwardIndex.getDictId(docId, null), dictId);
+        }
+        numDocsInInvertedIndex += docIds.getCardinality();
+      }
+      assertEquals(numDocsInInvertedIndex, numDocs);
+    }
+    batchMutableSegmentImpl.destroy();
+  }
+
+  @Test
+  public void testBatchIndexingWithInvalidRecord()
+      throws Exception {
+    Set<String> invertedIndexColumns = new HashSet<>();
+    String invalidColumn = null;
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      if (!fieldSpec.isVirtualColumn()) {
+        invertedIndexColumns.add(fieldSpec.getName());
+        if (fieldSpec.isSingleValueField()) {
+          invalidColumn = fieldSpec.getName();
+        }
+      }
+    }
+    Assert.assertNotNull(invalidColumn);
+    MutableSegmentImpl batchMutableSegmentImpl = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(_schema, Collections.emptySet(), Collections.emptySet(), invertedIndexColumns, false);
+    List<GenericRow> rows = new ArrayList<>(BATCH_SIZE);
+    try (RecordReader recordReader = RecordReaderFactory
+        .getRecordReader(FileFormat.AVRO, _avroFile, _schema.getColumnNames(), null)) {
+      while (recordReader.hasNext() && rows.size() < BATCH_SIZE) {
+        rows.add(recordReader.next());
+      }
+    }
+    int numValidRows = rows.size();
+
+    // Insert an invalid record in the middle of the batch, which should be skipped without changing any index
+    GenericRow invalidRow = new GenericRow();
+    invalidRow.init(rows.get(0));
+    invalidRow.putValue(invalidColumn, new Object());
+    rows.add(numValidRows / 2, invalidRow);
+    List<GenericRow> skippedRows = new ArrayList<>();
+    Assert.assertTrue(batchMutableSegmentImpl.index(rows, null, (row, e) -> skippedRows.add(row)));
+    assertEquals(skippedRows, Collections.singletonList(invalidRow));
+    assertEquals(batchMutableSegmentImpl.getNumDocsIndexed(), numValidRows);
+    for (int docId = 0; docId < numValidRows; docId++) {
+      assertEquals(batchMutableSegmentImpl.getRecord(docId, new GenericRow()),
+          _mutableSegmentImpl.getRecord(docId, new GenericRow()));
+    }
+
+    // Inverted index should only contain the valid records
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      String column = fieldSpec.getName();
+      if (!fieldSpec.isSingleValueField() || !invertedIndexColumns.contains(column)) {
+        continue;
+      }
+      DataSource dataSource = batchMutableSegmentImpl.getDataSource(column);
+      InvertedIndexReader<MutableRoaringBitmap> invertedIndex =
+          (InvertedIndexReader<MutableRoaringBitmap>) dataSource.getInvertedIndex();
+      int cardinality = dataSource.getDictionary().length();
+      int numDocsInInvertedIndex = 0;
+      for (int dictId = 0; dictId < cardinality; dictId++) {
+        numDocsInInvertedIndex += invertedIndex.getDocIds(dictId).getCardinality();
+      }
+      assertEquals(numDocsInInvertedIndex, numValidRows);
+    }
+    batchMutableSegmentImpl.destroy();
+  }
+
   @AfterClass
   public void tearDown() {
     FileUtils.deleteQuietly(TEMP_DIR);
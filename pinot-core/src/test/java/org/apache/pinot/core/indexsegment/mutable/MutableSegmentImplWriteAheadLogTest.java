@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.indexsegment.mutable;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.local.realtime.impl.wal.MutableSegmentWriteAheadLog;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.StreamMessageMetadata;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+
+public class MutableSegmentImplWriteAheadLogTest {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), MutableSegmentImplWriteAheadLogTest.class.getSimpleName());
+  private static final String SEGMENT_NAME = "testTable__0__0__155555";
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String BYTES_COLUMN = "bytesColumn";
+  private static final String MV_INT_COLUMN = "mvIntColumn";
+  private static final String DOUBLE_METRIC = "doubleMetric";
+  private static final int NUM_CHECKPOINTED_RECORDS = 1000;
+  private static final int NUM_UNCHECKPOINTED_RECORDS = 100;
+  private static final long INGESTION_TIME_MS = 1600000000000L;
+
+  private final Schema _schema = new Schema.SchemaBuilder().addSingleValueDimension(INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(LONG_COLUMN, DataType.LONG).addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .addSingleValueDimension(BYTES_COLUMN, DataType.BYTES).addMultiValueDimension(MV_INT_COLUMN, DataType.INT)
+      .addMetric(DOUBLE_METRIC, DataType.DOUBLE).build();
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testRecoverFromWriteAheadLog()
+      throws Exception {
+    List<GenericRow> records = new ArrayList<>(NUM_CHECKPOINTED_RECORDS + NUM_UNCHECKPOINTED_RECORDS);
+    Random random = new Random();
+    for (int i = 0; i < NUM_CHECKPOINTED_RECORDS + NUM_UNCHECKPOINTED_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(INT_COLUMN, random.nextInt(100));
+      record.putValue(LONG_COLUMN, random.nextLong());
+      record.putValue(STRING_COLUMN, "value" + random.nextInt(100));
+      record.putValue(BYTES_COLUMN, new byte[]{(byte) random.nextInt(), (byte) random.nextInt()});
+      record.putValue(MV_INT_COLUMN, new Object[]{random.nextInt(10), random.nextInt(10), random.nextInt(10)});
+      record.putValue(DOUBLE_METRIC, random.nextDouble());
+      records.add(record);
+    }
+
+    // Index the records as rows and batches, and only checkpoint part of them
+    MutableSegmentImpl mutableSegment = createMutableSegment(true);
+    assertNull(mutableSegment.recoverFromWriteAheadLog());
+    int numRowsIndexedOneByOne = NUM_CHECKPOINTED_RECORDS / 2;
+    for (int i = 0; i < numRowsIndexedOneByOne; i++) {
+      mutableSegment.index(records.get(i), new StreamMessageMetadata(INGESTION_TIME_MS + i));
+    }
+    mutableSegment.index(records.subList(numRowsIndexedOneByOne, NUM_CHECKPOINTED_RECORDS),
+        new StreamMessageMetadata(INGESTION_TIME_MS + NUM_CHECKPOINTED_RECORDS),
+        (row, e) -> fail("Failed to index record: " + row, e));
+    mutableSegment.checkpoint("12345");
+    mutableSegment.index(records.subList(NUM_CHECKPOINTED_RECORDS, records.size()), null,
+        (row, e) -> fail("Failed to index record: " + row, e));
+    mutableSegment.destroy();
+
+    // Only the checkpointed records should be recovered
+    mutableSegment = createMutableSegment(true);
+    assertEquals(mutableSegment.recoverFromWriteAheadLog(), "12345");
+    assertEquals(mutableSegment.getNumDocsIndexed(), NUM_CHECKPOINTED_RECORDS);
+    assertEquals(mutableSegment.getSegmentMetadata().getLatestIngestionTimestamp(),
+        INGESTION_TIME_MS + NUM_CHECKPOINTED_RECORDS);
+    for (int i = 0; i < NUM_CHECKPOINTED_RECORDS; i++) {
+      assertEquals(mutableSegment.getRecord(i, new GenericRow()), records.get(i));
+    }
+
+    // New records should be appended after the recovered records
+    mutableSegment.index(records.subList(NUM_CHECKPOINTED_RECORDS, records.size()), null,
+        (row, e) -> fail("Failed to index record: " + row, e));
+    mutableSegment.checkpoint("23456");
+    mutableSegment.destroy();
+    mutableSegment = createMutableSegment(true);
+    assertEquals(mutableSegment.recoverFromWriteAheadLog(), "23456");
+    assertEquals(mutableSegment.getNumDocsIndexed(), records.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertEquals(mutableSegment.getRecord(i, new GenericRow()), records.get(i));
+    }
+    mutableSegment.destroy();
+
+    // Nothing to recover after the write-ahead log is deleted
+    mutableSegment.deleteWriteAheadLog();
+    mutableSegment = createMutableSegment(true);
+    assertNull(mutableSegment.recoverFromWriteAheadLog());
+    assertEquals(mutableSegment.getNumDocsIndexed(), 0);
+    mutableSegment.destroy();
+    mutableSegment.deleteWriteAheadLog();
+  }
+
+  @Test
+  public void testCorruptedWriteAheadLog()
+      throws Exception {
+    MutableSegmentImpl mutableSegment = createMutableSegment(true);
+    for (int i = 0; i < 10; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(INT_COLUMN, i);
+      record.putValue(STRING_COLUMN, "value" + i);
+      mutableSegment.index(record, null);
+    }
+    mutableSegment.checkpoint("12345");
+    mutableSegment.destroy();
+
+    // Flip the last checkpointed byte, which belongs to the last entry
+    File writeAheadLogDir = new File(TEMP_DIR, MutableSegmentWriteAheadLog.WRITE_AHEAD_LOG_DIR_NAME);
+    long logLength;
+    try (DataInputStream checkpointInput = new DataInputStream(Files.newInputStream(
+        new File(writeAheadLogDir, SEGMENT_NAME + MutableSegmentWriteAheadLog.CHECKPOINT_FILE_SUFFIX).toPath()))) {
+      // Skip the magic marker and the version
+      checkpointInput.readLong();
+      logLength = checkpointInput.readLong();
+    }
+    try (RandomAccessFile logFile = new RandomAccessFile(
+        new File(writeAheadLogDir, SEGMENT_NAME + MutableSegmentWriteAheadLog.LOG_FILE_SUFFIX), "rw")) {
+      logFile.seek(logLength - 1);
+      int lastByte = logFile.read();
+      logFile.seek(logLength - 1);
+      logFile.write(lastByte ^ 0xFF);
+    }
+
+    // The corrupted log should be discarded instead of replaying part of it
+    mutableSegment = createMutableSegment(true);
+    assertNull(mutableSegment.recoverFromWriteAheadLog());
+    assertEquals(mutableSegment.getNumDocsIndexed(), 0);
+    mutableSegment.destroy();
+    mutableSegment.deleteWriteAheadLog();
+  }
+
+  @Test
+  public void testWriteAheadLogDisabled()
+      throws Exception {
+    MutableSegmentImpl mutableSegment = createMutableSegment(false);
+    GenericRow record = new GenericRow();
+    record.putValue(INT_COLUMN, 1);
+    record.putValue(LONG_COLUMN, 2L);
+    record.putValue(STRING_COLUMN, "3");
+    record.putValue(BYTES_COLUMN, new byte[]{4});
+    record.putValue(MV_INT_COLUMN, new Object[]{5, 6});
+    record.putValue(DOUBLE_METRIC, 7.0);
+    mutableSegment.index(record, null);
+    mutableSegment.checkpoint("12345");
+    mutableSegment.destroy();
+
+    mutableSegment = createMutableSegment(false);
+    assertNull(mutableSegment.recoverFromWriteAheadLog());
+    assertEquals(mutableSegment.getNumDocsIndexed(), 0);
+    mutableSegment.destroy();
+  }
+
+  private MutableSegmentImpl createMutableSegment(boolean writeAheadLogEnabled) {
+    RealtimeSegmentStatsHistory statsHistory = mock(RealtimeSegmentStatsHistory.class);
+    when(statsHistory.getEstimatedCardinality(anyString())).thenReturn(200);
+    when(statsHistory.getEstimatedAvgColSize(anyString())).thenReturn(32);
+    RealtimeSegmentConfig realtimeSegmentConfig =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType("testTable_REALTIME").setSegmentName(SEGMENT_NAME)
+            .setStreamName("testStream").setSchema(_schema).setCapacity(100000).setAvgNumMultiValues(2)
+            .setNoDictionaryColumns(Collections.singleton(LONG_COLUMN))
+            .setVarLengthDictionaryColumns(Collections.emptySet())
+            .setInvertedIndexColumns(Collections.singleton(INT_COLUMN))
+            .setRealtimeSegmentZKMetadata(new RealtimeSegmentZKMetadata())
+            .setMemoryManager(new DirectMemoryManager(SEGMENT_NAME)).setStatsHistory(statsHistory)
+            .setConsumerDir(TEMP_DIR.getAbsolutePath()).setWriteAheadLogEnabled(writeAheadLogEnabled).build();
+    return new MutableSegmentImpl(realtimeSegmentConfig, null);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.dociditerators;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.InPredicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.filter.predicate.InPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.segment.spi.Constants;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class SVScanDocIdIteratorTest {
+  private static final Random RANDOM = new Random();
+  // Not a multiple of the batch size to cover the last partial batch
+  private static final int NUM_DOCS = 10 * SVScanDocIdIterator.BATCH_SIZE + 17;
+  private static final int CARDINALITY = 100;
+
+  @Test
+  public void testRange() {
+    Dictionary dictionary = getDictionary();
+    PredicateEvaluator predicateEvaluator = RangePredicateEvaluatorFactory.newDictionaryBasedEvaluator(
+        new RangePredicate(ExpressionContext.forIdentifier("column"), true, "10", false, "20"), dictionary,
+        DataType.INT);
+    testPredicateEvaluator(predicateEvaluator);
+  }
+
+  @Test
+  public void testIn() {
+    Dictionary dictionary = getDictionary();
+    PredicateEvaluator predicateEvaluator = InPredicateEvaluatorFactory.newDictionaryBasedEvaluator(
+        new InPredicate(ExpressionContext.forIdentifier("column"), Arrays.asList("3", "42", "64", "99")), dictionary,
+        DataType.INT);
+    testPredicateEvaluator(predicateEvaluator);
+  }
+
+  @Test
+  public void testInWithoutMatchingValue() {
+    // None of the values is in the dictionary
+    Dictionary dictionary = getDictionary();
+    PredicateEvaluator predicateEvaluator = InPredicateEvaluatorFactory.newDictionaryBasedEvaluator(
+        new InPredicate(ExpressionContext.forIdentifier("column"), Arrays.asList("-1", "-2")), dictionary,
+        DataType.INT);
+    assertTrue(predicateEvaluator.isAlwaysFalse());
+    assertEquals(predicateEvaluator.getNumMatchingDictIds(), 0);
+    int[] docIds = new int[]{0, 1, 2};
+    assertEquals(predicateEvaluator.applySV(3, docIds, new int[]{0, 42, CARDINALITY - 1}), 0);
+    testPredicateEvaluator(predicateEvaluator);
+  }
+
+  private static Dictionary getDictionary() {
+    Dictionary dictionary = mock(Dictionary.class);
+    when(dictionary.isSorted()).thenReturn(true);
+    when(dictionary.length()).thenReturn(CARDINALITY);
+    when(dictionary.indexOf(anyString())).thenAnswer(invocation -> Integer.parseInt(invocation.getArgument(0)));
+    when(dictionary.insertionIndexOf(anyString()))
+        .thenAnswer(invocation -> Integer.parseInt(invocation.getArgument(0)));
+    return dictionary;
+  }
+
+  private void testPredicateEvaluator(PredicateEvaluator predicateEvaluator) {
+    int[] dictIds = new int[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      dictIds[i] = RANDOM.nextInt(CARDINALITY);
+    }
+    TestForwardIndexReader reader = new TestForwardIndexReader(dictIds);
+    boolean[] matches = new boolean[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      matches[i] = predicateEvaluator.applySV(dictIds[i]);
+    }
+
+    // Iterate over all the documents
+    SVScanDocIdIterator docIdIterator = new SVScanDocIdIterator(predicateEvaluator, reader, NUM_DOCS);
+    for (int i = 0; i < NUM_DOCS; i++) {
+      if (matches[i]) {
+        assertEquals(docIdIterator.next(), i);
+      }
+    }
+    assertEquals(docIdIterator.next(), Constants.EOF);
+    assertEquals(docIdIterator.getNumEntriesScanned(), NUM_DOCS);
+
+    // Mix next() and advance(), the entries scanned should be the same as scanning the documents one by one
+    docIdIterator = new SVScanDocIdIterator(predicateEvaluator, reader, NUM_DOCS);
+    int expectedDocId = -1;
+    long expectedNumEntriesScanned = 0;
+    while (true) {
+      int nextDocId = expectedDocId + 1;
+      int actualDocId;
+      if (RANDOM.nextBoolean()) {
+        actualDocId = docIdIterator.next();
+      } else {
+        // Cover targets both within and beyond the current batch
+        nextDocId += RANDOM.nextInt(2 * SVScanDocIdIterator.BATCH_SIZE);
+        actualDocId = docIdIterator.advance(nextDocId);
+      }
+      expectedDocId = Constants.EOF;
+      for (int i = nextDocId; i < NUM_DOCS; i++) {
+        expectedNumEntriesScanned++;
+        if (matches[i]) {
+          expectedDocId = i;
+          break;
+        }
+      }
+      assertEquals(actualDocId, expectedDocId);
+      assertEquals(docIdIterator.getNumEntriesScanned(), expectedNumEntriesScanned);
+      if (expectedDocId == Constants.EOF) {
+        break;
+      }
+    }
+
+    // Apply AND to a bitmap
+    docIdIterator = new SVScanDocIdIterator(predicateEvaluator, reader, NUM_DOCS);
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    MutableRoaringBitmap expectedDocIds = new MutableRoaringBitmap();
+    for (int i = 0; i < NUM_DOCS; i++) {
+      if (RANDOM.nextBoolean()) {
+        docIds.add(i);
+        if (matches[i]) {
+          expectedDocIds.add(i);
+        }
+      }
+    }
+    assertEquals(docIdIterator.applyAnd(docIds), expectedDocIds);
+    assertEquals(docIdIterator.getNumEntriesScanned(), docIds.getCardinality());
+  }
+
+  private static class TestForwardIndexReader implements ForwardIndexReader<ForwardIndexReaderContext> {
+    private final int[] _dictIds;
+
+    TestForwardIndexReader(int[] dictIds) {
+      _dictIds = dictIds;
+    }
+
+    @Override
+    public boolean isDictionaryEncoded() {
+      return true;
+    }
+
+    @Override
+    public boolean isSingleValue() {
+      return true;
+    }
+
+    @Override
+    public DataType getValueType() {
+      return DataType.INT;
+    }
+
+    @Override
+    public int getDictId(int docId, ForwardIndexReaderContext context) {
+      return _dictIds[docId];
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -21,6 +21,8 @@ package org.apache.pinot.core.operator.filter;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.operator.blocks.EmptyFilterBlock;
+import org.apache.pinot.core.operator.blocks.FilterBlock;
 import org.apache.pinot.segment.spi.Constants;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -107,4 +109,23 @@ public class AndFilterOperatorTest {
     Assert.assertEquals(iterator.next(), 28);
     Assert.assertEquals(iterator.next(), Constants.EOF);
   }
+
+  @Test
+  public void testEmptyChildSkipsRemaining() {
+    int[] docIds1 = new int[]{2, 3, 10, 15, 16, 28};
+    int[] docIds2 = new int[]{3, 6, 8, 20, 28};
+
+    List<BaseFilterOperator> operators = new ArrayList<>();
+    operators.add(new TestFilterOperator(docIds1));
+    operators.add(EmptyFilterOperator.getInstance());
+    operators.add(new TestFilterOperator(docIds2) {
+      @Override
+      protected FilterBlock getNextBlock() {
+        throw new AssertionError("Should not evaluate the filter operator after an empty one");
+      }
+    });
+    AndFilterOperator andOperator = new AndFilterOperator(operators);
+
+    Assert.assertSame(andOperator.nextBlock(), EmptyFilterBlock.getInstance());
+  }
 }
@@ -20,8 +20,18 @@ package org.apache.pinot.core.operator.filter;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.testng.annotations.Test;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 
@@ -92,4 +102,68 @@ public class FilterOperatorUtilsTest {
         .getOrFilterOperator(Arrays.asList(MATCH_ALL_FILTER_OPERATOR, REGULAR_FILTER_OPERATOR), NUM_DOCS, null);
     assertTrue(filterOperator instanceof MatchAllFilterOperator);
   }
+
+  @Test
+  public void testReorderAndFilterChildOperatorsBySelectivity() {
+    DataSource dataSource = mockDataSource(100);
+    // Selectivity: 0.5, 0.01, 0.9
+    BaseFilterOperator inFilterOperator =
+        new ScanBasedFilterOperator(mockPredicateEvaluator(Predicate.Type.IN, 50), dataSource, NUM_DOCS);
+    BaseFilterOperator eqFilterOperator =
+        new ScanBasedFilterOperator(mockPredicateEvaluator(Predicate.Type.EQ, 1), dataSource, NUM_DOCS);
+    BaseFilterOperator notEqFilterOperator =
+        new ScanBasedFilterOperator(mockPredicateEvaluator(Predicate.Type.NOT_EQ, 10), dataSource, NUM_DOCS);
+    assertEquals(inFilterOperator.getSelectivityEstimate(), 0.5);
+    assertEquals(eqFilterOperator.getSelectivityEstimate(), 0.01);
+    assertEquals(notEqFilterOperator.getSelectivityEstimate(), 0.9);
+
+    BaseFilterOperator filterOperator = FilterOperatorUtils
+        .getAndFilterOperator(Arrays.asList(inFilterOperator, eqFilterOperator, notEqFilterOperator), NUM_DOCS, null);
+    assertTrue(filterOperator instanceof AndFilterOperator);
+    List<BaseFilterOperator> childFilterOperators = ((AndFilterOperator) filterOperator).getFilterOperators();
+    assertSame(childFilterOperators.get(0), eqFilterOperator);
+    assertSame(childFilterOperators.get(1), inFilterOperator);
+    assertSame(childFilterOperators.get(2), notEqFilterOperator);
+    assertEquals(filterOperator.getSelectivityEstimate(), 0.5 * 0.01 * 0.9, 1e-9);
+
+    // Keep the query order when the optimization is disabled
+    filterOperator = FilterOperatorUtils
+        .getAndFilterOperator(Arrays.asList(inFilterOperator, eqFilterOperator, notEqFilterOperator), NUM_DOCS,
+            Collections.singletonMap(FilterOperatorUtils.USE_SELECTIVITY_REORDER_OPTIMIZATION, "false"));
+    childFilterOperators = ((AndFilterOperator) filterOperator).getFilterOperators();
+    assertSame(childFilterOperators.get(0), inFilterOperator);
+    assertSame(childFilterOperators.get(1), eqFilterOperator);
+    assertSame(childFilterOperators.get(2), notEqFilterOperator);
+  }
+
+  @Test
+  public void testEstimateRangeSelectivity() {
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(0, 10, 0, 100), 0.1);
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(-50, 10, 0, 100), 0.1);
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(Double.NEGATIVE_INFINITY, 200, 0, 100), 1.0);
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(101, 200, 0, 100), 0.0);
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(-10, -1, 0, 100), 0.0);
+    assertEquals(FilterOperatorUtils.estimateRangeSelectivity(5, 5, 5, 5), 1.0);
+  }
+
+  private static DataSource mockDataSource(int cardinality) {
+    Dictionary dictionary = mock(Dictionary.class);
+    when(dictionary.length()).thenReturn(cardinality);
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSourceMetadata.isSingleValue()).thenReturn(true);
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getDictionary()).thenReturn(dictionary);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+    return dataSource;
+  }
+
+  private static PredicateEvaluator mockPredicateEvaluator(Predicate.Type predicateType, int numDictIds) {
+    PredicateEvaluator predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.getPredicateType()).thenReturn(predicateType);
+    when(predicateEvaluator.isDictionaryBased()).thenReturn(true);
+    when(predicateEvaluator.isExclusive()).thenReturn(predicateType.isExclusive());
+    when(predicateEvaluator.getNumMatchingDictIds()).thenReturn(numDictIds);
+    when(predicateEvaluator.getNumNonMatchingDictIds()).thenReturn(numDictIds);
+    return predicateEvaluator;
+  }
 }
@@ -29,6 +29,7 @@ import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.core.plan.AggregationGroupByPlanNode;
 import org.apache.pinot.core.plan.AggregationPlanNode;
 import org.apache.pinot.core.plan.DictionaryBasedAggregationPlanNode;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
 import org.apache.pinot.core.plan.MetadataBasedAggregationPlanNode;
 import org.apache.pinot.core.plan.PlanNode;
 import org.apache.pinot.core.plan.SelectionPlanNode;
@@ -183,6 +184,33 @@ public class MetadataAndDictionaryAggregationPlanMakerTest {
     return entries.toArray(new Object[entries.size()][]);
   }
 
+  @Test
+  public void testGetMaxDocsPerCall() {
+    // Narrow numeric queries use the max block size
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL("select sum(column1) from testTable");
+    assertEquals(InstancePlanMakerImplV2.getMaxDocsPerCall(_indexSegment, queryContext),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    queryContext = QueryContextConverterUtils
+        .getQueryContextFromSQL("select count(*), max(column17) from testTable group by daysSinceEpoch");
+    assertEquals(InstancePlanMakerImplV2.getMaxDocsPerCall(_indexSegment, queryContext),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+
+    // Wide queries (including the STRING columns) use smaller blocks
+    queryContext = QueryContextConverterUtils.getQueryContextFromSQL("select * from testTable");
+    int maxDocsPerCall = InstancePlanMakerImplV2.getMaxDocsPerCall(_indexSegment, queryContext);
+    assertTrue(maxDocsPerCall < DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    assertTrue(maxDocsPerCall >= InstancePlanMakerImplV2.MIN_DOCS_PER_CALL);
+
+    // Override with query option
+    queryContext =
+        QueryContextConverterUtils.getQueryContextFromSQL("select * from testTable OPTION(maxDocsPerCall=500)");
+    assertEquals(InstancePlanMakerImplV2.getMaxDocsPerCall(_indexSegment, queryContext), 500);
+    queryContext =
+        QueryContextConverterUtils.getQueryContextFromSQL("select * from testTable OPTION(maxDocsPerCall=1000000)");
+    assertEquals(InstancePlanMakerImplV2.getMaxDocsPerCall(_indexSegment, queryContext),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
   @Test(dataProvider = "isFitForPlanDataProvider")
   public void testIsFitFor(String query, IndexSegment indexSegment, boolean expectedIsFitForMetadata,
       boolean expectedIsFitForDictionary) {
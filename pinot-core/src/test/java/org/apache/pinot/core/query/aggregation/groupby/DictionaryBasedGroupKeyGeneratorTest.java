@@ -220,8 +220,8 @@ public class DictionaryBasedGroupKeyGeneratorTest {
   }
 
   @Test
-  public void testArrayMapBasedSingleValue() {
-    // Cardinality product larger than Long.MAX_VALUE
+  public void testLongPairMapBasedSingleValue() {
+    // Cardinality product larger than Long.MAX_VALUE, but can be split into 2 parts smaller than Long.MAX_VALUE
     String[] groupByColumns = {"s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9", "s10"};
 
     // Test initial status
@@ -320,8 +320,8 @@ public class DictionaryBasedGroupKeyGeneratorTest {
   }
 
   @Test
-  public void testArrayMapBasedMultiValue() {
-    // Cardinality product larger than Long.MAX_VALUE
+  public void testLongPairMapBasedMultiValue() {
+    // Cardinality product larger than Long.MAX_VALUE, but can be split into 2 parts smaller than Long.MAX_VALUE
     String[] groupByColumns = {"m1", "m2", "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9", "s10"};
 
     // Test initial status
@@ -423,12 +423,83 @@ public class DictionaryBasedGroupKeyGeneratorTest {
 
   @Test
   public void testMapDefaultValue() {
-    assertEquals(DictionaryBasedGroupKeyGenerator.THREAD_LOCAL_LONG_MAP.get().defaultReturnValue(),
-        GroupKeyGenerator.INVALID_ID);
     assertEquals(DictionaryBasedGroupKeyGenerator.THREAD_LOCAL_INT_ARRAY_MAP.get().defaultReturnValue(),
         GroupKeyGenerator.INVALID_ID);
   }
 
+  @Test
+  public void testLongGroupIdMap() {
+    DictionaryBasedGroupKeyGenerator.LongGroupIdMap groupIdMap = new DictionaryBasedGroupKeyGenerator.LongGroupIdMap();
+    Map<Long, Integer> expectedGroupIds = new HashMap<>();
+    int groupIdUpperBound = 10_000;
+    for (int i = 0; i < 100_000; i++) {
+      long rawKey = (long) _random.nextInt(20_000) * Integer.MAX_VALUE;
+      int groupId = groupIdMap.getGroupId(rawKey, groupIdUpperBound);
+      Integer expectedGroupId = expectedGroupIds.get(rawKey);
+      if (expectedGroupId != null) {
+        assertEquals(groupId, (int) expectedGroupId, _errorMessage);
+      } else if (expectedGroupIds.size() < groupIdUpperBound) {
+        assertEquals(groupId, expectedGroupIds.size(), _errorMessage);
+        expectedGroupIds.put(rawKey, groupId);
+      } else {
+        assertEquals(groupId, GroupKeyGenerator.INVALID_ID, _errorMessage);
+      }
+    }
+    assertEquals(groupIdMap.size(), expectedGroupIds.size(), _errorMessage);
+
+    int numEntries = 0;
+    Iterator<DictionaryBasedGroupKeyGenerator.LongGroupIdMap.Entry> iterator = groupIdMap.iterator();
+    while (iterator.hasNext()) {
+      DictionaryBasedGroupKeyGenerator.LongGroupIdMap.Entry entry = iterator.next();
+      assertEquals(entry._groupId, (int) expectedGroupIds.get(entry._rawKey), _errorMessage);
+      numEntries++;
+    }
+    assertEquals(numEntries, expectedGroupIds.size(), _errorMessage);
+
+    groupIdMap.clearAndTrim();
+    assertEquals(groupIdMap.size(), 0);
+    assertFalse(groupIdMap.iterator().hasNext());
+    assertEquals(groupIdMap.getGroupId(0L, groupIdUpperBound), 0);
+  }
+
+  @Test
+  public void testLongPairGroupIdMap() {
+    DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap groupIdMap =
+        new DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap();
+    Map<List<Long>, Integer> expectedGroupIds = new HashMap<>();
+    int groupIdUpperBound = 10_000;
+    for (int i = 0; i < 100_000; i++) {
+      long rawKey1 = (long) _random.nextInt(200) * Integer.MAX_VALUE;
+      long rawKey2 = _random.nextInt(100);
+      int groupId = groupIdMap.getGroupId(rawKey1, rawKey2, groupIdUpperBound);
+      List<Long> rawKey = Arrays.asList(rawKey1, rawKey2);
+      Integer expectedGroupId = expectedGroupIds.get(rawKey);
+      if (expectedGroupId != null) {
+        assertEquals(groupId, (int) expectedGroupId, _errorMessage);
+      } else if (expectedGroupIds.size() < groupIdUpperBound) {
+        assertEquals(groupId, expectedGroupIds.size(), _errorMessage);
+        expectedGroupIds.put(rawKey, groupId);
+      } else {
+        assertEquals(groupId, GroupKeyGenerator.INVALID_ID, _errorMessage);
+      }
+    }
+    assertEquals(groupIdMap.size(), expectedGroupIds.size(), _errorMessage);
+
+    int numEntries = 0;
+    Iterator<DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap.Entry> iterator = groupIdMap.iterator();
+    while (iterator.hasNext()) {
+      DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap.Entry entry = iterator.next();
+      assertEquals(entry._groupId, (int) expectedGroupIds.get(Arrays.asList(entry._rawKey1, entry._rawKey2)),
+          _errorMessage);
+      numEntries++;
+    }
+    assertEquals(numEntries, expectedGroupIds.size(), _errorMessage);
+
+    groupIdMap.clearAndTrim();
+    assertEquals(groupIdMap.size(), 0);
+    assertFalse(groupIdMap.iterator().hasNext());
+  }
+
   @AfterClass
   public void tearDown() {
     FileUtils.deleteQuietly(new File(INDEX_DIR_PATH));
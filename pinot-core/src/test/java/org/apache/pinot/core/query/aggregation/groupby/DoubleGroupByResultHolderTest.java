@@ -94,6 +94,37 @@ public class DoubleGroupByResultHolderTest {
     testValues(resultHolder, _expected, 0, MAX_CAPACITY);
   }
 
+  /**
+   * This test is for the PagedDoubleGroupByResultHolder, where the values span multiple pages.
+   * - Fills the result holder within the initial capacity.
+   * - Expands the result holder across multiple pages, and checks the default values and the existing values.
+   */
+  @Test
+  void testPagedResultHolder() {
+    int initialCapacity = PagedDoubleGroupByResultHolder.PAGE_SIZE + 10;
+    int maxCapacity = 3 * PagedDoubleGroupByResultHolder.PAGE_SIZE + 10;
+    Random random = new Random(RANDOM_SEED);
+    double[] expected = new double[maxCapacity];
+    for (int i = 0; i < maxCapacity; i++) {
+      expected[i] = random.nextDouble();
+    }
+
+    GroupByResultHolder resultHolder = new PagedDoubleGroupByResultHolder(initialCapacity, maxCapacity, DEFAULT_VALUE);
+    for (int i = 0; i < initialCapacity; i++) {
+      resultHolder.setValueForKey(i, expected[i]);
+    }
+    testValues(resultHolder, expected, 0, initialCapacity);
+
+    resultHolder.ensureCapacity(maxCapacity);
+    testValues(resultHolder, expected, 0, initialCapacity);
+    for (int i = initialCapacity; i < maxCapacity; i++) {
+      Assert.assertEquals(resultHolder.getDoubleResult(i), DEFAULT_VALUE, "Random seed: " + RANDOM_SEED);
+      resultHolder.setValueForKey(i, expected[i]);
+    }
+    testValues(resultHolder, expected, 0, maxCapacity);
+    Assert.assertEquals(resultHolder.getDoubleResult(GroupKeyGenerator.INVALID_ID), DEFAULT_VALUE);
+  }
+
   /**
    * Helper method to test values within resultHolder against the provided expected values array.
    *
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.cache;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.response.ProcessingException;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.query.SegmentResultCacheOperator;
+import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.plan.SegmentResultCachePlanNode;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SegmentResultCacheTest {
+  private static final String AGGREGATION_QUERY = "SELECT SUM(a), DISTINCTCOUNT(b) FROM testTable WHERE c > 10";
+
+  @Test
+  public void testIsCacheable() {
+    QueryContext aggregationQuery = QueryContextConverterUtils.getQueryContextFromSQL(AGGREGATION_QUERY);
+    QueryContext groupByQuery =
+        QueryContextConverterUtils.getQueryContextFromSQL("SELECT SUM(a) FROM testTable GROUP BY b");
+    QueryContext selectionQuery = QueryContextConverterUtils.getQueryContextFromSQL("SELECT * FROM testTable");
+
+    IndexSegment immutableSegment = mockImmutableSegment("segment", "1");
+    assertTrue(SegmentResultCache.isCacheable(immutableSegment, aggregationQuery));
+    assertFalse(SegmentResultCache.isCacheable(immutableSegment, groupByQuery));
+    assertFalse(SegmentResultCache.isCacheable(immutableSegment, selectionQuery));
+    assertFalse(SegmentResultCache.isCacheable(mock(MutableSegment.class), aggregationQuery));
+  }
+
+  @Test
+  public void testCacheKey() {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL(AGGREGATION_QUERY);
+    String cacheKey = SegmentResultCache.getCacheKey(mockImmutableSegment("segment", "1"), queryContext);
+
+    // Query options should not affect the cache key
+    assertEquals(SegmentResultCache.getCacheKey(mockImmutableSegment("segment", "1"),
+        QueryContextConverterUtils.getQueryContextFromSQL(AGGREGATION_QUERY + " OPTION(timeoutMs=1000)")), cacheKey);
+
+    // Refreshed segment (different CRC)
+    assertNotEquals(SegmentResultCache.getCacheKey(mockImmutableSegment("segment", "2"), queryContext), cacheKey);
+
+    // Different filter
+    assertNotEquals(SegmentResultCache.getCacheKey(mockImmutableSegment("segment", "1"),
+        QueryContextConverterUtils.getQueryContextFromSQL("SELECT SUM(a), DISTINCTCOUNT(b) FROM testTable")),
+        cacheKey);
+  }
+
+  @Test
+  public void testOperator() {
+    SegmentResultCache segmentResultCache = new SegmentResultCache(1024 * 1024, mock(ServerMetrics.class));
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL(AGGREGATION_QUERY);
+    IndexSegment indexSegment = mockImmutableSegment("segment", "1");
+
+    List<Object> aggregationResult = Arrays.asList(123.0, new IntOpenHashSet(new int[]{1, 2, 3}));
+    ExecutionStatistics executionStatistics = new ExecutionStatistics(10, 20, 30, 100);
+    Operator operator = mock(Operator.class);
+    when(operator.nextBlock())
+        .thenAnswer(invocation -> new IntermediateResultsBlock(queryContext.getAggregationFunctions(),
+            aggregationResult, false));
+    when(operator.getExecutionStatistics()).thenReturn(executionStatistics);
+    PlanNode planNode = mock(PlanNode.class);
+    when(planNode.run()).thenReturn(operator);
+
+    // Cache miss
+    SegmentResultCachePlanNode cachePlanNode =
+        new SegmentResultCachePlanNode(segmentResultCache, indexSegment, queryContext, planNode);
+    SegmentResultCacheOperator cacheOperator = cachePlanNode.run();
+    IntermediateResultsBlock firstBlock = cacheOperator.nextBlock();
+    assertEquals(firstBlock.getAggregationResult(), aggregationResult);
+    assertEquals(cacheOperator.getExecutionStatistics(), executionStatistics);
+    assertEquals(segmentResultCache.size(), 1);
+    assertTrue(segmentResultCache.getSizeBytes() > 0);
+
+    // Cache hit should return a new copy of the results without running the underlying plan
+    cacheOperator = cachePlanNode.run();
+    IntermediateResultsBlock secondBlock = cacheOperator.nextBlock();
+    assertNotSame(secondBlock, firstBlock);
+    assertEquals(secondBlock.getAggregationResult(), aggregationResult);
+    assertNotSame(secondBlock.getAggregationResult().get(1), aggregationResult.get(1));
+    assertEquals(cacheOperator.getExecutionStatistics(), executionStatistics);
+    verify(planNode, times(1)).run();
+  }
+
+  @Test
+  public void testSkipCaching() {
+    SegmentResultCache segmentResultCache = new SegmentResultCache(1024 * 1024, mock(ServerMetrics.class));
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL(AGGREGATION_QUERY);
+
+    // Results with processing exceptions should not be cached
+    IntermediateResultsBlock resultsBlock =
+        new IntermediateResultsBlock(queryContext.getAggregationFunctions(), Arrays.asList(1.0, 2L), false);
+    resultsBlock.addToProcessingExceptions(new ProcessingException());
+    segmentResultCache.put("key", resultsBlock, new ExecutionStatistics(0, 0, 0, 0));
+    assertNull(segmentResultCache.get("key"));
+
+    // Results that cannot be serialized should not be cached
+    resultsBlock =
+        new IntermediateResultsBlock(queryContext.getAggregationFunctions(), Arrays.asList(1.0, new Object()), false);
+    segmentResultCache.put("key", resultsBlock, new ExecutionStatistics(0, 0, 0, 0));
+    assertNull(segmentResultCache.get("key"));
+
+    resultsBlock = new IntermediateResultsBlock(queryContext.getAggregationFunctions(), Arrays.asList(1.0, 2L), false);
+    segmentResultCache.put("key", resultsBlock, new ExecutionStatistics(0, 0, 0, 0));
+    assertNotNull(segmentResultCache.get("key"));
+  }
+
+  private static IndexSegment mockImmutableSegment(String segmentName, String crc) {
+    ImmutableSegment indexSegment = mock(ImmutableSegment.class);
+    when(indexSegment.getSegmentName()).thenReturn(segmentName);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getCrc()).thenReturn(crc);
+    when(indexSegment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    return indexSegment;
+  }
+}
@@ -27,10 +27,13 @@ import org.apache.pinot.segment.local.partition.PartitionFunctionFactory;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.testng.annotations.Test;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertFalse;
@@ -133,6 +136,39 @@ public class ColumnValueSegmentPrunerTest {
     assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column = 0 OR column = 10"));
   }
 
+  @Test
+  public void testBloomFilterPruning() {
+    PRUNER.init(new PinotConfiguration());
+
+    IndexSegment indexSegment = mock(IndexSegment.class);
+
+    DataSource dataSource = mock(DataSource.class);
+    when(indexSegment.getDataSource("column")).thenReturn(dataSource);
+
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSourceMetadata.getDataType()).thenReturn(DataType.INT);
+    when(dataSourceMetadata.getMinValue()).thenReturn(10);
+    when(dataSourceMetadata.getMaxValue()).thenReturn(20);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+
+    // Bloom filter contains 12 and 18
+    BloomFilterReader bloomFilter = mock(BloomFilterReader.class);
+    when(bloomFilter.mightContain(anyString())).thenAnswer(
+        invocation -> invocation.getArgument(0).equals("12") || invocation.getArgument(0).equals("18"));
+    when(bloomFilter.mightContainAny(anyList())).thenCallRealMethod();
+    when(dataSource.getBloomFilter()).thenReturn(bloomFilter);
+
+    // Equality predicate
+    assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column = 15"));
+    assertFalse(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column = 12"));
+    // In Predicate
+    assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (11, 15, 19)"));
+    assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (0, 15, 30)"));
+    assertFalse(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (11, 18)"));
+    // Values out of the min/max range should not be probed
+    assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (0, 30)"));
+  }
+
   private boolean runPruner(IndexSegment indexSegment, String query) {
     QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL(query);
     return PRUNER.prune(indexSegment, queryContext);
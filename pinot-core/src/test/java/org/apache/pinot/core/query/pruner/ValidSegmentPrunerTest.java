@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.pruner;
+
+import javax.annotation.Nullable;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.apache.pinot.segment.spi.index.reader.ValidDocIndexReader;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class ValidSegmentPrunerTest {
+  private final ValidSegmentPruner _segmentPruner = new ValidSegmentPruner();
+
+  @Test
+  public void testEmptySegment() {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL("SELECT * FROM testTable");
+    assertTrue(_segmentPruner.prune(getIndexSegment(0, null), queryContext));
+    assertFalse(_segmentPruner.prune(getIndexSegment(10, null), queryContext));
+  }
+
+  @Test
+  public void testUpsertSegment() {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL("SELECT * FROM testTable");
+    assertFalse(_segmentPruner.prune(getIndexSegment(10, 5), queryContext));
+    assertTrue(_segmentPruner.prune(getIndexSegment(10, 0), queryContext));
+
+    // Should not prune the segment without valid doc when upsert is skipped
+    queryContext =
+        QueryContextConverterUtils.getQueryContextFromSQL("SELECT * FROM testTable OPTION(skipUpsert=true)");
+    assertFalse(_segmentPruner.prune(getIndexSegment(10, 0), queryContext));
+  }
+
+  private IndexSegment getIndexSegment(int totalDocs, @Nullable Integer numValidDocs) {
+    IndexSegment indexSegment = mock(IndexSegment.class);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getTotalDocs()).thenReturn(totalDocs);
+    when(indexSegment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    if (numValidDocs != null) {
+      ValidDocIndexReader validDocIndex = mock(ValidDocIndexReader.class);
+      when(validDocIndex.getNumValidDocs()).thenReturn(numValidDocs);
+      when(indexSegment.getValidDocIndex()).thenReturn(validDocIndex);
+    }
+    return indexSegment;
+  }
+}
@@ -195,6 +195,12 @@ public class StreamConfigTest {
     Assert.assertEquals(streamConfig.getFlushThresholdTimeMillis(), StreamConfig.DEFAULT_FLUSH_THRESHOLD_TIME_MILLIS);
     Assert.assertEquals(streamConfig.getFlushThresholdSegmentSizeBytes(),
         StreamConfig.DEFAULT_FLUSH_THRESHOLD_SEGMENT_SIZE_BYTES);
+    Assert.assertFalse(streamConfig.isPipelinedConsumption());
+    Assert.assertEquals(streamConfig.getNumDecodeThreads(), StreamConfig.DEFAULT_NUM_DECODE_THREADS);
+    Assert.assertEquals(streamConfig.getConsumptionRateLimit(), StreamConfig.CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED);
+    Assert.assertFalse(streamConfig.isWriteAheadLogEnabled());
+    Assert.assertEquals(streamConfig.getWriteAheadLogCheckpointIntervalMillis(),
+        StreamConfig.DEFAULT_WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS);
 
     consumerType = "lowLevel,highLevel";
     String offsetCriteria = "smallest";
@@ -222,6 +228,11 @@ public class StreamConfigTest {
     streamConfigMap.put(StreamConfigProperties.SEGMENT_FLUSH_THRESHOLD_ROWS, flushThresholdRows);
     streamConfigMap.put(StreamConfigProperties.SEGMENT_FLUSH_THRESHOLD_TIME, flushThresholdTime);
     streamConfigMap.put(StreamConfigProperties.SEGMENT_FLUSH_THRESHOLD_SEGMENT_SIZE, flushSegmentSize);
+    streamConfigMap.put(StreamConfigProperties.PIPELINED_CONSUMPTION, "true");
+    streamConfigMap.put(StreamConfigProperties.NUM_DECODE_THREADS, "4");
+    streamConfigMap.put(StreamConfigProperties.CONSUMPTION_RATE_LIMIT, "1000.5");
+    streamConfigMap.put(StreamConfigProperties.WRITE_AHEAD_LOG_ENABLED, "true");
+    streamConfigMap.put(StreamConfigProperties.WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS, "5000");
 
     streamConfig = new StreamConfig(tableName, streamConfigMap);
     Assert.assertEquals(streamConfig.getType(), streamType);
@@ -239,6 +250,11 @@ public class StreamConfigTest {
     Assert.assertEquals(streamConfig.getFlushThresholdTimeMillis(),
         (long) TimeUtils.convertPeriodToMillis(flushThresholdTime));
     Assert.assertEquals(streamConfig.getFlushThresholdSegmentSizeBytes(), DataSizeUtils.toBytes(flushSegmentSize));
+    Assert.assertTrue(streamConfig.isPipelinedConsumption());
+    Assert.assertEquals(streamConfig.getNumDecodeThreads(), 4);
+    Assert.assertEquals(streamConfig.getConsumptionRateLimit(), 1000.5);
+    Assert.assertTrue(streamConfig.isWriteAheadLogEnabled());
+    Assert.assertEquals(streamConfig.getWriteAheadLogCheckpointIntervalMillis(), 5000L);
 
     // Backward compatibility check for flushThresholdTime
     flushThresholdTime = "18000000";
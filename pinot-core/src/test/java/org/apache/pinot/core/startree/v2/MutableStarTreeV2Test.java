@@ -0,0 +1,257 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.startree.v2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.plan.FilterPlanNode;
+import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.core.startree.StarTreeUtils;
+import org.apache.pinot.core.startree.plan.StarTreeFilterPlanNode;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.Constants;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests the star-tree index maintained on the mutable segment by comparing the values aggregated from the documents
+ * filtered out from the {@link StarTreeFilterPlanNode} against the raw documents filtered out from the normal
+ * {@link FilterPlanNode}.
+ */
+@SuppressWarnings("rawtypes")
+public class MutableStarTreeV2Test {
+  private static final Random RANDOM = new Random();
+
+  private static final String TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testTable__0__0__155555";
+  private static final int NUM_RECORDS = 10_000;
+  private static final String DIMENSION_D1 = "d1";
+  private static final String DIMENSION_D2 = "d2";
+  private static final int DIMENSION_CARDINALITY = 10;
+  private static final String METRIC = "m";
+  private static final String QUERY_FILTER = " WHERE d1 = 0 AND d2 < 5";
+  private static final String QUERY_GROUP_BY = " GROUP BY d2";
+  private static final String AGGREGATIONS = "COUNT(*), SUM(m), MAX(m)";
+
+  private MutableSegmentImpl _mutableSegment;
+  private int _numUniqueDimensionCombinations;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    Schema schema = new Schema.SchemaBuilder().setSchemaName(TABLE_NAME)
+        .addSingleValueDimension(DIMENSION_D1, DataType.INT).addSingleValueDimension(DIMENSION_D2, DataType.INT)
+        .addMetric(METRIC, DataType.LONG).build();
+    // AVG is not supported on mutable segment, and should be skipped
+    StarTreeIndexConfig starTreeIndexConfig =
+        new StarTreeIndexConfig(Arrays.asList(DIMENSION_D1, DIMENSION_D2), null,
+            Arrays.asList("COUNT__*", "SUM__m", "MAX__m", "AVG__m"), 10);
+    RealtimeSegmentStatsHistory statsHistory = mock(RealtimeSegmentStatsHistory.class);
+    when(statsHistory.getEstimatedCardinality(anyString())).thenReturn(200);
+    when(statsHistory.getEstimatedAvgColSize(anyString())).thenReturn(32);
+    RealtimeSegmentConfig realtimeSegmentConfig =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType(TABLE_NAME + "_REALTIME")
+            .setSegmentName(SEGMENT_NAME).setStreamName(TABLE_NAME).setSchema(schema).setCapacity(NUM_RECORDS)
+            .setAvgNumMultiValues(2).setNoDictionaryColumns(Collections.emptySet())
+            .setVarLengthDictionaryColumns(Collections.emptySet()).setInvertedIndexColumns(Collections.emptySet())
+            .setStarTreeIndexConfigs(Collections.singletonList(starTreeIndexConfig))
+            .setRealtimeSegmentZKMetadata(new RealtimeSegmentZKMetadata())
+            .setMemoryManager(new DirectMemoryManager(SEGMENT_NAME)).setStatsHistory(statsHistory).build();
+    _mutableSegment = new MutableSegmentImpl(realtimeSegmentConfig, null);
+    assertNull(_mutableSegment.getStarTrees());
+
+    Set<List<Integer>> uniqueDimensionCombinations = new HashSet<>();
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      int d1 = RANDOM.nextInt(DIMENSION_CARDINALITY);
+      int d2 = RANDOM.nextInt(DIMENSION_CARDINALITY);
+      record.putValue(DIMENSION_D1, d1);
+      record.putValue(DIMENSION_D2, d2);
+      record.putValue(METRIC, (long) RANDOM.nextInt(1000));
+      records.add(record);
+      uniqueDimensionCombinations.add(Arrays.asList(d1, d2));
+    }
+    _numUniqueDimensionCombinations = uniqueDimensionCombinations.size();
+
+    // Index half of the records one by one, and the other half in batch
+    int numRecordsIndexedOneByOne = NUM_RECORDS / 2;
+    for (int i = 0; i < numRecordsIndexedOneByOne; i++) {
+      _mutableSegment.index(records.get(i), null);
+    }
+    _mutableSegment.index(records.subList(numRecordsIndexedOneByOne, NUM_RECORDS), null);
+  }
+
+  @Test
+  public void testMetadata() {
+    List<StarTreeV2> starTrees = _mutableSegment.getStarTrees();
+    assertNotNull(starTrees);
+    assertEquals(starTrees.size(), 1);
+    StarTreeV2 starTreeV2 = starTrees.get(0);
+    assertEquals(starTreeV2.getMetadata().getDimensionsSplitOrder(), Arrays.asList(DIMENSION_D1, DIMENSION_D2));
+    assertEquals(starTreeV2.getMetadata().getFunctionColumnPairs(), new HashSet<>(
+        Arrays.asList(AggregationFunctionColumnPair.COUNT_STAR,
+            new AggregationFunctionColumnPair(AggregationFunctionType.SUM, METRIC),
+            new AggregationFunctionColumnPair(AggregationFunctionType.MAX, METRIC))));
+    // One aggregated document for the root, and one aggregated document for each unique dimension combination
+    assertEquals(starTreeV2.getMetadata().getNumDocs(), _numUniqueDimensionCombinations + 1);
+    assertTrue(starTreeV2.getStarTree().getRoot().isLeaf());
+  }
+
+  @Test
+  public void testQueries() {
+    String baseQuery = String.format("SELECT %s FROM %s", AGGREGATIONS, TABLE_NAME);
+    testQuery(baseQuery);
+    testQuery(baseQuery + QUERY_FILTER);
+    testQuery(baseQuery + QUERY_GROUP_BY);
+    testQuery(baseQuery + QUERY_FILTER + QUERY_GROUP_BY);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _mutableSegment.destroy();
+  }
+
+  private void testQuery(String query) {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContextFromSQL(query);
+    StarTreeV2 starTreeV2 = _mutableSegment.getStarTrees().get(0);
+    AggregationFunctionColumnPair[] aggregationFunctionColumnPairs =
+        StarTreeUtils.extractAggregationFunctionPairs(queryContext.getAggregationFunctions());
+    assertNotNull(aggregationFunctionColumnPairs);
+
+    Set<String> groupByColumnSet = new HashSet<>();
+    List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
+    if (groupByExpressions != null) {
+      for (ExpressionContext groupByExpression : groupByExpressions) {
+        groupByExpression.getColumns(groupByColumnSet);
+      }
+    }
+    List<String> groupByColumns = new ArrayList<>(groupByColumnSet);
+
+    Map<String, List<PredicateEvaluator>> predicateEvaluatorsMap =
+        StarTreeUtils.extractPredicateEvaluatorsMap(_mutableSegment, queryContext.getFilter());
+    assertNotNull(predicateEvaluatorsMap);
+    assertTrue(StarTreeUtils.isFitForStarTree(starTreeV2.getMetadata(), aggregationFunctionColumnPairs,
+        groupByExpressions != null ? groupByExpressions.toArray(new ExpressionContext[0]) : null,
+        predicateEvaluatorsMap.keySet()));
+
+    // Aggregate values with star-tree
+    Map<List<Integer>, double[]> starTreeResult = new HashMap<>();
+    ForwardIndexReader countReader =
+        starTreeV2.getDataSource(AggregationFunctionColumnPair.COUNT_STAR.toColumnName()).getForwardIndex();
+    ForwardIndexReader sumReader = starTreeV2.getDataSource(
+        AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.SUM, METRIC)).getForwardIndex();
+    ForwardIndexReader maxReader = starTreeV2.getDataSource(
+        AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.MAX, METRIC)).getForwardIndex();
+    List<ForwardIndexReader> starTreeGroupByColumnReaders = new ArrayList<>();
+    for (String groupByColumn : groupByColumns) {
+      starTreeGroupByColumnReaders.add(starTreeV2.getDataSource(groupByColumn).getForwardIndex());
+    }
+    PlanNode starTreeFilterPlanNode =
+        new StarTreeFilterPlanNode(starTreeV2, predicateEvaluatorsMap, groupByColumnSet, null);
+    BlockDocIdIterator docIdIterator = starTreeFilterPlanNode.run().nextBlock().getBlockDocIdSet().iterator();
+    int docId;
+    while ((docId = docIdIterator.next()) != Constants.EOF) {
+      double[] values =
+          starTreeResult.computeIfAbsent(getGroup(docId, starTreeGroupByColumnReaders), k -> new double[]{
+              0, 0, Double.NEGATIVE_INFINITY
+          });
+      values[0] += countReader.getLong(docId, null);
+      values[1] += sumReader.getDouble(docId, null);
+      values[2] = Math.max(values[2], maxReader.getDouble(docId, null));
+    }
+
+    // Aggregate values without star-tree
+    Map<List<Integer>, double[]> nonStarTreeResult = new HashMap<>();
+    DataSource metricDataSource = _mutableSegment.getDataSource(METRIC);
+    ForwardIndexReader metricReader = metricDataSource.getForwardIndex();
+    Dictionary metricDictionary = metricDataSource.getDictionary();
+    List<ForwardIndexReader> nonStarTreeGroupByColumnReaders = new ArrayList<>();
+    for (String groupByColumn : groupByColumns) {
+      nonStarTreeGroupByColumnReaders.add(_mutableSegment.getDataSource(groupByColumn).getForwardIndex());
+    }
+    PlanNode nonStarTreeFilterPlanNode = new FilterPlanNode(_mutableSegment, queryContext);
+    docIdIterator = nonStarTreeFilterPlanNode.run().nextBlock().getBlockDocIdSet().iterator();
+    while ((docId = docIdIterator.next()) != Constants.EOF) {
+      double[] values =
+          nonStarTreeResult.computeIfAbsent(getGroup(docId, nonStarTreeGroupByColumnReaders), k -> new double[]{
+              0, 0, Double.NEGATIVE_INFINITY
+          });
+      double value = metricDictionary.getDoubleValue(metricReader.getDictId(docId, null));
+      values[0]++;
+      values[1] += value;
+      values[2] = Math.max(values[2], value);
+    }
+
+    assertEquals(starTreeResult.size(), nonStarTreeResult.size());
+    for (Map.Entry<List<Integer>, double[]> entry : starTreeResult.entrySet()) {
+      double[] nonStarTreeValues = nonStarTreeResult.get(entry.getKey());
+      assertNotNull(nonStarTreeValues);
+      double[] starTreeValues = entry.getValue();
+      for (int i = 0; i < starTreeValues.length; i++) {
+        assertEquals(starTreeValues[i], nonStarTreeValues[i]);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Integer> getGroup(int docId, List<ForwardIndexReader> groupByColumnReaders) {
+    List<Integer> group = new ArrayList<>(groupByColumnReaders.size());
+    for (ForwardIndexReader groupByColumnReader : groupByColumnReaders) {
+      group.add(groupByColumnReader.getDictId(docId, null));
+    }
+    return group;
+  }
+}
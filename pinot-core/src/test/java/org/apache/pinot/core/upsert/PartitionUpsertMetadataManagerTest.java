@@ -18,17 +18,22 @@
  */
 package org.apache.pinot.core.upsert;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.utils.LLCSegmentName;
 import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.local.upsert.ConcurrentMapPrimaryKeyStore;
+import org.apache.pinot.segment.local.upsert.OffHeapPrimaryKeyStore;
 import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.PrimaryKeyStore;
 import org.apache.pinot.segment.local.upsert.RecordLocation;
+import org.apache.pinot.spi.config.table.UpsertConfig;
 import org.apache.pinot.spi.data.readers.PrimaryKey;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
 import org.mockito.Mockito;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
@@ -41,11 +46,11 @@ public class PartitionUpsertMetadataManagerTest {
   private static final String RAW_TABLE_NAME = "testTable";
   private static final String REALTIME_TABLE_NAME = TableNameBuilder.REALTIME.tableNameWithType(RAW_TABLE_NAME);
 
-  @Test
-  public void testAddSegment() {
-    PartitionUpsertMetadataManager upsertMetadataManager =
-        new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, Mockito.mock(ServerMetrics.class));
-    Map<PrimaryKey, RecordLocation> recordLocationMap = upsertMetadataManager.getPrimaryKeyToRecordLocationMap();
+  @Test(dataProvider = "primaryKeyStoreTypes")
+  public void testAddSegment(UpsertConfig.PrimaryKeyStoreType primaryKeyStoreType)
+      throws IOException {
+    PartitionUpsertMetadataManager upsertMetadataManager = createUpsertMetadataManager(primaryKeyStoreType);
+    PrimaryKeyStore primaryKeyStore = upsertMetadataManager.getPrimaryKeyStore();
 
     // Add the first segment
     String segment1 = getSegmentName(1);
@@ -59,9 +64,9 @@ public class PartitionUpsertMetadataManagerTest {
     ThreadSafeMutableRoaringBitmap validDocIds1 =
         upsertMetadataManager.addSegment(segment1, recordInfoList1.iterator());
     // segment1: 0 -> {5, 100}, 1 -> {4, 120}, 2 -> {2, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 5, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120);
-    checkRecordLocation(recordLocationMap, 2, segment1, 2, 100);
+    checkRecordLocation(primaryKeyStore, 0, segment1, 5, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 4, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment1, 2, 100);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{2, 4, 5});
 
     // Add the second segment
@@ -76,10 +81,10 @@ public class PartitionUpsertMetadataManagerTest {
         upsertMetadataManager.addSegment(segment2, recordInfoList2.iterator());
     // segment1: 1 -> {4, 120}
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80);
+    checkRecordLocation(primaryKeyStore, 0, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 4, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 2, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 3, 80);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
 
@@ -89,26 +94,42 @@ public class PartitionUpsertMetadataManagerTest {
     // original segment1: 1 -> {4, 120}
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
     // new segment1: 1 -> {4, 120}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80);
+    checkRecordLocation(primaryKeyStore, 0, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 4, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 2, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 3, 80);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
     assertEquals(newValidDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
-    assertSame(recordLocationMap.get(getPrimaryKey(1)).getValidDocIds(), newValidDocIds1);
+    assertSame(primaryKeyStore.get(getPrimaryKey(1)).getValidDocIds(), newValidDocIds1);
 
     // Remove the original segment1
     upsertMetadataManager.removeSegment(segment1, validDocIds1);
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
     // new segment1: 1 -> {4, 120}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80);
+    checkRecordLocation(primaryKeyStore, 0, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 4, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 2, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 3, 80);
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
     assertEquals(newValidDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
-    assertSame(recordLocationMap.get(getPrimaryKey(1)).getValidDocIds(), newValidDocIds1);
+    assertSame(primaryKeyStore.get(getPrimaryKey(1)).getValidDocIds(), newValidDocIds1);
+
+    upsertMetadataManager.close();
+  }
+
+  @DataProvider
+  public static Object[][] primaryKeyStoreTypes() {
+    return new Object[][]{{UpsertConfig.PrimaryKeyStoreType.ON_HEAP}, {UpsertConfig.PrimaryKeyStoreType.OFF_HEAP}};
+  }
+
+  private static PartitionUpsertMetadataManager createUpsertMetadataManager(
+      UpsertConfig.PrimaryKeyStoreType primaryKeyStoreType) {
+    PrimaryKeyStore primaryKeyStore =
+        primaryKeyStoreType == UpsertConfig.PrimaryKeyStoreType.ON_HEAP ? new ConcurrentMapPrimaryKeyStore()
+            : new OffHeapPrimaryKeyStore(4, "PartitionUpsertMetadataManagerTest");
+    return new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, Mockito.mock(ServerMetrics.class),
+        primaryKeyStore);
   }
 
   private static String getSegmentName(int sequenceNumber) {
@@ -119,20 +140,20 @@ public class PartitionUpsertMetadataManagerTest {
     return new PrimaryKey(new Object[]{value});
   }
 
-  private static void checkRecordLocation(Map<PrimaryKey, RecordLocation> recordLocationMap, int keyValue,
+  private static void checkRecordLocation(PrimaryKeyStore primaryKeyStore, int keyValue,
       String segmentName, int docId, long timestamp) {
-    RecordLocation recordLocation = recordLocationMap.get(getPrimaryKey(keyValue));
+    RecordLocation recordLocation = primaryKeyStore.get(getPrimaryKey(keyValue));
     assertNotNull(recordLocation);
     assertEquals(recordLocation.getSegmentName(), segmentName);
     assertEquals(recordLocation.getDocId(), docId);
     assertEquals(recordLocation.getTimestamp(), timestamp);
   }
 
-  @Test
-  public void testUpdateRecord() {
-    PartitionUpsertMetadataManager upsertMetadataManager =
-        new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, Mockito.mock(ServerMetrics.class));
-    Map<PrimaryKey, RecordLocation> recordLocationMap = upsertMetadataManager.getPrimaryKeyToRecordLocationMap();
+  @Test(dataProvider = "primaryKeyStoreTypes")
+  public void testUpdateRecord(UpsertConfig.PrimaryKeyStoreType primaryKeyStoreType)
+      throws IOException {
+    PartitionUpsertMetadataManager upsertMetadataManager = createUpsertMetadataManager(primaryKeyStoreType);
+    PrimaryKeyStore primaryKeyStore = upsertMetadataManager.getPrimaryKeyStore();
 
     // Add the first segment
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}, 2 -> {2, 100}
@@ -152,10 +173,10 @@ public class PartitionUpsertMetadataManagerTest {
         .updateRecord(segment2, new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(3), 0, 100), validDocIds2);
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}, 2 -> {2, 100}
     // segment2: 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120);
-    checkRecordLocation(recordLocationMap, 2, segment1, 2, 100);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 0, segment1, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 1, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment1, 2, 100);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 0, 100);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 2});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0});
 
@@ -163,10 +184,10 @@ public class PartitionUpsertMetadataManagerTest {
         .updateRecord(segment2, new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(2), 1, 120), validDocIds2);
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}
     // segment2: 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 0, segment1, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 1, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 1, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 0, 100);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
 
@@ -174,10 +195,10 @@ public class PartitionUpsertMetadataManagerTest {
         .updateRecord(segment2, new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(1), 2, 100), validDocIds2);
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}
     // segment2: 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 0, segment1, 0, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 1, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 1, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 0, 100);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
 
@@ -185,19 +206,21 @@ public class PartitionUpsertMetadataManagerTest {
         .updateRecord(segment2, new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(0), 3, 100), validDocIds2);
     // segment1: 1 -> {1, 120}
     // segment2: 0 -> {3, 100}, 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment2, 3, 100);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 0, segment2, 3, 100);
+    checkRecordLocation(primaryKeyStore, 1, segment1, 1, 120);
+    checkRecordLocation(primaryKeyStore, 2, segment2, 1, 120);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 0, 100);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 3});
+
+    upsertMetadataManager.close();
   }
 
-  @Test
-  public void testRemoveSegment() {
-    PartitionUpsertMetadataManager upsertMetadataManager =
-        new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, Mockito.mock(ServerMetrics.class));
-    Map<PrimaryKey, RecordLocation> recordLocationMap = upsertMetadataManager.getPrimaryKeyToRecordLocationMap();
+  @Test(dataProvider = "primaryKeyStoreTypes")
+  public void testRemoveSegment(UpsertConfig.PrimaryKeyStoreType primaryKeyStoreType)
+      throws IOException {
+    PartitionUpsertMetadataManager upsertMetadataManager = createUpsertMetadataManager(primaryKeyStoreType);
+    PrimaryKeyStore primaryKeyStore = upsertMetadataManager.getPrimaryKeyStore();
 
     // Add 2 segments
     // segment1: 0 -> {0, 100}, 1 -> {1, 100}
@@ -218,10 +241,12 @@ public class PartitionUpsertMetadataManagerTest {
     // Remove the first segment
     upsertMetadataManager.removeSegment(segment1, validDocIds1);
     // segment2: 2 -> {0, 100}, 3 -> {0, 100}
-    assertNull(recordLocationMap.get(getPrimaryKey(0)));
-    assertNull(recordLocationMap.get(getPrimaryKey(1)));
-    checkRecordLocation(recordLocationMap, 2, segment2, 0, 100);
-    checkRecordLocation(recordLocationMap, 3, segment2, 1, 100);
+    assertNull(primaryKeyStore.get(getPrimaryKey(0)));
+    assertNull(primaryKeyStore.get(getPrimaryKey(1)));
+    checkRecordLocation(primaryKeyStore, 2, segment2, 0, 100);
+    checkRecordLocation(primaryKeyStore, 3, segment2, 1, 100);
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
+
+    upsertMetadataManager.close();
   }
 }
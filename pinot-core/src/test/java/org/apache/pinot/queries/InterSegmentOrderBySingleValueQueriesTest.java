@@ -19,19 +19,33 @@
 package org.apache.pinot.queries;
 
 import com.google.common.collect.Lists;
+import io.grpc.stub.StreamObserver;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import org.apache.pinot.common.proto.Server;
+import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.response.broker.AggregationResult;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.common.response.broker.GroupByResult;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.common.utils.DataTable.MetadataKey;
+import org.apache.pinot.core.common.datatable.DataTableFactory;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.data.table.SimpleIndexedTable;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.BrokerRequestToQueryContextConverter;
+import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
+import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.CommonConstants.Broker.Request;
 import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.spi.utils.CommonConstants.Query.Response;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -53,6 +67,102 @@ public class InterSegmentOrderBySingleValueQueriesTest extends BaseSingleValueQu
             expectedDataSchema);
   }
 
+  @Test(dataProvider = "orderBySQLResultTableProvider")
+  public void testPartitionedGroupByCombine(String query, List<Object[]> expectedResults, long expectedNumDocsScanned,
+      long expectedNumEntriesScannedInFilter, long expectedNumEntriesScannedPostFilter, long expectedNumTotalDocs,
+      DataSchema expectedDataSchema) {
+    BrokerResponseNative brokerResponse =
+        getBrokerResponseForSqlQuery(query + " OPTION(" + QueryOptionKey.PARTITIONED_GROUP_BY_COMBINE + "=true)");
+    QueriesTestUtils
+        .testInterSegmentResultTable(brokerResponse, expectedNumDocsScanned, expectedNumEntriesScannedInFilter,
+            expectedNumEntriesScannedPostFilter, expectedNumTotalDocs, expectedResults, expectedResults.size(),
+            expectedDataSchema);
+  }
+
+  @Test
+  public void testStreamingGroupBy()
+      throws Exception {
+    String[] queries = new String[]{
+        "SELECT SUM(column1), COUNT(*) FROM testTable GROUP BY column11, column12 LIMIT 100000",
+        "SELECT MAX(column1), MIN(column3) FROM testTable GROUP BY column6 LIMIT 100000"
+    };
+    int chunkSize = 7;
+    for (String query : queries) {
+      BrokerRequest brokerRequest = SQL_COMPILER.compileToBrokerRequest(query);
+      Map<String, String> queryOptions = new HashMap<>();
+      queryOptions.put(QueryOptionKey.GROUP_BY_MODE, Request.SQL);
+      queryOptions.put(QueryOptionKey.RESPONSE_FORMAT, Request.SQL);
+      queryOptions.put(QueryOptionKey.STREAMING_CHUNK_SIZE, Integer.toString(chunkSize));
+      brokerRequest.getPinotQuery().setQueryOptions(queryOptions);
+      QueryContext queryContext = BrokerRequestToQueryContextConverter.convert(brokerRequest);
+      long endTimeMs = System.currentTimeMillis() + CommonConstants.Server.DEFAULT_QUERY_EXECUTOR_TIMEOUT_MS;
+
+      // Non-streaming
+      DataTable nonStreamingDataTable =
+          PLAN_MAKER.makeInstancePlan(getIndexSegments(), queryContext, EXECUTOR_SERVICE, endTimeMs).execute();
+      List<String> expectedRows = getSortedRows(nonStreamingDataTable);
+
+      // Streaming
+      List<Server.ServerResponse> responses = new ArrayList<>();
+      StreamObserver<Server.ServerResponse> streamObserver = new StreamObserver<Server.ServerResponse>() {
+        @Override
+        public void onNext(Server.ServerResponse response) {
+          responses.add(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+      };
+      DataTable metadataDataTable = PLAN_MAKER
+          .makeStreamingInstancePlan(getIndexSegments(), queryContext, EXECUTOR_SERVICE, streamObserver, endTimeMs)
+          .execute();
+      Assert.assertEquals(metadataDataTable.getNumberOfRows(), 0);
+      Assert.assertEquals(metadataDataTable.getMetadata().get(MetadataKey.NUM_DOCS_SCANNED.getName()),
+          nonStreamingDataTable.getMetadata().get(MetadataKey.NUM_DOCS_SCANNED.getName()));
+      Assert.assertFalse(responses.isEmpty());
+
+      // The same group can show up in multiple chunks, so merge the chunks before comparing with the non-streaming
+      // results
+      DataSchema dataSchema = nonStreamingDataTable.getDataSchema();
+      SimpleIndexedTable indexedTable =
+          new SimpleIndexedTable(dataSchema, queryContext, Integer.MAX_VALUE, Integer.MAX_VALUE);
+      for (Server.ServerResponse response : responses) {
+        Assert.assertEquals(response.getMetadataMap().get(Response.MetadataKeys.RESPONSE_TYPE),
+            Response.ResponseType.DATA);
+        DataTable dataTable = DataTableFactory.getDataTable(response.getPayload().asReadOnlyByteBuffer());
+        Assert.assertEquals(dataTable.getDataSchema(), dataSchema);
+        Assert.assertTrue(dataTable.getNumberOfRows() <= chunkSize);
+        int numRows = dataTable.getNumberOfRows();
+        for (int rowId = 0; rowId < numRows; rowId++) {
+          indexedTable.upsert(new Record(SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId)));
+        }
+      }
+      indexedTable.finish(false);
+      List<String> actualRows = new ArrayList<>(indexedTable.size());
+      Iterator<Record> iterator = indexedTable.iterator();
+      while (iterator.hasNext()) {
+        actualRows.add(Arrays.toString(iterator.next().getValues()));
+      }
+      Collections.sort(actualRows);
+      Assert.assertEquals(actualRows, expectedRows);
+    }
+  }
+
+  private static List<String> getSortedRows(DataTable dataTable) {
+    int numRows = dataTable.getNumberOfRows();
+    List<String> rows = new ArrayList<>(numRows);
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      rows.add(Arrays.toString(SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId)));
+    }
+    Collections.sort(rows);
+    return rows;
+  }
+
   @Test(dataProvider = "orderByPQLResultProvider")
   public void testGroupByOrderByPQLResponse(String query, List<String[]> expectedGroups,
       List<List<Serializable>> expectedValues, long expectedNumDocsScanned, long expectedNumEntriesScannedInFilter,
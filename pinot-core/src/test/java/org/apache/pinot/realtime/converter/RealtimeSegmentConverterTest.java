@@ -22,6 +22,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
@@ -31,6 +33,7 @@ import org.apache.pinot.segment.local.realtime.converter.RealtimeSegmentConverte
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
 import org.apache.pinot.segment.local.segment.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProviderFactory;
 import org.apache.pinot.segment.spi.creator.SegmentVersion;
 import org.apache.pinot.spi.config.table.IndexingConfig;
@@ -39,6 +42,7 @@ import org.apache.pinot.spi.config.table.TableType;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.TimeGranularitySpec;
+import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -132,6 +136,87 @@ public class RealtimeSegmentConverterTest {
     System.out.println(outputDir);
   }
 
+  @Test
+  public void testColumnParallelBuild()
+      throws Exception {
+    File tmpDir = new File(TMP_DIR, "tmp_" + System.currentTimeMillis());
+    TableConfig tableConfig =
+        new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").setTimeColumnName(DATE_TIME_COLUMN)
+            .setInvertedIndexColumns(Lists.newArrayList(STRING_COLUMN1, LONG_COLUMN1)).setSortedColumn(LONG_COLUMN1)
+            .setNoDictionaryColumns(Lists.newArrayList(LONG_COLUMN2))
+            .setVarLengthDictionaryColumns(Lists.newArrayList(STRING_COLUMN3)).build();
+    Schema schema = new Schema.SchemaBuilder().addSingleValueDimension(STRING_COLUMN1, FieldSpec.DataType.STRING)
+        .addSingleValueDimension(STRING_COLUMN3, FieldSpec.DataType.STRING)
+        .addSingleValueDimension(LONG_COLUMN1, FieldSpec.DataType.LONG)
+        .addSingleValueDimension(LONG_COLUMN2, FieldSpec.DataType.LONG)
+        .addMultiValueDimension(MV_INT_COLUMN, FieldSpec.DataType.INT).addMetric(LONG_COLUMN4, FieldSpec.DataType.LONG)
+        .addDateTime(DATE_TIME_COLUMN, FieldSpec.DataType.LONG, "1:MILLISECONDS:EPOCH", "1:MILLISECONDS").build();
+
+    String tableNameWithType = tableConfig.getTableName();
+    String segmentName = "testTable__0__1__123456";
+    IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+
+    RealtimeSegmentConfig.Builder realtimeSegmentConfigBuilder =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType(tableNameWithType).setSegmentName(segmentName)
+            .setStreamName(tableNameWithType).setSchema(schema).setTimeColumnName(DATE_TIME_COLUMN).setCapacity(1000)
+            .setAvgNumMultiValues(3).setNoDictionaryColumns(Sets.newHashSet(LONG_COLUMN2))
+            .setVarLengthDictionaryColumns(Sets.newHashSet(STRING_COLUMN3))
+            .setInvertedIndexColumns(Sets.newHashSet(STRING_COLUMN1, LONG_COLUMN1))
+            .setRealtimeSegmentZKMetadata(getRealtimeSegmentZKMetadata(segmentName)).setOffHeap(true)
+            .setMemoryManager(new DirectMemoryManager(segmentName))
+            .setStatsHistory(RealtimeSegmentStatsHistory.deserialzeFrom(new File(tmpDir, "stats")))
+            .setConsumerDir(new File(tmpDir, "consumerDir").getAbsolutePath());
+    MutableSegmentImpl mutableSegmentImpl = new MutableSegmentImpl(realtimeSegmentConfigBuilder.build(), null);
+
+    int numRecords = 500;
+    for (int i = 0; i < numRecords; i++) {
+      GenericRow row = new GenericRow();
+      row.putValue(STRING_COLUMN1, "s1_" + (i % 7));
+      row.putValue(STRING_COLUMN3, "s3_" + (i % 13));
+      row.putValue(LONG_COLUMN1, (long) ((numRecords - i) % 17));
+      row.putValue(LONG_COLUMN2, (long) i);
+      row.putValue(MV_INT_COLUMN, new Object[]{i % 3, i % 5});
+      row.putValue(LONG_COLUMN4, (long) (i * 3));
+      row.putValue(DATE_TIME_COLUMN, 1600000000000L + i);
+      mutableSegmentImpl.index(row, null);
+    }
+
+    // Build the segment row by row and column by column, and the results should be identical
+    File rowBasedOutputDir = new File(tmpDir, "rowBasedOutputDir");
+    new RealtimeSegmentConverter(mutableSegmentImpl, rowBasedOutputDir.getAbsolutePath(), schema, tableNameWithType,
+        tableConfig, segmentName, LONG_COLUMN1, indexingConfig.getInvertedIndexColumns(), null, null,
+        indexingConfig.getNoDictionaryColumns(), indexingConfig.getVarLengthDictionaryColumns(), false)
+        .build(SegmentVersion.v3, null);
+    File columnBasedOutputDir = new File(tmpDir, "columnBasedOutputDir");
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      new RealtimeSegmentConverter(mutableSegmentImpl, columnBasedOutputDir.getAbsolutePath(), schema,
+          tableNameWithType, tableConfig, segmentName, LONG_COLUMN1, indexingConfig.getInvertedIndexColumns(), null,
+          null, indexingConfig.getNoDictionaryColumns(), indexingConfig.getVarLengthDictionaryColumns(), false)
+          .build(SegmentVersion.v3, null, executorService);
+    } finally {
+      executorService.shutdown();
+      mutableSegmentImpl.destroy();
+    }
+
+    SegmentMetadataImpl metadata = new SegmentMetadataImpl(new File(columnBasedOutputDir, segmentName));
+    Assert.assertEquals(metadata.getTotalDocs(), numRecords);
+    Assert.assertTrue(metadata.getColumnMetadataFor(LONG_COLUMN1).isSorted());
+    try (PinotSegmentRecordReader rowBasedReader = new PinotSegmentRecordReader(
+        new File(rowBasedOutputDir, segmentName));
+        PinotSegmentRecordReader columnBasedReader = new PinotSegmentRecordReader(
+            new File(columnBasedOutputDir, segmentName))) {
+      int numRecordsRead = 0;
+      while (rowBasedReader.hasNext()) {
+        Assert.assertTrue(columnBasedReader.hasNext());
+        Assert.assertEquals(columnBasedReader.next(), rowBasedReader.next());
+        numRecordsRead++;
+      }
+      Assert.assertFalse(columnBasedReader.hasNext());
+      Assert.assertEquals(numRecordsRead, numRecords);
+    }
+  }
+
   private RealtimeSegmentZKMetadata getRealtimeSegmentZKMetadata(String segmentName) {
     RealtimeSegmentZKMetadata realtimeSegmentZKMetadata = new RealtimeSegmentZKMetadata();
     realtimeSegmentZKMetadata.setCreationTime(System.currentTimeMillis());
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import com.google.common.primitives.Longs;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Compares the probe throughput of the guava bloom filter (on-heap and off-heap) and the split block bloom filter,
+ * both for single value probing (with pre-computed hashes to exclude the hashing cost) and bulk probing of IN-list
+ * values (including the hashing cost). The measured false positive rates and the sizes of the bloom filters are
+ * printed during the setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkBloomFilter {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkBloomFilter");
+  private static final String GUAVA_COLUMN_NAME = "guava";
+  private static final String SPLIT_BLOCK_COLUMN_NAME = "splitBlock";
+  private static final int NUM_PROBES = 1024;
+  private static final int IN_LIST_SIZE = 1000;
+  private static final int NUM_FPP_PROBES = 1_000_000;
+  private static final Random RANDOM = new Random();
+
+  @Param({"100000", "10000000"})
+  public int _cardinality;
+
+  @Param({"0.05", "0.01"})
+  public double _fpp;
+
+  private PinotDataBuffer _guavaBuffer;
+  private PinotDataBuffer _splitBlockBuffer;
+  private BloomFilterReader _onHeapGuavaReader;
+  private BloomFilterReader _offHeapGuavaReader;
+  private BloomFilterReader _splitBlockReader;
+
+  private final long[] _hash1s = new long[NUM_PROBES];
+  private final long[] _hash2s = new long[NUM_PROBES];
+  private final List<String> _inList = new ArrayList<>(IN_LIST_SIZE);
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(INDEX_DIR);
+    FileUtils.forceMkdir(INDEX_DIR);
+
+    // Insert values [0, cardinality)
+    try (BloomFilterCreator guavaCreator = new OnHeapGuavaBloomFilterCreator(INDEX_DIR, GUAVA_COLUMN_NAME,
+        _cardinality, new BloomFilterConfig(_fpp, 0, false));
+        BloomFilterCreator splitBlockCreator = new OnHeapSplitBlockBloomFilterCreator(INDEX_DIR,
+            SPLIT_BLOCK_COLUMN_NAME, _cardinality, new BloomFilterConfig(_fpp, 0, false, true))) {
+      for (int i = 0; i < _cardinality; i++) {
+        String value = Integer.toString(i);
+        guavaCreator.add(value);
+        splitBlockCreator.add(value);
+      }
+      guavaCreator.seal();
+      splitBlockCreator.seal();
+    }
+
+    File guavaFile = new File(INDEX_DIR, GUAVA_COLUMN_NAME + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    File splitBlockFile =
+        new File(INDEX_DIR, SPLIT_BLOCK_COLUMN_NAME + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    _guavaBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(guavaFile);
+    _splitBlockBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(splitBlockFile);
+    _onHeapGuavaReader = BloomFilterReaderFactory.getBloomFilterReader(_guavaBuffer, true);
+    _offHeapGuavaReader = BloomFilterReaderFactory.getBloomFilterReader(_guavaBuffer, false);
+    _splitBlockReader = BloomFilterReaderFactory.getBloomFilterReader(_splitBlockBuffer, false);
+
+    // Probe values that are not inserted, so that every probe that returns true is a false positive
+    for (int i = 0; i < NUM_PROBES; i++) {
+      byte[] hash = GuavaBloomFilterReaderUtils.hash(Integer.toString(_cardinality + RANDOM.nextInt(_cardinality)));
+      _hash1s[i] = Longs.fromBytes(hash[7], hash[6], hash[5], hash[4], hash[3], hash[2], hash[1], hash[0]);
+      _hash2s[i] = Longs.fromBytes(hash[15], hash[14], hash[13], hash[12], hash[11], hash[10], hash[9], hash[8]);
+    }
+
+    // Use the values that are true negatives for both bloom filters as the IN-list so that all the values are probed
+    int numGuavaFalsePositives = 0;
+    int numSplitBlockFalsePositives = 0;
+    for (int i = 0; i < NUM_FPP_PROBES; i++) {
+      String value = Integer.toString(-1 - i);
+      boolean guavaMatch = _offHeapGuavaReader.mightContain(value);
+      boolean splitBlockMatch = _splitBlockReader.mightContain(value);
+      if (guavaMatch) {
+        numGuavaFalsePositives++;
+      }
+      if (splitBlockMatch) {
+        numSplitBlockFalsePositives++;
+      }
+      if (!guavaMatch && !splitBlockMatch && _inList.size() < IN_LIST_SIZE) {
+        _inList.add(value);
+      }
+    }
+    System.out.printf("%nCardinality: %d, fpp: %s%n", _cardinality, _fpp);
+    System.out.printf("Guava bloom filter size: %d bytes, false positive rate: %.5f%n", guavaFile.length(),
+        (double) numGuavaFalsePositives / NUM_FPP_PROBES);
+    System.out.printf("Split block bloom filter size: %d bytes, false positive rate: %.5f%n", splitBlockFile.length(),
+        (double) numSplitBlockFalsePositives / NUM_FPP_PROBES);
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    _guavaBuffer.close();
+    _splitBlockBuffer.close();
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  @Benchmark
+  public int onHeapGuava() {
+    return probe(_onHeapGuavaReader);
+  }
+
+  @Benchmark
+  public int offHeapGuava() {
+    return probe(_offHeapGuavaReader);
+  }
+
+  @Benchmark
+  public int splitBlock() {
+    return probe(_splitBlockReader);
+  }
+
+  @Benchmark
+  public boolean inListOnHeapGuava() {
+    return _onHeapGuavaReader.mightContainAny(_inList);
+  }
+
+  @Benchmark
+  public boolean inListOffHeapGuava() {
+    return _offHeapGuavaReader.mightContainAny(_inList);
+  }
+
+  @Benchmark
+  public boolean inListSplitBlock() {
+    return _splitBlockReader.mightContainAny(_inList);
+  }
+
+  private int probe(BloomFilterReader bloomFilterReader) {
+    int numMatches = 0;
+    for (int i = 0; i < NUM_PROBES; i++) {
+      if (bloomFilterReader.mightContain(_hash1s[i], _hash2s[i])) {
+        numMatches++;
+      }
+    }
+    return numMatches;
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkBloomFilter.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.pinot.segment.local.io.writer.impl.BaseChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BaseChunkSVForwardIndexReader.ChunkReaderContext;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the chunk compression types of the raw (no-dictionary) forward indexes.
+ * <p>Each benchmark scans the whole forward index, so the throughput is dominated by the chunk decompression. The
+ * size of the forward index files is printed during setup to compare the compression ratio of each type.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkChunkCompression {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkChunkCompression");
+  private static final int NUM_DOCS = 1_000_000;
+  private static final int NUM_DOCS_PER_CHUNK = 1000;
+  private static final int MAX_STRING_LENGTH = 32;
+  private static final int STRING_CARDINALITY = 10_000;
+  private static final long LONG_VALUE_RANGE = 1_000_000L;
+  private static final Random RANDOM = new Random();
+
+  @Param({"PASS_THROUGH", "SNAPPY", "ZSTANDARD", "LZ4"})
+  public ChunkCompressionType _compressionType;
+
+  private PinotDataBuffer _longDataBuffer;
+  private PinotDataBuffer _stringDataBuffer;
+  private FixedByteChunkSVForwardIndexReader _longReader;
+  private VarByteChunkSVForwardIndexReader _stringReader;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+    FileUtils.forceMkdir(INDEX_DIR);
+
+    // Use a bounded value range so that the data is compressible, similar to real metric values
+    File longIndexFile = new File(INDEX_DIR, "long-" + _compressionType);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(longIndexFile,
+        _compressionType, NUM_DOCS, NUM_DOCS_PER_CHUNK, Long.BYTES, BaseChunkSVForwardIndexWriter.CURRENT_VERSION)) {
+      long value = 0;
+      for (int i = 0; i < NUM_DOCS; i++) {
+        value += RANDOM.nextInt(100);
+        writer.putLong(value % LONG_VALUE_RANGE);
+      }
+    }
+
+    String[] stringValues = new String[STRING_CARDINALITY];
+    for (int i = 0; i < STRING_CARDINALITY; i++) {
+      stringValues[i] = RandomStringUtils.randomAlphanumeric(1 + RANDOM.nextInt(MAX_STRING_LENGTH));
+    }
+    File stringIndexFile = new File(INDEX_DIR, "string-" + _compressionType);
+    try (VarByteChunkSVForwardIndexWriter writer = new VarByteChunkSVForwardIndexWriter(stringIndexFile,
+        _compressionType, NUM_DOCS, NUM_DOCS_PER_CHUNK, MAX_STRING_LENGTH,
+        BaseChunkSVForwardIndexWriter.CURRENT_VERSION)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        writer.putString(stringValues[RANDOM.nextInt(STRING_CARDINALITY)]);
+      }
+    }
+
+    System.out.println(
+        "\nCompression type: " + _compressionType + ", LONG index size: " + longIndexFile.length()
+            + ", STRING index size: " + stringIndexFile.length());
+
+    _longDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(longIndexFile);
+    _longReader = new FixedByteChunkSVForwardIndexReader(_longDataBuffer, DataType.LONG);
+    _stringDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(stringIndexFile);
+    _stringReader = new VarByteChunkSVForwardIndexReader(_stringDataBuffer, DataType.STRING);
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    _longReader.close();
+    _stringReader.close();
+    _longDataBuffer.close();
+    _stringDataBuffer.close();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  @Benchmark
+  public long scanLong()
+      throws Exception {
+    long sum = 0;
+    try (ChunkReaderContext context = _longReader.createContext()) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        sum += _longReader.getLong(i, context);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public void scanString(Blackhole blackhole)
+      throws Exception {
+    try (ChunkReaderContext context = _stringReader.createContext()) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        blackhole.consume(_stringReader.getString(i, context));
+      }
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkChunkCompression.class.getSimpleName()).build()).run();
+  }
+}
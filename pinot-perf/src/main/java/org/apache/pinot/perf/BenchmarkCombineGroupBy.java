@@ -39,6 +39,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
@@ -53,6 +54,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -66,12 +68,18 @@ import org.openjdk.jmh.runner.options.TimeValue;
 @State(Scope.Benchmark)
 @Fork(value = 1, jvmArgs = {"-server", "-Xmx8G", "-XX:MaxDirectMemorySize=16G"})
 public class BenchmarkCombineGroupBy {
-  private static final int NUM_SEGMENTS = 4;
   private static final int NUM_RECORDS_PER_SEGMENT = 100_000;
   private static final int CARDINALITY_D1 = 500;
-  private static final int CARDINALITY_D2 = 500;
   private static final Random RANDOM = new Random();
 
+  // Each thread processes one segment
+  @Param({"4", "16", "48"})
+  private int _numThreads;
+
+  // Number of groups is CARDINALITY_D1 * cardinalityD2
+  @Param({"20", "500", "5000"})
+  private int _cardinalityD2;
+
   private QueryContext _queryContext;
   private AggregationFunction[] _aggregationFunctions;
   private DataSchema _dataSchema;
@@ -92,8 +100,8 @@ public class BenchmarkCombineGroupBy {
     _d1 = new ArrayList<>(CARDINALITY_D1);
     _d1.addAll(d1);
 
-    _d2 = new ArrayList<>(CARDINALITY_D2);
-    for (int i = 0; i < CARDINALITY_D2; i++) {
+    _d2 = new ArrayList<>(_cardinalityD2);
+    for (int i = 0; i < _cardinalityD2; i++) {
       _d2.add(i);
     }
 
@@ -104,7 +112,7 @@ public class BenchmarkCombineGroupBy {
     _dataSchema = new DataSchema(new String[]{"d1", "d2", "sum(m1)", "max(m2)"},
         new DataSchema.ColumnDataType[]{DataSchema.ColumnDataType.STRING, DataSchema.ColumnDataType.INT, DataSchema.ColumnDataType.DOUBLE, DataSchema.ColumnDataType.DOUBLE});
 
-    _executorService = Executors.newFixedThreadPool(10);
+    _executorService = Executors.newFixedThreadPool(_numThreads);
   }
 
   @TearDown
@@ -137,11 +145,11 @@ public class BenchmarkCombineGroupBy {
     IndexedTable concurrentIndexedTable = new ConcurrentIndexedTable(_dataSchema, _queryContext, trimSize,
         InstancePlanMakerImplV2.DEFAULT_GROUPBY_TRIM_THRESHOLD);
 
-    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(NUM_SEGMENTS);
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(_numThreads);
 
-    // 10 parallel threads putting 10k records into the table
+    // numThreads parallel threads putting 100k records into the table
 
-    for (int i = 0; i < NUM_SEGMENTS; i++) {
+    for (int i = 0; i < _numThreads; i++) {
 
       Callable<Void> callable = () -> {
 
@@ -161,6 +169,42 @@ public class BenchmarkCombineGroupBy {
     concurrentIndexedTable.finish(false);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void partitionedIndexedTableForCombineGroupBy()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    int trimSize = GroupByUtils.getTableCapacity(_queryContext);
+
+    // make 1 partitioned table with one shard per thread
+    PartitionedIndexedTable partitionedIndexedTable = new PartitionedIndexedTable(_dataSchema, _queryContext, trimSize,
+        InstancePlanMakerImplV2.DEFAULT_GROUPBY_TRIM_THRESHOLD, _numThreads);
+
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(_numThreads);
+
+    // numThreads parallel threads putting 100k records into their own shards
+
+    for (int i = 0; i < _numThreads; i++) {
+
+      Callable<Void> callable = () -> {
+        PartitionedIndexedTable.Shard shard = partitionedIndexedTable.createShard();
+        for (int r = 0; r < NUM_RECORDS_PER_SEGMENT; r++) {
+          shard.upsert(getRecord());
+        }
+        return null;
+      };
+      innerSegmentCallables.add(callable);
+    }
+
+    List<Future<Void>> futures = _executorService.invokeAll(innerSegmentCallables);
+    for (Future<Void> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    partitionedIndexedTable.mergeShards(_executorService, System.currentTimeMillis() + 30_000L);
+    partitionedIndexedTable.finish(false);
+  }
+
   @Benchmark
   @BenchmarkMode(Mode.AverageTime)
   @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -171,8 +215,8 @@ public class BenchmarkCombineGroupBy {
     int _interSegmentNumGroupsLimit = 200_000;
 
     ConcurrentMap<String, Object[]> resultsMap = new ConcurrentHashMap<>();
-    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(NUM_SEGMENTS);
-    for (int i = 0; i < NUM_SEGMENTS; i++) {
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(_numThreads);
+    for (int i = 0; i < _numThreads; i++) {
       Callable<Void> callable = () -> {
         for (int r = 0; r < NUM_RECORDS_PER_SEGMENT; r++) {
 
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableBuilder;
+import org.apache.pinot.core.common.datatable.DataTableFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the serialization and de-serialization of a ~100MB {@link DataTable}, which is the server response
+ * size for large selection or group-by queries.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-server", "-Xmx4G"})
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkDataTableSerDe {
+  // Each row takes 28 bytes in the fixed size data section and 64 bytes in the variable size data section
+  private static final int NUM_ROWS = 1_100_000;
+  private static final int DOUBLE_ARRAY_LENGTH = 8;
+  private static final int STRING_CARDINALITY = 1000;
+  private static final Random RANDOM = new Random();
+
+  private DataTable _dataTable;
+  private byte[] _bytes;
+
+  @Setup
+  public void setUp()
+      throws IOException {
+    DataSchema dataSchema = new DataSchema(new String[]{"longColumn", "doubleColumn", "stringColumn", "mvColumn"},
+        new ColumnDataType[]{ColumnDataType.LONG, ColumnDataType.DOUBLE, ColumnDataType.STRING,
+            ColumnDataType.DOUBLE_ARRAY});
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(dataSchema);
+    for (int rowId = 0; rowId < NUM_ROWS; rowId++) {
+      dataTableBuilder.startRow();
+      dataTableBuilder.setColumn(0, RANDOM.nextLong());
+      dataTableBuilder.setColumn(1, RANDOM.nextDouble());
+      dataTableBuilder.setColumn(2, "value_" + RANDOM.nextInt(STRING_CARDINALITY));
+      double[] doubles = new double[DOUBLE_ARRAY_LENGTH];
+      for (int i = 0; i < DOUBLE_ARRAY_LENGTH; i++) {
+        doubles[i] = RANDOM.nextDouble();
+      }
+      dataTableBuilder.setColumn(3, doubles);
+      dataTableBuilder.finishRow();
+    }
+    _dataTable = dataTableBuilder.build();
+    _bytes = _dataTable.toBytes();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public byte[] serialize()
+      throws IOException {
+    return _dataTable.toBytes();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public DataTable deserialize()
+      throws IOException {
+    return DataTableFactory.getDataTable(_bytes);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public double deserializeAndRead()
+      throws IOException {
+    DataTable dataTable = DataTableFactory.getDataTable(_bytes);
+    double sum = 0;
+    for (int rowId = 0; rowId < NUM_ROWS; rowId++) {
+      sum += dataTable.getLong(rowId, 0);
+      sum += dataTable.getDouble(rowId, 1);
+      sum += dataTable.getString(rowId, 2).length();
+      sum += dataTable.getDoubleArray(rowId, 3)[0];
+    }
+    return sum;
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkDataTableSerDe.class.getSimpleName()).build()).run();
+  }
+}
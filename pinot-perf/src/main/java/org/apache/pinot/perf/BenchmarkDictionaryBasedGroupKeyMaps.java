@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenCustomHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.core.query.aggregation.groupby.DictionaryBasedGroupKeyGenerator;
+import org.apache.pinot.core.query.aggregation.groupby.DoubleGroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.aggregation.groupby.PagedDoubleGroupByResultHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the group id maps used in the {@link DictionaryBasedGroupKeyGenerator} when the cardinality product of
+ * the group-by columns does not fit into integer, combined with a COUNT result holder.
+ * <ul>
+ *   <li>
+ *     Long keys: fastutil {@link Long2IntOpenHashMap} vs {@link DictionaryBasedGroupKeyGenerator.LongGroupIdMap}
+ *   </li>
+ *   <li>
+ *     Array keys: fastutil map with int array keys vs {@link DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap},
+ *     where the columns are split into 2 parts to simulate the cardinality product not fitting into long
+ *   </li>
+ * </ul>
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-server", "-Xmx8G"})
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkDictionaryBasedGroupKeyMaps {
+  private static final int NUM_ROWS = 5_000_000;
+  private static final int NUM_GROUPS_LIMIT = Integer.MAX_VALUE;
+  private static final int INITIAL_CAPACITY = 10_000;
+  private static final Random RANDOM = new Random();
+
+  @Param({"2", "3", "5"})
+  private int _numColumns;
+
+  // Number of distinct groups, the cardinality of each column is chosen so that the cardinality product cannot fit
+  // into integer
+  @Param({"1000000", "4000000"})
+  private int _numGroups;
+
+  private int[] _cardinalities;
+  private int[][] _dictIds;
+  private int _numFirstKeyColumns;
+
+  @Setup
+  public void setUp() {
+    // Pick _numGroups distinct rows, then repeat them to fill all the rows
+    int[][] distinctDictIds = new int[_numColumns][_numGroups];
+    _cardinalities = new int[_numColumns];
+    // Cardinality of each column so that the cardinality product is close to 2^62
+    int cardinality = (int) Math.min(Math.pow(2, 62.0 / _numColumns), Integer.MAX_VALUE);
+    for (int i = 0; i < _numColumns; i++) {
+      _cardinalities[i] = cardinality;
+      for (int j = 0; j < _numGroups; j++) {
+        distinctDictIds[i][j] = RANDOM.nextInt(cardinality);
+      }
+    }
+    _dictIds = new int[_numColumns][NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      int rowId = i < _numGroups ? i : RANDOM.nextInt(_numGroups);
+      for (int j = 0; j < _numColumns; j++) {
+        _dictIds[j][i] = distinctDictIds[j][rowId];
+      }
+    }
+
+    // Split the columns into 2 parts for the long pair keys (both parts are non-empty)
+    _numFirstKeyColumns = (_numColumns + 1) / 2;
+  }
+
+  private long getLongRawKey(int rowId) {
+    long rawKey = 0L;
+    for (int i = _numColumns - 1; i >= 0; i--) {
+      rawKey = rawKey * _cardinalities[i] + _dictIds[i][rowId];
+    }
+    return rawKey;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public double long2IntOpenHashMap() {
+    Long2IntOpenHashMap groupIdMap = new Long2IntOpenHashMap();
+    groupIdMap.defaultReturnValue(GroupKeyGenerator.INVALID_ID);
+    GroupByResultHolder resultHolder = new DoubleGroupByResultHolder(INITIAL_CAPACITY, NUM_GROUPS_LIMIT, 0.0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      long rawKey = getLongRawKey(i);
+      int numGroups = groupIdMap.size();
+      int groupId = groupIdMap.computeIfAbsent(rawKey, k -> numGroups);
+      count(resultHolder, groupId, groupIdMap.size());
+    }
+    return resultHolder.getDoubleResult(0);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public double longGroupIdMap() {
+    DictionaryBasedGroupKeyGenerator.LongGroupIdMap groupIdMap = new DictionaryBasedGroupKeyGenerator.LongGroupIdMap();
+    GroupByResultHolder resultHolder = new PagedDoubleGroupByResultHolder(INITIAL_CAPACITY, NUM_GROUPS_LIMIT, 0.0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      int groupId = groupIdMap.getGroupId(getLongRawKey(i), NUM_GROUPS_LIMIT);
+      count(resultHolder, groupId, groupIdMap.size());
+    }
+    return resultHolder.getDoubleResult(0);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public double intArrayOpenHashMap() {
+    Object2IntOpenCustomHashMap<int[]> groupIdMap = new Object2IntOpenCustomHashMap<>(IntArrays.HASH_STRATEGY);
+    groupIdMap.defaultReturnValue(GroupKeyGenerator.INVALID_ID);
+    GroupByResultHolder resultHolder = new DoubleGroupByResultHolder(INITIAL_CAPACITY, NUM_GROUPS_LIMIT, 0.0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      int[] rawKey = new int[_numColumns];
+      for (int j = 0; j < _numColumns; j++) {
+        rawKey[j] = _dictIds[j][i];
+      }
+      int numGroups = groupIdMap.size();
+      int groupId = groupIdMap.computeIntIfAbsent(rawKey, k -> numGroups);
+      count(resultHolder, groupId, groupIdMap.size());
+    }
+    return resultHolder.getDoubleResult(0);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public double longPairGroupIdMap() {
+    DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap groupIdMap =
+        new DictionaryBasedGroupKeyGenerator.LongPairGroupIdMap();
+    GroupByResultHolder resultHolder = new PagedDoubleGroupByResultHolder(INITIAL_CAPACITY, NUM_GROUPS_LIMIT, 0.0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      long rawKey1 = 0L;
+      for (int j = _numFirstKeyColumns - 1; j >= 0; j--) {
+        rawKey1 = rawKey1 * _cardinalities[j] + _dictIds[j][i];
+      }
+      long rawKey2 = 0L;
+      for (int j = _numColumns - 1; j >= _numFirstKeyColumns; j--) {
+        rawKey2 = rawKey2 * _cardinalities[j] + _dictIds[j][i];
+      }
+      int groupId = groupIdMap.getGroupId(rawKey1, rawKey2, NUM_GROUPS_LIMIT);
+      count(resultHolder, groupId, groupIdMap.size());
+    }
+    return resultHolder.getDoubleResult(0);
+  }
+
+  private static void count(GroupByResultHolder resultHolder, int groupId, int numGroups) {
+    resultHolder.ensureCapacity(numGroups);
+    resultHolder.setValueForKey(groupId, resultHolder.getDoubleResult(groupId) + 1);
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkDictionaryBasedGroupKeyMaps.class.getSimpleName()).build()).run();
+  }
+}
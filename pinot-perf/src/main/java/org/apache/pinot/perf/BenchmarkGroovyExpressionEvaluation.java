@@ -28,6 +28,11 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.pinot.segment.local.function.CompiledFunctionEvaluator;
+import org.apache.pinot.segment.local.function.FunctionEvaluator;
+import org.apache.pinot.segment.local.function.GroovyFunctionEvaluator;
+import org.apache.pinot.segment.local.function.InbuiltFunctionEvaluator;
+import org.apache.pinot.spi.data.readers.GenericRow;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -42,6 +47,11 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 
+/**
+ * Benchmark for evaluating expressions with Groovy scripts, and with the function evaluators used by the ingestion
+ * transforms: {@link GroovyFunctionEvaluator}, {@link InbuiltFunctionEvaluator} (reflection) and
+ * {@link CompiledFunctionEvaluator} (generated bytecode).
+ */
 @State(Scope.Benchmark)
 @Fork(value = 1, jvmArgs = {"-server", "-Xmx8G", "-XX:MaxDirectMemorySize=16G"})
 public class BenchmarkGroovyExpressionEvaluation {
@@ -61,6 +71,13 @@ public class BenchmarkGroovyExpressionEvaluation {
   private Script _maxScript;
   private Script _maxGCLScript;
 
+  private final GenericRow _row = new GenericRow();
+  private FunctionEvaluator _concatGroovyEvaluator;
+  private FunctionEvaluator _concatInbuiltEvaluator;
+  private FunctionEvaluator _concatCompiledEvaluator;
+  private FunctionEvaluator _arithmeticInbuiltEvaluator;
+  private FunctionEvaluator _arithmeticCompiledEvaluator;
+
   @Setup
   public void setup()
       throws IllegalAccessException, InstantiationException {
@@ -77,6 +94,14 @@ public class BenchmarkGroovyExpressionEvaluation {
     _maxCodeSource = new GroovyCodeSource(_maxScriptText, Math.abs(_maxScriptText.hashCode()) + ".groovy",
         GroovyShell.DEFAULT_CODE_BASE);
     _maxGCLScript = (Script) _groovyClassLoader.parseClass(_maxCodeSource).newInstance();
+
+    _concatGroovyEvaluator = new GroovyFunctionEvaluator("Groovy({firstName + ' ' + lastName}, firstName, lastName)");
+    String concatExpression = "concat(firstName, lastName, ' ')";
+    _concatInbuiltEvaluator = new InbuiltFunctionEvaluator(concatExpression);
+    _concatCompiledEvaluator = CompiledFunctionEvaluator.compile(concatExpression);
+    String arithmeticExpression = "(length(firstName) + length(lastName)) * 2";
+    _arithmeticInbuiltEvaluator = new InbuiltFunctionEvaluator(arithmeticExpression);
+    _arithmeticCompiledEvaluator = CompiledFunctionEvaluator.compile(arithmeticExpression);
   }
 
   private String getFirstName() {
@@ -141,6 +166,47 @@ public class BenchmarkGroovyExpressionEvaluation {
     getMaxGroovyCodeSource(longList);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object groovyEvaluatorConcat() {
+    return evaluate(_concatGroovyEvaluator);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object inbuiltEvaluatorConcat() {
+    return evaluate(_concatInbuiltEvaluator);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object compiledEvaluatorConcat() {
+    return evaluate(_concatCompiledEvaluator);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object inbuiltEvaluatorArithmetic() {
+    return evaluate(_arithmeticInbuiltEvaluator);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object compiledEvaluatorArithmetic() {
+    return evaluate(_arithmeticCompiledEvaluator);
+  }
+
+  private Object evaluate(FunctionEvaluator functionEvaluator) {
+    _row.putValue("firstName", getFirstName());
+    _row.putValue("lastName", getLastName());
+    return functionEvaluator.evaluate(_row);
+  }
+
   private String getFullNameJava(String firstName, String lastName) {
     return String.join(" ", firstName, lastName);
   }
@@ -26,6 +26,7 @@ import org.I0Itec.zkclient.ZkClient;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.manager.zk.ZNRecordSerializer;
 import org.apache.pinot.segment.local.segment.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.tools.perf.PerfBenchmarkDriver;
 import org.apache.pinot.tools.perf.PerfBenchmarkDriverConf;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -48,12 +49,20 @@ import org.openjdk.jmh.runner.options.TimeValue;
 @Fork(value = 1, jvmArgs = {"-server", "-Xmx8G", "-XX:MaxDirectMemorySize=16G"})
 public class BenchmarkQueryEngine {
   /** List of query patterns used in the benchmark */
-  private static final String[] QUERY_PATTERNS = new String[]{"SELECT count(*) from myTable"};
+  private static final String[] QUERY_PATTERNS =
+      new String[]{"SELECT count(*) from myTable", "SELECT * from myTable LIMIT 100000"};
 
   /** List of query patterns indices to run */
   @Param({"0"})
   public int queryPattern;
 
+  /**
+   * Max number of documents processed in each block, empty to use the adaptive block size chosen by the server. Compare
+   * the adaptive block size against the fixed ones, e.g. with the wide selection query pattern.
+   */
+  @Param({""})
+  public String maxDocsPerCall;
+
   /** The table name which contains the offline data, for example "myTable_OFFLINE." */
   private static final String TABLE_NAME = "myTable_OFFLINE";
 
@@ -71,6 +80,7 @@ public class BenchmarkQueryEngine {
 
   PerfBenchmarkDriver _perfBenchmarkDriver;
   boolean ranOnce = false;
+  String _query;
 
   @Setup
   public void startPinot()
@@ -127,7 +137,12 @@ public class BenchmarkQueryEngine {
 
     ranOnce = false;
 
-    System.out.println(_perfBenchmarkDriver.postQuery(QUERY_PATTERNS[queryPattern]).toString());
+    _query = QUERY_PATTERNS[queryPattern];
+    if (!maxDocsPerCall.isEmpty()) {
+      _query += " OPTION(" + CommonConstants.Broker.Request.QueryOptionKey.MAX_DOCS_PER_CALL + "=" + maxDocsPerCall
+          + ")";
+    }
+    System.out.println(_perfBenchmarkDriver.postQuery(_query).toString());
   }
 
   @Benchmark
@@ -135,7 +150,7 @@ public class BenchmarkQueryEngine {
   @OutputTimeUnit(TimeUnit.MILLISECONDS)
   public int sendQueryToPinot()
       throws Exception {
-    return _perfBenchmarkDriver.postQuery(QUERY_PATTERNS[queryPattern]).get("totalDocs").asInt();
+    return _perfBenchmarkDriver.postQuery(_query).get("totalDocs").asInt();
   }
 
   public static void main(String[] args)
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.util.PinotDataBitSet;
+import org.apache.pinot.segment.local.io.writer.impl.FixedBitSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.RangeIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.BitSlicedRangeIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.RangeIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitSVForwardIndexReaderV2;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.DimensionFieldSpec;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Compares range predicate evaluation on a dictionary-encoded column with the bucketed range index (which scans the
+ * forward index for the first and last range, as done in RangeIndexBasedFilterOperator) and the bit-sliced range
+ * index (which returns exact results without scanning).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkRangeIndex {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkRangeIndex");
+  private static final String COLUMN_NAME = "column";
+  private static final int NUM_DOCS = 1_000_000;
+  private static final int NUM_QUERIES = 1024;
+  private static final Random RANDOM = new Random();
+
+  @Param({"100", "10000", "1000000"})
+  public int _cardinality;
+
+  // Percentage of the dictionary ids matched by the range
+  @Param({"1", "10", "50"})
+  public int _selectivity;
+
+  private PinotDataBuffer _forwardIndexBuffer;
+  private PinotDataBuffer _bucketedRangeIndexBuffer;
+  private PinotDataBuffer _bitSlicedRangeIndexBuffer;
+  private FixedBitSVForwardIndexReaderV2 _forwardIndexReader;
+  private RangeIndexReader _bucketedRangeIndexReader;
+  private BitSlicedRangeIndexReader _bitSlicedRangeIndexReader;
+
+  private final int[] _lowerBounds = new int[NUM_QUERIES];
+  private final int[] _upperBounds = new int[NUM_QUERIES];
+  private int _queryId;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(INDEX_DIR);
+    File bucketedIndexDir = new File(INDEX_DIR, "bucketed");
+    File bitSlicedIndexDir = new File(INDEX_DIR, "bitSliced");
+    FileUtils.forceMkdir(bucketedIndexDir);
+    FileUtils.forceMkdir(bitSlicedIndexDir);
+
+    FieldSpec fieldSpec = new DimensionFieldSpec(COLUMN_NAME, DataType.INT, true);
+    File forwardIndexFile = new File(INDEX_DIR, COLUMN_NAME + ".fwd");
+    int numBitsPerValue = PinotDataBitSet.getNumBitsPerValue(_cardinality - 1);
+    try (FixedBitSVForwardIndexWriter forwardIndexWriter = new FixedBitSVForwardIndexWriter(forwardIndexFile,
+        NUM_DOCS, numBitsPerValue);
+        RangeIndexCreator bucketedRangeIndexCreator = new RangeIndexCreator(bucketedIndexDir, fieldSpec, DataType.INT,
+            -1, -1, NUM_DOCS, NUM_DOCS);
+        BitSlicedRangeIndexCreator bitSlicedRangeIndexCreator = new BitSlicedRangeIndexCreator(bitSlicedIndexDir,
+            fieldSpec, DataType.INT, NUM_DOCS)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        int dictId = RANDOM.nextInt(_cardinality);
+        forwardIndexWriter.putDictId(dictId);
+        bucketedRangeIndexCreator.add(dictId);
+        bitSlicedRangeIndexCreator.add(dictId);
+      }
+      bucketedRangeIndexCreator.seal();
+      bitSlicedRangeIndexCreator.seal();
+    }
+
+    _forwardIndexBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(forwardIndexFile);
+    _forwardIndexReader = new FixedBitSVForwardIndexReaderV2(_forwardIndexBuffer, NUM_DOCS, numBitsPerValue);
+    _bucketedRangeIndexBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(new File(bucketedIndexDir, COLUMN_NAME
+        + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION));
+    _bucketedRangeIndexReader = new RangeIndexReader(_bucketedRangeIndexBuffer);
+    _bitSlicedRangeIndexBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(new File(bitSlicedIndexDir, COLUMN_NAME
+        + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION));
+    _bitSlicedRangeIndexReader = new BitSlicedRangeIndexReader(_bitSlicedRangeIndexBuffer);
+
+    int rangeLength = Math.max(1, (int) ((long) _cardinality * _selectivity / 100));
+    for (int i = 0; i < NUM_QUERIES; i++) {
+      _lowerBounds[i] = RANDOM.nextInt(_cardinality - rangeLength + 1);
+      _upperBounds[i] = _lowerBounds[i] + rangeLength - 1;
+    }
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    _forwardIndexBuffer.close();
+    _bucketedRangeIndexBuffer.close();
+    _bitSlicedRangeIndexBuffer.close();
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  @Benchmark
+  public int bucketedRangeIndex() {
+    int queryId = _queryId++ & (NUM_QUERIES - 1);
+    int lower = _lowerBounds[queryId];
+    int upper = _upperBounds[queryId];
+    int firstRangeId = _bucketedRangeIndexReader.findRangeId(lower);
+    int lastRangeId = _bucketedRangeIndexReader.findRangeId(upper);
+
+    // Scan the first and last range as they might be partially matched
+    ImmutableRoaringBitmap docIdsToScan;
+    if (firstRangeId == lastRangeId) {
+      docIdsToScan = _bucketedRangeIndexReader.getDocIds(firstRangeId);
+    } else {
+      docIdsToScan = ImmutableRoaringBitmap.or(_bucketedRangeIndexReader.getDocIds(firstRangeId),
+          _bucketedRangeIndexReader.getDocIds(lastRangeId));
+    }
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    IntIterator docIdIterator = docIdsToScan.getIntIterator();
+    while (docIdIterator.hasNext()) {
+      int docId = docIdIterator.next();
+      int dictId = _forwardIndexReader.getDictId(docId, null);
+      if (dictId >= lower && dictId <= upper) {
+        docIds.add(docId);
+      }
+    }
+    for (int rangeId = firstRangeId + 1; rangeId < lastRangeId; rangeId++) {
+      docIds.or(_bucketedRangeIndexReader.getDocIds(rangeId));
+    }
+    return docIds.getCardinality();
+  }
+
+  @Benchmark
+  public int bitSlicedRangeIndex() {
+    int queryId = _queryId++ & (NUM_QUERIES - 1);
+    return _bitSlicedRangeIndexReader.getMatchingDocIds(_lowerBounds[queryId], _upperBounds[queryId])
+        .getCardinality();
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkRangeIndex.class.getSimpleName()).build()).run();
+  }
+}
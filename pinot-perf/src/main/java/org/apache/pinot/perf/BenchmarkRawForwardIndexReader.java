@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.segment.local.io.writer.impl.BaseChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BaseChunkSVForwardIndexReader.ChunkReaderContext;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for reading values from the raw forward index one document at a time vs in batch, for both contiguous and
+ * sparse document ids.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkRawForwardIndexReader {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkRawForwardIndexReader");
+  private static final int NUM_VALUES = 1_000_000;
+  private static final int NUM_DOCS_PER_CHUNK = 1000;
+  private static final int NUM_DOC_IDS = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+  private static final Random RANDOM = new Random();
+
+  @Param({"PASS_THROUGH", "SNAPPY", "LZ4"})
+  public ChunkCompressionType _compressionType;
+
+  private PinotDataBuffer _dataBuffer;
+  private FixedByteChunkSVForwardIndexReader _reader;
+  private ChunkReaderContext _readerContext;
+
+  private final int[] _contiguousDocIds = new int[NUM_DOC_IDS];
+  private final int[] _sparseDocIds = new int[NUM_DOC_IDS];
+  private final long[] _valueBuffer = new long[NUM_DOC_IDS];
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+    FileUtils.forceMkdir(INDEX_DIR);
+    File indexFile = new File(INDEX_DIR, "long-" + _compressionType);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(indexFile,
+        _compressionType, NUM_VALUES, NUM_DOCS_PER_CHUNK, Long.BYTES, BaseChunkSVForwardIndexWriter.CURRENT_VERSION)) {
+      for (int i = 0; i < NUM_VALUES; i++) {
+        writer.putLong(RANDOM.nextInt(1_000_000));
+      }
+    }
+    _dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+    _reader = new FixedByteChunkSVForwardIndexReader(_dataBuffer, DataType.LONG);
+    _readerContext = _reader.createContext();
+
+    int contiguousDocId = RANDOM.nextInt(NUM_VALUES - NUM_DOC_IDS);
+    int sparseDocId = RANDOM.nextInt(32);
+    for (int i = 0; i < NUM_DOC_IDS; i++) {
+      _contiguousDocIds[i] = contiguousDocId++;
+      _sparseDocIds[i] = sparseDocId;
+      sparseDocId += 5 + RANDOM.nextInt(90);
+    }
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    if (_readerContext != null) {
+      _readerContext.close();
+    }
+    _reader.close();
+    _dataBuffer.close();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  @Benchmark
+  public long readContiguous() {
+    for (int i = 0; i < NUM_DOC_IDS; i++) {
+      _valueBuffer[i] = _reader.getLong(_contiguousDocIds[i], _readerContext);
+    }
+    return _valueBuffer[0];
+  }
+
+  @Benchmark
+  public long readContiguousBatch() {
+    _reader.readValuesSV(_contiguousDocIds, NUM_DOC_IDS, _valueBuffer, _readerContext);
+    return _valueBuffer[0];
+  }
+
+  @Benchmark
+  public long readSparse() {
+    for (int i = 0; i < NUM_DOC_IDS; i++) {
+      _valueBuffer[i] = _reader.getLong(_sparseDocIds[i], _readerContext);
+    }
+    return _valueBuffer[0];
+  }
+
+  @Benchmark
+  public long readSparseBatch() {
+    _reader.readValuesSV(_sparseDocIds, NUM_DOC_IDS, _valueBuffer, _readerContext);
+    return _valueBuffer[0];
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkRawForwardIndexReader.class.getSimpleName()).build()).run();
+  }
+}
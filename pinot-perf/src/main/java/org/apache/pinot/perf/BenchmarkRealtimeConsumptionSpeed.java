@@ -20,9 +20,11 @@ package org.apache.pinot.perf;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
+import java.util.Map;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.integration.tests.BaseClusterIntegrationTest;
 import org.apache.pinot.integration.tests.ClusterIntegrationTestUtils;
+import org.apache.pinot.spi.stream.StreamConfigProperties;
 import org.apache.pinot.tools.utils.KafkaStarterUtils;
 import org.apache.pinot.util.TestUtils;
 
@@ -30,20 +32,41 @@ import org.apache.pinot.util.TestUtils;
 /**
  * Benchmark that writes a configurable amount of rows in Kafka and checks how much time it takes to consume all of
  * them.
+ * <p>Pass {@code true} as the first argument to consume with the pipelined consumption, which indexes the rows into
+ * the consuming segment in batches, instead of indexing them one by one.
  */
 public class BenchmarkRealtimeConsumptionSpeed extends BaseClusterIntegrationTest {
   private static final int ROW_COUNT = 100_000;
   private static final long TIMEOUT_MILLIS = 20 * 60 * 1000L; // Twenty minutes
 
+  private final boolean _pipelinedConsumption;
+
+  public BenchmarkRealtimeConsumptionSpeed(boolean pipelinedConsumption) {
+    _pipelinedConsumption = pipelinedConsumption;
+  }
+
   public static void main(String[] args) {
     try {
-      new BenchmarkRealtimeConsumptionSpeed().runBenchmark();
+      new BenchmarkRealtimeConsumptionSpeed(args.length > 0 && Boolean.parseBoolean(args[0])).runBenchmark();
     } catch (Exception e) {
       System.exit(-1);
     }
     System.exit(0);
   }
 
+  @Override
+  protected boolean useLlc() {
+    // Pipelined consumption is only available for the low level consumer
+    return true;
+  }
+
+  @Override
+  protected Map<String, String> getStreamConfigs() {
+    Map<String, String> streamConfigs = super.getStreamConfigs();
+    streamConfigs.put(StreamConfigProperties.PIPELINED_CONSUMPTION, Boolean.toString(_pipelinedConsumption));
+    return streamConfigs;
+  }
+
   private void runBenchmark()
       throws Exception {
     TestUtils.ensureDirectoriesExistAndEmpty(_tempDir);
@@ -100,7 +123,11 @@ public class BenchmarkRealtimeConsumptionSpeed extends BaseClusterIntegrationTes
 
     long endTime = System.currentTimeMillis();
 
-    System.out.println("Consumed " + ROW_COUNT + " rows in " + (endTime - startTime) / 1000.0 + " seconds");
+    double rowsPerSecond = ROW_COUNT * 1000.0 / (endTime - startTime);
+    System.out.println("Consumed " + ROW_COUNT + " rows in " + (endTime - startTime) / 1000.0 + " seconds ("
+        + (_pipelinedConsumption ? "pipelined" : "sequential") + " consumption)");
+    System.out.println("Rows per second: " + rowsPerSecond + ", rows per second per core: "
+        + rowsPerSecond / Runtime.getRuntime().availableProcessors());
     FileUtils.deleteDirectory(_tempDir);
   }
 }
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
+import org.apache.pinot.segment.local.realtime.converter.RealtimeSegmentConverter;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.spi.creator.SegmentVersion;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for converting a consuming segment into an immutable segment, row by row (0 threads) vs column-parallel on
+ * a build thread pool.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkRealtimeSegmentConversion {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkRealtimeSegmentConversion");
+  private static final String TABLE_NAME_WITH_TYPE = "testTable_REALTIME";
+  private static final String SEGMENT_NAME = "testTable__0__0__20210101T0000Z";
+  private static final int NUM_INT_COLUMNS = 20;
+  private static final int NUM_LONG_COLUMNS = 15;
+  private static final int NUM_STRING_COLUMNS = 15;
+  private static final int NUM_ROWS = 500_000;
+  private static final int CARDINALITY = 1000;
+
+  @Param({"0", "2", "4", "8"})
+  private int _numThreads;
+
+  private Schema _schema;
+  private TableConfig _tableConfig;
+  private MutableSegmentImpl _mutableSegment;
+  private ExecutorService _executorService;
+  private int _iteration;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.forceMkdir(INDEX_DIR);
+    Schema.SchemaBuilder schemaBuilder = new Schema.SchemaBuilder().setSchemaName(TABLE_NAME_WITH_TYPE);
+    for (int i = 0; i < NUM_INT_COLUMNS; i++) {
+      schemaBuilder.addSingleValueDimension("int" + i, FieldSpec.DataType.INT);
+    }
+    for (int i = 0; i < NUM_LONG_COLUMNS; i++) {
+      schemaBuilder.addMetric("long" + i, FieldSpec.DataType.LONG);
+    }
+    for (int i = 0; i < NUM_STRING_COLUMNS; i++) {
+      schemaBuilder.addSingleValueDimension("string" + i, FieldSpec.DataType.STRING);
+    }
+    _schema = schemaBuilder.build();
+    _tableConfig = new TableConfigBuilder(TableType.REALTIME).setTableName(TABLE_NAME_WITH_TYPE).build();
+
+    RealtimeSegmentZKMetadata segmentZKMetadata = new RealtimeSegmentZKMetadata();
+    segmentZKMetadata.setSegmentName(SEGMENT_NAME);
+    segmentZKMetadata.setCreationTime(System.currentTimeMillis());
+    RealtimeSegmentConfig realtimeSegmentConfig =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType(TABLE_NAME_WITH_TYPE).setSegmentName(SEGMENT_NAME)
+            .setStreamName(TABLE_NAME_WITH_TYPE).setSchema(_schema).setCapacity(NUM_ROWS).setAvgNumMultiValues(1)
+            .setRealtimeSegmentZKMetadata(segmentZKMetadata).setOffHeap(true)
+            .setMemoryManager(new DirectMemoryManager(SEGMENT_NAME))
+            .setStatsHistory(RealtimeSegmentStatsHistory.deserialzeFrom(new File(INDEX_DIR, "stats")))
+            .setConsumerDir(new File(INDEX_DIR, "consumerDir").getAbsolutePath()).build();
+    _mutableSegment = new MutableSegmentImpl(realtimeSegmentConfig, null);
+
+    Random random = new Random(0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      for (int j = 0; j < NUM_INT_COLUMNS; j++) {
+        row.putValue("int" + j, random.nextInt(CARDINALITY));
+      }
+      for (int j = 0; j < NUM_LONG_COLUMNS; j++) {
+        row.putValue("long" + j, (long) random.nextInt(CARDINALITY));
+      }
+      for (int j = 0; j < NUM_STRING_COLUMNS; j++) {
+        row.putValue("string" + j, "value" + random.nextInt(CARDINALITY));
+      }
+      _mutableSegment.index(row, null);
+    }
+
+    if (_numThreads > 0) {
+      _executorService = Executors.newFixedThreadPool(_numThreads);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void benchmarkConversion()
+      throws Exception {
+    File outputDir = new File(INDEX_DIR, "output" + _iteration++);
+    RealtimeSegmentConverter converter =
+        new RealtimeSegmentConverter(_mutableSegment, outputDir.getAbsolutePath(), _schema, TABLE_NAME_WITH_TYPE,
+            _tableConfig, SEGMENT_NAME, null, Collections.emptyList(), null, null, Collections.emptyList(),
+            Collections.emptyList(), false);
+    converter.build(SegmentVersion.v3, null, _executorService);
+    FileUtils.deleteQuietly(outputDir);
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    if (_executorService != null) {
+      _executorService.shutdown();
+    }
+    _mutableSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkRealtimeSegmentConversion.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(10)).warmupIterations(1).measurementTime(TimeValue.seconds(30))
+        .measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.segment.local.recordtransformer.CompositeTransformer;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the default record transformer used by both the realtime and the offline segment creation, on rows
+ * with values already of the schema data types (TYPED), and on rows with string values and multi-values as lists
+ * (UNTYPED) such as the ones extracted from JSON/CSV records. Run with the GC profiler to measure the allocation rate.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkRecordTransformation {
+  private static final String TABLE_NAME = "testTable";
+  private static final int NUM_INT_COLUMNS = 10;
+  private static final int NUM_LONG_COLUMNS = 10;
+  private static final int NUM_STRING_COLUMNS = 10;
+  private static final int NUM_MV_COLUMNS = 5;
+  private static final int NUM_MULTI_VALUES = 5;
+  private static final int NUM_ROWS = 10_000;
+  private static final int CARDINALITY = 1000;
+
+  @Param({"TYPED", "UNTYPED"})
+  private String _inputType;
+
+  private CompositeTransformer _recordTransformer;
+  private List<String> _columns;
+  private Object[][] _values;
+  private final GenericRow _reuse = new GenericRow();
+
+  @Setup
+  public void setUp() {
+    Schema.SchemaBuilder schemaBuilder = new Schema.SchemaBuilder().setSchemaName(TABLE_NAME);
+    for (int i = 0; i < NUM_INT_COLUMNS; i++) {
+      schemaBuilder.addSingleValueDimension("int" + i, FieldSpec.DataType.INT);
+    }
+    for (int i = 0; i < NUM_LONG_COLUMNS; i++) {
+      schemaBuilder.addMetric("long" + i, FieldSpec.DataType.LONG);
+    }
+    for (int i = 0; i < NUM_STRING_COLUMNS; i++) {
+      schemaBuilder.addSingleValueDimension("string" + i, FieldSpec.DataType.STRING);
+    }
+    for (int i = 0; i < NUM_MV_COLUMNS; i++) {
+      schemaBuilder.addMultiValueDimension("intMV" + i, FieldSpec.DataType.INT);
+      schemaBuilder.addMultiValueDimension("stringMV" + i, FieldSpec.DataType.STRING);
+    }
+    Schema schema = schemaBuilder.build();
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(TABLE_NAME).build();
+    _recordTransformer = CompositeTransformer.getDefaultTransformer(tableConfig, schema);
+
+    _columns = new ArrayList<>(schema.getColumnNames());
+    int numColumns = _columns.size();
+    boolean typed = _inputType.equals("TYPED");
+    Random random = new Random(0);
+    _values = new Object[NUM_ROWS][numColumns];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      for (int j = 0; j < numColumns; j++) {
+        FieldSpec fieldSpec = schema.getFieldSpecFor(_columns.get(j));
+        if (fieldSpec.isSingleValueField()) {
+          _values[i][j] = generateValue(fieldSpec.getDataType(), typed, random);
+        } else {
+          Object[] multiValues = new Object[NUM_MULTI_VALUES];
+          for (int k = 0; k < NUM_MULTI_VALUES; k++) {
+            multiValues[k] = generateValue(fieldSpec.getDataType(), typed, random);
+          }
+          _values[i][j] = typed ? multiValues : Arrays.asList(multiValues);
+        }
+      }
+    }
+  }
+
+  private static Object generateValue(FieldSpec.DataType dataType, boolean typed, Random random) {
+    int value = random.nextInt(CARDINALITY);
+    switch (dataType) {
+      case INT:
+        return typed ? (Object) value : Integer.toString(value);
+      case LONG:
+        return typed ? (Object) (long) value : Long.toString(value);
+      case STRING:
+        return "value" + value;
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void benchmarkTransformation(Blackhole blackhole) {
+    int numColumns = _columns.size();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      _reuse.clear();
+      Object[] values = _values[i];
+      for (int j = 0; j < numColumns; j++) {
+        Object value = values[j];
+        // Multi-values are modified in place by the transformer, so copy them to keep the input intact
+        _reuse.putValue(_columns.get(j), value instanceof Object[] ? ((Object[]) value).clone() : value);
+      }
+      blackhole.consume(_recordTransformer.transform(_reuse));
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkRecordTransformation.class.getSimpleName())
+        .addProfiler(GCProfiler.class).warmupTime(TimeValue.seconds(10)).warmupIterations(1)
+        .measurementTime(TimeValue.seconds(30)).measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
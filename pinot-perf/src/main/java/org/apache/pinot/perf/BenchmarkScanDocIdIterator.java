@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.InPredicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.dociditerators.SVScanDocIdIterator;
+import org.apache.pinot.core.operator.filter.predicate.InPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.segment.local.io.util.PinotDataBitSet;
+import org.apache.pinot.segment.local.io.writer.impl.FixedBitSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.IntDictionary;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitSVForwardIndexReaderV2;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.Constants;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Compares scanning a dictionary-encoded single-value column one document at a time (reading one dictionary id and
+ * evaluating the predicate per document) with the batched scan in {@link SVScanDocIdIterator}, for both the iteration
+ * and the AND with a bitmap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkScanDocIdIterator {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkScanDocIdIterator");
+  private static final int NUM_DOCS = 1_000_000;
+  private static final int CARDINALITY = 1000;
+  private static final Random RANDOM = new Random();
+
+  @Param({"RANGE", "IN"})
+  public String _predicateType;
+
+  private PinotDataBuffer _forwardIndexBuffer;
+  private PinotDataBuffer _dictionaryBuffer;
+  private FixedBitSVForwardIndexReaderV2 _reader;
+  private PredicateEvaluator _predicateEvaluator;
+  private MutableRoaringBitmap _docIds;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(INDEX_DIR);
+    FileUtils.forceMkdir(INDEX_DIR);
+    File forwardIndexFile = new File(INDEX_DIR, "column.fwd");
+    int numBitsPerValue = PinotDataBitSet.getNumBitsPerValue(CARDINALITY - 1);
+    try (FixedBitSVForwardIndexWriter writer = new FixedBitSVForwardIndexWriter(forwardIndexFile, NUM_DOCS,
+        numBitsPerValue)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        writer.putDictId(RANDOM.nextInt(CARDINALITY));
+      }
+    }
+    _forwardIndexBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(forwardIndexFile);
+    _reader = new FixedBitSVForwardIndexReaderV2(_forwardIndexBuffer, NUM_DOCS, numBitsPerValue);
+
+    // Dictionary with values [0, CARDINALITY)
+    _dictionaryBuffer =
+        PinotDataBuffer.allocateDirect((long) CARDINALITY * Integer.BYTES, ByteOrder.BIG_ENDIAN, "dictionary");
+    for (int i = 0; i < CARDINALITY; i++) {
+      _dictionaryBuffer.putInt((long) i * Integer.BYTES, i);
+    }
+    IntDictionary dictionary = new IntDictionary(_dictionaryBuffer, CARDINALITY);
+    ExpressionContext column = ExpressionContext.forIdentifier("column");
+    if (_predicateType.equals("RANGE")) {
+      _predicateEvaluator = RangePredicateEvaluatorFactory
+          .newDictionaryBasedEvaluator(new RangePredicate(column, true, "100", false, "200"), dictionary,
+              DataType.INT);
+    } else {
+      _predicateEvaluator = InPredicateEvaluatorFactory
+          .newDictionaryBasedEvaluator(new InPredicate(column, Arrays.asList("1", "10", "100", "500", "999")),
+              dictionary, DataType.INT);
+    }
+
+    _docIds = new MutableRoaringBitmap();
+    for (int i = 0; i < NUM_DOCS; i++) {
+      if (RANDOM.nextInt(10) < 3) {
+        _docIds.add(i);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown()
+      throws Exception {
+    _forwardIndexBuffer.close();
+    _dictionaryBuffer.close();
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  @Benchmark
+  public int perDocIteration() {
+    int numMatches = 0;
+    for (int docId = 0; docId < NUM_DOCS; docId++) {
+      if (_predicateEvaluator.applySV(_reader.getDictId(docId, null))) {
+        numMatches++;
+      }
+    }
+    return numMatches;
+  }
+
+  @Benchmark
+  public int batchedIteration() {
+    SVScanDocIdIterator docIdIterator = new SVScanDocIdIterator(_predicateEvaluator, _reader, NUM_DOCS);
+    int numMatches = 0;
+    while (docIdIterator.next() != Constants.EOF) {
+      numMatches++;
+    }
+    return numMatches;
+  }
+
+  @Benchmark
+  public int perDocApplyAnd() {
+    MutableRoaringBitmap result = new MutableRoaringBitmap();
+    IntIterator docIdIterator = _docIds.getIntIterator();
+    while (docIdIterator.hasNext()) {
+      int docId = docIdIterator.next();
+      if (_predicateEvaluator.applySV(_reader.getDictId(docId, null))) {
+        result.add(docId);
+      }
+    }
+    return result.getCardinality();
+  }
+
+  @Benchmark
+  public int batchedApplyAnd() {
+    return new SVScanDocIdIterator(_predicateEvaluator, _reader, NUM_DOCS).applyAnd(_docIds).getCardinality();
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkScanDocIdIterator.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,368 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.function;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.function.FunctionInfo;
+import org.apache.pinot.common.function.FunctionRegistry;
+import org.apache.pinot.common.function.FunctionUtils;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.FunctionContext;
+import org.apache.pinot.common.request.context.RequestContextUtils;
+import org.apache.pinot.common.utils.PinotDataType;
+import org.apache.pinot.spi.data.readers.GenericRow;
+
+
+/**
+ * Evaluates an expression with the scalar functions invoked through generated bytecode instead of reflection.
+ * <p>Each function in the expression tree is bound to a class generated by the {@link LambdaMetafactory}, which invokes
+ * the function method directly (so that it can be inlined by the JIT) with the boxing and unboxing of the arguments and
+ * the result compiled in. Literal arguments are converted to the parameter types at compile time, and arguments whose
+ * type is known at compile time (results of the nested functions) skip the type conversion.
+ * <p>Only public static methods of public classes visible to the class loader of this class, and with at most
+ * {@link #MAX_NUM_ARGUMENTS} parameters can be compiled. {@link #compile(String)} returns {@code null} when the
+ * expression cannot be compiled, in which case {@link InbuiltFunctionEvaluator} should be used instead.
+ */
+public class CompiledFunctionEvaluator implements FunctionEvaluator {
+  public static final int MAX_NUM_ARGUMENTS = 5;
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final Class<?>[] INVOKER_CLASSES =
+      {Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class, Invoker4.class, Invoker5.class};
+
+  // Root of the execution tree
+  private final ExecutableNode _rootNode;
+  private final List<String> _arguments;
+
+  private CompiledFunctionEvaluator(ExecutableNode rootNode, List<String> arguments) {
+    _rootNode = rootNode;
+    _arguments = arguments;
+  }
+
+  /**
+   * Compiles the given function expression, or returns {@code null} if the expression cannot be compiled.
+   */
+  @Nullable
+  public static CompiledFunctionEvaluator compile(String functionExpression) {
+    List<String> arguments = new ArrayList<>();
+    ExecutableNode rootNode;
+    try {
+      rootNode = planExecution(RequestContextUtils.getExpressionFromSQL(functionExpression), arguments);
+    } catch (Exception e) {
+      // Let the InbuiltFunctionEvaluator report the invalid expression
+      return null;
+    }
+    return rootNode != null ? new CompiledFunctionEvaluator(rootNode, arguments) : null;
+  }
+
+  @Nullable
+  private static ExecutableNode planExecution(ExpressionContext expression, List<String> arguments) {
+    switch (expression.getType()) {
+      case LITERAL:
+        return new ConstantExecutionNode(expression.getLiteral());
+      case IDENTIFIER:
+        String columnName = expression.getIdentifier();
+        ColumnExecutionNode columnExecutionNode = new ColumnExecutionNode(columnName, arguments.size());
+        arguments.add(columnName);
+        return columnExecutionNode;
+      case FUNCTION:
+        FunctionContext function = expression.getFunction();
+        List<ExpressionContext> functionArguments = function.getArguments();
+        int numArguments = functionArguments.size();
+        FunctionInfo functionInfo = FunctionRegistry.getFunctionInfo(function.getFunctionName(), numArguments);
+        if (functionInfo == null) {
+          return null;
+        }
+        Method method = functionInfo.getMethod();
+        Object invoker = createInvoker(method);
+        if (invoker == null) {
+          return null;
+        }
+        Class<?>[] parameterClasses = method.getParameterTypes();
+        ExecutableNode[] argumentNodes = new ExecutableNode[numArguments];
+        boolean[] convertArguments = new boolean[numArguments];
+        for (int i = 0; i < numArguments; i++) {
+          ExecutableNode argumentNode = planExecution(functionArguments.get(i), arguments);
+          if (argumentNode == null) {
+            return null;
+          }
+          Class<?> parameterClass = Primitives.wrap(parameterClasses[i]);
+          if (argumentNode instanceof ConstantExecutionNode) {
+            // Convert the literal at compile time
+            Object value = ((ConstantExecutionNode) argumentNode)._value;
+            if (!parameterClass.isInstance(value)) {
+              PinotDataType parameterType = FunctionUtils.getParameterType(parameterClasses[i]);
+              if (parameterType == null) {
+                return null;
+              }
+              argumentNode = new ConstantExecutionNode(parameterType.convert(value, PinotDataType.STRING));
+            }
+          } else {
+            convertArguments[i] = !parameterClass.isAssignableFrom(argumentNode.getResultClass());
+          }
+          argumentNodes[i] = argumentNode;
+        }
+        return new FunctionExecutionNode(method, invoker, argumentNodes, convertArguments);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Generates a class implementing the invoker interface of the method arity, which invokes the given method directly,
+   * or returns {@code null} if the method cannot be invoked from a generated class.
+   */
+  @Nullable
+  private static Object createInvoker(Method method) {
+    int modifiers = method.getModifiers();
+    int numParameters = method.getParameterCount();
+    if (!Modifier.isStatic(modifiers) || !Modifier.isPublic(modifiers) || numParameters > MAX_NUM_ARGUMENTS
+        || method.getReturnType() == void.class || !isAccessible(method.getDeclaringClass())) {
+      return null;
+    }
+    try {
+      MethodHandle methodHandle = LOOKUP.unreflect(method);
+      CallSite callSite = LambdaMetafactory
+          .metafactory(LOOKUP, "invoke", MethodType.methodType(INVOKER_CLASSES[numParameters]),
+              MethodType.genericMethodType(numParameters), methodHandle, methodHandle.type().wrap());
+      return callSite.getTarget().invoke();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the generated classes can access the given class, i.e. the class (and its enclosing classes) are
+   * public and the class is visible to the class loader of this class.
+   */
+  private static boolean isAccessible(Class<?> clazz) {
+    for (Class<?> current = clazz; current != null; current = current.getEnclosingClass()) {
+      if (!Modifier.isPublic(current.getModifiers())) {
+        return false;
+      }
+    }
+    try {
+      return Class.forName(clazz.getName(), false, CompiledFunctionEvaluator.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public List<String> getArguments() {
+    return _arguments;
+  }
+
+  @Override
+  public Object evaluate(GenericRow row) {
+    return _rootNode.execute(row);
+  }
+
+  @Override
+  public Object evaluate(Object[] values) {
+    return _rootNode.execute(values);
+  }
+
+  private interface Invoker0 {
+    Object invoke();
+  }
+
+  private interface Invoker1 {
+    Object invoke(Object a0);
+  }
+
+  private interface Invoker2 {
+    Object invoke(Object a0, Object a1);
+  }
+
+  private interface Invoker3 {
+    Object invoke(Object a0, Object a1, Object a2);
+  }
+
+  private interface Invoker4 {
+    Object invoke(Object a0, Object a1, Object a2, Object a3);
+  }
+
+  private interface Invoker5 {
+    Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4);
+  }
+
+  private interface ExecutableNode {
+
+    Object execute(GenericRow row);
+
+    Object execute(Object[] values);
+
+    /**
+     * Returns the class of the result value known at compile time.
+     */
+    Class<?> getResultClass();
+  }
+
+  private static class FunctionExecutionNode implements ExecutableNode {
+    final Method _method;
+    final Object _invoker;
+    final ExecutableNode[] _argumentNodes;
+    // Whether the argument type needs to be checked (and converted if needed) at runtime
+    final boolean[] _convertArguments;
+    final Class<?>[] _parameterClasses;
+    final PinotDataType[] _parameterTypes;
+    final Object[] _arguments;
+
+    FunctionExecutionNode(Method method, Object invoker, ExecutableNode[] argumentNodes, boolean[] convertArguments) {
+      _method = method;
+      _invoker = invoker;
+      _argumentNodes = argumentNodes;
+      _convertArguments = convertArguments;
+      Class<?>[] parameterClasses = method.getParameterTypes();
+      int numParameters = parameterClasses.length;
+      _parameterClasses = new Class<?>[numParameters];
+      _parameterTypes = new PinotDataType[numParameters];
+      for (int i = 0; i < numParameters; i++) {
+        _parameterClasses[i] = Primitives.wrap(parameterClasses[i]);
+        _parameterTypes[i] = FunctionUtils.getParameterType(parameterClasses[i]);
+      }
+      _arguments = new Object[numParameters];
+    }
+
+    @Override
+    public Object execute(GenericRow row) {
+      int numArguments = _argumentNodes.length;
+      for (int i = 0; i < numArguments; i++) {
+        _arguments[i] = convertType(i, _argumentNodes[i].execute(row));
+      }
+      return invoke();
+    }
+
+    @Override
+    public Object execute(Object[] values) {
+      int numArguments = _argumentNodes.length;
+      for (int i = 0; i < numArguments; i++) {
+        _arguments[i] = convertType(i, _argumentNodes[i].execute(values));
+      }
+      return invoke();
+    }
+
+    @Override
+    public Class<?> getResultClass() {
+      return Primitives.wrap(_method.getReturnType());
+    }
+
+    private Object convertType(int index, Object argument) {
+      if (!_convertArguments[index] || argument == null) {
+        return argument;
+      }
+      Class<?> parameterClass = _parameterClasses[index];
+      Class<?> argumentClass = argument.getClass();
+      if (parameterClass.isAssignableFrom(argumentClass)) {
+        return argument;
+      }
+      PinotDataType parameterType = _parameterTypes[index];
+      PinotDataType argumentType = FunctionUtils.getArgumentType(argumentClass);
+      Preconditions.checkArgument(parameterType != null && argumentType != null,
+          "Cannot convert value from class: %s to class: %s", argumentClass, parameterClass);
+      return parameterType.convert(argument, argumentType);
+    }
+
+    private Object invoke() {
+      Object[] arguments = _arguments;
+      try {
+        switch (arguments.length) {
+          case 0:
+            return ((Invoker0) _invoker).invoke();
+          case 1:
+            return ((Invoker1) _invoker).invoke(arguments[0]);
+          case 2:
+            return ((Invoker2) _invoker).invoke(arguments[0], arguments[1]);
+          case 3:
+            return ((Invoker3) _invoker).invoke(arguments[0], arguments[1], arguments[2]);
+          case 4:
+            return ((Invoker4) _invoker).invoke(arguments[0], arguments[1], arguments[2], arguments[3]);
+          case 5:
+            return ((Invoker5) _invoker).invoke(arguments[0], arguments[1], arguments[2], arguments[3], arguments[4]);
+          default:
+            throw new IllegalStateException("Unsupported number of arguments: " + arguments.length);
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(
+            "Caught exception while invoking method: " + _method + " with arguments: " + Arrays.toString(arguments), e);
+      }
+    }
+  }
+
+  private static class ConstantExecutionNode implements ExecutableNode {
+    final Object _value;
+
+    ConstantExecutionNode(Object value) {
+      _value = value;
+    }
+
+    @Override
+    public Object execute(GenericRow row) {
+      return _value;
+    }
+
+    @Override
+    public Object execute(Object[] values) {
+      return _value;
+    }
+
+    @Override
+    public Class<?> getResultClass() {
+      return _value.getClass();
+    }
+  }
+
+  private static class ColumnExecutionNode implements ExecutableNode {
+    final String _column;
+    final int _id;
+
+    ColumnExecutionNode(String column, int id) {
+      _column = column;
+      _id = id;
+    }
+
+    @Override
+    public Object execute(GenericRow row) {
+      return row.getValue(_column);
+    }
+
+    @Override
+    public Object execute(Object[] values) {
+      return values[_id];
+    }
+
+    @Override
+    public Class<?> getResultClass() {
+      return Object.class;
+    }
+  }
+}
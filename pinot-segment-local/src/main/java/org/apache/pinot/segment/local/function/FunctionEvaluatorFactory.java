@@ -86,11 +86,20 @@ public class FunctionEvaluatorFactory {
     return functionEvaluator;
   }
 
+  /**
+   * Creates the {@link FunctionEvaluator} for the given transform expression
+   *
+   * 1. For Groovy expression, create {@link GroovyFunctionEvaluator}
+   * 2. Otherwise, compile the expression with {@link CompiledFunctionEvaluator}, and fall back to
+   * {@link InbuiltFunctionEvaluator} if the expression cannot be compiled (e.g. non-public or non-static function)
+   */
   public static FunctionEvaluator getExpressionEvaluator(String transformExpression) {
     if (transformExpression.startsWith(GroovyFunctionEvaluator.getGroovyExpressionPrefix())) {
       return new GroovyFunctionEvaluator(transformExpression);
     } else {
-      return new InbuiltFunctionEvaluator(transformExpression);
+      CompiledFunctionEvaluator compiledFunctionEvaluator = CompiledFunctionEvaluator.compile(transformExpression);
+      return compiledFunctionEvaluator != null ? compiledFunctionEvaluator
+          : new InbuiltFunctionEvaluator(transformExpression);
     }
   }
 
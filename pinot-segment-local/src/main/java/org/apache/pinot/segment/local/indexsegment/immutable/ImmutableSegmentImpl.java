@@ -19,11 +19,17 @@
 package org.apache.pinot.segment.local.indexsegment.immutable;
 
 import com.google.common.base.Preconditions;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
 import org.apache.pinot.segment.local.segment.index.datasource.ImmutableDataSource;
 import org.apache.pinot.segment.local.segment.index.metadata.ColumnMetadata;
@@ -41,12 +47,14 @@ import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
 import org.apache.pinot.segment.spi.index.reader.ValidDocIndexReader;
 import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 import org.apache.pinot.spi.data.readers.GenericRow;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 public class ImmutableSegmentImpl implements ImmutableSegment {
   private static final Logger LOGGER = LoggerFactory.getLogger(ImmutableSegmentImpl.class);
+  public static final String VALID_DOC_IDS_SNAPSHOT_FILE_NAME = "validdocids.bitmap.snapshot";
 
   private final SegmentDirectory _segmentDirectory;
   private final SegmentMetadataImpl _segmentMetadata;
@@ -77,6 +85,90 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
     _validDocIndex = new ValidDocIndexReaderImpl(validDocIds);
   }
 
+  /**
+   * Persists a snapshot of the valid doc ids into the segment directory so that the upsert metadata can be recovered
+   * without scanning the invalid records when the segment is loaded again. It should be called after the consuming
+   * segments of the partition are stopped (i.e. the valid doc ids are no longer modified).
+   * <p>The snapshot starts with the CRC and the total docs of the segment, so that it is not applied to another version
+   * of the segment.
+   */
+  public void persistValidDocIdsSnapshot() {
+    if (_validDocIds == null) {
+      return;
+    }
+    File indexDir = _segmentMetadata.getIndexDir();
+    if (indexDir == null) {
+      return;
+    }
+    File snapshotFile = new File(indexDir, VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    File tmpFile = new File(indexDir, VALID_DOC_IDS_SNAPSHOT_FILE_NAME + ".tmp");
+    try {
+      try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(tmpFile))) {
+        outputStream.writeUTF(String.valueOf(_segmentMetadata.getCrc()));
+        outputStream.writeInt(_segmentMetadata.getTotalDocs());
+        _validDocIds.getMutableRoaringBitmap().serialize(outputStream);
+      }
+      if (!tmpFile.renameTo(snapshotFile)) {
+        throw new IOException("Failed to rename: " + tmpFile + " to: " + snapshotFile);
+      }
+      LOGGER.info("Persisted valid doc ids snapshot for segment: {}", getSegmentName());
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while persisting valid doc ids snapshot for segment: {}, skipping",
+          getSegmentName(), e);
+      tmpFile.delete();
+    }
+  }
+
+  /**
+   * Loads and removes the valid doc ids snapshot persisted by {@link #persistValidDocIdsSnapshot()}, or returns
+   * {@code null} if the snapshot does not exist or cannot be read.
+   * <p>NOTE: The snapshot is removed after loading so that an unclean shutdown falls back to scanning all the records.
+   */
+  @Nullable
+  public MutableRoaringBitmap loadValidDocIdsSnapshot() {
+    File indexDir = _segmentMetadata.getIndexDir();
+    if (indexDir == null) {
+      return null;
+    }
+    File snapshotFile = new File(indexDir, VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    if (!snapshotFile.exists()) {
+      return null;
+    }
+    try (DataInputStream inputStream = new DataInputStream(new FileInputStream(snapshotFile))) {
+      String crc = inputStream.readUTF();
+      int totalDocs = inputStream.readInt();
+      if (!crc.equals(String.valueOf(_segmentMetadata.getCrc())) || totalDocs != _segmentMetadata.getTotalDocs()) {
+        LOGGER.warn("Valid doc ids snapshot for segment: {} was taken on crc: {}, total docs: {}, ignoring it",
+            getSegmentName(), crc, totalDocs);
+        return null;
+      }
+      MutableRoaringBitmap validDocIds = new MutableRoaringBitmap();
+      validDocIds.deserialize(inputStream);
+      if (!validDocIds.isEmpty() && validDocIds.last() >= _segmentMetadata.getTotalDocs()) {
+        LOGGER.warn("Invalid valid doc ids snapshot for segment: {}, ignoring it", getSegmentName());
+        return null;
+      }
+      return validDocIds;
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while loading valid doc ids snapshot for segment: {}, ignoring it",
+          getSegmentName(), e);
+      return null;
+    } finally {
+      snapshotFile.delete();
+    }
+  }
+
+  /**
+   * Removes the valid doc ids snapshot if it exists. It should be called when the snapshot is disabled, so that a
+   * snapshot left behind is not loaded after the valid doc ids have changed without being persisted.
+   */
+  public void deleteValidDocIdsSnapshot() {
+    File indexDir = _segmentMetadata.getIndexDir();
+    if (indexDir != null) {
+      FileUtils.deleteQuietly(new File(indexDir, VALID_DOC_IDS_SNAPSHOT_FILE_NAME));
+    }
+  }
+
   @Override
   public Dictionary getDictionary(String column) {
     ColumnIndexContainer container = _indexContainerMap.get(column);
@@ -33,7 +33,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.segment.local.io.readerwriter.PinotDataBufferMemoryManager;
@@ -51,6 +53,8 @@ import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLucene
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneTextIndexReader;
 import org.apache.pinot.segment.local.realtime.impl.json.MutableJsonIndex;
 import org.apache.pinot.segment.local.realtime.impl.nullvalue.MutableNullValueVector;
+import org.apache.pinot.segment.local.realtime.impl.startree.MutableStarTreeIndex;
+import org.apache.pinot.segment.local.realtime.impl.wal.MutableSegmentWriteAheadLog;
 import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
 import org.apache.pinot.segment.local.segment.index.datasource.ImmutableDataSource;
 import org.apache.pinot.segment.local.segment.index.datasource.MutableDataSource;
@@ -64,6 +68,7 @@ import org.apache.pinot.segment.local.utils.FixedIntArrayOffHeapIdMap;
 import org.apache.pinot.segment.local.utils.GeometrySerializer;
 import org.apache.pinot.segment.local.utils.IdMap;
 import org.apache.pinot.segment.local.utils.IngestionUtils;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.MutableSegment;
 import org.apache.pinot.segment.spi.SegmentMetadata;
 import org.apache.pinot.segment.spi.datasource.DataSource;
@@ -73,10 +78,12 @@ import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
 import org.apache.pinot.segment.spi.index.reader.MutableDictionary;
 import org.apache.pinot.segment.spi.index.reader.MutableForwardIndex;
 import org.apache.pinot.segment.spi.index.reader.ValidDocIndexReader;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
 import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
 import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
 import org.apache.pinot.spi.config.table.SegmentPartitionConfig;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.UpsertConfig;
 import org.apache.pinot.spi.data.DimensionFieldSpec;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -88,6 +95,9 @@ import org.apache.pinot.spi.data.readers.PrimaryKey;
 import org.apache.pinot.spi.stream.RowMetadata;
 import org.apache.pinot.spi.utils.ByteArray;
 import org.apache.pinot.spi.utils.FixedIntArray;
+import org.apache.pinot.spi.utils.JsonUtils;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
 import org.roaringbitmap.IntIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -103,6 +113,7 @@ public class MutableSegmentImpl implements MutableSegment {
   // Maximum number of multi-values per row. We assert on this.
   private static final int MAX_MULTI_VALUES_PER_ROW = 1000;
   private static final String RECORD_ID_MAP = "__recordIdMap__";
+  private static final String STAR_TREE_INDEX_PREFIX = "__starTreeIndex__";
   private static final int EXPECTED_COMPRESSION = 1000;
   private static final int MIN_ROWS_TO_INDEX = 1000_000; // Min size of recordIdMap for updatable metrics.
   private static final int MIN_RECORD_ID_MAP_CACHE_SIZE = 10000; // Min overflow map size for updatable metrics.
@@ -132,6 +143,8 @@ public class MutableSegmentImpl implements MutableSegment {
   private final IdMap<FixedIntArray> _recordIdMap;
   private boolean _aggregateMetrics;
 
+  private final List<MutableStarTreeIndex> _starTreeIndexes;
+
   private volatile int _numDocsIndexed = 0;
   private final int _numKeyColumns;
 
@@ -163,6 +176,10 @@ public class MutableSegmentImpl implements MutableSegment {
   private final ThreadSafeMutableRoaringBitmap _validDocIds;
   private final ValidDocIndexReader _validDocIndex;
 
+  // Write-ahead log of the indexed records to recover the segment after server restart, null if not enabled
+  private final File _writeAheadLogDir;
+  private final MutableSegmentWriteAheadLog _writeAheadLog;
+
   public MutableSegmentImpl(RealtimeSegmentConfig config, @Nullable ServerMetrics serverMetrics) {
     _serverMetrics = serverMetrics;
     _tableNameWithType = config.getTableNameWithType();
@@ -375,6 +392,26 @@ public class MutableSegmentImpl implements MutableSegment {
       _validDocIds = null;
       _validDocIndex = null;
     }
+
+    _starTreeIndexes = createStarTreeIndexes(config.getStarTreeIndexConfigs());
+
+    if (config.isWriteAheadLogEnabled() && config.getConsumerDir() != null) {
+      _writeAheadLogDir = new File(config.getConsumerDir(), MutableSegmentWriteAheadLog.WRITE_AHEAD_LOG_DIR_NAME);
+      _writeAheadLog = openWriteAheadLog(_writeAheadLogDir);
+    } else {
+      _writeAheadLogDir = null;
+      _writeAheadLog = null;
+    }
+  }
+
+  @Nullable
+  private MutableSegmentWriteAheadLog openWriteAheadLog(File writeAheadLogDir) {
+    try {
+      return new MutableSegmentWriteAheadLog(writeAheadLogDir, _segmentName, _schema);
+    } catch (Exception e) {
+      _logger.error("Failed to open the write-ahead log, continuing without it", e);
+      return null;
+    }
   }
 
   /**
@@ -459,11 +496,20 @@ public class MutableSegmentImpl implements MutableSegment {
     _logger.info("Newly added columns: " + _newlyAddedColumnsFieldMap.toString());
   }
 
-  // NOTE: Okay for single-writer
-  @SuppressWarnings("NonAtomicOperationOnVolatileField")
   @Override
   public boolean index(GenericRow row, @Nullable RowMetadata rowMetadata)
       throws IOException {
+    // Log the record before indexing it, so that a record is never queryable without being logged
+    if (_writeAheadLog != null) {
+      _writeAheadLog.append(row, rowMetadata);
+    }
+    return indexRow(row, rowMetadata);
+  }
+
+  // NOTE: Okay for single-writer
+  @SuppressWarnings("NonAtomicOperationOnVolatileField")
+  private boolean indexRow(GenericRow row, @Nullable RowMetadata rowMetadata)
+      throws IOException {
     // Update dictionary first
     updateDictionary(row);
 
@@ -475,6 +521,7 @@ public class MutableSegmentImpl implements MutableSegment {
     if (docId == _numDocsIndexed) {
       // New row
       addNewRow(row);
+      addToStarTreeIndexes(docId, row);
       // Update number of documents indexed at last to make the latest row queryable
       canTakeMore = _numDocsIndexed++ < _capacity;
 
@@ -485,6 +532,7 @@ public class MutableSegmentImpl implements MutableSegment {
       Preconditions.checkArgument(!isUpsertEnabled(), "metrics aggregation cannot be used with upsert");
       assert _aggregateMetrics;
       aggregateMetrics(row, docId);
+      addToStarTreeIndexes(docId, row);
       canTakeMore = true;
     }
 
@@ -497,6 +545,344 @@ public class MutableSegmentImpl implements MutableSegment {
     return canTakeMore;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>The values of all the records are validated and converted before changing any index, so that an invalid record
+   * is skipped without leaving partial updates behind. The valid records are then indexed column by column: the values
+   * of each column are added into the dictionary and written into the forward index and inverted index in bulk, and
+   * the whole batch becomes queryable at once. When metrics aggregation or upsert is enabled, the valid records are
+   * indexed one by one because both of them need the doc id of each record before indexing the next one.
+   */
+  // NOTE: Okay for single-writer
+  @SuppressWarnings("NonAtomicOperationOnVolatileField")
+  @Override
+  public boolean index(List<GenericRow> rows, @Nullable RowMetadata rowMetadata,
+      BiConsumer<GenericRow, Exception> invalidRowHandler)
+      throws IOException {
+    int numColumns = _indexContainerMap.size();
+    String[] columns = new String[numColumns];
+    IndexContainer[] indexContainers = new IndexContainer[numColumns];
+    int columnIndex = 0;
+    for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
+      columns[columnIndex] = entry.getKey();
+      indexContainers[columnIndex] = entry.getValue();
+      columnIndex++;
+    }
+
+    // Validate and convert the values of all the records before changing any index
+    int numRows = rows.size();
+    List<GenericRow> validRows = new ArrayList<>(numRows);
+    List<Object[]> convertedValues = new ArrayList<>(numRows);
+    for (GenericRow row : rows) {
+      Object[] rowConvertedValues = new Object[numColumns];
+      try {
+        for (int i = 0; i < numColumns; i++) {
+          rowConvertedValues[i] = validateAndConvert(columns[i], indexContainers[i], row.getValue(columns[i]));
+        }
+      } catch (Exception e) {
+        invalidRowHandler.accept(row, e);
+        continue;
+      }
+      validRows.add(row);
+      convertedValues.add(rowConvertedValues);
+    }
+
+    int numValidRows = validRows.size();
+    if (numValidRows == 0) {
+      return _numDocsIndexed <= _capacity;
+    }
+    if (_aggregateMetrics || isUpsertEnabled()) {
+      boolean canTakeMore = true;
+      for (GenericRow row : validRows) {
+        // Failing to log the record fails the whole batch, but failing to index the record only skips it the same way
+        // as indexing the records one by one
+        if (_writeAheadLog != null) {
+          _writeAheadLog.append(row, rowMetadata);
+        }
+        try {
+          canTakeMore = indexRow(row, rowMetadata);
+        } catch (Exception e) {
+          invalidRowHandler.accept(row, e);
+        }
+      }
+      return canTakeMore;
+    }
+
+    // Log the records before indexing them, so that a record is never queryable without being logged
+    if (_writeAheadLog != null) {
+      for (GenericRow row : validRows) {
+        _writeAheadLog.append(row, rowMetadata);
+      }
+    }
+
+    int startDocId = _numDocsIndexed;
+    Object[] values = new Object[numValidRows];
+    Object[] columnConvertedValues = new Object[numValidRows];
+    for (int i = 0; i < numColumns; i++) {
+      String column = columns[i];
+      IndexContainer indexContainer = indexContainers[i];
+      for (int j = 0; j < numValidRows; j++) {
+        values[j] = validRows.get(j).getValue(column);
+        columnConvertedValues[j] = convertedValues.get(j)[i];
+      }
+      if (indexContainer._fieldSpec.isSingleValueField()) {
+        addSVColumnValues(column, indexContainer, startDocId, values, columnConvertedValues);
+      } else {
+        addMVColumnValues(indexContainer, startDocId, values);
+      }
+
+      // Update null value vector
+      if (_nullHandlingEnabled) {
+        for (int j = 0; j < numValidRows; j++) {
+          if (validRows.get(j).isNullValue(column)) {
+            indexContainer._nullValueVector.setNull(startDocId + j);
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < numValidRows; i++) {
+      addToStarTreeIndexes(startDocId + i, validRows.get(i));
+    }
+
+    // Update number of documents indexed at last to make the whole batch queryable
+    int lastDocId = startDocId + numValidRows - 1;
+    _numDocsIndexed = lastDocId + 1;
+
+    // Update last indexed time and latest ingestion time
+    _lastIndexedTimeMs = System.currentTimeMillis();
+    if (rowMetadata != null) {
+      _latestIngestionTimeMs = Math.max(_latestIngestionTimeMs, rowMetadata.getIngestionTimeMs());
+    }
+
+    // Same as indexing the records one by one, where the segment can take more records if the last record is indexed
+    // within the capacity
+    return lastDocId < _capacity;
+  }
+
+  /**
+   * Re-indexes the records from the write-ahead log up to its last checkpoint, and returns the stream offset recorded
+   * in the checkpoint to resume the consumption from, or {@code null} if there is nothing to recover. Should be called
+   * before indexing any record.
+   */
+  @Nullable
+  public String recoverFromWriteAheadLog()
+      throws IOException {
+    if (_writeAheadLog == null || _writeAheadLog.getRecoveredOffset() == null) {
+      return null;
+    }
+    Preconditions.checkState(_numDocsIndexed == 0, "Cannot recover segment: %s with records indexed", _segmentName);
+    long startTimeMs = System.currentTimeMillis();
+    int numRecords = _writeAheadLog.replay((row, rowMetadata) -> {
+      try {
+        indexRow(row, rowMetadata);
+      } catch (Exception e) {
+        _logger.error("Caught exception while recovering the record: {}", row, e);
+      }
+    });
+    String offset = _writeAheadLog.getRecoveredOffset();
+    _logger.info("Recovered {} records ({} docs) from the write-ahead log in {}ms, offset: {}", numRecords,
+        _numDocsIndexed, System.currentTimeMillis() - startTimeMs, offset);
+    return offset;
+  }
+
+  /**
+   * Makes the records indexed so far durable in the write-ahead log, together with the stream offset to resume the
+   * consumption from. No-op if the write-ahead log is not enabled.
+   */
+  public void checkpoint(String offset)
+      throws IOException {
+    if (_writeAheadLog != null) {
+      _writeAheadLog.checkpoint(offset);
+    }
+  }
+
+  /**
+   * Deletes the write-ahead log once the segment no longer needs to be recovered (e.g. it has been committed or
+   * replaced). Should be called after the segment is destroyed.
+   */
+  public void deleteWriteAheadLog() {
+    if (_writeAheadLogDir != null) {
+      MutableSegmentWriteAheadLog.delete(_writeAheadLogDir, _segmentName);
+    }
+  }
+
+  private void addSVColumnValues(String column, IndexContainer indexContainer, int startDocId, Object[] values,
+      Object[] convertedValues) {
+    int numValues = values.length;
+
+    // Check partitions
+    if (column.equals(_partitionColumn)) {
+      for (Object value : values) {
+        checkPartition(column, indexContainer, value);
+      }
+    }
+
+    // Update numValues info
+    indexContainer._numValuesInfo.updateSVEntries(numValues);
+
+    // Update indexes
+    MutableForwardIndex forwardIndex = indexContainer._forwardIndex;
+    MutableDictionary dictionary = indexContainer._dictionary;
+    if (dictionary != null) {
+      // Dictionary-encoded single-value column
+
+      // Update dictionary and min/max value from dictionary
+      int[] dictIds = dictionary.index(values);
+      indexContainer._minValue = dictionary.getMinVal();
+      indexContainer._maxValue = dictionary.getMaxVal();
+
+      // Update forward index
+      forwardIndex.setDictIds(startDocId, dictIds, numValues);
+
+      // Update inverted index
+      RealtimeInvertedIndexReader invertedIndex = indexContainer._invertedIndex;
+      if (invertedIndex != null) {
+        invertedIndex.add(dictIds, startDocId, numValues);
+      }
+    } else {
+      // Single-value column with raw index
+
+      // Update forward index
+      DataType dataType = indexContainer._fieldSpec.getDataType();
+      switch (dataType) {
+        case INT:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setInt(startDocId + i, (Integer) values[i]);
+          }
+          break;
+        case LONG:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setLong(startDocId + i, (Long) values[i]);
+          }
+          break;
+        case FLOAT:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setFloat(startDocId + i, (Float) values[i]);
+          }
+          break;
+        case DOUBLE:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setDouble(startDocId + i, (Double) values[i]);
+          }
+          break;
+        case STRING:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setString(startDocId + i, (String) values[i]);
+          }
+          break;
+        case BYTES:
+          for (int i = 0; i < numValues; i++) {
+            forwardIndex.setBytes(startDocId + i, (byte[]) values[i]);
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              "Unsupported data type: " + dataType + " for no-dictionary column: " + column);
+      }
+
+      // Update min/max value from raw value
+      for (Object value : values) {
+        updateMinMaxValue(indexContainer, dataType, value);
+      }
+    }
+
+    // Update text, json and H3 index
+    if (indexContainer._textIndex != null || indexContainer._jsonIndex != null || indexContainer._h3Index != null) {
+      for (int i = 0; i < numValues; i++) {
+        addConvertedValueToValueBasedIndexes(indexContainer, values[i], convertedValues[i]);
+      }
+    }
+  }
+
+  private void addMVColumnValues(IndexContainer indexContainer, int startDocId, Object[] values) {
+    // Multi-value column (always dictionary-encoded)
+    MutableDictionary dictionary = indexContainer._dictionary;
+    MutableForwardIndex forwardIndex = indexContainer._forwardIndex;
+    RealtimeInvertedIndexReader invertedIndex = indexContainer._invertedIndex;
+    int numValues = values.length;
+    for (int i = 0; i < numValues; i++) {
+      int docId = startDocId + i;
+      int[] dictIds = dictionary.index((Object[]) values[i]);
+
+      // Update numValues info
+      indexContainer._numValuesInfo.updateMVEntry(dictIds.length);
+
+      // Update forward index
+      forwardIndex.setDictIdMV(docId, dictIds);
+
+      // Update inverted index
+      if (invertedIndex != null) {
+        for (int dictId : dictIds) {
+          invertedIndex.add(dictId, docId);
+        }
+      }
+    }
+
+    // Update min/max value from dictionary
+    indexContainer._minValue = dictionary.getMinVal();
+    indexContainer._maxValue = dictionary.getMaxVal();
+  }
+
+  /**
+   * Validates the value of the column without changing any index, and returns the value converted for the json index
+   * (flattened records) or the H3 index (geometry), or {@code null} if the column has neither of them.
+   */
+  @Nullable
+  private static Object validateAndConvert(String column, IndexContainer indexContainer, Object value)
+      throws IOException {
+    FieldSpec fieldSpec = indexContainer._fieldSpec;
+    // NOTE: Raw index is written based on the data type instead of the stored type
+    DataType dataType =
+        indexContainer._dictionary != null ? fieldSpec.getDataType().getStoredType() : fieldSpec.getDataType();
+    if (fieldSpec.isSingleValueField()) {
+      checkValueType(column, dataType, value);
+      if (indexContainer._jsonIndex != null) {
+        return JsonUtils.flatten(JsonUtils.stringToJsonNode((String) value));
+      }
+      if (indexContainer._h3Index != null) {
+        Geometry geometry = GeometrySerializer.deserialize((byte[]) value);
+        Preconditions.checkArgument(geometry instanceof Point, "H3 index can only be applied to Point, got: %s",
+            geometry.getGeometryType());
+        return geometry;
+      }
+    } else {
+      Preconditions.checkArgument(value instanceof Object[], "Invalid value: %s for multi-value column: %s", value,
+          column);
+      for (Object singleValue : (Object[]) value) {
+        checkValueType(column, dataType, singleValue);
+      }
+    }
+    return null;
+  }
+
+  private static void checkValueType(String column, DataType dataType, Object value) {
+    boolean isValid;
+    switch (dataType) {
+      case INT:
+        isValid = value instanceof Integer;
+        break;
+      case LONG:
+        isValid = value instanceof Long;
+        break;
+      case FLOAT:
+        isValid = value instanceof Float;
+        break;
+      case DOUBLE:
+        isValid = value instanceof Double;
+        break;
+      case STRING:
+        isValid = value instanceof String;
+        break;
+      case BYTES:
+        isValid = value instanceof byte[];
+        break;
+      default:
+        throw new UnsupportedOperationException("Unsupported data type: " + dataType + " for column: " + column);
+    }
+    Preconditions.checkArgument(isValid, "Invalid value: %s for column: %s of data type: %s", value, column, dataType);
+  }
+
   private boolean isUpsertEnabled() {
     return _upsertMode != UpsertConfig.Mode.NONE;
   }
@@ -544,13 +930,7 @@ public class MutableSegmentImpl implements MutableSegment {
 
         // Check partitions
         if (column.equals(_partitionColumn)) {
-          int partition = _partitionFunction.getPartition(value);
-          if (indexContainer._partitions.add(partition)) {
-            _logger.warn("Found new partition: {} from partition column: {}, value: {}", partition, column, value);
-            if (_serverMetrics != null) {
-              _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.REALTIME_PARTITION_MISMATCH, 1);
-            }
-          }
+          checkPartition(column, indexContainer, value);
         }
 
         // Update numValues info
@@ -602,43 +982,12 @@ public class MutableSegmentImpl implements MutableSegment {
           // Update min/max value from raw value
           // NOTE: Skip updating min/max value for aggregated metrics because the value will change over time.
           if (!_aggregateMetrics || fieldSpec.getFieldType() != FieldSpec.FieldType.METRIC) {
-            Comparable comparable;
-            if (dataType == BYTES) {
-              comparable = new ByteArray((byte[]) value);
-            } else {
-              comparable = (Comparable) value;
-            }
-            if (indexContainer._minValue == null) {
-              indexContainer._minValue = comparable;
-              indexContainer._maxValue = comparable;
-            } else {
-              if (comparable.compareTo(indexContainer._minValue) < 0) {
-                indexContainer._minValue = comparable;
-              }
-              if (comparable.compareTo(indexContainer._maxValue) > 0) {
-                indexContainer._maxValue = comparable;
-              }
-            }
+            updateMinMaxValue(indexContainer, dataType, value);
           }
         }
 
-        // Update text index
-        RealtimeLuceneTextIndexReader textIndex = indexContainer._textIndex;
-        if (textIndex != null) {
-          textIndex.add((String) value);
-        }
-
-        // Update json index
-        MutableJsonIndex jsonIndex = indexContainer._jsonIndex;
-        if (jsonIndex != null) {
-          jsonIndex.add((String) value);
-        }
-
-        // Update H3 index
-        MutableH3Index h3Index = indexContainer._h3Index;
-        if (h3Index != null) {
-          h3Index.add(GeometrySerializer.deserialize((byte[]) value));
-        }
+        // Update text, json and H3 index
+        addToValueBasedIndexes(indexContainer, value);
       } else {
         // Multi-value column (always dictionary-encoded)
 
@@ -666,6 +1015,82 @@ public class MutableSegmentImpl implements MutableSegment {
     }
   }
 
+  private void checkPartition(String column, IndexContainer indexContainer, Object value) {
+    int partition = _partitionFunction.getPartition(value);
+    if (indexContainer._partitions.add(partition)) {
+      _logger.warn("Found new partition: {} from partition column: {}, value: {}", partition, column, value);
+      if (_serverMetrics != null) {
+        _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.REALTIME_PARTITION_MISMATCH, 1);
+      }
+    }
+  }
+
+  private static void updateMinMaxValue(IndexContainer indexContainer, DataType dataType, Object value) {
+    Comparable comparable;
+    if (dataType == BYTES) {
+      comparable = new ByteArray((byte[]) value);
+    } else {
+      comparable = (Comparable) value;
+    }
+    if (indexContainer._minValue == null) {
+      indexContainer._minValue = comparable;
+      indexContainer._maxValue = comparable;
+    } else {
+      if (comparable.compareTo(indexContainer._minValue) < 0) {
+        indexContainer._minValue = comparable;
+      }
+      if (comparable.compareTo(indexContainer._maxValue) > 0) {
+        indexContainer._maxValue = comparable;
+      }
+    }
+  }
+
+  private static void addToValueBasedIndexes(IndexContainer indexContainer, Object value) {
+    // Update text index
+    RealtimeLuceneTextIndexReader textIndex = indexContainer._textIndex;
+    if (textIndex != null) {
+      textIndex.add((String) value);
+    }
+
+    // Update json index
+    MutableJsonIndex jsonIndex = indexContainer._jsonIndex;
+    if (jsonIndex != null) {
+      jsonIndex.add((String) value);
+    }
+
+    // Update H3 index
+    MutableH3Index h3Index = indexContainer._h3Index;
+    if (h3Index != null) {
+      h3Index.add(GeometrySerializer.deserialize((byte[]) value));
+    }
+  }
+
+  /**
+   * Same as {@link #addToValueBasedIndexes(IndexContainer, Object)}, but with the json and H3 values already converted
+   * by {@link #validateAndConvert(String, IndexContainer, Object)}.
+   */
+  @SuppressWarnings("unchecked")
+  private static void addConvertedValueToValueBasedIndexes(IndexContainer indexContainer, Object value,
+      @Nullable Object convertedValue) {
+    // Update text index
+    RealtimeLuceneTextIndexReader textIndex = indexContainer._textIndex;
+    if (textIndex != null) {
+      textIndex.add((String) value);
+    }
+
+    // Update json index
+    MutableJsonIndex jsonIndex = indexContainer._jsonIndex;
+    if (jsonIndex != null) {
+      jsonIndex.add((List<Map<String, String>>) convertedValue);
+    }
+
+    // Update H3 index
+    MutableH3Index h3Index = indexContainer._h3Index;
+    if (h3Index != null) {
+      h3Index.add((Geometry) convertedValue);
+    }
+  }
+
   private void aggregateMetrics(GenericRow row, int docId) {
     for (MetricFieldSpec metricFieldSpec : _physicalMetricFieldSpecs) {
       String column = metricFieldSpec.getName();
@@ -747,7 +1172,17 @@ public class MutableSegmentImpl implements MutableSegment {
 
   @Override
   public List<StarTreeV2> getStarTrees() {
-    return null;
+    if (_starTreeIndexes.isEmpty()) {
+      return null;
+    }
+    List<StarTreeV2> starTrees = new ArrayList<>(_starTreeIndexes.size());
+    for (MutableStarTreeIndex starTreeIndex : _starTreeIndexes) {
+      StarTreeV2 starTree = starTreeIndex.getStarTree();
+      if (starTree != null) {
+        starTrees.add(starTree);
+      }
+    }
+    return starTrees.isEmpty() ? null : starTrees;
   }
 
   @Nullable
@@ -876,6 +1311,22 @@ public class MutableSegmentImpl implements MutableSegment {
       }
     }
 
+    for (MutableStarTreeIndex starTreeIndex : _starTreeIndexes) {
+      try {
+        starTreeIndex.close();
+      } catch (IOException e) {
+        _logger.error("Failed to close the star-tree index. Continuing with error.", e);
+      }
+    }
+
+    if (_writeAheadLog != null) {
+      try {
+        _writeAheadLog.close();
+      } catch (IOException e) {
+        _logger.error("Failed to close the write-ahead log. Continuing with error.", e);
+      }
+    }
+
     _segmentMetadata.close();
 
     // NOTE: Close the memory manager as the last step. It will release all the PinotDataBuffers allocated.
@@ -1049,6 +1500,95 @@ public class MutableSegmentImpl implements MutableSegment {
         RECORD_ID_MAP);
   }
 
+  /**
+   * Helper method to create the star-tree indexes maintained on the mutable segment, based on the star-tree index
+   * configs of the table. A star-tree index is created only if:
+   * <ul>
+   *   <li>Upsert is not enabled, because the star-tree cannot exclude the invalidated records</li>
+   *   <li>All the dimensions in the split order are single-valued and dictionary-encoded</li>
+   *   <li>At least one of the function-column pairs is supported (see {@link MutableStarTreeIndex#isSupported}) and
+   *       aggregates a single-valued numeric column. Unsupported function-column pairs are skipped, and queries on
+   *       them are solved without star-tree.</li>
+   * </ul>
+   *
+   * @param starTreeIndexConfigs Star-tree index configs of the table
+   * @return List of star-tree indexes
+   */
+  private List<MutableStarTreeIndex> createStarTreeIndexes(@Nullable List<StarTreeIndexConfig> starTreeIndexConfigs) {
+    if (CollectionUtils.isEmpty(starTreeIndexConfigs)) {
+      return Collections.emptyList();
+    }
+    if (isUpsertEnabled()) {
+      _logger.warn("Star-tree index cannot be created on mutable segment with upsert enabled");
+      return Collections.emptyList();
+    }
+
+    List<MutableStarTreeIndex> starTreeIndexes = new ArrayList<>(starTreeIndexConfigs.size());
+    for (int i = 0; i < starTreeIndexConfigs.size(); i++) {
+      StarTreeIndexConfig starTreeIndexConfig = starTreeIndexConfigs.get(i);
+      List<String> dimensionsSplitOrder = starTreeIndexConfig.getDimensionsSplitOrder();
+      List<DataSource> dimensionDataSources = new ArrayList<>(dimensionsSplitOrder.size());
+      for (String dimension : dimensionsSplitOrder) {
+        IndexContainer indexContainer = _indexContainerMap.get(dimension);
+        if (indexContainer == null || !indexContainer._fieldSpec.isSingleValueField()
+            || indexContainer._dictionary == null) {
+          _logger.warn("Skipping star-tree index: {} because dimension: {} is not single-valued and dictionary-encoded",
+              i, dimension);
+          dimensionDataSources = null;
+          break;
+        }
+        dimensionDataSources.add(indexContainer.toDataSource());
+      }
+      if (dimensionDataSources == null) {
+        continue;
+      }
+
+      List<AggregationFunctionColumnPair> functionColumnPairs = new ArrayList<>();
+      for (String functionColumnPairName : starTreeIndexConfig.getFunctionColumnPairs()) {
+        AggregationFunctionColumnPair functionColumnPair =
+            AggregationFunctionColumnPair.fromColumnName(functionColumnPairName);
+        if (!MutableStarTreeIndex.isSupported(functionColumnPair)) {
+          _logger.warn("Skipping unsupported function-column pair: {} for star-tree index: {}", functionColumnPairName,
+              i);
+          continue;
+        }
+        if (functionColumnPair.getFunctionType() != AggregationFunctionType.COUNT) {
+          IndexContainer indexContainer = _indexContainerMap.get(functionColumnPair.getColumn());
+          if (indexContainer == null || !indexContainer._fieldSpec.isSingleValueField() || !indexContainer._fieldSpec
+              .getDataType().isNumeric()) {
+            _logger.warn("Skipping function-column pair: {} for star-tree index: {} because column is not "
+                + "single-valued and numeric", functionColumnPairName, i);
+            continue;
+          }
+        }
+        functionColumnPairs.add(functionColumnPair);
+      }
+      if (functionColumnPairs.isEmpty()) {
+        _logger.warn("Skipping star-tree index: {} because none of the function-column pairs is supported", i);
+        continue;
+      }
+
+      List<String> skipStarNodeCreationForDimensions = starTreeIndexConfig.getSkipStarNodeCreationForDimensions();
+      Set<String> skipStarNodeCreationForDimensionSet =
+          skipStarNodeCreationForDimensions != null ? new HashSet<>(skipStarNodeCreationForDimensions)
+              : Collections.emptySet();
+      int estimatedNumRecords = Math.max(_capacity / EXPECTED_COMPRESSION, MIN_RECORD_ID_MAP_CACHE_SIZE);
+      starTreeIndexes.add(
+          new MutableStarTreeIndex(dimensionsSplitOrder, dimensionDataSources, functionColumnPairs,
+              starTreeIndexConfig.getMaxLeafRecords(), skipStarNodeCreationForDimensionSet, estimatedNumRecords,
+              _memoryManager, buildAllocationContext(_segmentName, STAR_TREE_INDEX_PREFIX + i, "")));
+      _logger.info("Created star-tree index: {} with dimensions: {}, function-column pairs: {}", i,
+          dimensionsSplitOrder, functionColumnPairs);
+    }
+    return starTreeIndexes;
+  }
+
+  private void addToStarTreeIndexes(int docId, GenericRow row) {
+    for (MutableStarTreeIndex starTreeIndex : _starTreeIndexes) {
+      starTreeIndex.index(docId, row);
+    }
+  }
+
   // NOTE: Okay for single-writer
   @SuppressWarnings("NonAtomicOperationOnVolatileField")
   private static class NumValuesInfo {
@@ -1059,6 +1599,10 @@ public class MutableSegmentImpl implements MutableSegment {
       _numValues++;
     }
 
+    void updateSVEntries(int numEntries) {
+      _numValues += numEntries;
+    }
+
     void updateMVEntry(int numValuesInMVEntry) {
       _numValues += numValuesInMVEntry;
       _maxNumValuesPerMVEntry = Math.max(_maxNumValuesPerMVEntry, numValuesInMVEntry);
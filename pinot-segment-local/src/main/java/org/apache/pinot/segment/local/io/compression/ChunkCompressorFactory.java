@@ -48,6 +48,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyCompressor();
 
+      case ZSTANDARD:
+        return new ZstandardCompressor();
+
+      case LZ4:
+        return new LZ4Compressor();
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -67,6 +73,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyDecompressor();
 
+      case ZSTANDARD:
+        return new ZstandardDecompressor();
+
+      case LZ4:
+        return new LZ4Decompressor();
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
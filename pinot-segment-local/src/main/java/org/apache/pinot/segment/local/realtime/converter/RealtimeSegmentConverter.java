@@ -23,9 +23,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.metrics.ServerGauge;
 import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.metrics.ServerTimer;
 import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
 import org.apache.pinot.segment.local.realtime.converter.stats.RealtimeSegmentSegmentCreationDataSource;
 import org.apache.pinot.segment.local.recordtransformer.CompositeTransformer;
@@ -79,6 +82,21 @@ public class RealtimeSegmentConverter {
 
   public void build(@Nullable SegmentVersion segmentVersion, ServerMetrics serverMetrics)
       throws Exception {
+    build(segmentVersion, serverMetrics, null);
+  }
+
+  /**
+   * Builds the immutable segment from the realtime segment. When an executor is provided, the segment is built column
+   * by column, where the columns are indexed in parallel with the executor; otherwise the segment is built row by row.
+   *
+   * @param segmentVersion Version of the immutable segment
+   * @param serverMetrics Server metrics to report the build time of each phase
+   * @param executorService Executor (usually shared by all the segment builds on the server) to index the columns in
+   *                        parallel, or null to build the segment on the calling thread only
+   */
+  public void build(@Nullable SegmentVersion segmentVersion, ServerMetrics serverMetrics,
+      @Nullable ExecutorService executorService)
+      throws Exception {
     // lets create a record reader
     RealtimeSegmentRecordReader reader = new RealtimeSegmentRecordReader(_realtimeSegmentImpl, _sortedColumn);
     SegmentGeneratorConfig genConfig = new SegmentGeneratorConfig(_tableConfig, _dataSchema);
@@ -124,7 +142,24 @@ public class RealtimeSegmentConverter {
     RealtimeSegmentSegmentCreationDataSource dataSource =
         new RealtimeSegmentSegmentCreationDataSource(_realtimeSegmentImpl, reader, _dataSchema);
     driver.init(genConfig, dataSource, CompositeTransformer.getPassThroughTransformer());
-    driver.build();
+    if (executorService != null) {
+      driver.buildByColumn(_realtimeSegmentImpl, reader.getSortedDocIdIterationOrder(), executorService);
+    } else {
+      driver.build();
+    }
+
+    if (serverMetrics != null) {
+      serverMetrics.addTimedTableValue(_tableName, ServerTimer.REALTIME_SEGMENT_BUILD_STATS_COLLECTION_TIME_MS,
+          driver.getStatsCollectionTimeMs(), TimeUnit.MILLISECONDS);
+      serverMetrics.addTimedTableValue(_tableName, ServerTimer.REALTIME_SEGMENT_BUILD_INDEX_CREATOR_INIT_TIME_MS,
+          driver.getIndexCreatorInitTimeMs(), TimeUnit.MILLISECONDS);
+      serverMetrics.addTimedTableValue(_tableName, ServerTimer.REALTIME_SEGMENT_BUILD_INDEXING_TIME_MS,
+          driver.getIndexingTimeMs(), TimeUnit.MILLISECONDS);
+      serverMetrics.addTimedTableValue(_tableName, ServerTimer.REALTIME_SEGMENT_BUILD_SEAL_TIME_MS,
+          driver.getSealTimeMs(), TimeUnit.MILLISECONDS);
+      serverMetrics.addTimedTableValue(_tableName, ServerTimer.REALTIME_SEGMENT_BUILD_STAR_TREE_CREATION_TIME_MS,
+          driver.getStarTreeCreationTimeMs(), TimeUnit.MILLISECONDS);
+    }
 
     if (segmentPartitionConfig != null) {
       Map<String, ColumnPartitionConfig> columnPartitionMap = segmentPartitionConfig.getColumnPartitionMap();
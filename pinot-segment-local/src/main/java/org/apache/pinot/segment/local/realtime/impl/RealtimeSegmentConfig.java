@@ -18,8 +18,10 @@
  */
 package org.apache.pinot.segment.local.realtime.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
@@ -28,6 +30,7 @@ import org.apache.pinot.segment.local.io.readerwriter.PinotDataBufferMemoryManag
 import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
 import org.apache.pinot.segment.spi.index.creator.H3IndexConfig;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.UpsertConfig;
 import org.apache.pinot.spi.data.Schema;
 
@@ -47,6 +50,7 @@ public class RealtimeSegmentConfig {
   private final Set<String> _fstIndexColumns;
   private final Set<String> _jsonIndexColumns;
   private final Map<String, H3IndexConfig> _h3IndexConfigs;
+  private final List<StarTreeIndexConfig> _starTreeIndexConfigs;
   private final RealtimeSegmentZKMetadata _realtimeSegmentZKMetadata;
   private final boolean _offHeap;
   private final PinotDataBufferMemoryManager _memoryManager;
@@ -59,16 +63,18 @@ public class RealtimeSegmentConfig {
   private final UpsertConfig.Mode _upsertMode;
   private final PartitionUpsertMetadataManager _partitionUpsertMetadataManager;
   private final String _consumerDir;
+  private final boolean _writeAheadLogEnabled;
 
   // TODO: Clean up this constructor. Most of these things can be extracted from tableConfig.
   private RealtimeSegmentConfig(String tableNameWithType, String segmentName, String streamName, Schema schema,
       String timeColumnName, int capacity, int avgNumMultiValues, Set<String> noDictionaryColumns,
       Set<String> varLengthDictionaryColumns, Set<String> invertedIndexColumns, Set<String> textIndexColumns,
       Set<String> fstIndexColumns, Set<String> jsonIndexColumns, Map<String, H3IndexConfig> h3IndexConfigs,
-      RealtimeSegmentZKMetadata realtimeSegmentZKMetadata, boolean offHeap, PinotDataBufferMemoryManager memoryManager,
-      RealtimeSegmentStatsHistory statsHistory, String partitionColumn, PartitionFunction partitionFunction,
-      int partitionId, boolean aggregateMetrics, boolean nullHandlingEnabled, String consumerDir,
-      UpsertConfig.Mode upsertMode, PartitionUpsertMetadataManager partitionUpsertMetadataManager) {
+      List<StarTreeIndexConfig> starTreeIndexConfigs, RealtimeSegmentZKMetadata realtimeSegmentZKMetadata,
+      boolean offHeap, PinotDataBufferMemoryManager memoryManager, RealtimeSegmentStatsHistory statsHistory,
+      String partitionColumn, PartitionFunction partitionFunction, int partitionId, boolean aggregateMetrics,
+      boolean nullHandlingEnabled, String consumerDir, UpsertConfig.Mode upsertMode,
+      PartitionUpsertMetadataManager partitionUpsertMetadataManager, boolean writeAheadLogEnabled) {
     _tableNameWithType = tableNameWithType;
     _segmentName = segmentName;
     _streamName = streamName;
@@ -83,6 +89,7 @@ public class RealtimeSegmentConfig {
     _fstIndexColumns = fstIndexColumns;
     _jsonIndexColumns = jsonIndexColumns;
     _h3IndexConfigs = h3IndexConfigs;
+    _starTreeIndexConfigs = starTreeIndexConfigs;
     _realtimeSegmentZKMetadata = realtimeSegmentZKMetadata;
     _offHeap = offHeap;
     _memoryManager = memoryManager;
@@ -95,6 +102,7 @@ public class RealtimeSegmentConfig {
     _consumerDir = consumerDir;
     _upsertMode = upsertMode != null ? upsertMode : UpsertConfig.Mode.NONE;
     _partitionUpsertMetadataManager = partitionUpsertMetadataManager;
+    _writeAheadLogEnabled = writeAheadLogEnabled;
   }
 
   public String getTableNameWithType() {
@@ -158,6 +166,10 @@ public class RealtimeSegmentConfig {
     return _h3IndexConfigs;
   }
 
+  public List<StarTreeIndexConfig> getStarTreeIndexConfigs() {
+    return _starTreeIndexConfigs;
+  }
+
   public RealtimeSegmentZKMetadata getRealtimeSegmentZKMetadata() {
     return _realtimeSegmentZKMetadata;
   }
@@ -206,6 +218,10 @@ public class RealtimeSegmentConfig {
     return _partitionUpsertMetadataManager;
   }
 
+  public boolean isWriteAheadLogEnabled() {
+    return _writeAheadLogEnabled;
+  }
+
   public static class Builder {
     private String _tableNameWithType;
     private String _segmentName;
@@ -221,6 +237,7 @@ public class RealtimeSegmentConfig {
     private Set<String> _fstIndexColumns = new HashSet<>();
     private Set<String> _jsonIndexColumns = new HashSet<>();
     private Map<String, H3IndexConfig> _h3IndexConfigs = new HashMap<>();
+    private List<StarTreeIndexConfig> _starTreeIndexConfigs = new ArrayList<>();
     private RealtimeSegmentZKMetadata _realtimeSegmentZKMetadata;
     private boolean _offHeap;
     private PinotDataBufferMemoryManager _memoryManager;
@@ -233,6 +250,7 @@ public class RealtimeSegmentConfig {
     private String _consumerDir;
     private UpsertConfig.Mode _upsertMode;
     private PartitionUpsertMetadataManager _partitionUpsertMetadataManager;
+    private boolean _writeAheadLogEnabled = false;
 
     public Builder() {
     }
@@ -315,6 +333,11 @@ public class RealtimeSegmentConfig {
       return this;
     }
 
+    public Builder setStarTreeIndexConfigs(List<StarTreeIndexConfig> starTreeIndexConfigs) {
+      _starTreeIndexConfigs = starTreeIndexConfigs;
+      return this;
+    }
+
     public Builder setRealtimeSegmentZKMetadata(RealtimeSegmentZKMetadata realtimeSegmentZKMetadata) {
       _realtimeSegmentZKMetadata = realtimeSegmentZKMetadata;
       return this;
@@ -375,12 +398,18 @@ public class RealtimeSegmentConfig {
       return this;
     }
 
+    public Builder setWriteAheadLogEnabled(boolean writeAheadLogEnabled) {
+      _writeAheadLogEnabled = writeAheadLogEnabled;
+      return this;
+    }
+
     public RealtimeSegmentConfig build() {
       return new RealtimeSegmentConfig(_tableNameWithType, _segmentName, _streamName, _schema, _timeColumnName,
           _capacity, _avgNumMultiValues, _noDictionaryColumns, _varLengthDictionaryColumns, _invertedIndexColumns,
-          _textIndexColumns, _fstIndexColumns, _jsonIndexColumns, _h3IndexConfigs, _realtimeSegmentZKMetadata, _offHeap,
-          _memoryManager, _statsHistory, _partitionColumn, _partitionFunction, _partitionId, _aggregateMetrics,
-          _nullHandlingEnabled, _consumerDir, _upsertMode, _partitionUpsertMetadataManager);
+          _textIndexColumns, _fstIndexColumns, _jsonIndexColumns, _h3IndexConfigs, _starTreeIndexConfigs,
+          _realtimeSegmentZKMetadata, _offHeap, _memoryManager, _statsHistory, _partitionColumn, _partitionFunction,
+          _partitionId, _aggregateMetrics, _nullHandlingEnabled, _consumerDir, _upsertMode,
+          _partitionUpsertMetadataManager, _writeAheadLogEnabled);
     }
   }
 }
@@ -40,6 +40,10 @@ public class ThreadSafeMutableRoaringBitmap {
     _mutableRoaringBitmap.add(docId);
   }
 
+  public synchronized void add(int[] docIds, int offset, int length) {
+    _mutableRoaringBitmap.addN(docIds, offset, length);
+  }
+
   public synchronized boolean contains(int docId) {
     return _mutableRoaringBitmap.contains(docId);
   }
@@ -48,6 +52,10 @@ public class ThreadSafeMutableRoaringBitmap {
     _mutableRoaringBitmap.remove(docId);
   }
 
+  public synchronized int getCardinality() {
+    return _mutableRoaringBitmap.getCardinality();
+  }
+
   public synchronized MutableRoaringBitmap getMutableRoaringBitmap() {
     return _mutableRoaringBitmap.clone();
   }
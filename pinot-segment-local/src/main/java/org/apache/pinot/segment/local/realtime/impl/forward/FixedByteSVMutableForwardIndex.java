@@ -163,6 +163,24 @@ public class FixedByteSVMutableForwardIndex implements MutableForwardIndex {
     getWriterForRow(docId).setInt(docId, dictId);
   }
 
+  @Override
+  public void setDictIds(int startDocId, int[] dictIds, int length) {
+    if (length == 0) {
+      return;
+    }
+    addBufferIfNeeded(startDocId + length - 1);
+    // Write the values chunk by chunk to avoid looking up the writer for each row
+    int docId = startDocId;
+    int index = 0;
+    while (index < length) {
+      WriterWithOffset writer = getWriterForRow(docId);
+      int endIndex = Math.min(length, index + writer._startRowId + _numRowsPerChunk - docId);
+      while (index < endIndex) {
+        writer.setInt(docId++, dictIds[index++]);
+      }
+    }
+  }
+
   @Override
   public void setInt(int docId, int value) {
     addBufferIfNeeded(docId);
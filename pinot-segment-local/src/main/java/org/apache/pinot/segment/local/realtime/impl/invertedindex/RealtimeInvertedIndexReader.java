@@ -19,6 +19,7 @@
 package org.apache.pinot.segment.local.realtime.impl.invertedindex;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
@@ -60,6 +61,51 @@ public class RealtimeInvertedIndexReader implements InvertedIndexReader<MutableR
     }
   }
 
+  /**
+   * Adds the consecutive document ids starting from the given document id to the bitmaps of the given dictionary ids
+   * (one dictionary id per document). The document ids are grouped by dictionary id so that each bitmap is only
+   * updated once.
+   */
+  public void add(int[] dictIds, int startDocId, int length) {
+    // Sort the (dictId, docId) pairs by dictId, then docId
+    long[] dictIdDocIdPairs = new long[length];
+    for (int i = 0; i < length; i++) {
+      dictIdDocIdPairs[i] = ((long) dictIds[i] << 32) | (startDocId + i);
+    }
+    Arrays.sort(dictIdDocIdPairs);
+
+    int[] docIds = new int[length];
+    int startIndex = 0;
+    while (startIndex < length) {
+      int dictId = (int) (dictIdDocIdPairs[startIndex] >>> 32);
+      int endIndex = startIndex;
+      while (endIndex < length && (int) (dictIdDocIdPairs[endIndex] >>> 32) == dictId) {
+        docIds[endIndex] = (int) dictIdDocIdPairs[endIndex];
+        endIndex++;
+      }
+      int numDocs = endIndex - startIndex;
+      if (dictId < _bitmaps.size()) {
+        // Bitmap for the dictionary id already exists, add the document ids into the bitmap
+        _bitmaps.get(dictId).add(docIds, startIndex, numDocs);
+      } else {
+        // Bitmap for the dictionary id does not exist, add new bitmaps into the list (also for the dictionary ids
+        // without any document, if any)
+        ThreadSafeMutableRoaringBitmap bitmap = new ThreadSafeMutableRoaringBitmap();
+        bitmap.add(docIds, startIndex, numDocs);
+        try {
+          _writeLock.lock();
+          while (_bitmaps.size() < dictId) {
+            _bitmaps.add(new ThreadSafeMutableRoaringBitmap());
+          }
+          _bitmaps.add(bitmap);
+        } finally {
+          _writeLock.unlock();
+        }
+      }
+      startIndex = endIndex;
+    }
+  }
+
   @Override
   public MutableRoaringBitmap getDocIds(int dictId) {
     ThreadSafeMutableRoaringBitmap bitmap;
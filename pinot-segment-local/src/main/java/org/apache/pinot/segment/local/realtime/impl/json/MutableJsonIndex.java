@@ -73,7 +73,13 @@ public class MutableJsonIndex implements JsonIndexReader {
    */
   public void add(String jsonString)
       throws IOException {
-    List<Map<String, String>> flattenedRecords = JsonUtils.flatten(JsonUtils.stringToJsonNode(jsonString));
+    add(JsonUtils.flatten(JsonUtils.stringToJsonNode(jsonString)));
+  }
+
+  /**
+   * Adds the next json value already flattened with {@link JsonUtils#flatten}.
+   */
+  public void add(List<Map<String, String>> flattenedRecords) {
     _writeLock.lock();
     try {
       addFlattenedRecords(flattenedRecords);
@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.startree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.pinot.segment.local.aggregator.ValueAggregator;
+import org.apache.pinot.segment.local.aggregator.ValueAggregatorFactory;
+import org.apache.pinot.segment.local.io.readerwriter.PinotDataBufferMemoryManager;
+import org.apache.pinot.segment.local.realtime.impl.forward.FixedByteSVMutableForwardIndex;
+import org.apache.pinot.segment.local.startree.v2.store.StarTreeDataSource;
+import org.apache.pinot.segment.local.utils.FixedIntArrayOffHeapIdMap;
+import org.apache.pinot.segment.local.utils.IdMap;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.MutableForwardIndex;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.segment.spi.index.startree.StarTree;
+import org.apache.pinot.segment.spi.index.startree.StarTreeNode;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Constants;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Metadata;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.MetricFieldSpec;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.FixedIntArray;
+
+
+/**
+ * Star-tree index for mutable segment, maintained incrementally while the records are indexed.
+ * <p>Instead of splitting the records on each dimension, the records are rolled up on the combination of all the
+ * dimensions in the split order:
+ * <ul>
+ *   <li>Document 0 holds the aggregated values of all the records (aggregated document of the root)</li>
+ *   <li>Each of the following documents holds the aggregated values of one unique combination of the dimensions</li>
+ * </ul>
+ * The star-tree exposed to the query engine has a single leaf root node covering all the rolled up documents, so that
+ * queries without filter and group-by are answered with the aggregated document of the root, and other queries scan
+ * the rolled up documents (usually much fewer than the raw records) instead of the raw records.
+ * <p>Only the function-column pairs with fixed-width aggregated value (e.g. COUNT, SUM, MIN, MAX) are supported.
+ * <p>NOTE: Okay for single-writer. New rolled up documents are written before bumping the number of documents, so
+ * that each snapshot returned from {@link #getStarTree()} only accesses documents already written.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class MutableStarTreeIndex implements Closeable {
+  private static final int MIN_RECORD_ID_MAP_CACHE_SIZE = 10000;
+
+  private final List<String> _dimensionsSplitOrder;
+  private final Set<AggregationFunctionColumnPair> _functionColumnPairs;
+  private final int _maxLeafRecords;
+  private final Set<String> _skipStarNodeCreationForDimensions;
+
+  private final int _numDimensions;
+  private final FieldSpec[] _dimensionFieldSpecs;
+  private final MutableForwardIndex[] _segmentDimensionForwardIndexes;
+  private final Dictionary[] _dimensionDictionaries;
+  private final FixedByteSVMutableForwardIndex[] _dimensionForwardIndexes;
+
+  private final int _numMetrics;
+  private final String[] _metrics;
+  private final String[] _rawColumns;
+  private final ValueAggregator[] _valueAggregators;
+  private final DataType[] _aggregatedValueTypes;
+  private final FixedByteSVMutableForwardIndex[] _metricForwardIndexes;
+
+  private final IdMap<FixedIntArray> _recordIdMap;
+
+  // Number of documents including the aggregated document of the root
+  private volatile int _numDocs = 0;
+
+  /**
+   * @param dimensionsSplitOrder Dimensions to roll up the records on
+   * @param dimensionDataSources Data sources of the dimensions in the mutable segment (must be dictionary-encoded and
+   *                             single-valued)
+   * @param functionColumnPairs Function-column pairs with fixed-width aggregated value
+   * @param maxLeafRecords Max leaf records from the star-tree index config (kept in the metadata only)
+   * @param skipStarNodeCreationForDimensions Dimensions to skip star-node creation from the star-tree index config
+   *                                          (kept in the metadata only)
+   * @param estimatedNumRecords Estimated number of rolled up records
+   * @param memoryManager Memory manager to be used for allocating memory
+   * @param allocationContext Allocation context prefix
+   */
+  public MutableStarTreeIndex(List<String> dimensionsSplitOrder, List<DataSource> dimensionDataSources,
+      List<AggregationFunctionColumnPair> functionColumnPairs, int maxLeafRecords,
+      Set<String> skipStarNodeCreationForDimensions, int estimatedNumRecords,
+      PinotDataBufferMemoryManager memoryManager, String allocationContext) {
+    _dimensionsSplitOrder = dimensionsSplitOrder;
+    _functionColumnPairs = Collections.unmodifiableSet(new LinkedHashSet<>(functionColumnPairs));
+    _maxLeafRecords = maxLeafRecords;
+    _skipStarNodeCreationForDimensions = skipStarNodeCreationForDimensions;
+
+    _numDimensions = dimensionsSplitOrder.size();
+    _dimensionFieldSpecs = new FieldSpec[_numDimensions];
+    _segmentDimensionForwardIndexes = new MutableForwardIndex[_numDimensions];
+    _dimensionDictionaries = new Dictionary[_numDimensions];
+    _dimensionForwardIndexes = new FixedByteSVMutableForwardIndex[_numDimensions];
+    for (int i = 0; i < _numDimensions; i++) {
+      DataSource dataSource = dimensionDataSources.get(i);
+      _dimensionFieldSpecs[i] = dataSource.getDataSourceMetadata().getFieldSpec();
+      _segmentDimensionForwardIndexes[i] = (MutableForwardIndex) dataSource.getForwardIndex();
+      _dimensionDictionaries[i] = dataSource.getDictionary();
+      _dimensionForwardIndexes[i] =
+          new FixedByteSVMutableForwardIndex(true, DataType.INT, estimatedNumRecords, memoryManager,
+              allocationContext + dimensionsSplitOrder.get(i));
+    }
+
+    _numMetrics = _functionColumnPairs.size();
+    _metrics = new String[_numMetrics];
+    _rawColumns = new String[_numMetrics];
+    _valueAggregators = new ValueAggregator[_numMetrics];
+    _aggregatedValueTypes = new DataType[_numMetrics];
+    _metricForwardIndexes = new FixedByteSVMutableForwardIndex[_numMetrics];
+    int index = 0;
+    for (AggregationFunctionColumnPair functionColumnPair : _functionColumnPairs) {
+      String metric = functionColumnPair.toColumnName();
+      _metrics[index] = metric;
+      String column = functionColumnPair.getColumn();
+      _rawColumns[index] = column.equals(AggregationFunctionColumnPair.STAR) ? null : column;
+      _valueAggregators[index] = ValueAggregatorFactory.getValueAggregator(functionColumnPair.getFunctionType());
+      DataType aggregatedValueType = _valueAggregators[index].getAggregatedValueType();
+      _aggregatedValueTypes[index] = aggregatedValueType;
+      _metricForwardIndexes[index] =
+          new FixedByteSVMutableForwardIndex(false, aggregatedValueType, estimatedNumRecords, memoryManager,
+              allocationContext + metric);
+      index++;
+    }
+
+    _recordIdMap = new FixedIntArrayOffHeapIdMap(estimatedNumRecords,
+        Math.max(estimatedNumRecords / 1000, MIN_RECORD_ID_MAP_CACHE_SIZE), _numDimensions, memoryManager,
+        allocationContext + "__recordIdMap__");
+  }
+
+  /**
+   * Returns {@code true} if the star-tree can pre-aggregate the given function type on mutable segment, {@code false}
+   * otherwise.
+   */
+  public static boolean isSupported(AggregationFunctionColumnPair functionColumnPair) {
+    DataType aggregatedValueType =
+        ValueAggregatorFactory.getAggregatedValueType(functionColumnPair.getFunctionType());
+    return aggregatedValueType == DataType.LONG || aggregatedValueType == DataType.DOUBLE;
+  }
+
+  /**
+   * Aggregates a record already indexed into the mutable segment. The dimension dictionary ids are read from the
+   * forward indexes of the segment, and the raw metric values are read from the record.
+   */
+  public void index(int docId, GenericRow row) {
+    int[] dictIds = new int[_numDimensions];
+    for (int i = 0; i < _numDimensions; i++) {
+      dictIds[i] = _segmentDimensionForwardIndexes[i].getDictId(docId);
+    }
+    // Rolled up documents start from 1 as document 0 is the aggregated document of the root
+    int aggregatedDocId = _recordIdMap.put(new FixedIntArray(dictIds)) + 1;
+    int numDocs = _numDocs;
+    boolean newRoot = numDocs == 0;
+    boolean newRecord = aggregatedDocId >= numDocs;
+
+    if (newRoot) {
+      for (int i = 0; i < _numDimensions; i++) {
+        _dimensionForwardIndexes[i].setDictId(0, StarTreeV2Constants.STAR_IN_FORWARD_INDEX);
+      }
+    }
+    if (newRecord) {
+      for (int i = 0; i < _numDimensions; i++) {
+        _dimensionForwardIndexes[i].setDictId(aggregatedDocId, dictIds[i]);
+      }
+    }
+    for (int i = 0; i < _numMetrics; i++) {
+      Object rawValue = _rawColumns[i] != null ? row.getValue(_rawColumns[i]) : null;
+      aggregate(i, aggregatedDocId, rawValue, newRecord);
+      aggregate(i, 0, rawValue, newRoot);
+    }
+
+    if (newRecord) {
+      _numDocs = aggregatedDocId + 1;
+    }
+  }
+
+  private void aggregate(int metricIndex, int docId, Object rawValue, boolean initialValue) {
+    ValueAggregator valueAggregator = _valueAggregators[metricIndex];
+    FixedByteSVMutableForwardIndex forwardIndex = _metricForwardIndexes[metricIndex];
+    if (_aggregatedValueTypes[metricIndex] == DataType.LONG) {
+      Long value = initialValue ? (Long) valueAggregator.getInitialAggregatedValue(rawValue)
+          : (Long) valueAggregator.applyRawValue(forwardIndex.getLong(docId), rawValue);
+      forwardIndex.setLong(docId, value);
+    } else {
+      Double value = initialValue ? (Double) valueAggregator.getInitialAggregatedValue(rawValue)
+          : (Double) valueAggregator.applyRawValue(forwardIndex.getDouble(docId), rawValue);
+      forwardIndex.setDouble(docId, value);
+    }
+  }
+
+  /**
+   * Returns the number of documents in the star-tree, including the aggregated document of the root.
+   */
+  public int getNumDocs() {
+    return _numDocs;
+  }
+
+  /**
+   * Returns a snapshot of the star-tree covering the documents aggregated so far, or {@code null} if no record has
+   * been aggregated yet.
+   * <p>NOTE: The aggregated values can still be updated after the snapshot is taken, so the snapshot might reflect a
+   * few more records than the snapshot of the mutable segment taken by the same query.
+   */
+  public StarTreeV2 getStarTree() {
+    int numDocs = _numDocs;
+    if (numDocs == 0) {
+      return null;
+    }
+
+    Map<String, DataSource> dataSourceMap = new HashMap<>();
+    for (int i = 0; i < _numDimensions; i++) {
+      dataSourceMap.put(_dimensionsSplitOrder.get(i),
+          new StarTreeDataSource(_dimensionFieldSpecs[i], numDocs, _dimensionForwardIndexes[i],
+              _dimensionDictionaries[i]));
+    }
+    for (int i = 0; i < _numMetrics; i++) {
+      dataSourceMap.put(_metrics[i],
+          new StarTreeDataSource(new MetricFieldSpec(_metrics[i], _aggregatedValueTypes[i]), numDocs,
+              _metricForwardIndexes[i], null));
+    }
+    StarTree starTree = new RollupStarTree(_dimensionsSplitOrder, numDocs);
+    StarTreeV2Metadata metadata =
+        new StarTreeV2Metadata(numDocs, _dimensionsSplitOrder, _functionColumnPairs, _maxLeafRecords,
+            _skipStarNodeCreationForDimensions);
+
+    return new StarTreeV2() {
+      @Override
+      public StarTree getStarTree() {
+        return starTree;
+      }
+
+      @Override
+      public StarTreeV2Metadata getMetadata() {
+        return metadata;
+      }
+
+      @Override
+      public DataSource getDataSource(String columnName) {
+        return dataSourceMap.get(columnName);
+      }
+
+      @Override
+      public void close() {
+        // NOTE: The indexes are managed by the mutable star-tree index, which is closed with the mutable segment.
+      }
+    };
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    for (FixedByteSVMutableForwardIndex forwardIndex : _dimensionForwardIndexes) {
+      forwardIndex.close();
+    }
+    for (FixedByteSVMutableForwardIndex forwardIndex : _metricForwardIndexes) {
+      forwardIndex.close();
+    }
+    _recordIdMap.close();
+  }
+
+  /**
+   * Star-tree with a single leaf root node, where document 0 is the aggregated document of the root and documents
+   * [1, numDocs) are the rolled up documents.
+   */
+  private static class RollupStarTree implements StarTree {
+    private final List<String> _dimensionNames;
+    private final RootNode _root;
+
+    RollupStarTree(List<String> dimensionNames, int numDocs) {
+      _dimensionNames = dimensionNames;
+      _root = new RootNode(numDocs);
+    }
+
+    @Override
+    public StarTreeNode getRoot() {
+      return _root;
+    }
+
+    @Override
+    public List<String> getDimensionNames() {
+      return _dimensionNames;
+    }
+
+    @Override
+    public void printTree(Map<String, Dictionary> dictionaryMap) {
+      System.out.println(
+          "RollupStarTree{dimensionNames=" + _dimensionNames + ", startDocId=" + _root.getStartDocId() + ", endDocId="
+              + _root.getEndDocId() + ", aggregatedDocId=" + _root.getAggregatedDocId() + "}");
+    }
+  }
+
+  private static class RootNode implements StarTreeNode {
+    private final int _numDocs;
+
+    RootNode(int numDocs) {
+      _numDocs = numDocs;
+    }
+
+    @Override
+    public int getDimensionId() {
+      return ALL;
+    }
+
+    @Override
+    public int getDimensionValue() {
+      return ALL;
+    }
+
+    @Override
+    public int getChildDimensionId() {
+      return -1;
+    }
+
+    @Override
+    public int getStartDocId() {
+      return 1;
+    }
+
+    @Override
+    public int getEndDocId() {
+      return _numDocs;
+    }
+
+    @Override
+    public int getAggregatedDocId() {
+      return 0;
+    }
+
+    @Override
+    public int getNumChildren() {
+      return 0;
+    }
+
+    @Override
+    public boolean isLeaf() {
+      return true;
+    }
+
+    @Override
+    public StarTreeNode getChildForDimensionValue(int dimensionValue) {
+      return null;
+    }
+
+    @Override
+    public Iterator<? extends StarTreeNode> getChildrenIterator() {
+      return Collections.emptyIterator();
+    }
+  }
+}
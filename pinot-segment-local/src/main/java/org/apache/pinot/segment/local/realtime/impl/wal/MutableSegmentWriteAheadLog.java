@@ -0,0 +1,481 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.wal;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.utils.CleanerUtil;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.RowMetadata;
+import org.apache.pinot.spi.stream.StreamMessageMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Memory-mapped, append-only write-ahead log of the records indexed into a consuming segment, which allows the
+ * consuming segment to be rebuilt from the local disk instead of re-consuming the stream after a server restart.
+ * <p>The log file starts with a header describing the logged columns, followed by one entry per record:
+ * <ul>
+ *   <li>Length of the payload (int)</li>
+ *   <li>CRC32 checksum of the payload (int)</li>
+ *   <li>Payload: the ingestion time of the record (long), {@link Long#MIN_VALUE} if not available, then for each
+ *   column the flags of the value (byte) followed by the value if present, where multi-value column starts with the
+ *   number of values (int), and STRING/BYTES value starts with the number of bytes (int)</li>
+ * </ul>
+ * <p>The entries become durable at the next {@link #checkpoint(String)}, which flushes the mapped buffer to disk and
+ * atomically records the length of the log together with the stream offset to resume the consumption from. Entries
+ * appended after the last checkpoint are ignored on recovery, and get overwritten by the new entries. The entries up to
+ * the checkpoint are verified when opening the log, and the whole log is discarded if any of them is torn or corrupted,
+ * because the stream offset to resume the consumption from is only known at the checkpoint.
+ * <p>This class is not thread-safe, and should only be accessed by the consuming thread.
+ */
+public class MutableSegmentWriteAheadLog implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MutableSegmentWriteAheadLog.class);
+
+  // Directory under the consumer directory where the write-ahead logs are stored
+  public static final String WRITE_AHEAD_LOG_DIR_NAME = "wal";
+  public static final String LOG_FILE_SUFFIX = ".log";
+  public static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+
+  private static final int MAGIC_MARKER = 0x57414C31;
+  private static final int VERSION = 2;
+  private static final long MAPPING_SIZE = 64 * 1024 * 1024L;
+  private static final int INITIAL_ENTRY_BUFFER_SIZE = 4096;
+  // Length of the payload (int) and CRC32 checksum of the payload (int)
+  private static final int ENTRY_HEADER_LENGTH = 2 * Integer.BYTES;
+
+  private static final byte HAS_VALUE_FLAG = 1;
+  private static final byte NULL_VALUE_FLAG = 2;
+
+  private final File _logFile;
+  private final File _checkpointFile;
+  private final List<FieldSpec> _fieldSpecs;
+  private final int _headerLength;
+  private final FileChannel _fileChannel;
+
+  // Stream offset and log length of the checkpoint recovered when opening the log, null if there is no valid checkpoint
+  private final String _recoveredOffset;
+  private final long _recoveredLogLength;
+
+  private ByteBuffer _entryBuffer = ByteBuffer.allocate(INITIAL_ENTRY_BUFFER_SIZE);
+  private MappedByteBuffer _mappedBuffer;
+  private long _logLength;
+
+  /**
+   * Opens the write-ahead log of the given segment. If the log has a valid checkpoint with the same columns as the
+   * schema, the entries up to the checkpoint can be replayed with {@link #replay(RecordConsumer)}, and the new entries
+   * are appended after them; otherwise the existing log is discarded.
+   */
+  public MutableSegmentWriteAheadLog(File dir, String segmentName, Schema schema)
+      throws IOException {
+    FileUtils.forceMkdir(dir);
+    _logFile = new File(dir, segmentName + LOG_FILE_SUFFIX);
+    _checkpointFile = new File(dir, segmentName + CHECKPOINT_FILE_SUFFIX);
+    _fieldSpecs = new ArrayList<>();
+    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      if (!fieldSpec.isVirtualColumn()) {
+        _fieldSpecs.add(fieldSpec);
+      }
+    }
+    _fieldSpecs.sort(Comparator.comparing(FieldSpec::getName));
+    byte[] header = getHeader();
+    _headerLength = header.length;
+
+    String recoveredOffset = null;
+    long recoveredLogLength = 0;
+    if (_checkpointFile.exists() && _logFile.exists()) {
+      try (DataInputStream checkpointInput = new DataInputStream(Files.newInputStream(_checkpointFile.toPath()));
+          DataInputStream logInput = new DataInputStream(
+              new BufferedInputStream(Files.newInputStream(_logFile.toPath())))) {
+        Preconditions.checkState(checkpointInput.readInt() == MAGIC_MARKER && checkpointInput.readInt() == VERSION,
+            "Invalid checkpoint file: %s", _checkpointFile);
+        long logLength = checkpointInput.readLong();
+        String offset = checkpointInput.readUTF();
+        Preconditions.checkState(logLength >= _headerLength && logLength <= _logFile.length(),
+            "Invalid log length: %s in checkpoint, log file length: %s", logLength, _logFile.length());
+        byte[] logHeader = new byte[_headerLength];
+        logInput.readFully(logHeader);
+        Preconditions.checkState(Arrays.equals(logHeader, header), "Logged columns do not match the schema");
+        long position = _headerLength;
+        while (position < logLength) {
+          byte[] payload = readEntry(logInput, position, logLength);
+          Preconditions.checkState(payload != null, "Torn or corrupted entry at position: %s", position);
+          position += ENTRY_HEADER_LENGTH + payload.length;
+        }
+        recoveredOffset = offset;
+        recoveredLogLength = logLength;
+      } catch (Exception e) {
+        LOGGER.warn("Discarding the write-ahead log for segment: {}", segmentName, e);
+      }
+    }
+    _recoveredOffset = recoveredOffset;
+    _recoveredLogLength = recoveredLogLength;
+    if (recoveredOffset == null) {
+      FileUtils.deleteQuietly(_checkpointFile);
+      FileUtils.deleteQuietly(_logFile);
+    }
+
+    _fileChannel = FileChannel.open(_logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    if (recoveredOffset != null) {
+      _logLength = recoveredLogLength;
+    } else {
+      _fileChannel.write(ByteBuffer.wrap(header), 0);
+      _logLength = _headerLength;
+    }
+    map(MAPPING_SIZE);
+  }
+
+  /**
+   * Returns the stream offset recorded in the checkpoint recovered when opening the log, or {@code null} if there is no
+   * valid checkpoint.
+   */
+  @Nullable
+  public String getRecoveredOffset() {
+    return _recoveredOffset;
+  }
+
+  /**
+   * Replays the entries up to the recovered checkpoint, and returns the number of entries replayed. The replay stops at
+   * the first torn or corrupted entry, which can only happen if the log is modified after being opened.
+   */
+  public int replay(RecordConsumer consumer)
+      throws IOException {
+    if (_recoveredOffset == null) {
+      return 0;
+    }
+    int numEntries = 0;
+    try (DataInputStream input = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(_logFile.toPath())))) {
+      input.readFully(new byte[_headerLength]);
+      long position = _headerLength;
+      while (position < _recoveredLogLength) {
+        byte[] payload = readEntry(input, position, _recoveredLogLength);
+        if (payload == null) {
+          LOGGER.warn("Stopping the replay at the torn or corrupted entry at position: {} of log: {}", position,
+              _logFile);
+          break;
+        }
+        DataInputStream entryInput = new DataInputStream(new ByteArrayInputStream(payload));
+        long ingestionTimeMs = entryInput.readLong();
+        GenericRow row = new GenericRow();
+        for (FieldSpec fieldSpec : _fieldSpecs) {
+          readValue(entryInput, fieldSpec, row);
+        }
+        consumer.consume(row, ingestionTimeMs != Long.MIN_VALUE ? new StreamMessageMetadata(ingestionTimeMs) : null);
+        position += ENTRY_HEADER_LENGTH + payload.length;
+        numEntries++;
+      }
+    }
+    return numEntries;
+  }
+
+  /**
+   * Appends a record into the log. The record is not durable until the next checkpoint.
+   */
+  public void append(GenericRow row, @Nullable RowMetadata rowMetadata)
+      throws IOException {
+    _entryBuffer.clear();
+    _entryBuffer.position(ENTRY_HEADER_LENGTH);
+    _entryBuffer.putLong(rowMetadata != null ? rowMetadata.getIngestionTimeMs() : Long.MIN_VALUE);
+    for (FieldSpec fieldSpec : _fieldSpecs) {
+      writeValue(fieldSpec, row);
+    }
+    int entrySize = _entryBuffer.position();
+    int payloadLength = entrySize - ENTRY_HEADER_LENGTH;
+    CRC32 crc32 = new CRC32();
+    crc32.update(_entryBuffer.array(), ENTRY_HEADER_LENGTH, payloadLength);
+    _entryBuffer.putInt(0, payloadLength);
+    _entryBuffer.putInt(Integer.BYTES, (int) crc32.getValue());
+    _entryBuffer.flip();
+
+    if (_mappedBuffer.remaining() < entrySize) {
+      map(Math.max(MAPPING_SIZE, entrySize));
+    }
+    _mappedBuffer.put(_entryBuffer);
+    _logLength += entrySize;
+  }
+
+  /**
+   * Flushes the appended records to the disk, then atomically records the log length with the given stream offset,
+   * which is the offset to resume the consumption from after replaying the log.
+   */
+  public void checkpoint(String offset)
+      throws IOException {
+    _mappedBuffer.force();
+    File tempCheckpointFile = new File(_checkpointFile.getPath() + ".tmp");
+    try (FileOutputStream fileOutputStream = new FileOutputStream(tempCheckpointFile);
+        DataOutputStream output = new DataOutputStream(fileOutputStream)) {
+      output.writeInt(MAGIC_MARKER);
+      output.writeInt(VERSION);
+      output.writeLong(_logLength);
+      output.writeUTF(offset);
+      output.flush();
+      fileOutputStream.getFD().sync();
+    }
+    Files.move(tempCheckpointFile.toPath(), _checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    unmap();
+    _fileChannel.close();
+  }
+
+  /**
+   * Deletes the write-ahead log of the given segment.
+   */
+  public static void delete(File dir, String segmentName) {
+    FileUtils.deleteQuietly(new File(dir, segmentName + CHECKPOINT_FILE_SUFFIX));
+    FileUtils.deleteQuietly(new File(dir, segmentName + LOG_FILE_SUFFIX));
+  }
+
+  /**
+   * Returns the name of the segment for the given write-ahead log file, or {@code null} if the file is not a log or
+   * checkpoint file.
+   */
+  @Nullable
+  public static String getSegmentName(String fileName) {
+    if (fileName.endsWith(LOG_FILE_SUFFIX)) {
+      return fileName.substring(0, fileName.length() - LOG_FILE_SUFFIX.length());
+    }
+    if (fileName.endsWith(CHECKPOINT_FILE_SUFFIX)) {
+      return fileName.substring(0, fileName.length() - CHECKPOINT_FILE_SUFFIX.length());
+    }
+    return null;
+  }
+
+  private byte[] getHeader()
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(byteArrayOutputStream)) {
+      output.writeInt(MAGIC_MARKER);
+      output.writeInt(VERSION);
+      output.writeInt(_fieldSpecs.size());
+      for (FieldSpec fieldSpec : _fieldSpecs) {
+        output.writeUTF(fieldSpec.getName());
+        output.writeUTF(fieldSpec.getDataType().getStoredType().name());
+        output.writeBoolean(fieldSpec.isSingleValueField());
+      }
+    }
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  /**
+   * Maps the region of the log file starting at the end of the log.
+   */
+  private void map(long size)
+      throws IOException {
+    unmap();
+    _mappedBuffer = _fileChannel.map(FileChannel.MapMode.READ_WRITE, _logLength, size);
+  }
+
+  private void unmap()
+      throws IOException {
+    if (_mappedBuffer != null) {
+      _mappedBuffer.force();
+      if (CleanerUtil.UNMAP_SUPPORTED) {
+        CleanerUtil.getCleaner().freeBuffer(_mappedBuffer);
+      }
+      _mappedBuffer = null;
+    }
+  }
+
+  private void writeValue(FieldSpec fieldSpec, GenericRow row) {
+    String column = fieldSpec.getName();
+    Object value = row.getValue(column);
+    byte flags = 0;
+    if (value != null) {
+      flags |= HAS_VALUE_FLAG;
+    }
+    if (row.isNullValue(column)) {
+      flags |= NULL_VALUE_FLAG;
+    }
+    ensureEntryCapacity(Byte.BYTES);
+    _entryBuffer.put(flags);
+    if (value == null) {
+      return;
+    }
+    DataType storedType = fieldSpec.getDataType().getStoredType();
+    if (fieldSpec.isSingleValueField()) {
+      writeSingleValue(storedType, value);
+    } else {
+      Object[] values = value instanceof Object[] ? (Object[]) value : new Object[]{value};
+      ensureEntryCapacity(Integer.BYTES);
+      _entryBuffer.putInt(values.length);
+      for (Object singleValue : values) {
+        writeSingleValue(storedType, singleValue);
+      }
+    }
+  }
+
+  private void writeSingleValue(DataType storedType, Object value) {
+    switch (storedType) {
+      case INT:
+        ensureEntryCapacity(Integer.BYTES);
+        _entryBuffer.putInt(((Number) value).intValue());
+        break;
+      case LONG:
+        ensureEntryCapacity(Long.BYTES);
+        _entryBuffer.putLong(((Number) value).longValue());
+        break;
+      case FLOAT:
+        ensureEntryCapacity(Float.BYTES);
+        _entryBuffer.putFloat(((Number) value).floatValue());
+        break;
+      case DOUBLE:
+        ensureEntryCapacity(Double.BYTES);
+        _entryBuffer.putDouble(((Number) value).doubleValue());
+        break;
+      case STRING:
+        writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+        break;
+      case BYTES:
+        writeBytes((byte[]) value);
+        break;
+      default:
+        throw new IllegalStateException("Unsupported stored type: " + storedType);
+    }
+  }
+
+  private void writeBytes(byte[] bytes) {
+    ensureEntryCapacity(Integer.BYTES + bytes.length);
+    _entryBuffer.putInt(bytes.length);
+    _entryBuffer.put(bytes);
+  }
+
+  private void ensureEntryCapacity(int numBytes) {
+    if (_entryBuffer.remaining() < numBytes) {
+      ByteBuffer newEntryBuffer =
+          ByteBuffer.allocate(Math.max(_entryBuffer.capacity() * 2, _entryBuffer.position() + numBytes));
+      _entryBuffer.flip();
+      newEntryBuffer.put(_entryBuffer);
+      _entryBuffer = newEntryBuffer;
+    }
+  }
+
+  /**
+   * Reads the payload of the entry at the given position of the log, or returns {@code null} if the entry is torn
+   * (extends beyond the end position) or corrupted (checksum mismatch).
+   */
+  @Nullable
+  private static byte[] readEntry(DataInputStream input, long position, long endPosition)
+      throws IOException {
+    if (endPosition - position < ENTRY_HEADER_LENGTH) {
+      return null;
+    }
+    int payloadLength = input.readInt();
+    int checksum = input.readInt();
+    if (payloadLength < 0 || payloadLength > endPosition - position - ENTRY_HEADER_LENGTH) {
+      return null;
+    }
+    byte[] payload = new byte[payloadLength];
+    input.readFully(payload);
+    CRC32 crc32 = new CRC32();
+    crc32.update(payload, 0, payloadLength);
+    return (int) crc32.getValue() == checksum ? payload : null;
+  }
+
+  private static void readValue(DataInputStream input, FieldSpec fieldSpec, GenericRow row)
+      throws IOException {
+    byte flags = input.readByte();
+    Object value = null;
+    if ((flags & HAS_VALUE_FLAG) != 0) {
+      DataType storedType = fieldSpec.getDataType().getStoredType();
+      if (fieldSpec.isSingleValueField()) {
+        value = readSingleValue(input, storedType);
+      } else {
+        int numValues = input.readInt();
+        Object[] values = new Object[numValues];
+        for (int i = 0; i < numValues; i++) {
+          values[i] = readSingleValue(input, storedType);
+        }
+        value = values;
+      }
+    }
+    if ((flags & NULL_VALUE_FLAG) != 0) {
+      row.putDefaultNullValue(fieldSpec.getName(), value);
+    } else if (value != null) {
+      row.putValue(fieldSpec.getName(), value);
+    }
+  }
+
+  private static Object readSingleValue(DataInputStream input, DataType storedType)
+      throws IOException {
+    switch (storedType) {
+      case INT:
+        return input.readInt();
+      case LONG:
+        return input.readLong();
+      case FLOAT:
+        return input.readFloat();
+      case DOUBLE:
+        return input.readDouble();
+      case STRING:
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+      case BYTES:
+        return readBytes(input);
+      default:
+        throw new IllegalStateException("Unsupported stored type: " + storedType);
+    }
+  }
+
+  private static byte[] readBytes(DataInputStream input)
+      throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Consumer of the records replayed from the log.
+   */
+  public interface RecordConsumer {
+    void consume(GenericRow row, @Nullable RowMetadata rowMetadata)
+        throws IOException;
+  }
+}
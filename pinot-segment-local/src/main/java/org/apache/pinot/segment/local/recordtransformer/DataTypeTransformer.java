@@ -67,27 +67,69 @@ public class DataTypeTransformer implements RecordTransformer {
     MULTI_VALUE_TYPE_MAP.put(String.class, PinotDataType.STRING_ARRAY);
   }
 
-  private final Map<String, PinotDataType> _dataTypes = new HashMap<>();
+  // Columns and their data types compiled from the schema, indexed by the slot of the column
+  private final String[] _columns;
+  private final PinotDataType[] _dataTypes;
+  // Class of the (single or multi-value entry) values already in the internal representation of the data type, or null
+  // if the values always need to be converted
+  private final Class[] _internalValueClasses;
 
   public DataTypeTransformer(Schema schema) {
+    List<String> columns = new ArrayList<>();
+    List<PinotDataType> dataTypes = new ArrayList<>();
     for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
       if (!fieldSpec.isVirtualColumn()) {
-        _dataTypes.put(fieldSpec.getName(), PinotDataType.getPinotDataTypeForIngestion(fieldSpec));
+        columns.add(fieldSpec.getName());
+        dataTypes.add(PinotDataType.getPinotDataTypeForIngestion(fieldSpec));
       }
     }
+    int numColumns = columns.size();
+    _columns = columns.toArray(new String[0]);
+    _dataTypes = dataTypes.toArray(new PinotDataType[0]);
+    _internalValueClasses = new Class[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      _internalValueClasses[i] = getInternalValueClass(_dataTypes[i]);
+    }
+  }
+
+  @Nullable
+  private static Class getInternalValueClass(PinotDataType dataType) {
+    switch (dataType) {
+      case INTEGER:
+      case INTEGER_ARRAY:
+        return Integer.class;
+      case LONG:
+      case LONG_ARRAY:
+        return Long.class;
+      case FLOAT:
+      case FLOAT_ARRAY:
+        return Float.class;
+      case DOUBLE:
+      case DOUBLE_ARRAY:
+        return Double.class;
+      case STRING:
+      case STRING_ARRAY:
+        return String.class;
+      case BYTES:
+        return byte[].class;
+      default:
+        return null;
+    }
   }
 
   @Override
   public GenericRow transform(GenericRow record) {
-    for (Map.Entry<String, PinotDataType> entry : _dataTypes.entrySet()) {
-      String column = entry.getKey();
+    int numColumns = _columns.length;
+    for (int i = 0; i < numColumns; i++) {
+      String column = _columns[i];
       try {
-        Object value = record.getValue(column);
-        if (value == null) {
+        Object originalValue = record.getValue(column);
+        if (originalValue == null) {
           continue;
         }
-        PinotDataType dest = entry.getValue();
-        value = standardize(column, value, dest.isSingleValue());
+        PinotDataType dest = _dataTypes[i];
+        boolean isSingleValue = dest.isSingleValue();
+        Object value = standardize(column, originalValue, isSingleValue);
         // NOTE: The standardized value could be null for empty Collection/Map/Object[].
         if (value == null) {
           record.putValue(column, null);
@@ -95,19 +137,29 @@ public class DataTypeTransformer implements RecordTransformer {
         }
 
         // Convert data type if necessary
+        // NOTE: Values already in the internal representation (the common case) skip the type lookup and conversion
         PinotDataType source;
         if (value instanceof Object[]) {
           // Multi-value column
-          Object[] values = (Object[]) value;
-          source = MULTI_VALUE_TYPE_MAP.get(values[0].getClass());
-          if (source == null) {
-            source = PinotDataType.OBJECT_ARRAY;
+          Class valueClass = ((Object[]) value)[0].getClass();
+          if (valueClass == _internalValueClasses[i]) {
+            source = dest;
+          } else {
+            source = MULTI_VALUE_TYPE_MAP.get(valueClass);
+            if (source == null) {
+              source = PinotDataType.OBJECT_ARRAY;
+            }
           }
         } else {
           // Single-value column
-          source = SINGLE_VALUE_TYPE_MAP.get(value.getClass());
-          if (source == null) {
-            source = PinotDataType.OBJECT;
+          Class valueClass = value.getClass();
+          if (isSingleValue && valueClass == _internalValueClasses[i]) {
+            source = dest;
+          } else {
+            source = SINGLE_VALUE_TYPE_MAP.get(valueClass);
+            if (source == null) {
+              source = PinotDataType.OBJECT;
+            }
           }
         }
         if (source != dest) {
@@ -115,7 +167,9 @@ public class DataTypeTransformer implements RecordTransformer {
         }
         value = dest.toInternal(value);
 
-        record.putValue(column, value);
+        if (value != originalValue) {
+          record.putValue(column, value);
+        }
       } catch (Exception e) {
         throw new RuntimeException("Caught exception while transforming data type for column: " + column, e);
       }
@@ -152,6 +206,12 @@ public class DataTypeTransformer implements RecordTransformer {
       if (numValues == 1) {
         return standardize(column, values[0], isSingleValue);
       }
+      if (isStandardized(values)) {
+        // Fast path for the common case where there is no null or nested value
+        Preconditions.checkState(!isSingleValue, "Cannot read single-value from Object[]: %s for column: %s",
+            Arrays.toString(values), column);
+        return values;
+      }
       List<Object> standardizedValues = new ArrayList<>(numValues);
       for (Object singleValue : values) {
         Object standardizedValue = standardize(column, singleValue, true);
@@ -181,6 +241,13 @@ public class DataTypeTransformer implements RecordTransformer {
     if (numValues == 1) {
       return standardize(column, collection.iterator().next(), isSingleValue);
     }
+    Object[] values = collection.toArray();
+    if (isStandardized(values)) {
+      // Fast path for the common case where there is no null or nested value
+      Preconditions.checkState(!isSingleValue, "Cannot read single-value from Collection: %s for column: %s",
+          collection, column);
+      return values;
+    }
     List<Object> standardizedValues = new ArrayList<>(numValues);
     for (Object singleValue : collection) {
       Object standardizedValue = standardize(column, singleValue, true);
@@ -199,4 +266,17 @@ public class DataTypeTransformer implements RecordTransformer {
         .checkState(!isSingleValue, "Cannot read single-value from Collection: %s for column: %s", collection, column);
     return standardizedValues.toArray();
   }
+
+  /**
+   * Returns whether the given multiple values are already standardized, i.e. none of them is null or nested
+   * Collection/Map/Object[].
+   */
+  private static boolean isStandardized(Object[] values) {
+    for (Object value : values) {
+      if (value == null || value instanceof Collection || value instanceof Map || value instanceof Object[]) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -40,7 +40,9 @@ import org.apache.pinot.spi.data.readers.GenericRow;
  */
 public class ExpressionTransformer implements RecordTransformer {
 
-  private final LinkedHashMap<String, FunctionEvaluator> _expressionEvaluators = new LinkedHashMap<>();
+  // Columns and their function evaluators in the evaluation order
+  private final String[] _columns;
+  private final FunctionEvaluator[] _expressionEvaluators;
 
   public ExpressionTransformer(TableConfig tableConfig, Schema schema) {
     Map<String, FunctionEvaluator> expressionEvaluators = new HashMap<>();
@@ -62,12 +64,16 @@ public class ExpressionTransformer implements RecordTransformer {
 
     // Sort the transform functions based on dependencies
     Set<String> visited = new HashSet<>();
+    LinkedHashMap<String, FunctionEvaluator> sortedExpressionEvaluators = new LinkedHashMap<>();
     for (Map.Entry<String, FunctionEvaluator> entry : expressionEvaluators.entrySet()) {
-      topologicalSort(entry.getKey(), expressionEvaluators, visited);
+      topologicalSort(entry.getKey(), expressionEvaluators, visited, sortedExpressionEvaluators);
     }
+    _columns = sortedExpressionEvaluators.keySet().toArray(new String[0]);
+    _expressionEvaluators = sortedExpressionEvaluators.values().toArray(new FunctionEvaluator[0]);
   }
 
-  private void topologicalSort(String column, Map<String, FunctionEvaluator> expressionEvaluators, Set<String> visited) {
+  private static void topologicalSort(String column, Map<String, FunctionEvaluator> expressionEvaluators,
+      Set<String> visited, LinkedHashMap<String, FunctionEvaluator> sortedExpressionEvaluators) {
     if (visited.contains(column)) {
       return;
     }
@@ -78,17 +84,18 @@ public class ExpressionTransformer implements RecordTransformer {
     }
     List<String> arguments = functionEvaluator.getArguments();
     for (String arg : arguments) {
-      topologicalSort(arg, expressionEvaluators, visited);
+      topologicalSort(arg, expressionEvaluators, visited, sortedExpressionEvaluators);
     }
     visited.add(column);
-    _expressionEvaluators.put(column, functionEvaluator);
+    sortedExpressionEvaluators.put(column, functionEvaluator);
   }
 
   @Override
   public GenericRow transform(GenericRow record) {
-    for (Map.Entry<String, FunctionEvaluator> entry : _expressionEvaluators.entrySet()) {
-      String column = entry.getKey();
-      FunctionEvaluator transformFunctionEvaluator = entry.getValue();
+    int numColumns = _columns.length;
+    for (int i = 0; i < numColumns; i++) {
+      String column = _columns[i];
+      FunctionEvaluator transformFunctionEvaluator = _expressionEvaluators[i];
       // Skip transformation if column value already exist.
       // NOTE: column value might already exist for OFFLINE data
       if (record.getValue(column) == null) {
@@ -18,8 +18,8 @@
  */
 package org.apache.pinot.segment.local.recordtransformer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.FieldSpec.FieldType;
 import org.apache.pinot.spi.data.Schema;
@@ -27,29 +27,36 @@ import org.apache.pinot.spi.data.readers.GenericRow;
 
 
 public class NullValueTransformer implements RecordTransformer {
-  private final Map<String, Object> _defaultNullValues = new HashMap<>();
+  // Fields and their default null values, indexed by the slot of the field
+  private final String[] _fieldNames;
+  private final Object[] _defaultNullValues;
 
   public NullValueTransformer(Schema schema) {
+    List<String> fieldNames = new ArrayList<>();
+    List<Object> defaultNullValues = new ArrayList<>();
     for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
       if (!fieldSpec.isVirtualColumn() && fieldSpec.getFieldType() != FieldType.TIME) {
-        String fieldName = fieldSpec.getName();
+        fieldNames.add(fieldSpec.getName());
         Object defaultNullValue = fieldSpec.getDefaultNullValue();
         if (fieldSpec.isSingleValueField()) {
-          _defaultNullValues.put(fieldName, defaultNullValue);
+          defaultNullValues.add(defaultNullValue);
         } else {
-          _defaultNullValues.put(fieldName, new Object[]{defaultNullValue});
+          defaultNullValues.add(new Object[]{defaultNullValue});
         }
       }
     }
+    _fieldNames = fieldNames.toArray(new String[0]);
+    _defaultNullValues = defaultNullValues.toArray();
   }
 
   @Override
   public GenericRow transform(GenericRow record) {
-    for (Map.Entry<String, Object> entry : _defaultNullValues.entrySet()) {
-      String fieldName = entry.getKey();
+    int numFields = _fieldNames.length;
+    for (int i = 0; i < numFields; i++) {
+      String fieldName = _fieldNames[i];
       Object value = record.getValue(fieldName);
       if (value == null) {
-        record.putDefaultNullValue(fieldName, entry.getValue());
+        record.putDefaultNullValue(fieldName, _defaultNullValues[i]);
       }
     }
     return record;
@@ -18,8 +18,8 @@
  */
 package org.apache.pinot.segment.local.recordtransformer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.pinot.common.utils.StringUtil;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
@@ -38,21 +38,33 @@ import org.apache.pinot.spi.data.readers.GenericRow;
  * {@link FieldSpec}.
  */
 public class SanitizationTransformer implements RecordTransformer {
-  private final Map<String, Integer> _stringColumnMaxLengthMap = new HashMap<>();
+  // String columns and their max lengths, indexed by the slot of the column
+  private final String[] _stringColumns;
+  private final int[] _maxLengths;
 
   public SanitizationTransformer(Schema schema) {
+    List<FieldSpec> stringFieldSpecs = new ArrayList<>();
     for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
       if (!fieldSpec.isVirtualColumn() && fieldSpec.getDataType() == DataType.STRING) {
-        _stringColumnMaxLengthMap.put(fieldSpec.getName(), fieldSpec.getMaxLength());
+        stringFieldSpecs.add(fieldSpec);
       }
     }
+    int numStringColumns = stringFieldSpecs.size();
+    _stringColumns = new String[numStringColumns];
+    _maxLengths = new int[numStringColumns];
+    for (int i = 0; i < numStringColumns; i++) {
+      FieldSpec fieldSpec = stringFieldSpecs.get(i);
+      _stringColumns[i] = fieldSpec.getName();
+      _maxLengths[i] = fieldSpec.getMaxLength();
+    }
   }
 
   @Override
   public GenericRow transform(GenericRow record) {
-    for (Map.Entry<String, Integer> entry : _stringColumnMaxLengthMap.entrySet()) {
-      String stringColumn = entry.getKey();
-      int maxLength = entry.getValue();
+    int numStringColumns = _stringColumns.length;
+    for (int i = 0; i < numStringColumns; i++) {
+      String stringColumn = _stringColumns[i];
+      int maxLength = _maxLengths[i];
       Object value = record.getValue(stringColumn);
       if (value instanceof String) {
         // Single-valued column
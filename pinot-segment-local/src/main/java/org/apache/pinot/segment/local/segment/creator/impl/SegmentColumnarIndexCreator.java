@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.pinot.common.utils.FileUtils;
@@ -49,11 +50,15 @@ import org.apache.pinot.segment.local.segment.creator.impl.inv.json.OnHeapJsonIn
 import org.apache.pinot.segment.local.segment.creator.impl.inv.text.LuceneFSTIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.nullvalue.NullValueVectorCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.text.LuceneTextIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapSplitBlockBloomFilter;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentColumnReader;
 import org.apache.pinot.segment.local.utils.GeometrySerializer;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.segment.spi.creator.SegmentCreator;
 import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.creator.DictionaryBasedInvertedIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.ForwardIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.GeoSpatialIndexCreator;
@@ -62,7 +67,9 @@ import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.SegmentIndexCreationInfo;
 import org.apache.pinot.segment.spi.index.creator.TextIndexCreator;
 import org.apache.pinot.segment.spi.index.reader.H3IndexResolution;
+import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.data.DateTimeFieldSpec;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -91,6 +98,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentColumnarIndexCreator.class);
   // Allow at most 512 characters for the metadata property
   private static final int METADATA_PROPERTY_LENGTH_LIMIT = 512;
+  // Keep the value bloom filter small as it is published into the segment ZK metadata and cached on the broker
+  private static final double VALUE_BLOOM_FILTER_FPP = BloomFilterConfig.DEFAULT_FPP;
+  private static final int MAX_VALUE_BLOOM_FILTER_SIZE_IN_BYTES = 4096;
 
   private SegmentGeneratorConfig config;
   private Map<String, ColumnIndexCreationInfo> indexCreationInfoMap;
@@ -386,88 +396,115 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         throw new RuntimeException("Null value for column:" + columnName);
       }
 
-      boolean isSingleValue = schema.getFieldSpecFor(columnName).isSingleValueField();
-      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+      indexValue(columnName, forwardIndexCreator, columnValueToIndex);
 
-      if (isSingleValue) {
-        // SV column
-        // text-index enabled SV column
-        TextIndexCreator textIndexCreator = _textIndexCreatorMap.get(columnName);
-        if (textIndexCreator != null) {
-          textIndexCreator.add((String) columnValueToIndex);
+      if (_nullHandlingEnabled) {
+        // If row has null value for given column name, add to null value vector
+        if (row.isNullValue(columnName)) {
+          _nullValueVectorCreatorMap.get(columnName).setNull(docIdCounter);
         }
-        JsonIndexCreator jsonIndexCreator = _jsonIndexCreatorMap.get(columnName);
-        if (jsonIndexCreator != null) {
-          jsonIndexCreator.add((String) columnValueToIndex);
+      }
+    }
+    docIdCounter++;
+  }
+
+  @Override
+  public void indexColumn(String columnName, @Nullable int[] sortedDocIds, IndexSegment indexSegment)
+      throws IOException {
+    ForwardIndexCreator forwardIndexCreator = _forwardIndexCreatorMap.get(columnName);
+    DataSource dataSource = indexSegment.getDataSource(columnName);
+    NullValueVectorReader nullValueVector = _nullHandlingEnabled ? dataSource.getNullValueVector() : null;
+    NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+    try (PinotSegmentColumnReader columnReader = new PinotSegmentColumnReader(dataSource.getForwardIndex(),
+        dataSource.getDictionary(), dataSource.getDataSourceMetadata().getMaxNumValuesPerMVEntry())) {
+      for (int i = 0; i < totalDocs; i++) {
+        int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+        indexValue(columnName, forwardIndexCreator, columnReader.getValue(docId));
+        if (nullValueVector != null && nullValueVector.isNull(docId)) {
+          nullValueVectorCreator.setNull(i);
         }
-        GeoSpatialIndexCreator h3IndexCreator = _h3IndexCreatorMap.get(columnName);
-        if (h3IndexCreator != null) {
-          h3IndexCreator.add(GeometrySerializer.deserialize((byte[]) columnValueToIndex));
+      }
+    }
+  }
+
+  /**
+   * Adds the value of the next document into the indexes of the given column.
+   */
+  private void indexValue(String columnName, ForwardIndexCreator forwardIndexCreator, Object columnValueToIndex)
+      throws IOException {
+    boolean isSingleValue = schema.getFieldSpecFor(columnName).isSingleValueField();
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+
+    if (isSingleValue) {
+      // SV column
+      // text-index enabled SV column
+      TextIndexCreator textIndexCreator = _textIndexCreatorMap.get(columnName);
+      if (textIndexCreator != null) {
+        textIndexCreator.add((String) columnValueToIndex);
+      }
+      JsonIndexCreator jsonIndexCreator = _jsonIndexCreatorMap.get(columnName);
+      if (jsonIndexCreator != null) {
+        jsonIndexCreator.add((String) columnValueToIndex);
+      }
+      GeoSpatialIndexCreator h3IndexCreator = _h3IndexCreatorMap.get(columnName);
+      if (h3IndexCreator != null) {
+        h3IndexCreator.add(GeometrySerializer.deserialize((byte[]) columnValueToIndex));
+      }
+      if (dictionaryCreator != null) {
+        // dictionary encoded SV column
+        // get dictID from dictionary
+        int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
+        // store the docID -> dictID mapping in forward index
+        forwardIndexCreator.putDictId(dictId);
+        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+        if (invertedIndexCreator != null) {
+          // if inverted index enabled during segment creation,
+          // then store dictID -> docID mapping in inverted index
+          invertedIndexCreator.add(dictId);
         }
-        if (dictionaryCreator != null) {
-          // dictionary encoded SV column
-          // get dictID from dictionary
-          int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
-          // store the docID -> dictID mapping in forward index
-          forwardIndexCreator.putDictId(dictId);
-          DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
-          if (invertedIndexCreator != null) {
-            // if inverted index enabled during segment creation,
-            // then store dictID -> docID mapping in inverted index
-            invertedIndexCreator.add(dictId);
-          }
-        } else {
-          // non-dictionary encoded SV column
-          // store the docId -> raw value mapping in forward index
-          if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
-            // for text index on raw columns, check the config to determine if actual raw value should
-            // be stored or not
-            columnValueToIndex = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
-            if (columnValueToIndex == null) {
-              columnValueToIndex = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
-            }
-          }
-          switch (forwardIndexCreator.getValueType()) {
-            case INT:
-              forwardIndexCreator.putInt((int) columnValueToIndex);
-              break;
-            case LONG:
-              forwardIndexCreator.putLong((long) columnValueToIndex);
-              break;
-            case FLOAT:
-              forwardIndexCreator.putFloat((float) columnValueToIndex);
-              break;
-            case DOUBLE:
-              forwardIndexCreator.putDouble((double) columnValueToIndex);
-              break;
-            case STRING:
-              forwardIndexCreator.putString((String) columnValueToIndex);
-              break;
-            case BYTES:
-              forwardIndexCreator.putBytes((byte[]) columnValueToIndex);
-              break;
-            default:
-              throw new IllegalStateException();
+      } else {
+        // non-dictionary encoded SV column
+        // store the docId -> raw value mapping in forward index
+        if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
+          // for text index on raw columns, check the config to determine if actual raw value should
+          // be stored or not
+          columnValueToIndex = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
+          if (columnValueToIndex == null) {
+            columnValueToIndex = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
           }
         }
-      } else {
-        // MV column (always dictionary encoded)
-        int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
-        forwardIndexCreator.putDictIdMV(dictIds);
-        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
-        if (invertedIndexCreator != null) {
-          invertedIndexCreator.add(dictIds, dictIds.length);
+        switch (forwardIndexCreator.getValueType()) {
+          case INT:
+            forwardIndexCreator.putInt((int) columnValueToIndex);
+            break;
+          case LONG:
+            forwardIndexCreator.putLong((long) columnValueToIndex);
+            break;
+          case FLOAT:
+            forwardIndexCreator.putFloat((float) columnValueToIndex);
+            break;
+          case DOUBLE:
+            forwardIndexCreator.putDouble((double) columnValueToIndex);
+            break;
+          case STRING:
+            forwardIndexCreator.putString((String) columnValueToIndex);
+            break;
+          case BYTES:
+            forwardIndexCreator.putBytes((byte[]) columnValueToIndex);
+            break;
+          default:
+            throw new IllegalStateException();
         }
       }
-
-      if (_nullHandlingEnabled) {
-        // If row has null value for given column name, add to null value vector
-        if (row.isNullValue(columnName)) {
-          _nullValueVectorCreatorMap.get(columnName).setNull(docIdCounter);
-        }
+    } else {
+      // MV column (always dictionary encoded)
+      int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
+      forwardIndexCreator.putDictIdMV(dictIds);
+      DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+      if (invertedIndexCreator != null) {
+        invertedIndexCreator.add(dictIds, dictIds.length);
       }
     }
-    docIdCounter++;
   }
 
   private boolean shouldStoreRawValueForTextIndex(String column) {
@@ -619,6 +656,10 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
       addColumnMetadataInfo(properties, column, columnIndexCreationInfo, totalDocs, schema.getFieldSpecFor(column),
           _dictionaryCreatorMap.containsKey(column), dictionaryElementSize, hasInvertedIndex, textIndexType,
           hasFSTIndex, hasJsonIndex);
+
+      if (config.getValueBloomFilterColumns().contains(column)) {
+        addColumnValueBloomFilterInfo(properties, column, columnIndexCreationInfo);
+      }
     }
 
     properties.save();
@@ -691,6 +732,46 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     }
   }
 
+  /**
+   * Adds the value bloom filter (compact bloom filter on all the unique values of the column) into the metadata, which
+   * will be published into the segment ZK metadata for the broker to prune segments.
+   * <p>The size of the bloom filter is limited to {@link #MAX_VALUE_BLOOM_FILTER_SIZE_IN_BYTES}, so the fpp can be
+   * higher than {@link #VALUE_BLOOM_FILTER_FPP} for high cardinality columns. Skip adding the bloom filter when the
+   * unique values are not available (e.g. no-dictionary column in real-time segment).
+   */
+  public static void addColumnValueBloomFilterInfo(PropertiesConfiguration properties, String column,
+      ColumnIndexCreationInfo columnIndexCreationInfo) {
+    Object sortedUniqueElementsArray = columnIndexCreationInfo.getSortedUniqueElementsArray();
+    if (sortedUniqueElementsArray == null) {
+      return;
+    }
+    OnHeapSplitBlockBloomFilter bloomFilter =
+        OnHeapSplitBlockBloomFilter.create(columnIndexCreationInfo.getDistinctValueCount(), VALUE_BLOOM_FILTER_FPP,
+            MAX_VALUE_BLOOM_FILTER_SIZE_IN_BYTES);
+    if (sortedUniqueElementsArray instanceof int[]) {
+      for (int value : (int[]) sortedUniqueElementsArray) {
+        bloomFilter.add(Integer.toString(value));
+      }
+    } else if (sortedUniqueElementsArray instanceof long[]) {
+      for (long value : (long[]) sortedUniqueElementsArray) {
+        bloomFilter.add(Long.toString(value));
+      }
+    } else if (sortedUniqueElementsArray instanceof float[]) {
+      for (float value : (float[]) sortedUniqueElementsArray) {
+        bloomFilter.add(Float.toString(value));
+      }
+    } else if (sortedUniqueElementsArray instanceof double[]) {
+      for (double value : (double[]) sortedUniqueElementsArray) {
+        bloomFilter.add(Double.toString(value));
+      }
+    } else {
+      for (Object value : (Object[]) sortedUniqueElementsArray) {
+        bloomFilter.add(value.toString());
+      }
+    }
+    properties.setProperty(getKeyFor(column, VALUE_BLOOM_FILTER), bloomFilter.toBase64String());
+  }
+
   /**
    * Helper method to check whether the given value is a valid property value.
    * <p>Value is invalid iff:
@@ -23,6 +23,7 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,6 +31,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.recordtransformer.CompositeTransformer;
@@ -43,6 +48,7 @@ import org.apache.pinot.segment.local.segment.store.SegmentDirectoryPaths;
 import org.apache.pinot.segment.local.startree.v2.builder.MultipleTreesBuilder;
 import org.apache.pinot.segment.local.utils.CrcUtils;
 import org.apache.pinot.segment.local.utils.IngestionUtils;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.converter.SegmentFormatConverter;
 import org.apache.pinot.segment.spi.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.segment.spi.creator.ColumnStatistics;
@@ -92,6 +98,9 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
   private long totalRecordReadTime = 0;
   private long totalIndexTime = 0;
   private long totalStatsCollectorTime = 0;
+  private long _indexCreatorInitTime = 0;
+  private long _sealTime = 0;
+  private long _starTreeCreationTime = 0;
 
   @Override
   public void init(SegmentGeneratorConfig config)
@@ -163,8 +172,10 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     _recordTransformer = recordTransformer;
 
     // Initialize stats collection
+    long statsCollectionStartTime = System.currentTimeMillis();
     segmentStats = dataSource
         .gatherStats(new StatsCollectorConfig(config.getTableConfig(), dataSchema, config.getSegmentPartitionConfig()));
+    totalStatsCollectorTime = System.currentTimeMillis() - statsCollectionStartTime;
     totalDocs = segmentStats.getTotalDocCount();
 
     // Initialize index creation
@@ -199,7 +210,7 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
     try {
       // Initialize the index creation using the per-column statistics information
-      indexCreator.init(config, segmentIndexCreationInfo, indexCreationInfoMap, dataSchema, tempIndexDir);
+      initIndexCreator();
 
       // Build the index
       recordReader.rewind();
@@ -247,6 +258,80 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     handlePostCreation();
   }
 
+  /**
+   * Builds the segment column by column from the given index segment instead of row by row from the record reader.
+   * The record transformer is not applied, so this should only be used when the records in the index segment are
+   * already transformed, e.g. when converting a realtime segment. When an executor is provided, the columns are indexed
+   * in parallel with the executor, and the calling thread waits for all the columns to be indexed.
+   *
+   * @param indexSegment Index segment to read the values from
+   * @param sortedDocIds Document ids in the order to be indexed, or null to index in the order of the document id
+   * @param executorService Executor to index the columns in parallel, or null to index the columns sequentially
+   */
+  public void buildByColumn(IndexSegment indexSegment, @Nullable int[] sortedDocIds,
+      @Nullable ExecutorService executorService)
+      throws Exception {
+    // Count the number of documents and gather per-column statistics
+    LOGGER.debug("Start building StatsCollector!");
+    buildIndexCreationInfo();
+    LOGGER.info("Finished building StatsCollector!");
+    LOGGER.info("Collected stats for {} documents", totalDocs);
+
+    try {
+      // Initialize the index creation using the per-column statistics information
+      initIndexCreator();
+
+      // Build the index
+      LOGGER.info("Start building IndexCreator by column!");
+      long indexStartTime = System.currentTimeMillis();
+      if (totalDocs > 0) {
+        if (executorService == null) {
+          for (String column : indexCreationInfoMap.keySet()) {
+            indexCreator.indexColumn(column, sortedDocIds, indexSegment);
+          }
+        } else {
+          List<Future<?>> futures = new ArrayList<>(indexCreationInfoMap.size());
+          for (String column : indexCreationInfoMap.keySet()) {
+            futures.add(executorService.submit(() -> {
+              indexCreator.indexColumn(column, sortedDocIds, indexSegment);
+              return null;
+            }));
+          }
+          // NOTE: Wait for all the columns to finish before closing the index creator on failure
+          Exception exception = null;
+          for (Future<?> future : futures) {
+            try {
+              future.get();
+            } catch (ExecutionException e) {
+              if (exception == null) {
+                exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+              }
+            }
+          }
+          if (exception != null) {
+            throw exception;
+          }
+        }
+      }
+      totalIndexTime = System.currentTimeMillis() - indexStartTime;
+    } catch (Exception e) {
+      indexCreator.close();
+      throw e;
+    } finally {
+      recordReader.close();
+    }
+    LOGGER.info("Finished column indexing in IndexCreator!");
+
+    handlePostCreation();
+  }
+
+  private void initIndexCreator()
+      throws Exception {
+    long initStartTime = System.currentTimeMillis();
+    indexCreator.init(config, segmentIndexCreationInfo, indexCreationInfoMap, dataSchema, tempIndexDir);
+    _indexCreatorInitTime = System.currentTimeMillis() - initStartTime;
+  }
+
   private void handlePostCreation()
       throws Exception {
     ColumnStatistics timeColumnStatistics = segmentStats.getColumnProfileFor(config.getTimeColumnName());
@@ -268,6 +353,7 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
       segmentName = config.getSegmentNameGenerator().generateSegmentName(sequenceId, null, null);
     }
 
+    long sealStartTime = System.currentTimeMillis();
     try {
       // Write the index files to disk
       indexCreator.setSegmentName(segmentName);
@@ -292,10 +378,13 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
     // Convert segment format if necessary
     convertFormatIfNecessary(segmentOutputDir);
+    _sealTime = System.currentTimeMillis() - sealStartTime;
 
     // Build star-tree V2 if necessary
     if (totalDocs > 0) {
+      long starTreeCreationStartTime = System.currentTimeMillis();
       buildStarTreeV2IfNecessary(segmentOutputDir);
+      _starTreeCreationTime = System.currentTimeMillis() - starTreeCreationStartTime;
     }
 
     // Compute CRC and creation time
@@ -318,7 +407,10 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
     LOGGER.info("Driver, record read time : {}", totalRecordReadTime);
     LOGGER.info("Driver, stats collector time : {}", totalStatsCollectorTime);
+    LOGGER.info("Driver, index creator init time : {}", _indexCreatorInitTime);
     LOGGER.info("Driver, indexing time : {}", totalIndexTime);
+    LOGGER.info("Driver, seal time : {}", _sealTime);
+    LOGGER.info("Driver, star-tree creation time : {}", _starTreeCreationTime);
   }
 
   private void buildStarTreeV2IfNecessary(File indexDir)
@@ -433,4 +525,39 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
   public SegmentPreIndexStatsContainer getSegmentStats() {
     return segmentStats;
   }
+
+  /**
+   * Returns the time in milliseconds spent on gathering the per-column statistics.
+   */
+  public long getStatsCollectionTimeMs() {
+    return totalStatsCollectorTime;
+  }
+
+  /**
+   * Returns the time in milliseconds spent on initializing the index creator (including creating the dictionaries).
+   */
+  public long getIndexCreatorInitTimeMs() {
+    return _indexCreatorInitTime;
+  }
+
+  /**
+   * Returns the time in milliseconds spent on adding the records (or columns) into the index creator.
+   */
+  public long getIndexingTimeMs() {
+    return totalIndexTime;
+  }
+
+  /**
+   * Returns the time in milliseconds spent on sealing the index creator and converting the segment format.
+   */
+  public long getSealTimeMs() {
+    return _sealTime;
+  }
+
+  /**
+   * Returns the time in milliseconds spent on creating the star-tree indexes.
+   */
+  public long getStarTreeCreationTimeMs() {
+    return _starTreeCreationTime;
+  }
 }
@@ -92,6 +92,7 @@ public class V1Constants {
       public static final String PARTITION_FUNCTION = "partitionFunction";
       public static final String NUM_PARTITIONS = "numPartitions";
       public static final String PARTITION_VALUES = "partitionValues";
+      public static final String VALUE_BLOOM_FILTER = "valueBloomFilter";
       public static final String DATETIME_FORMAT = "datetimeFormat";
       public static final String DATETIME_GRANULARITY = "datetimeGranularity";
       public static final String TEXT_INDEX_TYPE = "textIndexType";
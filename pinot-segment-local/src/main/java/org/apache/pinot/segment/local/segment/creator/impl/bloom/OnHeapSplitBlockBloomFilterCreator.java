@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.bloom;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.SplitBlockBloomFilterUtils;
+import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * On-heap creator for split block bloom filter.
+ * <p>Format of the bloom filter file:
+ * <ul>
+ *   <li>Type value: 4 bytes</li>
+ *   <li>Version: 4 bytes</li>
+ *   <li>Number of blocks: 4 bytes</li>
+ *   <li>Padding: 20 bytes, so that the blocks are aligned to the block size when the file is memory-mapped</li>
+ *   <li>Blocks: 32 bytes (8 int words) per block</li>
+ * </ul>
+ * See {@link SplitBlockBloomFilterUtils} for the details of the bloom filter.
+ */
+public class OnHeapSplitBlockBloomFilterCreator implements BloomFilterCreator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OnHeapSplitBlockBloomFilterCreator.class);
+
+  public static final int TYPE_VALUE = 2;
+  public static final int VERSION = 1;
+  public static final int HEADER_SIZE = SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES;
+
+  private final File _bloomFilterFile;
+  private final int _numBlocks;
+  private final int[] _words;
+
+  public OnHeapSplitBlockBloomFilterCreator(File indexDir, String columnName, int cardinality,
+      BloomFilterConfig bloomFilterConfig) {
+    _bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    // Limit the number of blocks with regards to the max size for the bloom filter
+    int numBlocks = SplitBlockBloomFilterUtils.computeNumBlocks(cardinality, bloomFilterConfig.getFpp());
+    int maxSizeInBytes = bloomFilterConfig.getMaxSizeInBytes();
+    if (maxSizeInBytes > 0) {
+      numBlocks = Math.max(1, Math.min(numBlocks, maxSizeInBytes / SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES));
+    }
+    LOGGER.info("Creating split block bloom filter with cardinality: {}, fpp: {}, number of blocks: {}", cardinality,
+        bloomFilterConfig.getFpp(), numBlocks);
+    _numBlocks = numBlocks;
+    _words = new int[numBlocks * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK];
+  }
+
+  @Override
+  public void add(String value) {
+    long hash = SplitBlockBloomFilterUtils.hash(value);
+    int blockId = SplitBlockBloomFilterUtils.getBlockId(hash, _numBlocks);
+    int wordOffset = blockId * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      _words[wordOffset + i] |= SplitBlockBloomFilterUtils.getMask(hash, i);
+    }
+  }
+
+  @Override
+  public void seal()
+      throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(_bloomFilterFile)))) {
+      out.writeInt(TYPE_VALUE);
+      out.writeInt(VERSION);
+      out.writeInt(_numBlocks);
+      out.write(new byte[HEADER_SIZE - 3 * Integer.BYTES]);
+      for (int word : _words) {
+        out.writeInt(word);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
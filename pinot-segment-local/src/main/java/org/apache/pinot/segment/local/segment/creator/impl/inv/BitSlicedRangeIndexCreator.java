@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.inv;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.index.creator.DictionaryBasedInvertedIndexCreator;
+import org.apache.pinot.segment.spi.index.creator.RawValueBasedInvertedIndexCreator;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+import static org.apache.pinot.segment.local.segment.creator.impl.V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION;
+
+
+/**
+ * Bit-sliced range index creator for single-value INT, LONG, FLOAT and DOUBLE columns (or dictionary ids for
+ * dictionary-encoded columns).
+ * <p>Every value is mapped to an order-preserving long ordinal (see {@link #toOrdinal(float)} and
+ * {@link #toOrdinal(double)} for floating point values), and the offset of the ordinal from the minimum ordinal is
+ * stored as an unsigned binary number with one bitmap per bit (slice). Unlike the bucketed {@link RangeIndexCreator},
+ * range and equality predicates can be answered exactly by combining the slice bitmaps, without scanning the forward
+ * index.
+ * <p>The ordinals are buffered in an off-heap temp buffer while adding values so that the minimum ordinal is known
+ * before the slices are built in {@link #seal()}.
+ */
+public final class BitSlicedRangeIndexCreator
+    implements DictionaryBasedInvertedIndexCreator, RawValueBasedInvertedIndexCreator {
+  public static final int VERSION = 2;
+
+  private static final String ORDINAL_BUFFER_SUFFIX = ".bsi.ord.buf";
+
+  private final File _rangeIndexFile;
+  private final File _tempOrdinalBufferFile;
+  private final PinotDataBuffer _tempOrdinalBuffer;
+  private final DataType _valueType;
+  private final int _numDocs;
+
+  private int _nextDocId;
+  private long _minOrdinal = Long.MAX_VALUE;
+  private long _maxOrdinal = Long.MIN_VALUE;
+
+  /**
+   * @param indexDir destination of the range index file
+   * @param fieldSpec fieldspec of the column to generate the range index
+   * @param valueType DataType of the column, INT if dictionary encoded, or INT, FLOAT, LONG, DOUBLE for raw encoded
+   * @param numDocs total number of documents
+   * @throws IOException
+   */
+  public BitSlicedRangeIndexCreator(File indexDir, FieldSpec fieldSpec, DataType valueType, int numDocs)
+      throws IOException {
+    Preconditions.checkArgument(fieldSpec.isSingleValueField(),
+        "Bit-sliced range index is not supported for multi-value column: %s", fieldSpec.getName());
+    switch (valueType) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        break;
+      default:
+        throw new UnsupportedOperationException("Range index is not supported for columns of data type:" + valueType);
+    }
+    _valueType = valueType;
+    _numDocs = numDocs;
+    String columnName = fieldSpec.getName();
+    _rangeIndexFile = new File(indexDir, columnName + BITMAP_RANGE_INDEX_FILE_EXTENSION);
+    _tempOrdinalBufferFile = new File(indexDir, columnName + ORDINAL_BUFFER_SUFFIX);
+    _tempOrdinalBuffer = PinotDataBuffer
+        .mapFile(_tempOrdinalBufferFile, false, 0, (long) numDocs * Long.BYTES, PinotDataBuffer.NATIVE_ORDER,
+            "BitSlicedRangeIndexCreator: temp buffer");
+  }
+
+  /**
+   * Returns the order-preserving ordinal of the given float value. -0.0 is normalized to 0.0 so that both values share
+   * the same ordinal, which matches the Java comparison semantics.
+   */
+  public static long toOrdinal(float value) {
+    int bits = Float.floatToIntBits(value == 0.0f ? 0.0f : value);
+    return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the order-preserving ordinal of the given double value. -0.0 is normalized to 0.0 so that both values
+   * share the same ordinal, which matches the Java comparison semantics.
+   */
+  public static long toOrdinal(double value) {
+    long bits = Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  @Override
+  public void add(int value) {
+    addOrdinal(value);
+  }
+
+  @Override
+  public void add(int[] values, int length) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(long value) {
+    addOrdinal(value);
+  }
+
+  @Override
+  public void add(long[] values, int length) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(float value) {
+    addOrdinal(toOrdinal(value));
+  }
+
+  @Override
+  public void add(float[] values, int length) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(double value) {
+    addOrdinal(toOrdinal(value));
+  }
+
+  @Override
+  public void add(double[] values, int length) {
+    throw new UnsupportedOperationException();
+  }
+
+  private void addOrdinal(long ordinal) {
+    _tempOrdinalBuffer.putLong((long) _nextDocId * Long.BYTES, ordinal);
+    _minOrdinal = Math.min(_minOrdinal, ordinal);
+    _maxOrdinal = Math.max(_maxOrdinal, ordinal);
+    _nextDocId++;
+  }
+
+  // BIT-SLICED RANGE INDEX FILE LAYOUT
+  //HEADER
+  //   # VERSION (INT)
+  //   # DATA_TYPE (String -> INT (length) (ACTUAL BYTES)
+  //   # Number OF DOCS (INT)
+  //   # Number OF SLICES (INT)
+  //   # MIN ORDINAL (LONG)
+  //   # MAX ORDINAL (LONG)
+  //   Bitmap for Slice 0 Start Offset
+  //      .....
+  //   Bitmap for Slice S - 1 Start Offset
+  //   Bitmap for Slice S - 1 End Offset
+  //BODY
+  //   Bitmap for slice 0 (least significant bit)
+  //    ......
+  //   Bitmap for slice S - 1 (most significant bit)
+  @Override
+  public void seal()
+      throws IOException {
+    Preconditions.checkState(_nextDocId == _numDocs, "Expected %s values, got %s", _numDocs, _nextDocId);
+    if (_numDocs == 0) {
+      _minOrdinal = 0;
+      _maxOrdinal = 0;
+    }
+
+    // The offset from the min ordinal is treated as unsigned so that the full LONG range can be represented
+    int numSlices = Long.SIZE - Long.numberOfLeadingZeros(_maxOrdinal - _minOrdinal);
+    MutableRoaringBitmap[] slices = new MutableRoaringBitmap[numSlices];
+    for (int i = 0; i < numSlices; i++) {
+      slices[i] = new MutableRoaringBitmap();
+    }
+    for (int docId = 0; docId < _numDocs; docId++) {
+      long bits = _tempOrdinalBuffer.getLong((long) docId * Long.BYTES) - _minOrdinal;
+      while (bits != 0) {
+        slices[Long.numberOfTrailingZeros(bits)].add(docId);
+        bits &= bits - 1;
+      }
+    }
+
+    byte[] valueTypeBytes = _valueType.name().getBytes(Charsets.UTF_8);
+    long bitmapOffset =
+        4 * Integer.BYTES + valueTypeBytes.length + 2 * Long.BYTES + (long) (numSlices + 1) * Long.BYTES;
+    try (DataOutputStream dataOutputStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(_rangeIndexFile)))) {
+      dataOutputStream.writeInt(VERSION);
+      dataOutputStream.writeInt(valueTypeBytes.length);
+      dataOutputStream.write(valueTypeBytes);
+      dataOutputStream.writeInt(_numDocs);
+      dataOutputStream.writeInt(numSlices);
+      dataOutputStream.writeLong(_minOrdinal);
+      dataOutputStream.writeLong(_maxOrdinal);
+      for (MutableRoaringBitmap slice : slices) {
+        slice.runOptimize();
+        dataOutputStream.writeLong(bitmapOffset);
+        bitmapOffset += slice.serializedSizeInBytes();
+      }
+      dataOutputStream.writeLong(bitmapOffset);
+      for (MutableRoaringBitmap slice : slices) {
+        slice.serialize(dataOutputStream);
+      }
+    } catch (IOException e) {
+      FileUtils.deleteQuietly(_rangeIndexFile);
+      throw e;
+    }
+    Preconditions.checkState(bitmapOffset == _rangeIndexFile.length(),
+        "Length of range index file: " + _rangeIndexFile.length() + " does not match the number of bytes written: "
+            + bitmapOffset);
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _tempOrdinalBuffer.close();
+    FileUtils.deleteQuietly(_tempOrdinalBufferFile);
+  }
+}
@@ -22,9 +22,11 @@ import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.metadata.ColumnMetadata;
 import org.apache.pinot.segment.local.segment.index.readers.BaseImmutableDictionary;
+import org.apache.pinot.segment.local.segment.index.readers.BitSlicedRangeIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.BitmapInvertedIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.BytesDictionary;
 import org.apache.pinot.segment.local.segment.index.readers.DoubleDictionary;
@@ -174,7 +176,7 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       }
 
       if (loadRangeIndex) {
-        _rangeIndex = new RangeIndexReader(segmentReader.getIndexFor(columnName, ColumnIndexType.RANGE_INDEX));
+        _rangeIndex = loadRangeIndex(segmentReader.getIndexFor(columnName, ColumnIndexType.RANGE_INDEX));
       } else {
         _rangeIndex = null;
       }
@@ -182,7 +184,17 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       // Raw index
       _forwardIndex = loadRawForwardIndex(fwdIndexBuffer, metadata.getDataType());
       _dictionary = null;
-      _rangeIndex = null;
+      // NOTE: Only the bit-sliced range index supports raw index columns
+      if (loadRangeIndex && segmentReader.hasIndexFor(columnName, ColumnIndexType.RANGE_INDEX)) {
+        PinotDataBuffer rangeIndexBuffer = segmentReader.getIndexFor(columnName, ColumnIndexType.RANGE_INDEX);
+        if (rangeIndexBuffer.getInt(0) == BitSlicedRangeIndexCreator.VERSION) {
+          _rangeIndex = new BitSlicedRangeIndexReader(rangeIndexBuffer);
+        } else {
+          _rangeIndex = null;
+        }
+      } else {
+        _rangeIndex = null;
+      }
       _invertedIndex = null;
       _fstIndex = null;
     }
@@ -280,6 +292,15 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     }
   }
 
+  private static InvertedIndexReader<?> loadRangeIndex(PinotDataBuffer rangeIndexBuffer) {
+    // The first int of the range index is the version, which identifies the bucketed or the bit-sliced range index
+    if (rangeIndexBuffer.getInt(0) == BitSlicedRangeIndexCreator.VERSION) {
+      return new BitSlicedRangeIndexReader(rangeIndexBuffer);
+    } else {
+      return new RangeIndexReader(rangeIndexBuffer);
+    }
+  }
+
   private static ForwardIndexReader<?> loadRawForwardIndex(PinotDataBuffer forwardIndexBuffer, DataType dataType) {
     switch (dataType.getStoredType()) {
       case INT:
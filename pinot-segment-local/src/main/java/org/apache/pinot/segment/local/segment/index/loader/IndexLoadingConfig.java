@@ -50,6 +50,7 @@ public class IndexLoadingConfig {
   private List<String> _sortedColumns = Collections.emptyList();
   private Set<String> _invertedIndexColumns = new HashSet<>();
   private Set<String> _rangeIndexColumns = new HashSet<>();
+  private int _rangeIndexVersion = IndexingConfig.DEFAULT_RANGE_INDEX_VERSION;
   private Set<String> _textIndexColumns = new HashSet<>();
   private Set<String> _fstIndexColumns = new HashSet<>();
   private Set<String> _jsonIndexColumns = new HashSet<>();
@@ -109,6 +110,7 @@ public class IndexLoadingConfig {
     if (rangeIndexColumns != null) {
       _rangeIndexColumns.addAll(rangeIndexColumns);
     }
+    _rangeIndexVersion = indexingConfig.getRangeIndexVersion();
 
     List<String> bloomFilterColumns = indexingConfig.getBloomFilterColumns();
     if (bloomFilterColumns != null) {
@@ -268,6 +270,10 @@ public class IndexLoadingConfig {
     return _rangeIndexColumns;
   }
 
+  public int getRangeIndexVersion() {
+    return _rangeIndexVersion;
+  }
+
   /**
    * Used in two places:
    * (1) In {@link PhysicalColumnIndexContainer}
@@ -318,6 +324,14 @@ public class IndexLoadingConfig {
     _rangeIndexColumns = rangeIndexColumns;
   }
 
+  /**
+   * For tests only.
+   */
+  @VisibleForTesting
+  public void setRangeIndexVersion(int rangeIndexVersion) {
+    _rangeIndexVersion = rangeIndexVersion;
+  }
+
   /**
    * Used directly from text search unit test code since the test code
    * doesn't really have a table config and is directly testing the
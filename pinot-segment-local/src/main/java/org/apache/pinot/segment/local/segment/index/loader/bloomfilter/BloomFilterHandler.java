@@ -26,6 +26,7 @@ import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
 import org.apache.pinot.segment.local.segment.index.metadata.ColumnMetadata;
@@ -37,6 +38,7 @@ import org.apache.pinot.segment.local.segment.index.readers.FloatDictionary;
 import org.apache.pinot.segment.local.segment.index.readers.IntDictionary;
 import org.apache.pinot.segment.local.segment.index.readers.LongDictionary;
 import org.apache.pinot.segment.local.segment.index.readers.StringDictionary;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
 import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
 import org.apache.pinot.segment.local.segment.store.ColumnIndexType;
 import org.apache.pinot.segment.local.segment.store.SegmentDirectory;
@@ -88,6 +90,7 @@ public class BloomFilterHandler {
   private void createBloomFilterForColumn(ColumnMetadata columnMetadata)
       throws Exception {
     String columnName = columnMetadata.getColumnName();
+    BloomFilterConfig bloomFilterConfig = _bloomFilterConfigs.get(columnName);
 
     File bloomFilterFileInProgress = new File(_indexDir, columnName + ".bloom.inprogress");
     File bloomFilterFile = new File(_indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
@@ -95,9 +98,24 @@ public class BloomFilterHandler {
     if (!bloomFilterFileInProgress.exists()) {
       // Marker file does not exist, which means last run ended normally.
       if (_segmentWriter.hasIndexFor(columnName, ColumnIndexType.BLOOM_FILTER)) {
-        // Skip creating bloom filter index if already exists.
-        LOGGER.info("Found bloom filter for segment: {}, column: {}", _segmentName, columnName);
-        return;
+        int typeValue = BloomFilterReaderFactory
+            .getTypeValue(_segmentWriter.getIndexFor(columnName, ColumnIndexType.BLOOM_FILTER));
+        if (typeValue == getTypeValue(bloomFilterConfig)) {
+          // Skip creating bloom filter index if already exists.
+          LOGGER.info("Found bloom filter for segment: {}, column: {}", _segmentName, columnName);
+          return;
+        }
+        // Migrate the bloom filter to the configured format (e.g. from guava to split block) if possible.
+        // NOTE: Index removal is not supported for the single file (v3) format, where the existing bloom filter is
+        //       kept as is.
+        if (!_segmentWriter.isIndexRemovalSupported()) {
+          LOGGER.warn("Cannot migrate bloom filter with type value: {} for segment: {}, column: {} in format: {}",
+              typeValue, _segmentName, columnName, _segmentVersion);
+          return;
+        }
+        LOGGER.info("Migrating bloom filter with type value: {} for segment: {}, column: {}", typeValue, _segmentName,
+            columnName);
+        _segmentWriter.removeIndex(columnName, ColumnIndexType.BLOOM_FILTER);
       }
       // Create a marker file.
       FileUtils.touch(bloomFilterFileInProgress);
@@ -109,11 +127,10 @@ public class BloomFilterHandler {
     }
 
     // Create new bloom filter for the column.
-    BloomFilterConfig bloomFilterConfig = _bloomFilterConfigs.get(columnName);
     LOGGER.info("Creating new bloom filter for segment: {}, column: {} with config: {}", _segmentName, columnName,
         bloomFilterConfig);
-    try (BloomFilterCreator bloomFilterCreator = new OnHeapGuavaBloomFilterCreator(_indexDir, columnName,
-        columnMetadata.getCardinality(), bloomFilterConfig);
+    try (BloomFilterCreator bloomFilterCreator = getBloomFilterCreator(columnName, columnMetadata.getCardinality(),
+        bloomFilterConfig);
         Dictionary dictionary = getDictionaryReader(columnMetadata, _segmentWriter)) {
       int length = dictionary.length();
       for (int i = 0; i < length; i++) {
@@ -132,6 +149,20 @@ public class BloomFilterHandler {
     LOGGER.info("Created bloom filter for segment: {}, column: {}", _segmentName, columnName);
   }
 
+  private BloomFilterCreator getBloomFilterCreator(String columnName, int cardinality,
+      BloomFilterConfig bloomFilterConfig) {
+    if (bloomFilterConfig.isSplitBlock()) {
+      return new OnHeapSplitBlockBloomFilterCreator(_indexDir, columnName, cardinality, bloomFilterConfig);
+    } else {
+      return new OnHeapGuavaBloomFilterCreator(_indexDir, columnName, cardinality, bloomFilterConfig);
+    }
+  }
+
+  private static int getTypeValue(BloomFilterConfig bloomFilterConfig) {
+    return bloomFilterConfig.isSplitBlock() ? OnHeapSplitBlockBloomFilterCreator.TYPE_VALUE
+        : OnHeapGuavaBloomFilterCreator.TYPE_VALUE;
+  }
+
   private BaseImmutableDictionary getDictionaryReader(ColumnMetadata columnMetadata,
       SegmentDirectory.Writer segmentWriter)
       throws IOException {
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.RangeIndexCreator;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
@@ -47,6 +48,7 @@ public class RangeIndexHandler {
   private final SegmentDirectory.Writer _segmentWriter;
   private final String _segmentName;
   private final SegmentVersion _segmentVersion;
+  private final int _rangeIndexVersion;
   private final Set<ColumnMetadata> _rangeIndexColumns = new HashSet<>();
 
   public RangeIndexHandler(File indexDir, SegmentMetadataImpl segmentMetadata, IndexLoadingConfig indexLoadingConfig,
@@ -55,6 +57,7 @@ public class RangeIndexHandler {
     _segmentWriter = segmentWriter;
     _segmentName = segmentMetadata.getName();
     _segmentVersion = SegmentVersion.valueOf(segmentMetadata.getVersion());
+    _rangeIndexVersion = indexLoadingConfig.getRangeIndexVersion();
 
     // Only create range index on dictionary-encoded unsorted columns
     for (String column : indexLoadingConfig.getRangeIndexColumns()) {
@@ -99,7 +102,9 @@ public class RangeIndexHandler {
 
     // Create new range index for the column.
     LOGGER.info("Creating new range index for segment: {}, column: {}", _segmentName, column);
-    if (columnMetadata.hasDictionary()) {
+    if (_rangeIndexVersion == BitSlicedRangeIndexCreator.VERSION && columnMetadata.isSingleValue()) {
+      handleBitSlicedColumn(columnMetadata);
+    } else if (columnMetadata.hasDictionary()) {
       handleDictionaryBasedColumn(columnMetadata);
     } else {
       handleNonDictionaryBasedColumn(columnMetadata);
@@ -116,6 +121,49 @@ public class RangeIndexHandler {
     LOGGER.info("Created range index for segment: {}, column: {}", _segmentName, column);
   }
 
+  private void handleBitSlicedColumn(ColumnMetadata columnMetadata)
+      throws IOException {
+    int numDocs = columnMetadata.getTotalDocs();
+    FieldSpec.DataType valueType =
+        columnMetadata.hasDictionary() ? FieldSpec.DataType.INT : columnMetadata.getDataType().getStoredType();
+    try (ForwardIndexReader forwardIndexReader = LoaderUtils.getForwardIndexReader(_segmentWriter, columnMetadata);
+        ForwardIndexReaderContext readerContext = forwardIndexReader.createContext();
+        BitSlicedRangeIndexCreator rangeIndexCreator = new BitSlicedRangeIndexCreator(_indexDir,
+            columnMetadata.getFieldSpec(), valueType, numDocs)) {
+      if (columnMetadata.hasDictionary()) {
+        for (int i = 0; i < numDocs; i++) {
+          rangeIndexCreator.add(forwardIndexReader.getDictId(i, readerContext));
+        }
+      } else {
+        switch (valueType) {
+          case INT:
+            for (int i = 0; i < numDocs; i++) {
+              rangeIndexCreator.add(forwardIndexReader.getInt(i, readerContext));
+            }
+            break;
+          case LONG:
+            for (int i = 0; i < numDocs; i++) {
+              rangeIndexCreator.add(forwardIndexReader.getLong(i, readerContext));
+            }
+            break;
+          case FLOAT:
+            for (int i = 0; i < numDocs; i++) {
+              rangeIndexCreator.add(forwardIndexReader.getFloat(i, readerContext));
+            }
+            break;
+          case DOUBLE:
+            for (int i = 0; i < numDocs; i++) {
+              rangeIndexCreator.add(forwardIndexReader.getDouble(i, readerContext));
+            }
+            break;
+          default:
+            throw new IllegalStateException("Unsupported data type: " + valueType);
+        }
+      }
+      rangeIndexCreator.seal();
+    }
+  }
+
   private void handleDictionaryBasedColumn(ColumnMetadata columnMetadata)
       throws IOException {
     int numDocs = columnMetadata.getTotalDocs();
@@ -76,6 +76,7 @@ public class ColumnMetadata {
   private final PartitionFunction partitionFunction;
   private final int numPartitions;
   private final Set<Integer> _partitions;
+  private final String valueBloomFilter;
   private final String dateTimeFormat;
   private final String dateTimeGranularity;
   private final TextIndexType textIndexType;
@@ -200,6 +201,9 @@ public class ColumnMetadata {
           V1Constants.MetadataKeys.Column.getKeyFor(column, V1Constants.MetadataKeys.Column.PARTITION_VALUES))));
     }
 
+    builder.setValueBloomFilter((String) config.getProperty(
+        V1Constants.MetadataKeys.Column.getKeyFor(column, V1Constants.MetadataKeys.Column.VALUE_BLOOM_FILTER)));
+
     return builder.build();
   }
 
@@ -215,6 +219,14 @@ public class ColumnMetadata {
     return _partitions;
   }
 
+  /**
+   * Returns the base64 encoded value bloom filter (compact bloom filter on all the unique values of the column) to be
+   * published into the segment ZK metadata, or {@code null} if it does not exist.
+   */
+  public String getValueBloomFilter() {
+    return valueBloomFilter;
+  }
+
   public static class Builder {
     private String columnName;
     private int cardinality;
@@ -241,6 +253,7 @@ public class ColumnMetadata {
     private PartitionFunction partitionFunction;
     private int numPartitions;
     private Set<Integer> _partitions;
+    private String valueBloomFilter;
     private String dateTimeFormat;
     private String dateTimeGranularity;
     private String textIndexType = TextIndexType.NONE.name();
@@ -369,6 +382,11 @@ public class ColumnMetadata {
       return this;
     }
 
+    public Builder setValueBloomFilter(String valueBloomFilter) {
+      this.valueBloomFilter = valueBloomFilter;
+      return this;
+    }
+
     public Builder setDateTimeFormat(String dateTimeFormat) {
       this.dateTimeFormat = dateTimeFormat;
       return this;
@@ -388,8 +406,8 @@ public class ColumnMetadata {
       return new ColumnMetadata(columnName, cardinality, totalDocs, dataType, bitsPerElement, columnMaxLength,
           fieldType, isSorted, containsNulls, hasDictionary, hasInvertedIndex, isSingleValue, maxNumberOfMultiValues,
           totalNumberOfEntries, isAutoGenerated, isVirtual, defaultNullValueString, timeUnit, paddingCharacter,
-          minValue, maxValue, partitionFunction, numPartitions, _partitions, dateTimeFormat, dateTimeGranularity,
-          hasFSTIndex, TextIndexType.valueOf(textIndexType));
+          minValue, maxValue, partitionFunction, numPartitions, _partitions, valueBloomFilter, dateTimeFormat,
+          dateTimeGranularity, hasFSTIndex, TextIndexType.valueOf(textIndexType));
     }
   }
 
@@ -398,8 +416,8 @@ public class ColumnMetadata {
       boolean hasInvertedIndex, boolean isSingleValue, int maxNumberOfMultiValues, int totalNumberOfEntries,
       boolean isAutoGenerated, boolean isVirtual, String defaultNullValueString, TimeUnit timeUnit,
       char paddingCharacter, Comparable minValue, Comparable maxValue, PartitionFunction partitionFunction,
-      int numPartitions, Set<Integer> partitions, String dateTimeFormat, String dateTimeGranularity,
-      boolean hasFSTIndex, TextIndexType textIndexType) {
+      int numPartitions, Set<Integer> partitions, String valueBloomFilter, String dateTimeFormat,
+      String dateTimeGranularity, boolean hasFSTIndex, TextIndexType textIndexType) {
     this.columnName = columnName;
     this.cardinality = cardinality;
     this.totalDocs = totalDocs;
@@ -425,6 +443,7 @@ public class ColumnMetadata {
     this.partitionFunction = partitionFunction;
     this.numPartitions = numPartitions;
     _partitions = partitions;
+    this.valueBloomFilter = valueBloomFilter;
     this.dateTimeFormat = dateTimeFormat;
     this.dateTimeGranularity = dateTimeGranularity;
     this.textIndexType = textIndexType;
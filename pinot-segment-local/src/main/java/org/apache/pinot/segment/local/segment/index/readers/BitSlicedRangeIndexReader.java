@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Reader for the bit-sliced range index created by {@link BitSlicedRangeIndexCreator}.
+ * <p>The matching docs for a range of ordinals are computed exactly with the range evaluation algorithm from O'Neil
+ * and Quass, "Improved Query Performance with Variant Indexes": walking the slices from the most significant bit, it
+ * tracks the docs whose value so far equals the prefix of the bound and the docs already known to be less than it.
+ */
+public class BitSlicedRangeIndexReader implements InvertedIndexReader<ImmutableRoaringBitmap> {
+  private final DataType _valueType;
+  private final int _numDocs;
+  private final long _minOrdinal;
+  private final long _maxOrdinal;
+  private final ImmutableRoaringBitmap[] _slices;
+
+  public BitSlicedRangeIndexReader(PinotDataBuffer dataBuffer) {
+    long offset = 0;
+    int version = dataBuffer.getInt(offset);
+    Preconditions.checkState(version == BitSlicedRangeIndexCreator.VERSION,
+        "Unsupported bit-sliced range index version: %s", version);
+    offset += Integer.BYTES;
+
+    int valueTypeBytesLength = dataBuffer.getInt(offset);
+    offset += Integer.BYTES;
+    byte[] valueTypeBytes = new byte[valueTypeBytesLength];
+    dataBuffer.copyTo(offset, valueTypeBytes);
+    offset += valueTypeBytesLength;
+    _valueType = DataType.valueOf(new String(valueTypeBytes));
+
+    _numDocs = dataBuffer.getInt(offset);
+    offset += Integer.BYTES;
+    int numSlices = dataBuffer.getInt(offset);
+    offset += Integer.BYTES;
+    _minOrdinal = dataBuffer.getLong(offset);
+    offset += Long.BYTES;
+    _maxOrdinal = dataBuffer.getLong(offset);
+    offset += Long.BYTES;
+
+    long lastOffset = dataBuffer.getLong(offset + (long) numSlices * Long.BYTES);
+    Preconditions.checkState(lastOffset == dataBuffer.size(),
+        "The last offset should be equal to buffer size! Current lastOffset: " + lastOffset + ", buffer size: "
+            + dataBuffer.size());
+    _slices = new ImmutableRoaringBitmap[numSlices];
+    for (int i = 0; i < numSlices; i++) {
+      long startOffset = dataBuffer.getLong(offset + (long) i * Long.BYTES);
+      long endOffset = dataBuffer.getLong(offset + (long) (i + 1) * Long.BYTES);
+      _slices[i] =
+          new ImmutableRoaringBitmap(dataBuffer.toDirectByteBuffer(startOffset, (int) (endOffset - startOffset)));
+    }
+  }
+
+  /**
+   * Returns the value type of the index, INT for dictionary-encoded columns.
+   */
+  public DataType getValueType() {
+    return _valueType;
+  }
+
+  /**
+   * Returns the docs whose dictionary id (or INT value for raw INT columns) equals the given value.
+   */
+  @Override
+  public ImmutableRoaringBitmap getDocIds(int dictId) {
+    return getMatchingDocIds(dictId, dictId);
+  }
+
+  /**
+   * Returns the docs with ordinal within the given range (both ends inclusive). The ordinal of INT and LONG values (and
+   * dictionary ids) is the value itself, and the ordinal of FLOAT and DOUBLE values is computed with
+   * {@link BitSlicedRangeIndexCreator#toOrdinal(float)} and {@link BitSlicedRangeIndexCreator#toOrdinal(double)}.
+   */
+  public MutableRoaringBitmap getMatchingDocIds(long lowerOrdinal, long upperOrdinal) {
+    long lower = Math.max(lowerOrdinal, _minOrdinal);
+    long upper = Math.min(upperOrdinal, _maxOrdinal);
+    if (lower > upper) {
+      return new MutableRoaringBitmap();
+    }
+    // Offsets from the min ordinal are unsigned
+    long lowerOffset = lower - _minOrdinal;
+    long upperOffset = upper - _minOrdinal;
+    if (lowerOffset == upperOffset) {
+      return evaluate(upperOffset, false);
+    }
+    MutableRoaringBitmap docIds;
+    if (upper == _maxOrdinal) {
+      docIds = allDocs();
+    } else {
+      docIds = evaluate(upperOffset, true);
+    }
+    if (lowerOffset != 0) {
+      docIds.andNot(evaluate(lowerOffset - 1, true));
+    }
+    return docIds;
+  }
+
+  /**
+   * Returns the docs with offset less than or equal to the given offset when {@code lessThanOrEqual} is true, or equal
+   * to the given offset otherwise.
+   */
+  private MutableRoaringBitmap evaluate(long offset, boolean lessThanOrEqual) {
+    MutableRoaringBitmap lessThan = new MutableRoaringBitmap();
+    MutableRoaringBitmap equal = allDocs();
+    for (int i = _slices.length - 1; i >= 0; i--) {
+      if (((offset >>> i) & 1) != 0) {
+        if (lessThanOrEqual) {
+          lessThan.or(ImmutableRoaringBitmap.andNot(equal, _slices[i]));
+        }
+        equal.and(_slices[i]);
+      } else {
+        equal.andNot(_slices[i]);
+      }
+    }
+    if (lessThanOrEqual) {
+      lessThan.or(equal);
+      return lessThan;
+    } else {
+      return equal;
+    }
+  }
+
+  private MutableRoaringBitmap allDocs() {
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    docIds.add(0L, (long) _numDocs);
+    return docIds;
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
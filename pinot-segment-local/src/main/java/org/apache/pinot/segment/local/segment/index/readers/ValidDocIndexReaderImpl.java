@@ -34,4 +34,9 @@ public class ValidDocIndexReaderImpl implements ValidDocIndexReader {
   public ImmutableRoaringBitmap getValidDocBitmap() {
     return _validDocBitmap.getMutableRoaringBitmap();
   }
+
+  @Override
+  public int getNumValidDocs() {
+    return _validDocBitmap.getCardinality();
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.pinot.segment.local.segment.index.readers.bloom;
 
 import com.google.common.base.Preconditions;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
 
@@ -32,13 +33,30 @@ public class BloomFilterReaderFactory {
   private static final int VERSION_OFFSET = 4;
   private static final int HEADER_SIZE = 8;
 
+  /**
+   * Returns the type value of the bloom filter stored in the given data buffer.
+   */
+  public static int getTypeValue(PinotDataBuffer dataBuffer) {
+    return dataBuffer.getInt(TYPE_VALUE_OFFSET);
+  }
+
+  /**
+   * Returns the bloom filter reader for the given data buffer based on the type value and version stored in the header.
+   * <p>The on-heap flag only applies to the guava bloom filter, and the split block bloom filter is always read from
+   * the memory-mapped data buffer.
+   */
   public static BloomFilterReader getBloomFilterReader(PinotDataBuffer dataBuffer, boolean onHeap) {
     int typeValue = dataBuffer.getInt(TYPE_VALUE_OFFSET);
     int version = dataBuffer.getInt(VERSION_OFFSET);
+    PinotDataBuffer bloomFilterDataBuffer = dataBuffer.view(HEADER_SIZE, dataBuffer.size());
+    if (typeValue == OnHeapSplitBlockBloomFilterCreator.TYPE_VALUE) {
+      Preconditions.checkState(version == OnHeapSplitBlockBloomFilterCreator.VERSION,
+          "Unsupported split block bloom filter version: %s", version);
+      return new OffHeapSplitBlockBloomFilterReader(bloomFilterDataBuffer);
+    }
     Preconditions.checkState(
         typeValue == OnHeapGuavaBloomFilterCreator.TYPE_VALUE && version == OnHeapGuavaBloomFilterCreator.VERSION,
         "Unsupported bloom filter type value: %s and version: %s", typeValue, version);
-    PinotDataBuffer bloomFilterDataBuffer = dataBuffer.view(HEADER_SIZE, dataBuffer.size());
     return onHeap ? new OnHeapGuavaBloomFilterReader(bloomFilterDataBuffer)
         : new OffHeapGuavaBloomFilterReader(bloomFilterDataBuffer);
   }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+
+
+/**
+ * Off-heap reader for split block bloom filter, which reads the blocks directly from the memory-mapped data buffer.
+ * <p>See {@link SplitBlockBloomFilterUtils} for the details of the bloom filter.
+ */
+public class OffHeapSplitBlockBloomFilterReader implements BloomFilterReader {
+  // Format of the data buffer (after the type value and version):
+  //   - Number of blocks: 4 bytes
+  //   - Padding: 20 bytes
+  //   - Blocks: 32 bytes per block
+  private static final int NUM_BLOCKS_OFFSET = 0;
+  private static final int BLOCKS_OFFSET = 24;
+
+  private final int _numBlocks;
+  private final PinotDataBuffer _blocksBuffer;
+
+  public OffHeapSplitBlockBloomFilterReader(PinotDataBuffer dataBuffer) {
+    _numBlocks = dataBuffer.getInt(NUM_BLOCKS_OFFSET);
+    long blocksSize = (long) _numBlocks * SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES;
+    Preconditions.checkState(_numBlocks > 0 && BLOCKS_OFFSET + blocksSize <= dataBuffer.size(),
+        "Invalid number of blocks: %s for data buffer of size: %s", _numBlocks, dataBuffer.size());
+    _blocksBuffer = dataBuffer.view(BLOCKS_OFFSET, BLOCKS_OFFSET + blocksSize);
+  }
+
+  @Override
+  public boolean mightContain(String value) {
+    return mightContain(SplitBlockBloomFilterUtils.hash(value));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>Only the first hash is used by the split block bloom filter.
+   */
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    return mightContain(hash1);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>All the values are hashed before probing the bloom filter, so that the probing loop only reads the blocks.
+   */
+  @Override
+  public boolean mightContainAny(List<String> values) {
+    int numValues = values.size();
+    long[] hashes = new long[numValues];
+    for (int i = 0; i < numValues; i++) {
+      hashes[i] = SplitBlockBloomFilterUtils.hash(values.get(i));
+    }
+    for (long hash : hashes) {
+      if (mightContain(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean mightContain(long hash) {
+    // NOTE: All the words for the hash are within the same block
+    long blockOffset =
+        (long) SplitBlockBloomFilterUtils.getBlockId(hash, _numBlocks) * SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      int mask = SplitBlockBloomFilterUtils.getMask(hash, i);
+      if ((_blocksBuffer.getInt(blockOffset + (long) i * Integer.BYTES) & mask) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
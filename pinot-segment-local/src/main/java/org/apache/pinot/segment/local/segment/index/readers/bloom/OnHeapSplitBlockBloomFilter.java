@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+
+
+/**
+ * Compact on-heap split block bloom filter which can be serialized into a base64 encoded string.
+ * <p>It is used to publish a small summary of the column values into the segment metadata (and then into the segment
+ * ZK metadata), so that the broker can prune the segments for point lookups without routing the query to the servers.
+ * The hash function and the block layout are the same as the split block bloom filter stored in the segment. See
+ * {@link SplitBlockBloomFilterUtils} for the details of the bloom filter.
+ * <p>Format of the serialized bytes: blocks only, 32 bytes (8 int words) per block.
+ */
+public class OnHeapSplitBlockBloomFilter implements BloomFilterReader {
+  private final int _numBlocks;
+  private final int[] _words;
+
+  private OnHeapSplitBlockBloomFilter(int[] words) {
+    _numBlocks = words.length / SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    _words = words;
+  }
+
+  /**
+   * Creates an empty bloom filter for the given number of insertions and fpp, with size limited to the given max size.
+   */
+  public static OnHeapSplitBlockBloomFilter create(int numInsertions, double fpp, int maxSizeInBytes) {
+    int numBlocks = SplitBlockBloomFilterUtils.computeNumBlocks(numInsertions, fpp);
+    numBlocks = Math.max(1, Math.min(numBlocks, maxSizeInBytes / SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES));
+    return new OnHeapSplitBlockBloomFilter(new int[numBlocks * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK]);
+  }
+
+  /**
+   * De-serializes the bloom filter from the given base64 encoded string.
+   */
+  public static OnHeapSplitBlockBloomFilter fromBase64String(String base64String) {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(Base64.getDecoder().decode(base64String));
+    int numBytes = byteBuffer.remaining();
+    Preconditions.checkState(numBytes > 0 && numBytes % SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES == 0,
+        "Invalid size: %s for split block bloom filter", numBytes);
+    int[] words = new int[numBytes / Integer.BYTES];
+    byteBuffer.asIntBuffer().get(words);
+    return new OnHeapSplitBlockBloomFilter(words);
+  }
+
+  /**
+   * Serializes the bloom filter into a base64 encoded string.
+   */
+  public String toBase64String() {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(_words.length * Integer.BYTES);
+    byteBuffer.asIntBuffer().put(_words);
+    return Base64.getEncoder().encodeToString(byteBuffer.array());
+  }
+
+  public int getNumBlocks() {
+    return _numBlocks;
+  }
+
+  public void add(String value) {
+    long hash = SplitBlockBloomFilterUtils.hash(value);
+    int wordOffset =
+        SplitBlockBloomFilterUtils.getBlockId(hash, _numBlocks) * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      _words[wordOffset + i] |= SplitBlockBloomFilterUtils.getMask(hash, i);
+    }
+  }
+
+  @Override
+  public boolean mightContain(String value) {
+    return mightContain(SplitBlockBloomFilterUtils.hash(value));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>Only the first hash is used by the split block bloom filter.
+   */
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    return mightContain(hash1);
+  }
+
+  @Override
+  public boolean mightContainAny(List<String> values) {
+    for (String value : values) {
+      if (mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean mightContain(long hash) {
+    int wordOffset =
+        SplitBlockBloomFilterUtils.getBlockId(hash, _numBlocks) * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      if ((_words[wordOffset + i] & SplitBlockBloomFilterUtils.getMask(hash, i)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.pinot.spi.utils.StringUtils;
+
+
+/**
+ * Utility methods shared by the creator and reader of the split block bloom filter.
+ * <p>The split block bloom filter is composed of 256-bit blocks, each of which contains 8 32-bit words. A value is
+ * hashed into a single block, and sets exactly 1 bit in each of the 8 words of the block. All the bits for a value
+ * are within 32 bytes (half a cache line), so each membership test costs at most 1 cache miss, compared to up to k
+ * cache misses for the guava bloom filter where the k bits are scattered across the whole filter. The trade-off is a
+ * slightly higher false positive probability for the same size.
+ * <p>See "Cache-, Hash- and Space-Efficient Bloom Filters" (Putze et al.) and the Parquet bloom filter specification
+ * for the details of the format.
+ */
+@SuppressWarnings("UnstableApiUsage")
+public class SplitBlockBloomFilterUtils {
+  private SplitBlockBloomFilterUtils() {
+  }
+
+  public static final int NUM_WORDS_PER_BLOCK = 8;
+  public static final int BLOCK_SIZE_IN_BYTES = NUM_WORDS_PER_BLOCK * Integer.BYTES;
+  // Keep the size of the bloom filter within 2GB
+  public static final int MAX_NUM_BLOCKS = Integer.MAX_VALUE / BLOCK_SIZE_IN_BYTES - 1;
+
+  // DO NOT change the hash function and the salts. They have to be aligned with the bloom filter creator.
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  // Odd constants used to derive the bit to set within each word from the lower 32 bits of the hash (same as Parquet)
+  private static final int[] SALTS =
+      {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+  /**
+   * Returns the 64-bit hash of the given value.
+   */
+  public static long hash(String value) {
+    return HASH_FUNCTION.hashBytes(StringUtils.encodeUtf8(value)).asLong();
+  }
+
+  /**
+   * Returns the id of the block for the given hash, computed from the higher 32 bits of the hash.
+   */
+  public static int getBlockId(long hash, int numBlocks) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32);
+  }
+
+  /**
+   * Returns the mask (with exactly 1 bit set) of the given word within the block for the given hash, computed from the
+   * lower 32 bits of the hash.
+   */
+  public static int getMask(long hash, int wordIndex) {
+    return 1 << ((((int) hash) * SALTS[wordIndex]) >>> 27);
+  }
+
+  /**
+   * Calculates the number of blocks required to achieve the given fpp (false positive probability) for the given number
+   * of insertions.
+   * <p>For each word, the probability of the bit being set after inserting n values into m bits is about
+   * 1 - e ^ (-8n/m), and a false positive requires the bits in all 8 words being set, so m = -8n / ln(1 - p ^ (1/8)).
+   */
+  public static int computeNumBlocks(int numInsertions, double fpp) {
+    double numBits =
+        -NUM_WORDS_PER_BLOCK * (double) numInsertions / Math.log(1 - Math.pow(fpp, 1.0 / NUM_WORDS_PER_BLOCK));
+    double numBlocks = Math.ceil(numBits / (BLOCK_SIZE_IN_BYTES * Byte.SIZE));
+    return (int) Math.max(1, Math.min(numBlocks, MAX_NUM_BLOCKS));
+  }
+}
@@ -152,6 +152,15 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
     }
   }
 
+  /**
+   * Returns {@code true} if the given document ids form a contiguous range, {@code false} otherwise.
+   * <p>NOTE: The document ids are expected to be sorted and unique, which is the case for the document ids from the
+   * filter.
+   */
+  protected static boolean isContiguousRange(int[] docIds, int length) {
+    return length > 0 && docIds[length - 1] - docIds[0] == length - 1;
+  }
+
   @Override
   public boolean isDictionaryEncoded() {
     return false;
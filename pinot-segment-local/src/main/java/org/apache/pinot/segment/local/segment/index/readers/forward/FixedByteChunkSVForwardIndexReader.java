@@ -91,4 +91,74 @@ public final class FixedByteChunkSVForwardIndexReader extends BaseChunkSVForward
       return _rawData.getDouble(docId * Double.BYTES);
     }
   }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, int[] values, ChunkReaderContext context) {
+    if (_valueType == DataType.INT && isContiguousRange(docIds, length)) {
+      readContiguousValues(docIds[0], length, Integer.BYTES, context,
+          (buffer, index, numValues) -> buffer.asIntBuffer().get(values, index, numValues));
+    } else {
+      super.readValuesSV(docIds, length, values, context);
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, long[] values, ChunkReaderContext context) {
+    if (_valueType == DataType.LONG && isContiguousRange(docIds, length)) {
+      readContiguousValues(docIds[0], length, Long.BYTES, context,
+          (buffer, index, numValues) -> buffer.asLongBuffer().get(values, index, numValues));
+    } else {
+      super.readValuesSV(docIds, length, values, context);
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, float[] values, ChunkReaderContext context) {
+    if (_valueType == DataType.FLOAT && isContiguousRange(docIds, length)) {
+      readContiguousValues(docIds[0], length, Float.BYTES, context,
+          (buffer, index, numValues) -> buffer.asFloatBuffer().get(values, index, numValues));
+    } else {
+      super.readValuesSV(docIds, length, values, context);
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, double[] values, ChunkReaderContext context) {
+    if (_valueType == DataType.DOUBLE && isContiguousRange(docIds, length)) {
+      readContiguousValues(docIds[0], length, Double.BYTES, context,
+          (buffer, index, numValues) -> buffer.asDoubleBuffer().get(values, index, numValues));
+    } else {
+      super.readValuesSV(docIds, length, values, context);
+    }
+  }
+
+  /**
+   * Reads the values for the contiguous document id range starting at the given document id. For each chunk (or the
+   * whole range for uncompressed data), the value reader is invoked with a buffer positioned at the first value to
+   * read, the index of the first value in the value buffer and the number of values to read.
+   */
+  private void readContiguousValues(int startDocId, int length, int numBytesPerValue, ChunkReaderContext context,
+      BulkValueReader valueReader) {
+    if (_isCompressed) {
+      int endDocId = startDocId + length;
+      int docId = startDocId;
+      while (docId < endDocId) {
+        ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
+        int chunkRowId = docId % _numDocsPerChunk;
+        int numValuesInChunk = Math.min(_numDocsPerChunk - chunkRowId, endDocId - docId);
+        // NOTE: Duplicate the chunk buffer to not modify its position, and keep the byte order which is not preserved
+        ByteBuffer valueBuffer = chunkBuffer.duplicate().order(chunkBuffer.order());
+        valueBuffer.position(chunkRowId * numBytesPerValue);
+        valueReader.read(valueBuffer, docId - startDocId, numValuesInChunk);
+        docId += numValuesInChunk;
+      }
+    } else {
+      valueReader.read(_rawData.toDirectByteBuffer((long) startDocId * numBytesPerValue, length * numBytesPerValue), 0,
+          length);
+    }
+  }
+
+  private interface BulkValueReader {
+    void read(ByteBuffer buffer, int index, int numValues);
+  }
 }
@@ -142,6 +142,63 @@ public final class VarByteChunkSVForwardIndexReader extends BaseChunkSVForwardIn
     return bytes;
   }
 
+  @Override
+  public void readValuesSV(int[] docIds, int length, String[] values, ChunkReaderContext context) {
+    if (_valueType != DataType.STRING || !_isCompressed || !isContiguousRange(docIds, length)) {
+      super.readValuesSV(docIds, length, values, context);
+      return;
+    }
+    byte[] bytes = _reusableBytes.get();
+    int docId = docIds[0];
+    int endDocId = docId + length;
+    int index = 0;
+    while (docId < endDocId) {
+      ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
+      int chunkRowId = docId % _numDocsPerChunk;
+      int numValuesInChunk = Math.min(_numDocsPerChunk - chunkRowId, endDocId - docId);
+
+      // For contiguous rows, the end offset of the current value is the start offset of the next value
+      int valueStartOffset = chunkBuffer.getInt(chunkRowId * ROW_OFFSET_SIZE);
+      chunkBuffer.position(valueStartOffset);
+      for (int i = 0; i < numValuesInChunk; i++) {
+        int valueEndOffset = getValueEndOffset(chunkRowId + i, chunkBuffer);
+        int valueLength = valueEndOffset - valueStartOffset;
+        chunkBuffer.get(bytes, 0, valueLength);
+        values[index++] = StringUtil.decodeUtf8(bytes, 0, valueLength);
+        valueStartOffset = valueEndOffset;
+      }
+      docId += numValuesInChunk;
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, byte[][] values, ChunkReaderContext context) {
+    if (_valueType != DataType.BYTES || !_isCompressed || !isContiguousRange(docIds, length)) {
+      super.readValuesSV(docIds, length, values, context);
+      return;
+    }
+    int docId = docIds[0];
+    int endDocId = docId + length;
+    int index = 0;
+    while (docId < endDocId) {
+      ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
+      int chunkRowId = docId % _numDocsPerChunk;
+      int numValuesInChunk = Math.min(_numDocsPerChunk - chunkRowId, endDocId - docId);
+
+      // For contiguous rows, the end offset of the current value is the start offset of the next value
+      int valueStartOffset = chunkBuffer.getInt(chunkRowId * ROW_OFFSET_SIZE);
+      chunkBuffer.position(valueStartOffset);
+      for (int i = 0; i < numValuesInChunk; i++) {
+        int valueEndOffset = getValueEndOffset(chunkRowId + i, chunkBuffer);
+        byte[] bytes = new byte[valueEndOffset - valueStartOffset];
+        chunkBuffer.get(bytes);
+        values[index++] = bytes;
+        valueStartOffset = valueEndOffset;
+      }
+      docId += numValuesInChunk;
+    }
+  }
+
   /**
    * Helper method to compute the end offset of the value in the chunk buffer.
    */
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+
+
+/**
+ * On-heap implementation of {@link PrimaryKeyStore} backed by a {@link ConcurrentHashMap}.
+ */
+@ThreadSafe
+public class ConcurrentMapPrimaryKeyStore implements PrimaryKeyStore {
+  private final ConcurrentHashMap<PrimaryKey, RecordLocation> _primaryKeyToRecordLocationMap =
+      new ConcurrentHashMap<>();
+
+  @Nullable
+  @Override
+  public RecordLocation get(PrimaryKey primaryKey) {
+    return _primaryKeyToRecordLocationMap.get(primaryKey);
+  }
+
+  @Override
+  public void compute(PrimaryKey primaryKey, UnaryOperator<RecordLocation> remappingFunction) {
+    _primaryKeyToRecordLocationMap
+        .compute(primaryKey, (key, currentRecordLocation) -> remappingFunction.apply(currentRecordLocation));
+  }
+
+  @Override
+  public void removeAll(ThreadSafeMutableRoaringBitmap validDocIds) {
+    _primaryKeyToRecordLocationMap.forEach((primaryKey, recordLocation) -> {
+      if (recordLocation.getValidDocIds() == validDocIds) {
+        // Check and remove to prevent removing the key that is just updated.
+        _primaryKeyToRecordLocationMap.remove(primaryKey, recordLocation);
+      }
+    });
+  }
+
+  @Override
+  public int size() {
+    return _primaryKeyToRecordLocationMap.size();
+  }
+
+  @Override
+  public void close() {
+    _primaryKeyToRecordLocationMap.clear();
+  }
+}
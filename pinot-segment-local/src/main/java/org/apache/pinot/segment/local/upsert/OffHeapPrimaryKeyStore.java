@@ -0,0 +1,354 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.apache.pinot.spi.utils.ByteArray;
+
+
+/**
+ * Off-heap implementation of {@link PrimaryKeyStore} backed by an open-addressing hash table with linear probing.
+ * <p>Instead of keeping the primary key and record location objects on heap, each entry stores the 128-bit Murmur3
+ * hash of the primary key and the packed record location in a fixed size slot of an off-heap buffer:
+ * <pre>
+ * | key hash high (8 bytes) | key hash low (8 bytes) | timestamp (8 bytes) | segment id (4 bytes) | doc id (4 bytes) |
+ * </pre>
+ * The segment id is a local id assigned to each segment (identified by its valid doc ids) with record locations in the
+ * store, and is released when no record location points to the segment. Segment id 0 is reserved to mark the empty
+ * slots. Deleted entries are removed with backward shift deletion, so no tombstone is needed.
+ * <p>Each segment also keeps the high 64 bits of the key hashes moved into it, so that removing a segment only probes
+ * the keys of the segment instead of scanning the whole table. The keys moved out of the segment afterwards are not
+ * removed from the list, and are skipped when removing the segment.
+ * <p>NOTE: Primary keys with the same 128-bit hash are treated as the same primary key. The probability of a hash
+ * collision is negligible (around 1e-20 for 1 billion primary keys).
+ */
+@ThreadSafe
+public class OffHeapPrimaryKeyStore implements PrimaryKeyStore {
+  private static final int SLOT_SIZE = 32;
+  private static final int KEY_HIGH_OFFSET = 0;
+  private static final int KEY_LOW_OFFSET = 8;
+  private static final int TIMESTAMP_OFFSET = 16;
+  private static final int SEGMENT_ID_OFFSET = 24;
+  private static final int DOC_ID_OFFSET = 28;
+  private static final int EMPTY_SEGMENT_ID = 0;
+
+  private static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+  private static final double LOAD_FACTOR = 0.75;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final String _description;
+
+  // Segment id to segment info, where index 0 is reserved for the empty slots
+  private final List<SegmentInfo> _segmentInfos = new ArrayList<>();
+  private final Map<ThreadSafeMutableRoaringBitmap, Integer> _validDocIdsToSegmentIdMap = new IdentityHashMap<>();
+  private final ArrayDeque<Integer> _freeSegmentIds = new ArrayDeque<>();
+
+  private PinotDataBuffer _buffer;
+  private long _capacity;
+  private long _mask;
+  private long _maxSize;
+  private int _size;
+  private boolean _closed;
+
+  public OffHeapPrimaryKeyStore(String description) {
+    this(DEFAULT_INITIAL_CAPACITY, description);
+  }
+
+  public OffHeapPrimaryKeyStore(int initialCapacity, String description) {
+    Preconditions.checkArgument(initialCapacity > 0, "Initial capacity must be positive");
+    _description = description;
+    _segmentInfos.add(null);
+    // Round up the capacity to the power of 2
+    allocate(Long.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1);
+  }
+
+  @Nullable
+  @Override
+  public synchronized RecordLocation get(PrimaryKey primaryKey) {
+    ByteBuffer keyHash = hash(primaryKey);
+    long offset = findSlot(keyHash.getLong(0), keyHash.getLong(8)) * SLOT_SIZE;
+    int segmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+    return segmentId != EMPTY_SEGMENT_ID ? getRecordLocation(offset, segmentId) : null;
+  }
+
+  @Override
+  public synchronized void compute(PrimaryKey primaryKey, UnaryOperator<RecordLocation> remappingFunction) {
+    Preconditions.checkState(!_closed, "Primary key store: %s is closed", _description);
+    ByteBuffer keyHash = hash(primaryKey);
+    long keyHigh = keyHash.getLong(0);
+    long keyLow = keyHash.getLong(8);
+    long offset = findSlot(keyHigh, keyLow) * SLOT_SIZE;
+    int currentSegmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+    RecordLocation currentRecordLocation =
+        currentSegmentId != EMPTY_SEGMENT_ID ? getRecordLocation(offset, currentSegmentId) : null;
+    RecordLocation newRecordLocation = remappingFunction.apply(currentRecordLocation);
+    Preconditions.checkState(newRecordLocation != null, "Record location cannot be null");
+    if (newRecordLocation == currentRecordLocation) {
+      return;
+    }
+
+    // Acquire the new segment id before releasing the current one to avoid reassigning the segment id for the same
+    // segment
+    int newSegmentId = acquireSegmentId(newRecordLocation);
+    if (newSegmentId != currentSegmentId) {
+      _segmentInfos.get(newSegmentId)._keyHighs.add(keyHigh);
+    }
+    if (currentSegmentId != EMPTY_SEGMENT_ID) {
+      releaseSegmentId(currentSegmentId);
+    } else {
+      _buffer.putLong(offset + KEY_HIGH_OFFSET, keyHigh);
+      _buffer.putLong(offset + KEY_LOW_OFFSET, keyLow);
+      _size++;
+    }
+    _buffer.putLong(offset + TIMESTAMP_OFFSET, newRecordLocation.getTimestamp());
+    _buffer.putInt(offset + SEGMENT_ID_OFFSET, newSegmentId);
+    _buffer.putInt(offset + DOC_ID_OFFSET, newRecordLocation.getDocId());
+
+    if (_size > _maxSize) {
+      resize();
+    }
+  }
+
+  @Override
+  public synchronized void removeAll(ThreadSafeMutableRoaringBitmap validDocIds) {
+    Integer segmentId = _validDocIdsToSegmentIdMap.get(validDocIds);
+    if (segmentId == null) {
+      return;
+    }
+    LongArrayList keyHighs = _segmentInfos.get(segmentId)._keyHighs;
+    int numKeyHighs = keyHighs.size();
+    for (int i = 0; i < numKeyHighs; i++) {
+      // NOTE: Each entry of the segment has its key hash in the list, and the same key hash appears at least as many
+      //       times as the entries sharing it, so deleting one matching entry per key hash deletes all of them
+      long keyHigh = keyHighs.getLong(i);
+      long slot = keyHigh & _mask;
+      while (true) {
+        long offset = slot * SLOT_SIZE;
+        int slotSegmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+        if (slotSegmentId == EMPTY_SEGMENT_ID) {
+          break;
+        }
+        if (slotSegmentId == segmentId && _buffer.getLong(offset + KEY_HIGH_OFFSET) == keyHigh) {
+          deleteSlot(slot);
+          _size--;
+          break;
+        }
+        slot = (slot + 1) & _mask;
+      }
+    }
+    _validDocIdsToSegmentIdMap.remove(validDocIds);
+    _segmentInfos.set(segmentId, null);
+    _freeSegmentIds.add(segmentId);
+  }
+
+  @Override
+  public synchronized int size() {
+    return _size;
+  }
+
+  @Override
+  public synchronized void close()
+      throws IOException {
+    if (!_closed) {
+      _closed = true;
+      _buffer.close();
+      _segmentInfos.clear();
+      _validDocIdsToSegmentIdMap.clear();
+      _freeSegmentIds.clear();
+    }
+  }
+
+  /**
+   * Returns the slot for the given key hash, which is either the slot of the key or the empty slot where the key should
+   * be inserted.
+   */
+  private long findSlot(long keyHigh, long keyLow) {
+    long slot = keyHigh & _mask;
+    while (true) {
+      long offset = slot * SLOT_SIZE;
+      if (_buffer.getInt(offset + SEGMENT_ID_OFFSET) == EMPTY_SEGMENT_ID || (
+          _buffer.getLong(offset + KEY_HIGH_OFFSET) == keyHigh && _buffer.getLong(offset + KEY_LOW_OFFSET) == keyLow)) {
+        return slot;
+      }
+      slot = (slot + 1) & _mask;
+    }
+  }
+
+  /**
+   * Deletes the entry in the given slot, and shifts back the following entries in the same probe sequence to fill the
+   * hole.
+   */
+  private void deleteSlot(long hole) {
+    long slot = hole;
+    while (true) {
+      slot = (slot + 1) & _mask;
+      long offset = slot * SLOT_SIZE;
+      if (_buffer.getInt(offset + SEGMENT_ID_OFFSET) == EMPTY_SEGMENT_ID) {
+        break;
+      }
+      // The entry can be moved into the hole if the hole is within [ideal slot, current slot) of the entry
+      long idealSlot = _buffer.getLong(offset + KEY_HIGH_OFFSET) & _mask;
+      if (((slot - idealSlot) & _mask) >= ((slot - hole) & _mask)) {
+        copySlot(_buffer, offset, hole * SLOT_SIZE);
+        hole = slot;
+      }
+    }
+    _buffer.putInt(hole * SLOT_SIZE + SEGMENT_ID_OFFSET, EMPTY_SEGMENT_ID);
+  }
+
+  private void resize() {
+    PinotDataBuffer oldBuffer = _buffer;
+    long oldCapacity = _capacity;
+    allocate(oldCapacity << 1);
+    for (long oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+      long oldOffset = oldSlot * SLOT_SIZE;
+      if (oldBuffer.getInt(oldOffset + SEGMENT_ID_OFFSET) != EMPTY_SEGMENT_ID) {
+        long slot = oldBuffer.getLong(oldOffset + KEY_HIGH_OFFSET) & _mask;
+        while (_buffer.getInt(slot * SLOT_SIZE + SEGMENT_ID_OFFSET) != EMPTY_SEGMENT_ID) {
+          slot = (slot + 1) & _mask;
+        }
+        for (int i = 0; i < SLOT_SIZE; i += Long.BYTES) {
+          _buffer.putLong(slot * SLOT_SIZE + i, oldBuffer.getLong(oldOffset + i));
+        }
+      }
+    }
+    try {
+      oldBuffer.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while closing the buffer for primary key store: " + _description,
+          e);
+    }
+  }
+
+  private void allocate(long capacity) {
+    _buffer = PinotDataBuffer.allocateDirect(capacity * SLOT_SIZE, PinotDataBuffer.NATIVE_ORDER, _description);
+    // NOTE: The contents of the allocated buffer are not defined, so explicitly mark all the slots empty
+    for (long slot = 0; slot < capacity; slot++) {
+      _buffer.putInt(slot * SLOT_SIZE + SEGMENT_ID_OFFSET, EMPTY_SEGMENT_ID);
+    }
+    _capacity = capacity;
+    _mask = capacity - 1;
+    _maxSize = (long) (capacity * LOAD_FACTOR);
+  }
+
+  private static void copySlot(PinotDataBuffer buffer, long fromOffset, long toOffset) {
+    for (int i = 0; i < SLOT_SIZE; i += Long.BYTES) {
+      buffer.putLong(toOffset + i, buffer.getLong(fromOffset + i));
+    }
+  }
+
+  private RecordLocation getRecordLocation(long offset, int segmentId) {
+    SegmentInfo segmentInfo = _segmentInfos.get(segmentId);
+    return new RecordLocation(segmentInfo._segmentName, _buffer.getInt(offset + DOC_ID_OFFSET),
+        _buffer.getLong(offset + TIMESTAMP_OFFSET), segmentInfo._validDocIds);
+  }
+
+  private int acquireSegmentId(RecordLocation recordLocation) {
+    ThreadSafeMutableRoaringBitmap validDocIds = recordLocation.getValidDocIds();
+    Integer segmentId = _validDocIdsToSegmentIdMap.get(validDocIds);
+    SegmentInfo segmentInfo;
+    if (segmentId != null) {
+      segmentInfo = _segmentInfos.get(segmentId);
+      Preconditions.checkState(segmentInfo._segmentName.equals(recordLocation.getSegmentName()),
+          "Valid doc ids are shared by segments: %s and %s", segmentInfo._segmentName,
+          recordLocation.getSegmentName());
+    } else {
+      segmentInfo = new SegmentInfo(recordLocation.getSegmentName(), validDocIds);
+      if (_freeSegmentIds.isEmpty()) {
+        segmentId = _segmentInfos.size();
+        _segmentInfos.add(segmentInfo);
+      } else {
+        segmentId = _freeSegmentIds.poll();
+        _segmentInfos.set(segmentId, segmentInfo);
+      }
+      _validDocIdsToSegmentIdMap.put(validDocIds, segmentId);
+    }
+    segmentInfo._numRecords++;
+    return segmentId;
+  }
+
+  private void releaseSegmentId(int segmentId) {
+    SegmentInfo segmentInfo = _segmentInfos.get(segmentId);
+    if (--segmentInfo._numRecords == 0) {
+      _validDocIdsToSegmentIdMap.remove(segmentInfo._validDocIds);
+      _segmentInfos.set(segmentId, null);
+      _freeSegmentIds.add(segmentId);
+    }
+  }
+
+  /**
+   * Returns the 128-bit hash of the primary key as a 16-byte ByteBuffer.
+   */
+  private static ByteBuffer hash(PrimaryKey primaryKey) {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    // Put a type marker and the length for variable length values to avoid collisions between different values that
+    // share the same bytes
+    for (Object value : primaryKey.getValues()) {
+      if (value instanceof Integer) {
+        hasher.putByte((byte) 0).putInt((Integer) value);
+      } else if (value instanceof Long) {
+        hasher.putByte((byte) 1).putLong((Long) value);
+      } else if (value instanceof Float) {
+        hasher.putByte((byte) 2).putFloat((Float) value);
+      } else if (value instanceof Double) {
+        hasher.putByte((byte) 3).putDouble((Double) value);
+      } else if (value instanceof ByteArray) {
+        byte[] bytes = ((ByteArray) value).getBytes();
+        hasher.putByte((byte) 4).putInt(bytes.length).putBytes(bytes);
+      } else {
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        hasher.putByte((byte) 5).putInt(bytes.length).putBytes(bytes);
+      }
+    }
+    HashCode hashCode = hasher.hash();
+    return ByteBuffer.wrap(hashCode.asBytes());
+  }
+
+  private static class SegmentInfo {
+    final String _segmentName;
+    final ThreadSafeMutableRoaringBitmap _validDocIds;
+    // High 64 bits of the hashes of the keys moved into the segment, which might have been moved out afterwards
+    final LongArrayList _keyHighs = new LongArrayList();
+    int _numRecords;
+
+    SegmentInfo(String segmentName, ThreadSafeMutableRoaringBitmap validDocIds) {
+      _segmentName = segmentName;
+      _validDocIds = validDocIds;
+    }
+  }
+}
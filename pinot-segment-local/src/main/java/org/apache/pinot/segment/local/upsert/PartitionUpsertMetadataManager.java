@@ -18,9 +18,8 @@
  */
 package org.apache.pinot.segment.local.upsert;
 
-import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.util.Iterator;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.ServerGauge;
 import org.apache.pinot.common.metrics.ServerMetrics;
@@ -60,21 +59,24 @@ public class PartitionUpsertMetadataManager {
   private final String _tableNameWithType;
   private final int _partitionId;
   private final ServerMetrics _serverMetrics;
+  private final PrimaryKeyStore _primaryKeyStore;
 
   public PartitionUpsertMetadataManager(String tableNameWithType, int partitionId, ServerMetrics serverMetrics) {
+    this(tableNameWithType, partitionId, serverMetrics, new ConcurrentMapPrimaryKeyStore());
+  }
+
+  public PartitionUpsertMetadataManager(String tableNameWithType, int partitionId, ServerMetrics serverMetrics,
+      PrimaryKeyStore primaryKeyStore) {
     _tableNameWithType = tableNameWithType;
     _partitionId = partitionId;
     _serverMetrics = serverMetrics;
+    _primaryKeyStore = primaryKeyStore;
   }
 
-  public ConcurrentHashMap<PrimaryKey, RecordLocation> getPrimaryKeyToRecordLocationMap() {
-    return _primaryKeyToRecordLocationMap;
+  public PrimaryKeyStore getPrimaryKeyStore() {
+    return _primaryKeyStore;
   }
 
-  // TODO(upset): consider an off-heap KV store to persist this index to improve the recovery speed.
-  @VisibleForTesting
-  final ConcurrentHashMap<PrimaryKey, RecordLocation> _primaryKeyToRecordLocationMap = new ConcurrentHashMap<>();
-
   /**
    * Initializes the upsert metadata for the given immutable segment, returns the valid doc ids for the segment.
    */
@@ -84,7 +86,7 @@ public class PartitionUpsertMetadataManager {
     ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
     while (recordInfoIterator.hasNext()) {
       RecordInfo recordInfo = recordInfoIterator.next();
-      _primaryKeyToRecordLocationMap.compute(recordInfo._primaryKey, (primaryKey, currentRecordLocation) -> {
+      _primaryKeyStore.compute(recordInfo._primaryKey, currentRecordLocation -> {
         if (currentRecordLocation != null) {
           // Existing primary key
 
@@ -138,7 +140,7 @@ public class PartitionUpsertMetadataManager {
     }
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _primaryKeyStore.size());
     return validDocIds;
   }
 
@@ -146,7 +148,7 @@ public class PartitionUpsertMetadataManager {
    * Updates the upsert metadata for a new consumed record in the given consuming segment.
    */
   public void updateRecord(String segmentName, RecordInfo recordInfo, ThreadSafeMutableRoaringBitmap validDocIds) {
-    _primaryKeyToRecordLocationMap.compute(recordInfo._primaryKey, (primaryKey, currentRecordLocation) -> {
+    _primaryKeyStore.compute(recordInfo._primaryKey, currentRecordLocation -> {
       if (currentRecordLocation != null) {
         // Existing primary key
 
@@ -167,7 +169,7 @@ public class PartitionUpsertMetadataManager {
     });
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _primaryKeyStore.size());
   }
 
   /**
@@ -177,18 +179,21 @@ public class PartitionUpsertMetadataManager {
   public void removeSegment(String segmentName, ThreadSafeMutableRoaringBitmap validDocIds) {
     LOGGER.info("Removing upsert metadata for segment: {}", segmentName);
 
-    if (!validDocIds.getMutableRoaringBitmap().isEmpty()) {
+    if (validDocIds.getCardinality() > 0) {
       // Remove all the record locations that point to the valid doc ids of the removed segment.
-      _primaryKeyToRecordLocationMap.forEach((primaryKey, recordLocation) -> {
-        if (recordLocation.getValidDocIds() == validDocIds) {
-          // Check and remove to prevent removing the key that is just updated.
-          _primaryKeyToRecordLocationMap.remove(primaryKey, recordLocation);
-        }
-      });
+      _primaryKeyStore.removeAll(validDocIds);
     }
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _primaryKeyStore.size());
+  }
+
+  /**
+   * Closes the primary key store to release the resources. Should be called after all the segments are removed.
+   */
+  public void close()
+      throws IOException {
+    _primaryKeyStore.close();
   }
 
   public static final class RecordInfo {
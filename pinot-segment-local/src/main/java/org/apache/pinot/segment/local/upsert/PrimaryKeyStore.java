@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.io.Closeable;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+
+
+/**
+ * The store of the primary key to record location mapping for a partition of an upsert-enabled table.
+ * <p>Implementations must be thread-safe, and the update of the record location for the same primary key must be
+ * atomic.
+ */
+public interface PrimaryKeyStore extends Closeable {
+
+  /**
+   * Returns the current record location for the given primary key, or {@code null} if the primary key does not exist.
+   */
+  @Nullable
+  RecordLocation get(PrimaryKey primaryKey);
+
+  /**
+   * Atomically computes the record location for the given primary key. The remapping function takes the current record
+   * location ({@code null} for new primary key), and returns the new record location (can be the same as the current
+   * one, but cannot be {@code null}).
+   * <p>NOTE: The remapping function is invoked while holding the lock for the primary key, so it should be short and
+   * must not access the store.
+   */
+  void compute(PrimaryKey primaryKey, UnaryOperator<RecordLocation> remappingFunction);
+
+  /**
+   * Removes all the record locations that point to the given valid doc ids (i.e. the segment being removed).
+   */
+  void removeAll(ThreadSafeMutableRoaringBitmap validDocIds);
+
+  /**
+   * Returns the number of primary keys in the store.
+   */
+  int size();
+}
@@ -36,6 +36,7 @@ import org.apache.pinot.common.utils.config.TagNameUtils;
 import org.apache.pinot.core.util.ReplicationUtils;
 import org.apache.pinot.segment.local.function.FunctionEvaluator;
 import org.apache.pinot.segment.local.function.FunctionEvaluatorFactory;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexingConfig;
@@ -414,6 +415,20 @@ public final class TableConfigUtils {
         noDictionaryColumnsSet.add(columnName);
       }
     }
+    Map<String, String> noDictionaryConfig = indexingConfig.getNoDictionaryConfig();
+    if (noDictionaryConfig != null) {
+      for (Map.Entry<String, String> entry : noDictionaryConfig.entrySet()) {
+        String columnName = entry.getKey();
+        try {
+          ChunkCompressionType.valueOf(entry.getValue());
+        } catch (Exception e) {
+          throw new IllegalStateException(
+              "Invalid compression type: " + entry.getValue() + " for column: " + columnName
+                  + " specified in the noDictionaryConfig");
+        }
+        columnNameToConfigMap.put(columnName, "No Dictionary Config");
+      }
+    }
     Set<String> bloomFilterColumns = new HashSet<>();
     if (indexingConfig.getBloomFilterColumns() != null) {
       bloomFilterColumns.addAll(indexingConfig.getBloomFilterColumns());
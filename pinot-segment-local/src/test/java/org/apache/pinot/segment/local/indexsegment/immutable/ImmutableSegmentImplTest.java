@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.indexsegment.immutable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentUtil;
+import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class ImmutableSegmentImplTest {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), ImmutableSegmentImplTest.class.getSimpleName());
+  private static final String PK_COLUMN = "pk";
+  private static final String TIME_COLUMN = "time";
+
+  private final Schema _schema =
+      new Schema.SchemaBuilder().setSchemaName("testTable").addSingleValueDimension(PK_COLUMN, DataType.INT)
+          .addDateTime(TIME_COLUMN, DataType.LONG, "1:MILLISECONDS:EPOCH", "1:MILLISECONDS").build();
+  private final TableConfig _tableConfig =
+      new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").setTimeColumnName(TIME_COLUMN).build();
+
+  @BeforeMethod
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testValidDocIdsSnapshot()
+      throws Exception {
+    ImmutableSegmentImpl segment = createSegment("testSegment", 10);
+    ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
+    validDocIds.add(new int[]{1, 3, 5, 9}, 0, 4);
+    segment.enableUpsert(mock(PartitionUpsertMetadataManager.class), validDocIds);
+    segment.persistValidDocIdsSnapshot();
+    File snapshotFile =
+        new File(segment.getSegmentMetadata().getIndexDir(), ImmutableSegmentImpl.VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    assertTrue(snapshotFile.exists());
+
+    // The snapshot should be removed once loaded
+    assertEquals(segment.loadValidDocIdsSnapshot(), MutableRoaringBitmap.bitmapOf(1, 3, 5, 9));
+    assertFalse(snapshotFile.exists());
+    assertNull(segment.loadValidDocIdsSnapshot());
+
+    // The snapshot should be removed when the snapshot is disabled
+    segment.persistValidDocIdsSnapshot();
+    assertTrue(snapshotFile.exists());
+    segment.deleteValidDocIdsSnapshot();
+    assertFalse(snapshotFile.exists());
+    assertNull(segment.loadValidDocIdsSnapshot());
+    segment.destroy();
+  }
+
+  @Test
+  public void testStaleValidDocIdsSnapshot()
+      throws Exception {
+    ImmutableSegmentImpl segment = createSegment("testSegment", 10);
+    ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
+    validDocIds.add(new int[]{1, 3, 5}, 0, 3);
+    segment.enableUpsert(mock(PartitionUpsertMetadataManager.class), validDocIds);
+    segment.persistValidDocIdsSnapshot();
+    File snapshotFile =
+        new File(segment.getSegmentMetadata().getIndexDir(), ImmutableSegmentImpl.VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    File savedSnapshotFile = new File(TEMP_DIR, ImmutableSegmentImpl.VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    FileUtils.moveFile(snapshotFile, savedSnapshotFile);
+    segment.destroy();
+
+    // The snapshot should not be applied to another version of the segment
+    FileUtils.deleteDirectory(segment.getSegmentMetadata().getIndexDir());
+    segment = createSegment("testSegment", 20);
+    snapshotFile =
+        new File(segment.getSegmentMetadata().getIndexDir(), ImmutableSegmentImpl.VALID_DOC_IDS_SNAPSHOT_FILE_NAME);
+    FileUtils.moveFile(savedSnapshotFile, snapshotFile);
+    assertNull(segment.loadValidDocIdsSnapshot());
+    assertFalse(snapshotFile.exists());
+    segment.destroy();
+  }
+
+  private ImmutableSegmentImpl createSegment(String segmentName, int numRows)
+      throws Exception {
+    List<GenericRow> rows = new ArrayList<>(numRows);
+    for (int i = 0; i < numRows; i++) {
+      GenericRow row = new GenericRow();
+      row.putValue(PK_COLUMN, i);
+      row.putValue(TIME_COLUMN, 1600000000000L + i);
+      rows.add(row);
+    }
+    File indexDir = PinotSegmentUtil.createSegment(_tableConfig, _schema, segmentName, TEMP_DIR.getAbsolutePath(),
+        new GenericRowRecordReader(rows));
+    return (ImmutableSegmentImpl) ImmutableSegmentLoader.load(indexDir, ReadMode.mmap);
+  }
+
+  @AfterMethod
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.pinot.segment.local.realtime.impl.invertedindex;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
@@ -103,4 +104,29 @@ public class RealtimeInvertedIndexReaderTest {
     assertFalse(docIds.contains(1));
     assertTrue(docIds.contains(2));
   }
+
+  @Test
+  public void testBatchAdd() {
+    RealtimeInvertedIndexReader realtimeInvertedIndexReader = new RealtimeInvertedIndexReader();
+
+    // Add document ids 0-4 with new dictionary ids in the batch
+    realtimeInvertedIndexReader.add(new int[]{0, 1, 0, 2, 1}, 0, 5);
+    assertEquals(realtimeInvertedIndexReader.getDocIds(0), MutableRoaringBitmap.bitmapOf(0, 2));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(1), MutableRoaringBitmap.bitmapOf(1, 4));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(2), MutableRoaringBitmap.bitmapOf(3));
+    assertTrue(realtimeInvertedIndexReader.getDocIds(3).isEmpty());
+
+    // Add document ids 5-8 with both existing and new dictionary ids, and only use the first 3 dictionary ids
+    realtimeInvertedIndexReader.add(new int[]{3, 0, 3, 2}, 5, 3);
+    assertEquals(realtimeInvertedIndexReader.getDocIds(0), MutableRoaringBitmap.bitmapOf(0, 2, 6));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(1), MutableRoaringBitmap.bitmapOf(1, 4));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(2), MutableRoaringBitmap.bitmapOf(3));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(3), MutableRoaringBitmap.bitmapOf(5, 7));
+
+    // Mix with single adds
+    realtimeInvertedIndexReader.add(4, 8);
+    realtimeInvertedIndexReader.add(new int[]{4, 1}, 9, 2);
+    assertEquals(realtimeInvertedIndexReader.getDocIds(1), MutableRoaringBitmap.bitmapOf(1, 4, 10));
+    assertEquals(realtimeInvertedIndexReader.getDocIds(4), MutableRoaringBitmap.bitmapOf(8, 9));
+  }
 }
@@ -28,6 +28,7 @@ import org.testng.annotations.Test;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.fail;
 
 
@@ -114,6 +115,12 @@ public class DataTypeTransformerTest {
       // Expected
     }
     assertEquals((Object[]) DataTypeTransformer.standardize(COLUMN, values, false), expectedValues);
+    // Object[] without null or nested value should be returned as is
+    assertSame(DataTypeTransformer.standardize(COLUMN, values, false), values);
+
+    // Object[] with null entry
+    values = new Object[]{"testValue1", null, "testValue2"};
+    assertEquals((Object[]) DataTypeTransformer.standardize(COLUMN, values, false), expectedValues);
 
     /**
      * Tests for nested Map/List/Object[]
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.creator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.BitSlicedRangeIndexReader;
+import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.DimensionFieldSpec;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.apache.pinot.segment.local.segment.creator.impl.V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class BitSlicedRangeIndexCreatorTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BitSlicedRangeIndexCreatorTest");
+  private static final Random RANDOM = new Random();
+  private static final String COLUMN_NAME = "testColumn";
+  private static final int NUM_DOCS = 1000;
+  private static final int NUM_QUERIES = 100;
+
+  @BeforeClass
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+  }
+
+  @Test
+  public void testDictIds()
+      throws IOException {
+    long[] ordinals = new long[NUM_DOCS];
+    testDataType(DataType.INT, ordinals, creator -> {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        int dictId = RANDOM.nextInt(100);
+        ordinals[i] = dictId;
+        creator.add(dictId);
+      }
+    });
+  }
+
+  @Test
+  public void testInt()
+      throws IOException {
+    long[] ordinals = new long[NUM_DOCS];
+    testDataType(DataType.INT, ordinals, creator -> {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        int value = RANDOM.nextInt();
+        ordinals[i] = value;
+        creator.add(value);
+      }
+    });
+  }
+
+  @Test
+  public void testLong()
+      throws IOException {
+    long[] ordinals = new long[NUM_DOCS];
+    testDataType(DataType.LONG, ordinals, creator -> {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        // Include the min and max value to cover the full unsigned range of the offsets
+        long value = i == 0 ? Long.MIN_VALUE : i == 1 ? Long.MAX_VALUE : RANDOM.nextLong();
+        ordinals[i] = value;
+        creator.add(value);
+      }
+    });
+  }
+
+  @Test
+  public void testFloat()
+      throws IOException {
+    long[] ordinals = new long[NUM_DOCS];
+    testDataType(DataType.FLOAT, ordinals, creator -> {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        float value = i % 10 == 0 ? -0.0f : (float) RANDOM.nextGaussian();
+        ordinals[i] = BitSlicedRangeIndexCreator.toOrdinal(value);
+        creator.add(value);
+      }
+    });
+  }
+
+  @Test
+  public void testDouble()
+      throws IOException {
+    long[] ordinals = new long[NUM_DOCS];
+    testDataType(DataType.DOUBLE, ordinals, creator -> {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        double value = i % 10 == 0 ? -0.0 : RANDOM.nextGaussian();
+        ordinals[i] = BitSlicedRangeIndexCreator.toOrdinal(value);
+        creator.add(value);
+      }
+    });
+  }
+
+  @Test
+  public void testOrdinal() {
+    float[] floatValues = {Float.NEGATIVE_INFINITY, -Float.MAX_VALUE, -1.5f, -Float.MIN_VALUE, 0.0f, Float.MIN_VALUE,
+        1.5f, Float.MAX_VALUE, Float.POSITIVE_INFINITY};
+    for (int i = 1; i < floatValues.length; i++) {
+      assertTrue(BitSlicedRangeIndexCreator.toOrdinal(floatValues[i - 1]) < BitSlicedRangeIndexCreator
+          .toOrdinal(floatValues[i]));
+    }
+    assertEquals(BitSlicedRangeIndexCreator.toOrdinal(-0.0f), BitSlicedRangeIndexCreator.toOrdinal(0.0f));
+
+    double[] doubleValues = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE, 0.0,
+        Double.MIN_VALUE, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+    for (int i = 1; i < doubleValues.length; i++) {
+      assertTrue(BitSlicedRangeIndexCreator.toOrdinal(doubleValues[i - 1]) < BitSlicedRangeIndexCreator
+          .toOrdinal(doubleValues[i]));
+    }
+    assertEquals(BitSlicedRangeIndexCreator.toOrdinal(-0.0), BitSlicedRangeIndexCreator.toOrdinal(0.0));
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws IOException {
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  private void testDataType(DataType dataType, long[] ordinals, ValueAdder valueAdder)
+      throws IOException {
+    FieldSpec fieldSpec = new DimensionFieldSpec(COLUMN_NAME, dataType, true);
+    try (BitSlicedRangeIndexCreator creator = new BitSlicedRangeIndexCreator(INDEX_DIR, fieldSpec, dataType,
+        NUM_DOCS)) {
+      valueAdder.addValues(creator);
+      creator.seal();
+    }
+
+    File rangeIndexFile = new File(INDEX_DIR, COLUMN_NAME + BITMAP_RANGE_INDEX_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(rangeIndexFile)) {
+      BitSlicedRangeIndexReader rangeIndexReader = new BitSlicedRangeIndexReader(dataBuffer);
+      assertEquals(rangeIndexReader.getValueType(), dataType);
+      long[] sortedOrdinals = ordinals.clone();
+      Arrays.sort(sortedOrdinals);
+
+      // Unbounded range
+      assertEquals(rangeIndexReader.getMatchingDocIds(Long.MIN_VALUE, Long.MAX_VALUE).getCardinality(), NUM_DOCS);
+
+      for (int i = 0; i < NUM_QUERIES; i++) {
+        // Bounds on existing values
+        long lower = sortedOrdinals[RANDOM.nextInt(NUM_DOCS)];
+        long upper = sortedOrdinals[RANDOM.nextInt(NUM_DOCS)];
+        checkRange(rangeIndexReader, ordinals, lower, upper);
+        checkRange(rangeIndexReader, ordinals, lower, lower);
+        checkRange(rangeIndexReader, ordinals, Long.MIN_VALUE, upper);
+        checkRange(rangeIndexReader, ordinals, lower, Long.MAX_VALUE);
+
+        // Bounds next to existing values
+        checkRange(rangeIndexReader, ordinals, lower + 1, upper - 1);
+      }
+    }
+
+    FileUtils.forceDelete(rangeIndexFile);
+  }
+
+  private void checkRange(BitSlicedRangeIndexReader rangeIndexReader, long[] ordinals, long lower, long upper) {
+    MutableRoaringBitmap expected = new MutableRoaringBitmap();
+    for (int docId = 0; docId < NUM_DOCS; docId++) {
+      if (ordinals[docId] >= lower && ordinals[docId] <= upper) {
+        expected.add(docId);
+      }
+    }
+    assertEquals(rangeIndexReader.getMatchingDocIds(lower, upper), expected);
+  }
+
+  private interface ValueAdder {
+    void addValues(BitSlicedRangeIndexCreator creator);
+  }
+}
@@ -19,10 +19,17 @@
 package org.apache.pinot.segment.local.segment.index.creator;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.creator.impl.V1Constants;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OffHeapSplitBlockBloomFilterReader;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapSplitBlockBloomFilter;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.SplitBlockBloomFilterUtils;
 import org.apache.pinot.segment.local.segment.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
@@ -73,6 +80,92 @@ public class BloomFilterCreatorTest {
     }
   }
 
+  @Test
+  public void testSplitBlockBloomFilterCreator()
+      throws Exception {
+    // Create the bloom filter
+    int cardinality = 10000;
+    String columnName = "testSplitBlockColumn";
+    try (BloomFilterCreator bloomFilterCreator = new OnHeapSplitBlockBloomFilterCreator(TEMP_DIR, columnName,
+        cardinality, new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, 0, false, true))) {
+      for (int i = 0; i < cardinality; i++) {
+        bloomFilterCreator.add(Integer.toString(i));
+      }
+      bloomFilterCreator.seal();
+    }
+
+    // Read the bloom filter
+    File bloomFilterFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile);
+        BloomFilterReader bloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, true)) {
+      Assert.assertTrue(bloomFilter instanceof OffHeapSplitBlockBloomFilterReader);
+      // No false negative
+      for (int i = 0; i < cardinality; i++) {
+        Assert.assertTrue(bloomFilter.mightContain(Integer.toString(i)));
+      }
+      // False positive rate should be close to the configured fpp
+      int numFalsePositives = 0;
+      List<String> absentValues = new ArrayList<>();
+      for (int i = cardinality; i < 2 * cardinality; i++) {
+        String value = Integer.toString(i);
+        if (bloomFilter.mightContain(value)) {
+          numFalsePositives++;
+        } else {
+          absentValues.add(value);
+        }
+      }
+      Assert.assertTrue(numFalsePositives < 2 * BloomFilterConfig.DEFAULT_FPP * cardinality);
+      // Bulk probing
+      Assert.assertFalse(bloomFilter.mightContainAny(absentValues));
+      Assert.assertTrue(bloomFilter.mightContainAny(Arrays.asList(absentValues.get(0), "0")));
+    }
+  }
+
+  @Test
+  public void testSplitBlockBloomFilterMaxSize()
+      throws Exception {
+    int cardinality = 10000;
+    String columnName = "testSplitBlockMaxSizeColumn";
+    int maxSizeInBytes = 1024;
+    try (BloomFilterCreator bloomFilterCreator = new OnHeapSplitBlockBloomFilterCreator(TEMP_DIR, columnName,
+        cardinality, new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, maxSizeInBytes, false, true))) {
+      for (int i = 0; i < cardinality; i++) {
+        bloomFilterCreator.add(Integer.toString(i));
+      }
+      bloomFilterCreator.seal();
+    }
+    File bloomFilterFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    Assert.assertEquals(bloomFilterFile.length(), OnHeapSplitBlockBloomFilterCreator.HEADER_SIZE + maxSizeInBytes);
+  }
+
+  @Test
+  public void testOnHeapSplitBlockBloomFilter() {
+    int cardinality = 1000;
+    int maxSizeInBytes = 4096;
+    OnHeapSplitBlockBloomFilter bloomFilter =
+        OnHeapSplitBlockBloomFilter.create(cardinality, BloomFilterConfig.DEFAULT_FPP, maxSizeInBytes);
+    for (int i = 0; i < cardinality; i++) {
+      bloomFilter.add(Integer.toString(i));
+    }
+
+    // Serialize and de-serialize the bloom filter
+    bloomFilter = OnHeapSplitBlockBloomFilter.fromBase64String(bloomFilter.toBase64String());
+    for (int i = 0; i < cardinality; i++) {
+      Assert.assertTrue(bloomFilter.mightContain(Integer.toString(i)));
+    }
+    int numFalsePositives = 0;
+    for (int i = cardinality; i < 2 * cardinality; i++) {
+      if (bloomFilter.mightContain(Integer.toString(i))) {
+        numFalsePositives++;
+      }
+    }
+    Assert.assertTrue(numFalsePositives < 2 * BloomFilterConfig.DEFAULT_FPP * cardinality);
+
+    // Size should be limited to the max size
+    bloomFilter = OnHeapSplitBlockBloomFilter.create(100 * cardinality, BloomFilterConfig.DEFAULT_FPP, maxSizeInBytes);
+    Assert.assertEquals(bloomFilter.getNumBlocks(), maxSizeInBytes / SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES);
+  }
+
   @AfterClass
   public void tearDown()
       throws Exception {
@@ -59,6 +59,26 @@ public class FixedByteChunkSVForwardIndexTest {
     testDouble(compressionType);
   }
 
+  @Test
+  public void testWithZstandardCompression()
+      throws Exception {
+    ChunkCompressionType compressionType = ChunkCompressionType.ZSTANDARD;
+    testInt(compressionType);
+    testLong(compressionType);
+    testFloat(compressionType);
+    testDouble(compressionType);
+  }
+
+  @Test
+  public void testWithLZ4Compression()
+      throws Exception {
+    ChunkCompressionType compressionType = ChunkCompressionType.LZ4;
+    testInt(compressionType);
+    testLong(compressionType);
+    testFloat(compressionType);
+    testDouble(compressionType);
+  }
+
   @Test
   public void testWithoutCompression()
       throws Exception {
@@ -241,6 +261,63 @@ public class FixedByteChunkSVForwardIndexTest {
     FileUtils.deleteQuietly(outFileEightByte);
   }
 
+  @Test
+  public void testReadValuesSV()
+      throws Exception {
+    long[] expected = new long[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      expected[i] = RANDOM.nextLong();
+    }
+
+    // Contiguous document ids that span across chunks, and sparse document ids
+    int numContiguousDocIds = 2 * NUM_DOCS_PER_CHUNK;
+    int[] contiguousDocIds = new int[numContiguousDocIds];
+    for (int i = 0; i < numContiguousDocIds; i++) {
+      contiguousDocIds[i] = NUM_DOCS_PER_CHUNK / 2 + i;
+    }
+    int numSparseDocIds = NUM_VALUES / 3;
+    int[] sparseDocIds = new int[numSparseDocIds];
+    for (int i = 0; i < numSparseDocIds; i++) {
+      sparseDocIds[i] = i * 3;
+    }
+
+    File outFile = new File(TEST_FILE);
+    for (ChunkCompressionType compressionType : ChunkCompressionType.values()) {
+      FileUtils.deleteQuietly(outFile);
+      try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(outFile,
+          compressionType, NUM_VALUES, NUM_DOCS_PER_CHUNK, Long.BYTES,
+          BaseChunkSVForwardIndexWriter.CURRENT_VERSION)) {
+        for (long value : expected) {
+          writer.putLong(value);
+        }
+      }
+
+      try (FixedByteChunkSVForwardIndexReader reader = new FixedByteChunkSVForwardIndexReader(
+          PinotDataBuffer.mapReadOnlyBigEndianFile(outFile), DataType.LONG);
+          BaseChunkSVForwardIndexReader.ChunkReaderContext readerContext = reader.createContext()) {
+        long[] longValues = new long[numContiguousDocIds];
+        reader.readValuesSV(contiguousDocIds, numContiguousDocIds, longValues, readerContext);
+        for (int i = 0; i < numContiguousDocIds; i++) {
+          Assert.assertEquals(longValues[i], expected[contiguousDocIds[i]]);
+        }
+
+        longValues = new long[numSparseDocIds];
+        reader.readValuesSV(sparseDocIds, numSparseDocIds, longValues, readerContext);
+        for (int i = 0; i < numSparseDocIds; i++) {
+          Assert.assertEquals(longValues[i], expected[sparseDocIds[i]]);
+        }
+
+        // Type conversion
+        double[] doubleValues = new double[numContiguousDocIds];
+        reader.readValuesSV(contiguousDocIds, numContiguousDocIds, doubleValues, readerContext);
+        for (int i = 0; i < numContiguousDocIds; i++) {
+          Assert.assertEquals(doubleValues[i], (double) expected[contiguousDocIds[i]]);
+        }
+      }
+    }
+    FileUtils.deleteQuietly(outFile);
+  }
+
   /**
    * This test ensures that the reader can read in an data file from version 1.
    */
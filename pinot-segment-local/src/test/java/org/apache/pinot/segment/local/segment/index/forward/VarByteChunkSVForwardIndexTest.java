@@ -54,6 +54,18 @@ public class VarByteChunkSVForwardIndexTest {
     test(ChunkCompressionType.SNAPPY);
   }
 
+  @Test
+  public void testWithZstandardCompression()
+      throws Exception {
+    test(ChunkCompressionType.ZSTANDARD);
+  }
+
+  @Test
+  public void testWithLZ4Compression()
+      throws Exception {
+    test(ChunkCompressionType.LZ4);
+  }
+
   @Test
   public void testWithoutCompression()
       throws Exception {
@@ -111,6 +123,15 @@ public class VarByteChunkSVForwardIndexTest {
         Assert.assertEquals(fourByteOffsetReader.getString(i, fourByteOffsetReaderContext), expected[i]);
         Assert.assertEquals(eightByteOffsetReader.getString(i, eightByteOffsetReaderContext), expected[i]);
       }
+
+      // Batch read values for contiguous document ids that span across all the chunks
+      int[] docIds = new int[NUM_ENTRIES];
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+        docIds[i] = i;
+      }
+      String[] values = new String[NUM_ENTRIES];
+      eightByteOffsetReader.readValuesSV(docIds, NUM_ENTRIES, values, eightByteOffsetReaderContext);
+      Assert.assertEquals(values, expected);
     }
 
     FileUtils.deleteQuietly(outFileFourByte);
@@ -159,26 +180,15 @@ public class VarByteChunkSVForwardIndexTest {
   @Test
   public void testVarCharWithDifferentSizes()
       throws Exception {
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 10, 1000);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 10, 1000);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 100, 1000);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 100, 1000);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 1000, 1000);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 1000, 1000);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 10000, 100);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 10000, 100);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 100000, 10);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 100000, 10);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 1000000, 10);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 1000000, 10);
-
-    testLargeVarcharHelper(ChunkCompressionType.SNAPPY, 2000000, 10);
-    testLargeVarcharHelper(ChunkCompressionType.PASS_THROUGH, 2000000, 10);
+    for (ChunkCompressionType compressionType : ChunkCompressionType.values()) {
+      testLargeVarcharHelper(compressionType, 10, 1000);
+      testLargeVarcharHelper(compressionType, 100, 1000);
+      testLargeVarcharHelper(compressionType, 1000, 1000);
+      testLargeVarcharHelper(compressionType, 10000, 100);
+      testLargeVarcharHelper(compressionType, 100000, 10);
+      testLargeVarcharHelper(compressionType, 1000000, 10);
+      testLargeVarcharHelper(compressionType, 2000000, 10);
+    }
   }
 
   private void testLargeVarcharHelper(ChunkCompressionType compressionType, int numChars, int numDocs)
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.apache.pinot.segment.local.realtime.impl.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.apache.pinot.spi.utils.ByteArray;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+
+public class OffHeapPrimaryKeyStoreTest {
+  private static final int NUM_SEGMENTS = 5;
+  private static final int NUM_KEYS = 10_000;
+  private static final int NUM_OPERATIONS = 100_000;
+  private static final Random RANDOM = new Random();
+
+  @Test
+  public void testPrimaryKeyTypes()
+      throws IOException {
+    try (OffHeapPrimaryKeyStore primaryKeyStore = new OffHeapPrimaryKeyStore(2, "testPrimaryKeyTypes")) {
+      ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
+      PrimaryKey[] primaryKeys = new PrimaryKey[]{
+          new PrimaryKey(new Object[]{1}), new PrimaryKey(new Object[]{1L}), new PrimaryKey(new Object[]{1.0f}),
+          new PrimaryKey(new Object[]{1.0}), new PrimaryKey(new Object[]{"1"}),
+          new PrimaryKey(new Object[]{new ByteArray(new byte[]{1})}), new PrimaryKey(new Object[]{"1", "2"}),
+          new PrimaryKey(new Object[]{"12"})
+      };
+      int numPrimaryKeys = primaryKeys.length;
+      for (int i = 0; i < numPrimaryKeys; i++) {
+        RecordLocation recordLocation = new RecordLocation("segment", i, i, validDocIds);
+        primaryKeyStore.compute(primaryKeys[i], currentRecordLocation -> {
+          assertNull(currentRecordLocation);
+          return recordLocation;
+        });
+      }
+      assertEquals(primaryKeyStore.size(), numPrimaryKeys);
+      for (int i = 0; i < numPrimaryKeys; i++) {
+        RecordLocation recordLocation = primaryKeyStore.get(primaryKeys[i]);
+        assertNotNull(recordLocation);
+        assertEquals(recordLocation.getSegmentName(), "segment");
+        assertEquals(recordLocation.getDocId(), i);
+        assertEquals(recordLocation.getTimestamp(), i);
+        assertSame(recordLocation.getValidDocIds(), validDocIds);
+      }
+      assertNull(primaryKeyStore.get(new PrimaryKey(new Object[]{2})));
+    }
+  }
+
+  @Test
+  public void testRandomOperations()
+      throws IOException {
+    ThreadSafeMutableRoaringBitmap[] validDocIdsArray = new ThreadSafeMutableRoaringBitmap[NUM_SEGMENTS];
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      validDocIdsArray[i] = new ThreadSafeMutableRoaringBitmap();
+    }
+    Map<PrimaryKey, RecordLocation> expectedMap = new HashMap<>();
+
+    // Start with a small capacity to cover the resize
+    try (OffHeapPrimaryKeyStore primaryKeyStore = new OffHeapPrimaryKeyStore(16, "testRandomOperations")) {
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+        int segmentIndex = RANDOM.nextInt(NUM_SEGMENTS);
+        ThreadSafeMutableRoaringBitmap validDocIds = validDocIdsArray[segmentIndex];
+        if (RANDOM.nextInt(1000) == 0) {
+          // Remove all the record locations for a segment, and replace the valid doc ids to simulate a new segment
+          primaryKeyStore.removeAll(validDocIds);
+          expectedMap.values().removeIf(recordLocation -> recordLocation.getValidDocIds() == validDocIds);
+          validDocIdsArray[segmentIndex] = new ThreadSafeMutableRoaringBitmap();
+        } else {
+          PrimaryKey primaryKey = new PrimaryKey(new Object[]{"key_" + RANDOM.nextInt(NUM_KEYS)});
+          RecordLocation recordLocation = new RecordLocation("segment_" + segmentIndex, i, RANDOM.nextLong(),
+              validDocIds);
+          primaryKeyStore.compute(primaryKey, currentRecordLocation -> {
+            checkRecordLocation(currentRecordLocation, expectedMap.get(primaryKey));
+            return recordLocation;
+          });
+          expectedMap.put(primaryKey, recordLocation);
+        }
+        assertEquals(primaryKeyStore.size(), expectedMap.size());
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+        PrimaryKey primaryKey = new PrimaryKey(new Object[]{"key_" + i});
+        checkRecordLocation(primaryKeyStore.get(primaryKey), expectedMap.get(primaryKey));
+      }
+
+      // Remove all the segments
+      for (ThreadSafeMutableRoaringBitmap validDocIds : validDocIdsArray) {
+        primaryKeyStore.removeAll(validDocIds);
+      }
+      assertEquals(primaryKeyStore.size(), 0);
+      for (int i = 0; i < NUM_KEYS; i++) {
+        assertNull(primaryKeyStore.get(new PrimaryKey(new Object[]{"key_" + i})));
+      }
+    }
+  }
+
+  private static void checkRecordLocation(RecordLocation actual, RecordLocation expected) {
+    if (expected == null) {
+      assertNull(actual);
+    } else {
+      assertNotNull(actual);
+      assertEquals(actual.getSegmentName(), expected.getSegmentName());
+      assertEquals(actual.getDocId(), expected.getDocId());
+      assertEquals(actual.getTimestamp(), expected.getTimestamp());
+      assertSame(actual.getValidDocIds(), expected.getValidDocIds());
+    }
+  }
+}
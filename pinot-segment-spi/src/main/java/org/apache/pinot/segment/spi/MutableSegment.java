@@ -19,6 +19,8 @@
 package org.apache.pinot.segment.spi;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.stream.RowMetadata;
@@ -36,6 +38,30 @@ public interface MutableSegment extends IndexSegment {
   boolean index(GenericRow row, @Nullable RowMetadata rowMetadata)
       throws IOException;
 
+  /**
+   * Indexes a batch of records into the segment with optionally provided metadata. By default, the records are indexed
+   * one by one; implementations can index them column by column instead. The records that cannot be indexed are passed
+   * to the invalid record handler together with the exception, and skipped.
+   *
+   * @param rows Records represented as {@link GenericRow}s
+   * @param rowMetadata the metadata associated with the latest message of the batch
+   * @param invalidRowHandler Handler of the records that cannot be indexed
+   * @return Whether the segment can index more records after the batch
+   */
+  default boolean index(List<GenericRow> rows, @Nullable RowMetadata rowMetadata,
+      BiConsumer<GenericRow, Exception> invalidRowHandler)
+      throws IOException {
+    boolean canTakeMore = true;
+    for (GenericRow row : rows) {
+      try {
+        canTakeMore = index(row, rowMetadata);
+      } catch (Exception e) {
+        invalidRowHandler.accept(row, e);
+      }
+    }
+    return canTakeMore;
+  }
+
   /**
    * Returns the number of records already indexed into the segment.
    *
@@ -23,7 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.index.creator.SegmentIndexCreationInfo;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.readers.GenericRow;
@@ -55,6 +57,19 @@ public interface SegmentCreator extends Closeable, Serializable {
   void indexRow(GenericRow row)
       throws IOException;
 
+  /**
+   * Adds all the values of a column from an index segment to the index. A segment should be created either row by row
+   * with {@link #indexRow(GenericRow)} or column by column with this method. Different columns can be indexed
+   * concurrently, but each column should be indexed by a single thread.
+   *
+   * @param columnName The name of the column to index
+   * @param sortedDocIds The document ids in the index segment in the order to be indexed, or null to index the
+   *                     documents in the order of the document id
+   * @param indexSegment The index segment to read the values from
+   */
+  void indexColumn(String columnName, @Nullable int[] sortedDocIds, IndexSegment indexSegment)
+      throws IOException;
+
   /**
    * Sets the name of the segment.
    *
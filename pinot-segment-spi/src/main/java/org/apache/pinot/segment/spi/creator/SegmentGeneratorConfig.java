@@ -41,6 +41,7 @@ import org.apache.pinot.segment.spi.creator.name.SimpleSegmentNameGenerator;
 import org.apache.pinot.segment.spi.index.creator.H3IndexConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexingConfig;
+import org.apache.pinot.spi.config.table.RoutingConfig;
 import org.apache.pinot.spi.config.table.SegmentPartitionConfig;
 import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
@@ -76,6 +77,7 @@ public class SegmentGeneratorConfig implements Serializable {
   private final List<String> _fstIndexCreationColumns = new ArrayList<>();
   private final List<String> _jsonIndexCreationColumns = new ArrayList<>();
   private final Map<String, H3IndexConfig> _h3IndexConfigs = new HashMap<>();
+  private final Set<String> _valueBloomFilterColumns = new HashSet<>();
   private final List<String> _columnSortOrder = new ArrayList<>();
   private List<String> _varLengthDictionaryColumns = new ArrayList<>();
   private String _inputFilePath = null;
@@ -193,6 +195,7 @@ public class SegmentGeneratorConfig implements Serializable {
       extractTextIndexColumnsFromTableConfig(tableConfig);
       extractFSTIndexColumnsFromTableConfig(tableConfig);
       extractH3IndexConfigsFromTableConfig(tableConfig);
+      extractValueBloomFilterColumnsFromTableConfig(tableConfig);
 
       _nullHandlingEnabled = indexingConfig.isNullHandlingEnabled();
     }
@@ -262,6 +265,29 @@ public class SegmentGeneratorConfig implements Serializable {
     }
   }
 
+  /**
+   * When the column value segment pruner is enabled in the routing config, the value bloom filter (compact bloom filter
+   * published into the segment ZK metadata for broker side pruning) is created for all the bloom filter columns.
+   */
+  private void extractValueBloomFilterColumnsFromTableConfig(TableConfig tableConfig) {
+    RoutingConfig routingConfig = tableConfig.getRoutingConfig();
+    if (routingConfig == null || routingConfig.getSegmentPrunerTypes() == null) {
+      return;
+    }
+    for (String segmentPrunerType : routingConfig.getSegmentPrunerTypes()) {
+      if (RoutingConfig.COLUMN_VALUE_SEGMENT_PRUNER_TYPE.equalsIgnoreCase(segmentPrunerType)) {
+        IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+        if (indexingConfig.getBloomFilterColumns() != null) {
+          _valueBloomFilterColumns.addAll(indexingConfig.getBloomFilterColumns());
+        }
+        if (indexingConfig.getBloomFilterConfigs() != null) {
+          _valueBloomFilterColumns.addAll(indexingConfig.getBloomFilterConfigs().keySet());
+        }
+        return;
+      }
+    }
+  }
+
   public Map<String, String> getCustomProperties() {
     return _customProperties;
   }
@@ -323,6 +349,15 @@ public class SegmentGeneratorConfig implements Serializable {
     return _h3IndexConfigs;
   }
 
+  public Set<String> getValueBloomFilterColumns() {
+    return _valueBloomFilterColumns;
+  }
+
+  public void setValueBloomFilterColumns(List<String> valueBloomFilterColumns) {
+    Preconditions.checkNotNull(valueBloomFilterColumns);
+    _valueBloomFilterColumns.addAll(valueBloomFilterColumns);
+  }
+
   public List<String> getColumnSortOrder() {
     return _columnSortOrder;
   }
@@ -19,6 +19,7 @@
 package org.apache.pinot.segment.spi.index.reader;
 
 import java.io.Closeable;
+import java.util.List;
 
 
 /**
@@ -37,4 +38,18 @@ public interface BloomFilterReader extends Closeable {
    * <p>This method is provided to prevent hashing the same value multiple times.
    */
   boolean mightContain(long hash1, long hash2);
+
+  /**
+   * Returns {@code true} if any of the given values might have been put in this bloom filter, {@code false} otherwise.
+   * <p>This method is provided to probe multiple values (e.g. for IN predicate) in bulk, and can be overridden for
+   * better performance.
+   */
+  default boolean mightContainAny(List<String> values) {
+    for (String value : values) {
+      if (mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -19,8 +19,10 @@
 package org.apache.pinot.segment.spi.index.reader;
 
 import java.io.Closeable;
+import java.util.Arrays;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.BytesUtils;
 
 
 /**
@@ -168,6 +170,260 @@ public interface ForwardIndexReader<T extends ForwardIndexReaderContext> extends
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Batch reads multiple INT type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * INT.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, int[] values, T context) {
+    switch (getValueType()) {
+      case INT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getInt(docIds[i], context);
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < length; i++) {
+          values[i] = (int) getLong(docIds[i], context);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < length; i++) {
+          values[i] = (int) getFloat(docIds[i], context);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < length; i++) {
+          values[i] = (int) getDouble(docIds[i], context);
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = Integer.parseInt(getString(docIds[i], context));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read INT values from stored type: " + getValueType());
+    }
+  }
+
+  /**
+   * Batch reads multiple LONG type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * LONG.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, long[] values, T context) {
+    switch (getValueType()) {
+      case INT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getInt(docIds[i], context);
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < length; i++) {
+          values[i] = getLong(docIds[i], context);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < length; i++) {
+          values[i] = (long) getFloat(docIds[i], context);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < length; i++) {
+          values[i] = (long) getDouble(docIds[i], context);
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = Long.parseLong(getString(docIds[i], context));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read LONG values from stored type: " + getValueType());
+    }
+  }
+
+  /**
+   * Batch reads multiple FLOAT type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * FLOAT.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, float[] values, T context) {
+    switch (getValueType()) {
+      case INT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getInt(docIds[i], context);
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < length; i++) {
+          values[i] = getLong(docIds[i], context);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getFloat(docIds[i], context);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < length; i++) {
+          values[i] = (float) getDouble(docIds[i], context);
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = Float.parseFloat(getString(docIds[i], context));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read FLOAT values from stored type: " + getValueType());
+    }
+  }
+
+  /**
+   * Batch reads multiple DOUBLE type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * DOUBLE.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, double[] values, T context) {
+    switch (getValueType()) {
+      case INT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getInt(docIds[i], context);
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < length; i++) {
+          values[i] = getLong(docIds[i], context);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < length; i++) {
+          values[i] = getFloat(docIds[i], context);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < length; i++) {
+          values[i] = getDouble(docIds[i], context);
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = Double.parseDouble(getString(docIds[i], context));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read DOUBLE values from stored type: " + getValueType());
+    }
+  }
+
+  /**
+   * Batch reads multiple STRING type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * STRING.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, String[] values, T context) {
+    switch (getValueType()) {
+      case INT:
+        for (int i = 0; i < length; i++) {
+          values[i] = Integer.toString(getInt(docIds[i], context));
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < length; i++) {
+          values[i] = Long.toString(getLong(docIds[i], context));
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < length; i++) {
+          values[i] = Float.toString(getFloat(docIds[i], context));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < length; i++) {
+          values[i] = Double.toString(getDouble(docIds[i], context));
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = getString(docIds[i], context);
+        }
+        break;
+      case BYTES:
+        for (int i = 0; i < length; i++) {
+          values[i] = BytesUtils.toHexString(getBytes(docIds[i], context));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read STRING values from stored type: " + getValueType());
+    }
+  }
+
+  /**
+   * Batch reads multiple BYTES type single-values at the given document ids into the passed in value buffer (the
+   * buffer size must be larger than or equal to the length). Type conversion is applied if the stored type is not
+   * BYTES.
+   * <p>NOTE: The default implementation reads the values one by one. Readers should override this method when values
+   * can be read more efficiently in batch, e.g. for a contiguous range of document ids.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesSV(int[] docIds, int length, byte[][] values, T context) {
+    switch (getValueType()) {
+      case STRING:
+        for (int i = 0; i < length; i++) {
+          values[i] = BytesUtils.toBytes(getString(docIds[i], context));
+        }
+        break;
+      case BYTES:
+        for (int i = 0; i < length; i++) {
+          values[i] = getBytes(docIds[i], context);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read BYTES values from stored type: " + getValueType());
+    }
+  }
+
   /**
    * MULTI-VALUE COLUMN RAW INDEX APIs
    * TODO: Not supported yet
@@ -242,4 +498,94 @@ public interface ForwardIndexReader<T extends ForwardIndexReaderContext> extends
   default int getStringMV(int docId, String[] valueBuffer, T context) {
     throw new UnsupportedOperationException();
   }
+
+  /**
+   * Batch reads INT type multi-values at the given document ids into the passed in value buffer (the buffer size
+   * must be larger than or equal to the length). The value buffer passed in is used as the reusable buffer to read a
+   * single multi-value entry, so its size must be enough to hold all the values for any multi-value entry.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param valueBuffer Reusable value buffer for a single multi-value entry
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesMV(int[] docIds, int length, int[] valueBuffer, int[][] values, T context) {
+    for (int i = 0; i < length; i++) {
+      int numValues = getIntMV(docIds[i], valueBuffer, context);
+      values[i] = Arrays.copyOf(valueBuffer, numValues);
+    }
+  }
+
+  /**
+   * Batch reads LONG type multi-values at the given document ids into the passed in value buffer (the buffer size
+   * must be larger than or equal to the length). The value buffer passed in is used as the reusable buffer to read a
+   * single multi-value entry, so its size must be enough to hold all the values for any multi-value entry.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param valueBuffer Reusable value buffer for a single multi-value entry
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesMV(int[] docIds, int length, long[] valueBuffer, long[][] values, T context) {
+    for (int i = 0; i < length; i++) {
+      int numValues = getLongMV(docIds[i], valueBuffer, context);
+      values[i] = Arrays.copyOf(valueBuffer, numValues);
+    }
+  }
+
+  /**
+   * Batch reads FLOAT type multi-values at the given document ids into the passed in value buffer (the buffer size
+   * must be larger than or equal to the length). The value buffer passed in is used as the reusable buffer to read a
+   * single multi-value entry, so its size must be enough to hold all the values for any multi-value entry.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param valueBuffer Reusable value buffer for a single multi-value entry
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesMV(int[] docIds, int length, float[] valueBuffer, float[][] values, T context) {
+    for (int i = 0; i < length; i++) {
+      int numValues = getFloatMV(docIds[i], valueBuffer, context);
+      values[i] = Arrays.copyOf(valueBuffer, numValues);
+    }
+  }
+
+  /**
+   * Batch reads DOUBLE type multi-values at the given document ids into the passed in value buffer (the buffer size
+   * must be larger than or equal to the length). The value buffer passed in is used as the reusable buffer to read a
+   * single multi-value entry, so its size must be enough to hold all the values for any multi-value entry.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param valueBuffer Reusable value buffer for a single multi-value entry
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesMV(int[] docIds, int length, double[] valueBuffer, double[][] values, T context) {
+    for (int i = 0; i < length; i++) {
+      int numValues = getDoubleMV(docIds[i], valueBuffer, context);
+      values[i] = Arrays.copyOf(valueBuffer, numValues);
+    }
+  }
+
+  /**
+   * Batch reads STRING type multi-values at the given document ids into the passed in value buffer (the buffer size
+   * must be larger than or equal to the length). The value buffer passed in is used as the reusable buffer to read a
+   * single multi-value entry, so its size must be enough to hold all the values for any multi-value entry.
+   *
+   * @param docIds Array containing the document ids to read
+   * @param length Number of values to read
+   * @param valueBuffer Reusable value buffer for a single multi-value entry
+   * @param values Value buffer
+   * @param context Reader context
+   */
+  default void readValuesMV(int[] docIds, int length, String[] valueBuffer, String[][] values, T context) {
+    for (int i = 0; i < length; i++) {
+      int numValues = getStringMV(docIds[i], valueBuffer, context);
+      values[i] = Arrays.copyOf(valueBuffer, numValues);
+    }
+  }
 }
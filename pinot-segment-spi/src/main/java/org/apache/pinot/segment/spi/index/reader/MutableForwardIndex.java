@@ -104,6 +104,20 @@ public interface MutableForwardIndex extends ForwardIndexReader<ForwardIndexRead
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Batch writes the dictionary ids for a single-value column into the consecutive document ids starting from the given
+   * document id.
+   *
+   * @param startDocId Document id of the first dictionary id
+   * @param dictIds Dictionary ids to write
+   * @param length Number of dictionary ids to write
+   */
+  default void setDictIds(int startDocId, int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      setDictId(startDocId + i, dictIds[i]);
+    }
+  }
+
   /**
    * Writes the dictionary ids for a multi-value column into the given document id.
    *
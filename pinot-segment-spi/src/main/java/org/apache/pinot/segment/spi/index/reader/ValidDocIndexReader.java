@@ -27,4 +27,11 @@ public interface ValidDocIndexReader {
    * Return the underlying validDoc bitmap (used in query execution)
    */
   ImmutableRoaringBitmap getValidDocBitmap();
+
+  /**
+   * Return the number of valid docs (used in segment pruning, cheaper than taking a bitmap snapshot)
+   */
+  default int getNumValidDocs() {
+    return getValidDocBitmap().getCardinality();
+  }
 }
@@ -50,6 +50,16 @@ public class StarTreeV2Metadata {
         Arrays.asList(metadataProperties.getStringArray(MetadataKey.SKIP_STAR_NODE_CREATION_FOR_DIMENSIONS)));
   }
 
+  public StarTreeV2Metadata(int numDocs, List<String> dimensionsSplitOrder,
+      Set<AggregationFunctionColumnPair> functionColumnPairs, int maxLeafRecords,
+      Set<String> skipStarNodeCreationForDimensions) {
+    _numDocs = numDocs;
+    _dimensionsSplitOrder = dimensionsSplitOrder;
+    _functionColumnPairs = functionColumnPairs;
+    _maxLeafRecords = maxLeafRecords;
+    _skipStarNodeCreationForDimensions = skipStarNodeCreationForDimensions;
+  }
+
   public int getNumDocs() {
     return _numDocs;
   }
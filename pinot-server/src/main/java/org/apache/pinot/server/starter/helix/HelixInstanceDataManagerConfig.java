@@ -70,6 +70,10 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
   // response times to suffer.
   private static final String MAX_PARALLEL_SEGMENT_BUILDS = "realtime.max.parallel.segment.builds";
 
+  // Key of the number of threads shared by all the realtime segment builds to index the columns in parallel.
+  // A value of <= 0 indicates that each segment is built on the consuming thread only.
+  private static final String REALTIME_SEGMENT_BUILD_NUM_THREADS = "realtime.segment.build.num.threads";
+
   // Key of whether to enable split commit
   private static final String ENABLE_SPLIT_COMMIT = "enable.split.commit";
   // Key of whether to enable split commit end with segment metadata files.
@@ -202,6 +206,11 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
     return _instanceDataManagerConfiguration.getProperty(MAX_PARALLEL_SEGMENT_BUILDS, 0);
   }
 
+  @Override
+  public int getRealtimeSegmentBuildNumThreads() {
+    return _instanceDataManagerConfiguration.getProperty(REALTIME_SEGMENT_BUILD_NUM_THREADS, 0);
+  }
+
   @Override
   public String getAuthToken() {
     return _instanceDataManagerConfiguration.getProperty(AUTH_TOKEN);
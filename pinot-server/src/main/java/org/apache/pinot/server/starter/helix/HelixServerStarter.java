@@ -54,6 +54,7 @@ import org.apache.pinot.common.utils.ServiceStatus.Status;
 import org.apache.pinot.common.utils.config.TagNameUtils;
 import org.apache.pinot.core.common.datatable.DataTableBuilder;
 import org.apache.pinot.core.data.manager.InstanceDataManager;
+import org.apache.pinot.core.data.manager.realtime.RealtimeConsumptionRateManager;
 import org.apache.pinot.core.query.request.context.ThreadTimer;
 import org.apache.pinot.core.transport.ListenerConfig;
 import org.apache.pinot.core.util.ListenerConfigUtil;
@@ -152,6 +153,9 @@ public class HelixServerStarter implements ServiceStartable {
     DataTableBuilder.setCurrentDataTableVersion(_serverConf
         .getProperty(Server.CONFIG_OF_CURRENT_DATA_TABLE_VERSION,
             Server.DEFAULT_CURRENT_DATA_TABLE_VERSION));
+
+    // Set the server-wide realtime consumption rate limit and back-off.
+    RealtimeConsumptionRateManager.getInstance().init(_serverConf);
   }
 
   /**
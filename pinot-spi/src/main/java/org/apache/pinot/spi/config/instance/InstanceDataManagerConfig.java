@@ -53,5 +53,7 @@ public interface InstanceDataManagerConfig {
 
   int getMaxParallelSegmentBuilds();
 
+  int getRealtimeSegmentBuildNumThreads();
+
   String getAuthToken();
 }
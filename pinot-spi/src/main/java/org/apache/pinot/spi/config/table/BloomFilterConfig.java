@@ -30,11 +30,17 @@ public class BloomFilterConfig extends BaseJsonConfig {
   private final double _fpp;
   private final int _maxSizeInBytes;
   private final boolean _loadOnHeap;
+  private final boolean _splitBlock;
+
+  public BloomFilterConfig(double fpp, int maxSizeInBytes, boolean loadOnHeap) {
+    this(fpp, maxSizeInBytes, loadOnHeap, false);
+  }
 
   @JsonCreator
   public BloomFilterConfig(@JsonProperty(value = "fpp") double fpp,
       @JsonProperty(value = "maxSizeInBytes") int maxSizeInBytes,
-      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap) {
+      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap,
+      @JsonProperty(value = "splitBlock") boolean splitBlock) {
     if (fpp != 0.0) {
       Preconditions.checkArgument(fpp > 0.0 && fpp < 1.0, "Invalid fpp (false positive probability): %s", fpp);
       _fpp = fpp;
@@ -43,6 +49,7 @@ public class BloomFilterConfig extends BaseJsonConfig {
     }
     _maxSizeInBytes = maxSizeInBytes;
     _loadOnHeap = loadOnHeap;
+    _splitBlock = splitBlock;
   }
 
   public double getFpp() {
@@ -56,4 +63,13 @@ public class BloomFilterConfig extends BaseJsonConfig {
   public boolean isLoadOnHeap() {
     return _loadOnHeap;
   }
+
+  /**
+   * Returns {@code true} if the bloom filter should use the split block format (all the bits for a value are set
+   * within a single cache-line sized block), {@code false} for the guava format.
+   * <p>Split block bloom filter is always memory-mapped, and {@link #isLoadOnHeap()} does not apply.
+   */
+  public boolean isSplitBlock() {
+    return _splitBlock;
+  }
 }
@@ -26,8 +26,12 @@ import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
 
 
 public class IndexingConfig extends BaseJsonConfig {
+  // Version 1 is the bucketed range index, version 2 is the bit-sliced range index
+  public static final int DEFAULT_RANGE_INDEX_VERSION = 1;
+
   private List<String> _invertedIndexColumns;
   private List<String> _rangeIndexColumns;
+  private int _rangeIndexVersion = DEFAULT_RANGE_INDEX_VERSION;
   private List<String> _jsonIndexColumns;
   private List<String> _h3IndexColumns;
   private boolean _autoGeneratedInvertedIndex;
@@ -75,6 +79,14 @@ public class IndexingConfig extends BaseJsonConfig {
     _rangeIndexColumns = rangeIndexColumns;
   }
 
+  public int getRangeIndexVersion() {
+    return _rangeIndexVersion;
+  }
+
+  public void setRangeIndexVersion(int rangeIndexVersion) {
+    _rangeIndexVersion = rangeIndexVersion;
+  }
+
   public List<String> getJsonIndexColumns() {
     return _jsonIndexColumns;
   }
@@ -37,14 +37,30 @@ public class QueryConfig extends BaseJsonConfig {
   // because by the time the server times out, the broker should already timed out and returned the response.
   private final Long _timeoutMs;
 
+  // Whether to cache the query results on the broker side. The cached results are invalidated when the external view
+  // or the segment metadata of the table changes. For real-time tables, the cached results also expire after the
+  // configured TTL because the consuming segments keep changing.
+  private final Boolean _resultCacheEnabled;
+
+  public QueryConfig(@Nullable Long timeoutMs) {
+    this(timeoutMs, null);
+  }
+
   @JsonCreator
-  public QueryConfig(@JsonProperty("timeoutMs") @Nullable Long timeoutMs) {
+  public QueryConfig(@JsonProperty("timeoutMs") @Nullable Long timeoutMs,
+      @JsonProperty("resultCacheEnabled") @Nullable Boolean resultCacheEnabled) {
     Preconditions.checkArgument(timeoutMs == null || timeoutMs > 0, "Invalid 'timeoutMs': %s", timeoutMs);
     _timeoutMs = timeoutMs;
+    _resultCacheEnabled = resultCacheEnabled;
   }
 
   @Nullable
   public Long getTimeoutMs() {
     return _timeoutMs;
   }
+
+  @Nullable
+  public Boolean getResultCacheEnabled() {
+    return _resultCacheEnabled;
+  }
 }
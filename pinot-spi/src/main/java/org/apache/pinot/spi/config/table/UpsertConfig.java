@@ -21,6 +21,7 @@ package org.apache.pinot.spi.config.table;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
 import org.apache.pinot.spi.config.BaseJsonConfig;
 
 
@@ -30,16 +31,46 @@ public class UpsertConfig extends BaseJsonConfig {
     FULL, PARTIAL, NONE
   }
 
+  // Type of the store for the primary key to record location mapping
+  public enum PrimaryKeyStoreType {
+    // Keeps the record locations in an on-heap concurrent map
+    ON_HEAP,
+    // Keeps the hashed primary keys and packed record locations in an off-heap open-addressing hash table
+    OFF_HEAP
+  }
+
   private final Mode _mode;
+  private final PrimaryKeyStoreType _primaryKeyStoreType;
+  private final boolean _enableSnapshot;
+
+  public UpsertConfig(Mode mode) {
+    this(mode, null, false);
+  }
 
   @JsonCreator
-  public UpsertConfig(@JsonProperty(value = "mode", required = true) Mode mode) {
+  public UpsertConfig(@JsonProperty(value = "mode", required = true) Mode mode,
+      @JsonProperty("primaryKeyStoreType") @Nullable PrimaryKeyStoreType primaryKeyStoreType,
+      @JsonProperty("enableSnapshot") boolean enableSnapshot) {
     Preconditions.checkArgument(mode != null, "Upsert mode must be configured");
     Preconditions.checkArgument(mode != Mode.PARTIAL, "Partial upsert mode is not supported");
     _mode = mode;
+    _primaryKeyStoreType = primaryKeyStoreType != null ? primaryKeyStoreType : PrimaryKeyStoreType.ON_HEAP;
+    _enableSnapshot = enableSnapshot;
   }
 
   public Mode getMode() {
     return _mode;
   }
+
+  public PrimaryKeyStoreType getPrimaryKeyStoreType() {
+    return _primaryKeyStoreType;
+  }
+
+  /**
+   * Whether to persist the valid doc ids of the immutable segments when shutting down the server, so that the upsert
+   * metadata can be restored from the snapshot on restart by only reading the primary keys of the valid docs.
+   */
+  public boolean isEnableSnapshot() {
+    return _enableSnapshot;
+  }
 }
@@ -54,6 +54,9 @@ public class StreamConfig {
 
   public static final long DEFAULT_STREAM_CONNECTION_TIMEOUT_MILLIS = 30_000;
   public static final int DEFAULT_STREAM_FETCH_TIMEOUT_MILLIS = 5_000;
+  public static final long DEFAULT_WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS = 10_000;
+  public static final int DEFAULT_NUM_DECODE_THREADS = 1;
+  public static final double CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED = -1;
 
   private static final String SIMPLE_CONSUMER_TYPE_STRING = "simple";
 
@@ -74,6 +77,12 @@ public class StreamConfig {
   private final long _flushThresholdSegmentSizeBytes;
   private final int _flushAutotuneInitialRows; // initial num rows to use for SegmentSizeBasedFlushThresholdUpdater
 
+  private final boolean _pipelinedConsumption;
+  private final int _numDecodeThreads;
+  private final double _consumptionRateLimit;
+  private final boolean _writeAheadLogEnabled;
+  private final long _writeAheadLogCheckpointIntervalMillis;
+
   private final String _groupId;
 
   private final Map<String, String> _streamConfigMap = new HashMap<>();
@@ -178,6 +187,46 @@ public class StreamConfig {
     }
     _flushAutotuneInitialRows = autotuneInitialRows > 0 ? autotuneInitialRows : DEFAULT_FLUSH_AUTOTUNE_INITIAL_ROWS;
 
+    _pipelinedConsumption =
+        Boolean.parseBoolean(streamConfigMap.get(StreamConfigProperties.PIPELINED_CONSUMPTION));
+    int numDecodeThreads = DEFAULT_NUM_DECODE_THREADS;
+    String numDecodeThreadsValue = streamConfigMap.get(StreamConfigProperties.NUM_DECODE_THREADS);
+    if (numDecodeThreadsValue != null) {
+      try {
+        numDecodeThreads = Integer.parseInt(numDecodeThreadsValue);
+      } catch (Exception e) {
+        LOGGER.warn("Invalid config {}: {}, defaulting to: {}", StreamConfigProperties.NUM_DECODE_THREADS,
+            numDecodeThreadsValue, DEFAULT_NUM_DECODE_THREADS);
+      }
+    }
+    _numDecodeThreads = numDecodeThreads > 0 ? numDecodeThreads : DEFAULT_NUM_DECODE_THREADS;
+    double consumptionRateLimit = CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED;
+    String consumptionRateLimitValue = streamConfigMap.get(StreamConfigProperties.CONSUMPTION_RATE_LIMIT);
+    if (consumptionRateLimitValue != null) {
+      try {
+        consumptionRateLimit = Double.parseDouble(consumptionRateLimitValue);
+      } catch (Exception e) {
+        LOGGER.warn("Invalid config {}: {}, ignoring it", StreamConfigProperties.CONSUMPTION_RATE_LIMIT,
+            consumptionRateLimitValue);
+      }
+    }
+    _consumptionRateLimit = consumptionRateLimit > 0 ? consumptionRateLimit : CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED;
+
+    _writeAheadLogEnabled = Boolean.parseBoolean(streamConfigMap.get(StreamConfigProperties.WRITE_AHEAD_LOG_ENABLED));
+    long writeAheadLogCheckpointIntervalMillis = DEFAULT_WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS;
+    String checkpointIntervalValue =
+        streamConfigMap.get(StreamConfigProperties.WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS);
+    if (checkpointIntervalValue != null) {
+      try {
+        writeAheadLogCheckpointIntervalMillis = Long.parseLong(checkpointIntervalValue);
+      } catch (Exception e) {
+        LOGGER.warn("Invalid config {}: {}, defaulting to: {}",
+            StreamConfigProperties.WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS, checkpointIntervalValue,
+            DEFAULT_WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS);
+      }
+    }
+    _writeAheadLogCheckpointIntervalMillis = writeAheadLogCheckpointIntervalMillis;
+
     String groupIdKey = StreamConfigProperties.constructStreamProperty(_type, StreamConfigProperties.GROUP_ID);
     _groupId = streamConfigMap.get(groupIdKey);
 
@@ -313,6 +362,30 @@ public class StreamConfig {
     return _flushAutotuneInitialRows;
   }
 
+  public boolean isPipelinedConsumption() {
+    return _pipelinedConsumption;
+  }
+
+  public int getNumDecodeThreads() {
+    return _numDecodeThreads;
+  }
+
+  /**
+   * Returns the maximum number of messages per second consumed for the table on each server, or
+   * {@link #CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED} if not limited.
+   */
+  public double getConsumptionRateLimit() {
+    return _consumptionRateLimit;
+  }
+
+  public boolean isWriteAheadLogEnabled() {
+    return _writeAheadLogEnabled;
+  }
+
+  public long getWriteAheadLogCheckpointIntervalMillis() {
+    return _writeAheadLogCheckpointIntervalMillis;
+  }
+
   public String getGroupId() {
     return _groupId;
   }
@@ -332,7 +405,11 @@ public class StreamConfig {
         + _offsetCriteria + '\'' + ", _connectionTimeoutMillis=" + _connectionTimeoutMillis + ", _fetchTimeoutMillis="
         + _fetchTimeoutMillis + ", _flushThresholdRows=" + _flushThresholdRows + ", _flushThresholdTimeMillis="
         + _flushThresholdTimeMillis + ", _flushSegmentDesiredSizeBytes=" + _flushThresholdSegmentSizeBytes
-        + ", _flushAutotuneInitialRows=" + _flushAutotuneInitialRows + ", _decoderClass='" + _decoderClass + '\''
+        + ", _flushAutotuneInitialRows=" + _flushAutotuneInitialRows + ", _pipelinedConsumption="
+        + _pipelinedConsumption + ", _numDecodeThreads=" + _numDecodeThreads + ", _consumptionRateLimit="
+        + _consumptionRateLimit + ", _writeAheadLogEnabled=" + _writeAheadLogEnabled
+        + ", _writeAheadLogCheckpointIntervalMillis=" + _writeAheadLogCheckpointIntervalMillis + ", _decoderClass='"
+        + _decoderClass + '\''
         + ", _decoderProperties=" + _decoderProperties + ", _groupId='" + _groupId + ", _tableNameWithType='"
         + _tableNameWithType + '}';
   }
@@ -354,7 +431,13 @@ public class StreamConfig {
         .isEqual(_flushThresholdRows, that._flushThresholdRows) && EqualityUtils
         .isEqual(_flushThresholdTimeMillis, that._flushThresholdTimeMillis) && EqualityUtils
         .isEqual(_flushThresholdSegmentSizeBytes, that._flushThresholdSegmentSizeBytes) && EqualityUtils
-        .isEqual(_flushAutotuneInitialRows, that._flushAutotuneInitialRows) && EqualityUtils.isEqual(_type, that._type)
+        .isEqual(_flushAutotuneInitialRows, that._flushAutotuneInitialRows) && EqualityUtils
+        .isEqual(_pipelinedConsumption, that._pipelinedConsumption) && EqualityUtils
+        .isEqual(_numDecodeThreads, that._numDecodeThreads) && EqualityUtils
+        .isEqual(_consumptionRateLimit, that._consumptionRateLimit) && EqualityUtils
+        .isEqual(_writeAheadLogEnabled, that._writeAheadLogEnabled) && EqualityUtils
+        .isEqual(_writeAheadLogCheckpointIntervalMillis, that._writeAheadLogCheckpointIntervalMillis) && EqualityUtils
+        .isEqual(_type, that._type)
         && EqualityUtils.isEqual(_topicName, that._topicName) && EqualityUtils
         .isEqual(_consumerTypes, that._consumerTypes) && EqualityUtils
         .isEqual(_consumerFactoryClassName, that._consumerFactoryClassName) && EqualityUtils
@@ -377,6 +460,11 @@ public class StreamConfig {
     result = EqualityUtils.hashCodeOf(result, _flushThresholdTimeMillis);
     result = EqualityUtils.hashCodeOf(result, _flushThresholdSegmentSizeBytes);
     result = EqualityUtils.hashCodeOf(result, _flushAutotuneInitialRows);
+    result = EqualityUtils.hashCodeOf(result, _pipelinedConsumption);
+    result = EqualityUtils.hashCodeOf(result, _numDecodeThreads);
+    result = EqualityUtils.hashCodeOf(result, _consumptionRateLimit);
+    result = EqualityUtils.hashCodeOf(result, _writeAheadLogEnabled);
+    result = EqualityUtils.hashCodeOf(result, _writeAheadLogCheckpointIntervalMillis);
     result = EqualityUtils.hashCodeOf(result, _decoderClass);
     result = EqualityUtils.hashCodeOf(result, _decoderProperties);
     result = EqualityUtils.hashCodeOf(result, _groupId);
@@ -103,6 +103,36 @@ public class StreamConfigProperties {
   // Time threshold that controller will wait for the segment to be built by the server
   public static final String SEGMENT_COMMIT_TIMEOUT_SECONDS = "realtime.segment.commit.timeoutSeconds";
 
+  /**
+   * Whether LLC consuming segments fetch the next message batch and decode the messages on separate threads while the
+   * consuming thread indexes the current batch. Disabled by default.
+   */
+  public static final String PIPELINED_CONSUMPTION = "realtime.segment.consumption.pipelined";
+
+  /**
+   * Number of threads decoding and transforming each message batch of a stream partition with the pipelined
+   * consumption. The messages are still indexed in the stream order by the consuming thread. Defaults to 1.
+   */
+  public static final String NUM_DECODE_THREADS = "realtime.segment.consumption.decode.threads";
+
+  /**
+   * Maximum number of messages per second consumed for the table on each server, shared by all the consuming segments
+   * of the table on the server. Not limited by default.
+   */
+  public static final String CONSUMPTION_RATE_LIMIT = "realtime.segment.consumption.rate.limit";
+
+  /**
+   * Whether LLC consuming segments log the indexed records into a local write-ahead log, so that they can be recovered
+   * from the local disk instead of re-consuming the stream after a server restart. Disabled by default.
+   */
+  public static final String WRITE_AHEAD_LOG_ENABLED = "realtime.segment.wal.enabled";
+
+  /**
+   * Minimum interval between the checkpoints of the write-ahead log, i.e. the maximum amount of consumption to be
+   * repeated after a server restart.
+   */
+  public static final String WRITE_AHEAD_LOG_CHECKPOINT_INTERVAL_MILLIS = "realtime.segment.wal.checkpoint.interval.ms";
+
   /**
    * Helper method to create a stream specific property
    */
@@ -183,6 +183,16 @@ public class CommonConstants {
     public static final String CONFIG_OF_BROKER_GROUPBY_TRIM_THRESHOLD = "pinot.broker.groupby.trim.threshold";
     public static final int DEFAULT_BROKER_GROUPBY_TRIM_THRESHOLD = 1_000_000;
 
+    // Broker-side query result cache, only used for the tables with result cache enabled in the table query config
+    public static final String CONFIG_OF_QUERY_RESULT_CACHE_MAX_SIZE_BYTES =
+        "pinot.broker.query.result.cache.max.size.bytes";
+    public static final long DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE_BYTES = 100 * 1024 * 1024;
+    // TTL of the cached results for queries on real-time tables, where the consuming segments keep changing without
+    // triggering the invalidation. Non-positive value disables the result cache for real-time tables.
+    public static final String CONFIG_OF_QUERY_RESULT_CACHE_CONSUMING_TTL_MS =
+        "pinot.broker.query.result.cache.consuming.ttl.ms";
+    public static final long DEFAULT_QUERY_RESULT_CACHE_CONSUMING_TTL_MS = 10_000L;
+
     public static final String BROKER_TLS_PREFIX = "pinot.broker.tls";
     public static final String BROKER_NETTYTLS_ENABLED = "pinot.broker.nettytls.enabled";
 
@@ -198,7 +208,11 @@ public class CommonConstants {
         public static final String PRESERVE_TYPE = "preserveType";
         public static final String RESPONSE_FORMAT = "responseFormat";
         public static final String GROUP_BY_MODE = "groupByMode";
+        public static final String PARTITIONED_GROUP_BY_COMBINE = "partitionedGroupByCombine";
         public static final String SKIP_UPSERT = "skipUpsert";
+        public static final String SKIP_RESULT_CACHE = "skipResultCache";
+        public static final String STREAMING_CHUNK_SIZE = "streamingChunkSize";
+        public static final String MAX_DOCS_PER_CALL = "maxDocsPerCall";
       }
     }
   }
@@ -344,6 +358,16 @@ public class CommonConstants {
 
     public static final String CONFIG_OF_CURRENT_DATA_TABLE_VERSION = "pinot.server.instance.currentDataTableVersion";
     public static final int DEFAULT_CURRENT_DATA_TABLE_VERSION = 3;
+
+    // Maximum number of messages per second consumed by all the consuming segments on the server, not limited if not
+    // positive
+    public static final String CONFIG_OF_CONSUMPTION_RATE_LIMIT = "pinot.server.consumption.rate.limit";
+    public static final double DEFAULT_CONSUMPTION_RATE_LIMIT = -1;
+    // The configured consumption rate limits are scaled down when the average query scheduler wait time goes above the
+    // threshold, and scaled back up when it recovers. Back-off is disabled if the threshold is not positive.
+    public static final String CONFIG_OF_CONSUMPTION_BACKOFF_SCHEDULER_WAIT_THRESHOLD_MS =
+        "pinot.server.consumption.backoff.schedulerWaitThresholdMs";
+    public static final long DEFAULT_CONSUMPTION_BACKOFF_SCHEDULER_WAIT_THRESHOLD_MS = 100L;
   }
 
   public static class Controller {
@@ -433,6 +457,7 @@ public class CommonConstants {
     public static final String FLUSH_THRESHOLD_SIZE = "segment.flush.threshold.size";
     public static final String FLUSH_THRESHOLD_TIME = "segment.flush.threshold.time";
     public static final String PARTITION_METADATA = "segment.partition.metadata";
+    public static final String COLUMN_VALUE_METADATA = "segment.column.value.metadata";
     /**
      * This field is used for parallel push protection to lock the segment globally.
      * We put the segment upload start timestamp so that if the previous push failed without unlock the segment, the
@@ -21,6 +21,8 @@ package org.apache.pinot.spi.config.table;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 
@@ -30,6 +32,12 @@ public class UpsertConfigTest {
   public void testUpsertConfig() {
     UpsertConfig upsertConfig = new UpsertConfig(UpsertConfig.Mode.FULL);
     assertEquals(upsertConfig.getMode(), UpsertConfig.Mode.FULL);
+    assertEquals(upsertConfig.getPrimaryKeyStoreType(), UpsertConfig.PrimaryKeyStoreType.ON_HEAP);
+    assertFalse(upsertConfig.isEnableSnapshot());
+
+    upsertConfig = new UpsertConfig(UpsertConfig.Mode.FULL, UpsertConfig.PrimaryKeyStoreType.OFF_HEAP, true);
+    assertEquals(upsertConfig.getPrimaryKeyStoreType(), UpsertConfig.PrimaryKeyStoreType.OFF_HEAP);
+    assertTrue(upsertConfig.isEnableSnapshot());
 
     // Test illegal arguments
     try {